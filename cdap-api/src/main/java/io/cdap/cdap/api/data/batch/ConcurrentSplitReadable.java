@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.api.data.batch;
+
+import io.cdap.cdap.api.annotation.Beta;
+
+/**
+ * Marker interface for a {@link BatchReadable} whose split readers can be created and read from multiple threads
+ * at the same time, as long as the dataset is not modified while they are being read. Datasets that scan the
+ * splits of a {@link BatchReadable} in parallel only do so if it implements this interface, and read the splits
+ * one after another otherwise.
+ */
+@Beta
+public interface ConcurrentSplitReadable {
+}
@@ -127,6 +127,23 @@ public class FileSetProperties {
   @Beta
   public static final String PROPERTY_FILES_GROUP = "dataset.files.group";
 
+  /**
+   * The maximum size in bytes of a local disk cache for the files read from the file set. If this is set to a
+   * positive value, files that are not larger than the cache are copied to local disk when they are opened
+   * for reading, and subsequent reads of the same version of the file are served from local disk. This is
+   * useful for file sets with many small files that are read repeatedly. By default, there is no cache.
+   */
+  @Beta
+  public static final String PROPERTY_FILES_READ_CACHE_SIZE = "dataset.files.read.cache.size";
+
+  /**
+   * The number of input locations to load into the read cache in the background, after one of the input
+   * locations is opened for reading. Only has an effect if {@link #PROPERTY_FILES_READ_CACHE_SIZE} is set.
+   * By default, no locations are prefetched.
+   */
+  @Beta
+  public static final String PROPERTY_FILES_READ_PREFETCH = "dataset.files.read.prefetch";
+
   public static Builder builder() {
     return new Builder();
   }
@@ -261,6 +278,24 @@ public class FileSetProperties {
     return properties.get(PROPERTY_FILES_GROUP);
   }
 
+  /**
+   * @return the maximum size in bytes of the read cache, or 0 if there is no read cache
+   */
+  @Beta
+  public static long getReadCacheSize(Map<String, String> properties) {
+    String size = properties.get(PROPERTY_FILES_READ_CACHE_SIZE);
+    return size == null ? 0L : Long.parseLong(size);
+  }
+
+  /**
+   * @return the number of input locations to prefetch into the read cache
+   */
+  @Beta
+  public static int getReadPrefetch(Map<String, String> properties) {
+    String prefetch = properties.get(PROPERTY_FILES_READ_PREFETCH);
+    return prefetch == null ? 0 : Integer.parseInt(prefetch);
+  }
+
   /**
    * @return the Hive table properties configured in the properties
    */
@@ -486,5 +521,23 @@ public class FileSetProperties {
       add(PROPERTY_FILES_GROUP, group);
       return this;
     }
+
+    /**
+     * Set the maximum size in bytes of the local disk cache for files read from the file set
+     */
+    @Beta
+    public Builder setReadCacheSize(long bytes) {
+      add(PROPERTY_FILES_READ_CACHE_SIZE, String.valueOf(bytes));
+      return this;
+    }
+
+    /**
+     * Set the number of input locations to prefetch into the read cache
+     */
+    @Beta
+    public Builder setReadPrefetch(int count) {
+      add(PROPERTY_FILES_READ_PREFETCH, String.valueOf(count));
+      return this;
+    }
   }
 }
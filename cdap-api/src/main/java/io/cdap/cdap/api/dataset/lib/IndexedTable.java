@@ -38,8 +38,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -129,6 +132,8 @@ public class IndexedTable extends AbstractDataset implements Table {
   private static final byte[] IDX_COL = {'r'};
   private static final byte DELIMITER_BYTE = 0;
   private static final byte[] KEY_DELIMITER = new byte[] { DELIMITER_BYTE };
+  // number of data rows that index scans read with a single multi-get
+  private static final int INDEX_LOOKUP_BATCH_SIZE = 100;
 
   private final boolean hasColumnWithDelimiter;
   // the two underlying tables
@@ -250,11 +255,25 @@ public class IndexedTable extends AbstractDataset implements Table {
    */
   @ReadOnly
   public Scanner readByIndex(byte[] column, byte[] value) {
+    return readByIndex(column, value, null);
+  }
+
+  /**
+   * Reads the given columns of the table rows by the given secondary index key.  If no rows are indexed by the given
+   * key, then a {@link io.cdap.cdap.api.dataset.table.Scanner} with no results will be returned.
+   *
+   * @param columns the columns to read from the data rows. {@code null} means all columns
+   * @return a Scanner returning rows from the data table, whose stored value for the given column matches the
+   * given value.
+   * @throws java.lang.IllegalArgumentException if the given column is not configured for indexing.
+   */
+  @ReadOnly
+  public Scanner readByIndex(byte[] column, byte[] value, @Nullable byte[][] columns) {
     assertIndexedColumn(column);
     byte[] rowKeyPrefix = Bytes.concat(keyPrefix, column, KEY_DELIMITER, value, KEY_DELIMITER);
     byte[] stopRow = Bytes.stopKeyForPrefix(rowKeyPrefix);
     Scanner indexScan = index.scan(rowKeyPrefix, stopRow);
-    return new IndexScanner(indexScan, column, value);
+    return new IndexScanner(indexScan, column, columns, value);
   }
 
   /**
@@ -272,6 +291,27 @@ public class IndexedTable extends AbstractDataset implements Table {
    */
   @ReadOnly
   public Scanner scanByIndex(byte[] column, @Nullable byte[] startValue, @Nullable byte[] endValue) {
+    return scanByIndex(column, startValue, endValue, null);
+  }
+
+  /**
+   * Reads the given columns of the table rows within the given secondary index key range. If no rows are indexed,
+   * falling within the given range, then a {@link io.cdap.cdap.api.dataset.table.Scanner} with no results will be
+   * returned.
+   *
+   * @param column the column to use for the index lookup
+   * @param startValue the inclusive start of the range for which rows must fall within to be returned in the scan.
+   *                   {@code null} means start from first row of the table
+   * @param endValue the exclusive end of the range for which rows must fall within to be returned in the scan
+   *                 {@code null} means end with the last row of the table
+   * @param columns the columns to read from the data rows. {@code null} means all columns
+   * @return a Scanner returning rows from the data table, whose stored value for the given column is within the the
+   *         given range.
+   * @throws java.lang.IllegalArgumentException if the given column is not configured for indexing.
+   */
+  @ReadOnly
+  public Scanner scanByIndex(byte[] column, @Nullable byte[] startValue, @Nullable byte[] endValue,
+                             @Nullable byte[][] columns) {
     assertIndexedColumn(column);
     // KEY_DELIMITER is not used at the end of the rowKeys, because they are used for a range scan,
     // instead of a fixed-match lookup
@@ -280,7 +320,7 @@ public class IndexedTable extends AbstractDataset implements Table {
     byte[] stopRow = endValue == null ? Bytes.stopKeyForPrefix(Bytes.concat(keyPrefix, column, KEY_DELIMITER)) :
       Bytes.concat(keyPrefix, column, KEY_DELIMITER, endValue);
     Scanner indexScan = index.scan(startRow, stopRow);
-    return new IndexRangeScanner(indexScan, column, startValue, endValue);
+    return new IndexRangeScanner(indexScan, column, columns, startValue, endValue);
   }
 
   private void assertIndexedColumn(byte[] column) {
@@ -302,34 +342,95 @@ public class IndexedTable extends AbstractDataset implements Table {
     // add a new index ref unless same value already exists
     byte[] dataRow = put.getRow();
     // find which values need to be indexed
-    Map<byte[], byte[]> putColumns = put.getValues();
-    Set<byte[]> colsToIndex = new TreeSet<>(Bytes.BYTES_COMPARATOR);
-    for (Map.Entry<byte[], byte[]> putEntry : putColumns.entrySet()) {
-      if (indexedColumns.contains(putEntry.getKey())) {
-        colsToIndex.add(putEntry.getKey());
-      }
-    }
+    Set<byte[]> colsToIndex = getColumnsToIndex(put);
 
     if (!colsToIndex.isEmpty()) {
       // first read the existing indexed values to find which have changed and need to be updated
       Row existingRow = table.get(dataRow, colsToIndex.toArray(new byte[colsToIndex.size()][]));
-      for (Map.Entry<byte[], byte[]> entry : existingRow.getColumns().entrySet()) {
-        if (!Arrays.equals(entry.getValue(), putColumns.get(entry.getKey()))) {
-          index.delete(createIndexKey(dataRow, entry.getKey(), entry.getValue()), IDX_COL);
-        } else {
-          // value already indexed
-          colsToIndex.remove(entry.getKey());
+      updateIndex(put, colsToIndex, existingRow);
+    }
+
+    // store the data row
+    table.put(put);
+  }
+
+  /**
+   * Stores multiple rows. This is the same as calling {@link #put(Put)} for each of the puts, except that the existing
+   * indexed values of all the rows are read with one batched read on the data table.
+   *
+   * @param puts the put operations to store
+   */
+  @ReadWrite
+  public void put(List<Put> puts) {
+    // The same row in more than one put would need to see the index updates of the previous put
+    Set<byte[]> rows = new TreeSet<>(Bytes.BYTES_COMPARATOR);
+    for (Put put : puts) {
+      if (!rows.add(put.getRow())) {
+        for (Put p : puts) {
+          put(p);
         }
+        return;
       }
+    }
 
-      // add new index entries for all values that have changed or did not exist
-      for (byte[] col : colsToIndex) {
-        index.put(createIndexKey(dataRow, col, putColumns.get(col)), IDX_COL, dataRow);
+    List<Put> indexedPuts = new ArrayList<>();
+    List<Set<byte[]>> putIndexedColumns = new ArrayList<>();
+    List<Get> gets = new ArrayList<>();
+    for (Put put : puts) {
+      Set<byte[]> colsToIndex = getColumnsToIndex(put);
+      if (!colsToIndex.isEmpty()) {
+        indexedPuts.add(put);
+        putIndexedColumns.add(colsToIndex);
+        gets.add(new Get(put.getRow(), colsToIndex));
       }
     }
 
-    // store the data row
-    table.put(put);
+    if (!gets.isEmpty()) {
+      // read the existing indexed values of all the rows at once
+      List<Row> existingRows = table.get(gets);
+      for (int i = 0; i < indexedPuts.size(); i++) {
+        updateIndex(indexedPuts.get(i), putIndexedColumns.get(i), existingRows.get(i));
+      }
+    }
+
+    // store the data rows
+    for (Put put : puts) {
+      table.put(put);
+    }
+  }
+
+  /**
+   * Returns the indexed columns written by the given put.
+   */
+  private Set<byte[]> getColumnsToIndex(Put put) {
+    Set<byte[]> colsToIndex = new TreeSet<>(Bytes.BYTES_COMPARATOR);
+    for (byte[] column : put.getValues().keySet()) {
+      if (indexedColumns.contains(column)) {
+        colsToIndex.add(column);
+      }
+    }
+    return colsToIndex;
+  }
+
+  /**
+   * Updates the index entries for the given put, based on the existing indexed values of the row.
+   */
+  private void updateIndex(Put put, Set<byte[]> colsToIndex, Row existingRow) {
+    byte[] dataRow = put.getRow();
+    Map<byte[], byte[]> putColumns = put.getValues();
+    for (Map.Entry<byte[], byte[]> entry : existingRow.getColumns().entrySet()) {
+      if (!Arrays.equals(entry.getValue(), putColumns.get(entry.getKey()))) {
+        index.delete(createIndexKey(dataRow, entry.getKey(), entry.getValue()), IDX_COL);
+      } else {
+        // value already indexed
+        colsToIndex.remove(entry.getKey());
+      }
+    }
+
+    // add new index entries for all values that have changed or did not exist
+    for (byte[] col : colsToIndex) {
+      index.put(createIndexKey(dataRow, col, putColumns.get(col)), IDX_COL, dataRow);
+    }
   }
 
   private byte[] createIndexKey(byte[] row, byte[] column, byte[] value) {
@@ -616,6 +717,36 @@ public class IndexedTable extends AbstractDataset implements Table {
     return table.scan(scan);
   }
 
+  /**
+   * Scans the table by reading splits of the given range concurrently. This is faster than
+   * {@link #scan(byte[], byte[])} for aggregating over large ranges, but the rows are returned in no particular
+   * order. The table must not be modified while the returned scanner is open, and the scanner must be closed
+   * once it is no longer needed. The splits are only read concurrently if the underlying table is a
+   * {@link io.cdap.cdap.api.data.batch.ConcurrentSplitReadable}, otherwise they are read one after another.
+   *
+   * @param startRow start row inclusive. {@code null} means start from first row of the table
+   * @param stopRow stop row exclusive. {@code null} means scan all rows to the end of the table
+   * @param parallelism the maximum number of splits to read concurrently
+   * @return a {@link Scanner} over the rows of the range
+   */
+  @ReadOnly
+  public Scanner parallelScan(@Nullable byte[] startRow, @Nullable byte[] stopRow, int parallelism) {
+    CloseableIterator<Row> rows = new ParallelSplitIterator<>(table, table.getSplits(parallelism, startRow, stopRow),
+                                                              (key, row) -> row, parallelism, table);
+    return new Scanner() {
+      @Nullable
+      @Override
+      public Row next() {
+        return rows.hasNext() ? rows.next() : null;
+      }
+
+      @Override
+      public void close() {
+        rows.close();
+      }
+    };
+  }
+
   /* BatchReadable implementation */
 
   @Override
@@ -663,10 +794,33 @@ public class IndexedTable extends AbstractDataset implements Table {
     // scanner over index table
     private final Scanner baseScanner;
     private final byte[] column;
-
-    AbstractIndexScanner(Scanner baseScanner, byte[] column) {
+    // columns to read from the data rows, or null to read all columns
+    private final byte[][] readColumns;
+    // whether the indexed column is only read to verify the index entries, and must be removed from the rows
+    private final boolean removeIndexedColumn;
+    // data rows that were read from the table but not returned yet
+    private final Deque<Row> rows = new ArrayDeque<>();
+    private boolean indexExhausted;
+
+    AbstractIndexScanner(Scanner baseScanner, byte[] column, @Nullable byte[][] columns) {
       this.baseScanner = baseScanner;
       this.column = column;
+      // the indexed column must be read to verify the index entries, even if it is not one of the requested columns
+      boolean readIndexedColumn = hasColumnWithDelimiter && columns != null;
+      if (readIndexedColumn) {
+        for (byte[] col : columns) {
+          if (Bytes.equals(col, column)) {
+            readIndexedColumn = false;
+          }
+        }
+      }
+      if (readIndexedColumn) {
+        this.readColumns = Arrays.copyOf(columns, columns.length + 1);
+        this.readColumns[columns.length] = column;
+      } else {
+        this.readColumns = columns;
+      }
+      this.removeIndexedColumn = readIndexedColumn;
     }
 
     /**
@@ -680,9 +834,26 @@ public class IndexedTable extends AbstractDataset implements Table {
     @Nullable
     @Override
     public Row next() {
-      // TODO: retrieve results in batches to minimize RPC overhead (requires multi-get support in table)
-      // keep going until we hit a non-null, non-empty data row, or we exhaust the index
-      for (Row indexRow = baseScanner.next(); indexRow != null; indexRow = baseScanner.next()) {
+      // keep going until we have a data row, or we exhaust the index
+      while (rows.isEmpty() && !indexExhausted) {
+        readRows();
+      }
+      return rows.poll();
+    }
+
+    /**
+     * Reads the data rows for the next batch of matching index rows with a single multi-get.
+     */
+    private void readRows() {
+      List<Get> gets = new ArrayList<>();
+      List<byte[]> columnValues = new ArrayList<>();
+      while (gets.size() < INDEX_LOOKUP_BATCH_SIZE) {
+        Row indexRow = baseScanner.next();
+        if (indexRow == null) {
+          // end of index
+          indexExhausted = true;
+          break;
+        }
         byte[] rowkey = indexRow.get(IDX_COL);
         if (rowkey == null) {
           LOG.warn("Row of Indexed table '{}' is missing index column. Row key: {}", getName(), indexRow.getRow());
@@ -694,18 +865,31 @@ public class IndexedTable extends AbstractDataset implements Table {
         // Verify that datarow matches the expected row key to avoid issues with column name or value
         // containing the delimiter used. This is a sufficient check, as long as columns don't contain the null byte.
         if (matches(columnValue)) {
-          Row row = table.get(rowkey);
-          // If a column has null byte (the key delimiter) in it, then we need to check against the data row's column
-          // to be sure this row isn't a false positive in the scan.
-          // For reference, take a look at IndexedTableTest#testIndexKeyDelimiterAmbiguity
-          if (hasColumnWithDelimiter && !Bytes.equals(row.get(column), columnValue)) {
-            continue;
-          }
-          return row;
+          gets.add(readColumns == null ? new Get(rowkey) : new Get(rowkey, readColumns));
+          columnValues.add(columnValue);
+        }
+      }
+      if (gets.isEmpty()) {
+        return;
+      }
+
+      List<Row> dataRows = table.get(gets);
+      for (int i = 0; i < dataRows.size(); i++) {
+        Row row = dataRows.get(i);
+        // If a column has null byte (the key delimiter) in it, then we need to check against the data row's column
+        // to be sure this row isn't a false positive in the scan.
+        // For reference, take a look at IndexedTableTest#testIndexKeyDelimiterAmbiguity
+        if (hasColumnWithDelimiter && !Bytes.equals(row.get(column), columnValues.get(i))) {
+          continue;
+        }
+        if (removeIndexedColumn) {
+          Map<byte[], byte[]> rowColumns = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+          rowColumns.putAll(row.getColumns());
+          rowColumns.remove(column);
+          row = new Result(row.getRow(), rowColumns);
         }
+        rows.add(row);
       }
-      // end of index
-      return null;
     }
 
     @Override
@@ -718,8 +902,8 @@ public class IndexedTable extends AbstractDataset implements Table {
   private class IndexScanner extends AbstractIndexScanner {
     private final byte[] value;
 
-    IndexScanner(Scanner baseScanner, byte[] column, byte[] value) {
-      super(baseScanner, column);
+    IndexScanner(Scanner baseScanner, byte[] column, @Nullable byte[][] columns, byte[] value) {
+      super(baseScanner, column, columns);
       this.value = value;
     }
 
@@ -734,8 +918,9 @@ public class IndexedTable extends AbstractDataset implements Table {
     private final byte[] start;
     private final byte[] end;
 
-    IndexRangeScanner(Scanner baseScanner, byte[] column, @Nullable byte[] start, @Nullable byte[] end) {
-      super(baseScanner, column);
+    IndexRangeScanner(Scanner baseScanner, byte[] column, @Nullable byte[][] columns,
+                      @Nullable byte[] start, @Nullable byte[] end) {
+      super(baseScanner, column, columns);
       this.start = start;
       this.end = end;
     }
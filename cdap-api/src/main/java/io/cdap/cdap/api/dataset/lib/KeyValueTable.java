@@ -271,6 +271,26 @@ public class KeyValueTable extends AbstractDataset implements
     };
   }
 
+  /**
+   * Scans the table by reading splits of the given range concurrently. This is faster than {@link #scan(byte[],
+   * byte[])} for aggregating over large ranges, but the entries are returned in no particular order. The table
+   * must not be modified while the returned iterator is open, and the iterator must be closed once it is no longer
+   * needed. The splits are only read concurrently if the underlying table is a
+   * {@link io.cdap.cdap.api.data.batch.ConcurrentSplitReadable}, otherwise they are read one after another.
+   *
+   * @param startRow start row inclusive. {@code null} means start from first row of the table
+   * @param stopRow stop row exclusive. {@code null} means scan all rows to the end of the table
+   * @param parallelism the maximum number of splits to read concurrently
+   * @return {@link io.cdap.cdap.api.dataset.lib.CloseableIterator} of
+   * {@link KeyValue KeyValue&lt;byte[], byte[]&gt;}
+   */
+  @ReadOnly
+  public CloseableIterator<KeyValue<byte[], byte[]>> parallelScan(@Nullable byte[] startRow,
+                                                                   @Nullable byte[] stopRow, int parallelism) {
+    return new ParallelSplitIterator<>(this, getSplits(parallelism, startRow, stopRow),
+                                       new KeyValueRecordMaker(), parallelism, table);
+  }
+
   /**
    * {@link io.cdap.cdap.api.data.batch.Scannables.RecordMaker} for {@link #createSplitReader(Split)}.
    */
@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.api.dataset.lib;
+
+import io.cdap.cdap.api.data.batch.BatchReadable;
+import io.cdap.cdap.api.data.batch.ConcurrentSplitReadable;
+import io.cdap.cdap.api.data.batch.Scannables;
+import io.cdap.cdap.api.data.batch.Split;
+import io.cdap.cdap.api.data.batch.SplitReader;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link CloseableIterator} that reads the given splits of a {@link BatchReadable}, and returns the records of
+ * all splits in no particular order. If the dataset that backs the {@link BatchReadable} is a
+ * {@link ConcurrentSplitReadable}, the splits are read concurrently, otherwise they are read one after another in
+ * the thread that consumes this iterator. The splits are read in the transaction of the caller, hence the dataset
+ * must not be modified while the iterator is open.
+ *
+ * @param <KEY> the key type of the split readers
+ * @param <VALUE> the value type of the split readers
+ * @param <RECORD> the type of the records returned by this iterator
+ */
+final class ParallelSplitIterator<KEY, VALUE, RECORD> extends AbstractCloseableIterator<RECORD> {
+
+  // maximum number of records read ahead of the consumer
+  private static final int QUEUE_SIZE = 1000;
+  // how often a split reader that cannot add to the queue checks whether the iterator was closed or abandoned
+  private static final long OFFER_TIMEOUT_MILLIS = 1000L;
+  // put in the queue by every split reader after it is done
+  private static final Object SPLIT_DONE = new Object();
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final BatchReadable<KEY, VALUE> readable;
+  private final Scannables.RecordMaker<KEY, VALUE, RECORD> recordMaker;
+  private final Iterator<Split> splits;
+  // null if the splits are read in the consumer thread
+  private final ConcurrentReaders<KEY, VALUE, RECORD> readers;
+  // the reader threads are created by the consumer thread, so that they inherit its dataset runtime context
+  private final List<Thread> threads = new ArrayList<>();
+  private SplitReader<KEY, VALUE> currentReader;
+  private int remainingSplits;
+  private boolean closed;
+
+  /**
+   * @param readable the {@link BatchReadable} to read the splits from
+   * @param splits the splits to read
+   * @param recordMaker creates the records from the keys and values of the split readers
+   * @param parallelism the maximum number of splits to read concurrently
+   * @param backingTable the dataset that backs the {@link BatchReadable}, the splits are only read concurrently if it
+   *                     is a {@link ConcurrentSplitReadable}
+   */
+  ParallelSplitIterator(BatchReadable<KEY, VALUE> readable, List<Split> splits,
+                        Scannables.RecordMaker<KEY, VALUE, RECORD> recordMaker, int parallelism,
+                        Object backingTable) {
+    this.readable = readable;
+    this.recordMaker = recordMaker;
+    this.splits = splits.iterator();
+    this.remainingSplits = splits.size();
+    int numThreads = Math.min(parallelism, splits.size());
+    if (!(backingTable instanceof ConcurrentSplitReadable) || numThreads <= 1) {
+      this.readers = null;
+      return;
+    }
+    this.readers = new ConcurrentReaders<>(readable, splits, recordMaker, new WeakReference<>(this));
+    for (int i = 0; i < numThreads; i++) {
+      Thread thread = new Thread(readers::run, "parallel-split-reader-" + THREAD_COUNT.getAndIncrement());
+      thread.setDaemon(true);
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+  }
+
+  @Override
+  protected RECORD computeNext() {
+    if (closed) {
+      return endOfData();
+    }
+    try {
+      RECORD next = readers == null ? readNext() : takeNext();
+      if (next == null) {
+        close();
+        return endOfData();
+      }
+      return next;
+    } catch (InterruptedException e) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while reading splits", e);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the next record of the splits in the current thread, or returns {@code null} if all splits have been read.
+   */
+  @Nullable
+  private RECORD readNext() throws InterruptedException {
+    while (currentReader == null || !currentReader.nextKeyValue()) {
+      closeCurrentReader();
+      if (!splits.hasNext()) {
+        return null;
+      }
+      Split split = splits.next();
+      currentReader = readable.createSplitReader(split);
+      currentReader.initialize(split);
+    }
+    return recordMaker.makeRecord(currentReader.getCurrentKey(), currentReader.getCurrentValue());
+  }
+
+  /**
+   * Takes the next record read by the concurrent readers, or returns {@code null} if all splits have been read.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private RECORD takeNext() throws InterruptedException {
+    while (remainingSplits > 0) {
+      Object next = readers.queue.take();
+      if (next != SPLIT_DONE) {
+        return (RECORD) next;
+      }
+      remainingSplits--;
+      Throwable t = readers.failure.get();
+      if (t != null) {
+        if (t instanceof RuntimeException) {
+          throw (RuntimeException) t;
+        }
+        throw new RuntimeException("Failed to read split", t);
+      }
+    }
+    return null;
+  }
+
+  private void closeCurrentReader() {
+    if (currentReader != null) {
+      currentReader.close();
+      currentReader = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (readers == null) {
+      closeCurrentReader();
+      return;
+    }
+    readers.closed = true;
+    for (Thread thread : threads) {
+      thread.interrupt();
+    }
+  }
+
+  /**
+   * The state shared by the threads that read the splits concurrently. The threads end once all splits are read,
+   * or the iterator is closed. The state only keeps a weak reference to the iterator, so that the threads also end
+   * if the iterator is abandoned without being closed.
+   */
+  private static final class ConcurrentReaders<KEY, VALUE, RECORD> {
+    private final BatchReadable<KEY, VALUE> readable;
+    private final Queue<Split> splits;
+    private final Scannables.RecordMaker<KEY, VALUE, RECORD> recordMaker;
+    private final WeakReference<?> owner;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean closed;
+
+    private ConcurrentReaders(BatchReadable<KEY, VALUE> readable, List<Split> splits,
+                              Scannables.RecordMaker<KEY, VALUE, RECORD> recordMaker, WeakReference<?> owner) {
+      this.readable = readable;
+      this.splits = new ConcurrentLinkedQueue<>(splits);
+      this.recordMaker = recordMaker;
+      this.owner = owner;
+    }
+
+    /**
+     * Reads splits until there are no more splits left, or the iterator was closed or abandoned.
+     */
+    private void run() {
+      Split split = splits.poll();
+      try {
+        while (split != null) {
+          if (!read(split) || !put(SPLIT_DONE)) {
+            return;
+          }
+          split = splits.poll();
+        }
+      } catch (InterruptedException e) {
+        // the iterator was closed, nobody is waiting for the remaining records
+      }
+    }
+
+    /**
+     * Reads a split into the queue, and returns {@code false} if the iterator was closed or abandoned.
+     */
+    private boolean read(Split split) throws InterruptedException {
+      try {
+        SplitReader<KEY, VALUE> reader = readable.createSplitReader(split);
+        try {
+          reader.initialize(split);
+          while (reader.nextKeyValue()) {
+            if (!put(recordMaker.makeRecord(reader.getCurrentKey(), reader.getCurrentValue()))) {
+              return false;
+            }
+          }
+        } finally {
+          reader.close();
+        }
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      }
+      return true;
+    }
+
+    private boolean put(Object element) throws InterruptedException {
+      while (!queue.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (closed || owner.get() == null) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
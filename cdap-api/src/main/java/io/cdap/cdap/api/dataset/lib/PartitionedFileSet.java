@@ -71,6 +71,29 @@ public interface PartitionedFileSet extends Dataset, InputFormatProvider, Output
    */
   void addPartition(PartitionKey key, String path, Map<String, String> metadata);
 
+  /**
+   * Add partitions for the given partition keys, each stored at the given path (relative to the file set's base path).
+   * This is equivalent to calling {@link #addPartition(PartitionKey, String)} for each of the partitions, but it is
+   * more efficient for a large number of partitions.
+   *
+   * @param partitions a map from partition key to the path of that partition
+   * @throws PartitionAlreadyExistsException if a partition for one of the keys already exists
+   * @throws IllegalArgumentException if a partition key does not match the partitioning of the dataset
+   */
+  void addPartitions(Map<PartitionKey, String> partitions);
+
+  /**
+   * Add partitions for the given partition keys, each stored at the given path (relative to the file set's base path),
+   * all with the given metadata. This is equivalent to calling {@link #addPartition(PartitionKey, String, Map)} for
+   * each of the partitions, but it is more efficient for a large number of partitions.
+   *
+   * @param partitions a map from partition key to the path of that partition
+   * @param metadata the metadata to add to each of the partitions
+   * @throws PartitionAlreadyExistsException if a partition for one of the keys already exists
+   * @throws IllegalArgumentException if a partition key does not match the partitioning of the dataset
+   */
+  void addPartitions(Map<PartitionKey, String> partitions, Map<String, String> metadata);
+
   /**
    * Adds a new metadata entry for a particular partition.
    * Note that existing entries cannot be updated.
@@ -19,7 +19,10 @@ package io.cdap.cdap.api.dataset.lib;
 import io.cdap.cdap.api.annotation.Beta;
 import io.cdap.cdap.api.dataset.table.TableProperties;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -38,6 +41,13 @@ public class PartitionedFileSetProperties extends FileSetProperties {
    */
   public static final String PARTITIONING_FIELD_PREFIX = "partitioning.field.";
 
+  /**
+   * The property name for the list of partitioning fields that are indexed in the partitions table. Partitions can
+   * be looked up efficiently by an indexed field, even if it is not the leading field of the partitioning. The
+   * indexed fields can only be set when the dataset is created.
+   */
+  public static final String INDEXED_FIELDS = "partitioning.indexed.fields";
+
   /**
    * Read the partitioning for a PartitionedFileSet from its properties.
    *
@@ -71,6 +81,24 @@ public class PartitionedFileSetProperties extends FileSetProperties {
     return builder.build();
   }
 
+  /**
+   * Read the indexed partitioning fields for a PartitionedFileSet from its properties.
+   *
+   * @param properties the dataset properties
+   * @return the names of the indexed fields, or an empty set if the properties contain no indexed fields.
+   */
+  public static Set<String> getIndexedFields(Map<String, String> properties) {
+    String fieldList = properties.get(INDEXED_FIELDS);
+    if (null == fieldList || fieldList.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<String> fieldNames = new LinkedHashSet<>();
+    for (String fieldName : fieldList.split(",")) {
+      fieldNames.add(fieldName.trim());
+    }
+    return fieldNames;
+  }
+
   /**
    * @return a properties builder
    */
@@ -105,6 +133,20 @@ public class PartitionedFileSetProperties extends FileSetProperties {
       return this;
     }
 
+    /**
+     * Sets the partitioning fields to be indexed in the partitions table.
+     */
+    public Builder setIndexedFields(String... fieldNames) {
+      StringBuilder builder = new StringBuilder();
+      String sep = "";
+      for (String fieldName : fieldNames) {
+        builder.append(sep).append(fieldName);
+        sep = ",";
+      }
+      add(INDEXED_FIELDS, builder.toString());
+      return this;
+    }
+
     /**
      * Set the table permissions as a map from user name to a permission string.
      */
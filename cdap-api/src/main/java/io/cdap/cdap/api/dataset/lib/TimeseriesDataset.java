@@ -227,6 +227,79 @@ abstract class TimeseriesDataset extends AbstractDataset {
     return new EntryScanner(key, startTime, endTime, tags);
   }
 
+  /**
+   * Reads the entries for a given time range, one time interval at a time, and returns the timestamps and values
+   * of the entries of each time interval as arrays. Unlike {@link #readInternal(byte[], long, long, byte[][])},
+   * this does not create an object per entry, and does not decode the tags of the entries.
+   * NOTE: A limit is placed on the max number of time intervals to be scanned during a read, as defined by
+   * {@link #MAX_ROWS_TO_SCAN_PER_READ}.
+   *
+   * @param key name of the entries to read
+   * @param startTime defines start of the time range to read, inclusive
+   * @param endTime defines end of the time range to read, inclusive
+   * @param tags defines a set of tags that MUST present in every returned entry
+   * @return an iterator over the entries of the time intervals that have at least one matching entry
+   */
+  @ReadOnly
+  final Iterator<ColumnarEntries> readColumnarInternal(byte[] key, long startTime, long endTime, byte[]... tags) {
+    if (startTime > endTime) {
+      throw new IllegalArgumentException("Provided time range condition is incorrect: startTime > endTime");
+    }
+
+    byte[][] sortedTags = tags.clone();
+    sortTags(sortedTags);
+    return new ColumnarScanner(key, startTime, endTime, sortedTags);
+  }
+
+  /**
+   * Checks whether the tags encoded in the given column name contain all of the given tags, without copying them.
+   *
+   * @param columnName columnName of the entry integrated timestamp and tags
+   * @param sortedTags the tags to filter entries, in sorted order
+   */
+  private static boolean containsTags(byte[] columnName, byte[][] sortedTags) {
+    int curPos = Bytes.SIZEOF_LONG;
+    int curTagToCheck = 0;
+    // Since we know that tags are sorted we can test match in one pass (like in merge sort)
+    while (curTagToCheck < sortedTags.length && curPos < columnName.length - 1) {
+      int tagLength = Bytes.toInt(columnName, curPos);
+      curPos += Bytes.SIZEOF_INT;
+      if (tagLength > columnName.length - curPos) {
+        return false;
+      }
+      int tagsMatch = Bytes.compareTo(columnName, curPos, tagLength,
+                                      sortedTags[curTagToCheck], 0, sortedTags[curTagToCheck].length);
+      if (tagsMatch == 0) {
+        curTagToCheck++;
+      } else if (tagsMatch > 0) {
+        // the tags are sorted, so the tag we are matching against is not in this column
+        return false;
+      }
+      curPos += tagLength;
+    }
+    return curTagToCheck == sortedTags.length;
+  }
+
+  /**
+   * Reads the row of the k-th time interval of a read, with the column bounds of the read.
+   *
+   * @return the columns of the row, or {@code null} if the row is empty
+   */
+  private Map<byte[], byte[]> readInterval(byte[] key, long startTime, int intervalIndex, long timeIntervalsCount,
+                                           byte[] startColumnName, byte[] endColumnName) {
+    byte[] row = getRowOfKthInterval(key, startTime, intervalIndex, rowPartitionIntervalSize);
+    Row currentRow = table.get(row,
+                               // we only need to set left bound on the first row: others cannot have records
+                               // with the timestamp less than startTime
+                               (intervalIndex == 0) ? startColumnName : null,
+                               // we only need to set right bound on the last row: others cannot have records
+                               // with the timestamp greater than startTime
+                               (intervalIndex == timeIntervalsCount - 1) ? endColumnName : null,
+                               // read all
+                               -1);
+    return currentRow.isEmpty() ? null : currentRow.getColumns();
+  }
+
   /**
    * Create Entry. Checking if filter tags are contained in columnName and parsing tags in one pass.
    *
@@ -345,8 +418,9 @@ abstract class TimeseriesDataset extends AbstractDataset {
     @Override
     protected Entry computeNext() {
       while ((internalIterator == null || !internalIterator.hasNext()) && rowScanned < timeIntervalsCount) {
-        byte[] row = getRowOfKthInterval(key, startTime, rowScanned, rowPartitionIntervalSize);
-        internalIterator = createIterator(row);
+        Map<byte[], byte[]> columns = readInterval(key, startTime, rowScanned, timeIntervalsCount,
+                                                   startColumnName, endColumnName);
+        internalIterator = columns == null ? null : columns.entrySet().iterator();
         rowScanned++;
       }
       if (rowScanned <= timeIntervalsCount && internalIterator != null && internalIterator.hasNext()) {
@@ -360,27 +434,78 @@ abstract class TimeseriesDataset extends AbstractDataset {
       return endOfData();
     }
 
-    private Iterator<Map.Entry<byte[], byte[]>> createIterator(byte[] row) {
-      Row currentRow = table.get(row,
-                                 // we only need to set left bound on the first row: others cannot have records
-                                 // with the timestamp less than startTime
-                                 (rowScanned == 0) ? startColumnName : null,
-                                 // we only need to set right bound on the last row: others cannot have records
-                                 // with the timestamp greater than startTime
-                                 (rowScanned == timeIntervalsCount - 1) ? endColumnName : null,
-                                 // read all
-                                 -1);
-
-      if (!currentRow.isEmpty()) {
-        return currentRow.getColumns().entrySet().iterator();
-      }
+    @Override
+    public void close() {
+      // no op for now since the internal scanner is created from Row, which is a local byte[]
+    }
+  }
 
-      return null;
+  /**
+   * An iterator over the entries of the time intervals of a read, as {@link ColumnarEntries}.
+   */
+  private final class ColumnarScanner extends AbstractCloseableIterator<ColumnarEntries> {
+    private final byte[] key;
+    private final long startTime;
+    private final byte[][] sortedTags;
+    private final long timeIntervalsCount;
+    private final byte[] startColumnName;
+    private final byte[] endColumnName;
+    private int rowScanned;
+
+    ColumnarScanner(byte[] key, long startTime, long endTime, byte[][] sortedTags) {
+      this.key = key;
+      this.startTime = startTime;
+      this.sortedTags = sortedTags;
+      this.timeIntervalsCount = applyLimitOnRowsToRead(getTimeIntervalsCount(startTime, endTime,
+                                                                             rowPartitionIntervalSize));
+      this.startColumnName = createColumnNameFirstPart(startTime);
+      this.endColumnName = createColumnNameFirstPart(endTime + 1);
+    }
+
+    @Override
+    protected ColumnarEntries computeNext() {
+      while (rowScanned < timeIntervalsCount) {
+        Map<byte[], byte[]> columns = readInterval(key, startTime, rowScanned, timeIntervalsCount,
+                                                   startColumnName, endColumnName);
+        rowScanned++;
+        if (columns == null) {
+          continue;
+        }
+        long[] timestamps = new long[columns.size()];
+        byte[][] values = new byte[columns.size()][];
+        int size = 0;
+        for (Map.Entry<byte[], byte[]> column : columns.entrySet()) {
+          byte[] columnName = column.getKey();
+          if (sortedTags.length == 0 || (hasTags(columnName) && containsTags(columnName, sortedTags))) {
+            timestamps[size] = parseTimeStamp(columnName);
+            values[size] = column.getValue();
+            size++;
+          }
+        }
+        if (size > 0) {
+          return size == timestamps.length ? new ColumnarEntries(timestamps, values)
+            : new ColumnarEntries(Arrays.copyOf(timestamps, size), Arrays.copyOf(values, size));
+        }
+      }
+      return endOfData();
     }
 
     @Override
     public void close() {
-      // no op for now since the internal scanner is created from Row, which is a local byte[]
+      // no op, every time interval is read as a single row
+    }
+  }
+
+  /**
+   * The timestamps and values of the entries of one time interval, in the order in which they are stored.
+   */
+  static final class ColumnarEntries {
+    final long[] timestamps;
+    final byte[][] values;
+
+    ColumnarEntries(long[] timestamps, byte[][] values) {
+      this.timestamps = timestamps;
+      this.values = values;
     }
   }
 
@@ -217,6 +217,43 @@ public class TimeseriesTable extends TimeseriesDataset
     };
   }
 
+  /**
+   * Reads entries for a given time range and returns them in chunks, one chunk per time interval of
+   * <code>rowPartitionIntervalSize</code>. This is more efficient than
+   * {@link #read(byte[], long, long, byte[][]) read(byte[], long, long, byte[]...)} for aggregating over many
+   * entries, because it does not create an object for every entry, and it does not decode the tags of the entries.
+   * NOTE: A limit is placed on the max number of time intervals to be scanned during a read, as defined by
+   * {@link #MAX_ROWS_TO_SCAN_PER_READ}.
+   *
+   * @param key key of the entries to read
+   * @param startTime defines start of the time range to read, inclusive
+   * @param endTime defines end of the time range to read, inclusive
+   * @param tags a set of tags which entries returned must contain. Tags for entries are defined at write-time and an
+   *             entry is only returned if it contains all of these tags.
+   * @return an iterator over the non-empty chunks of entries that satisfy provided conditions
+   */
+  @ReadOnly
+  public Iterator<Chunk> readChunks(byte[] key, long startTime, long endTime, byte[]... tags) {
+    final Iterator<ColumnarEntries> internalIterator = readColumnarInternal(key, startTime, endTime, tags);
+    return new Iterator<Chunk>() {
+      @Override
+      public boolean hasNext() {
+        return internalIterator.hasNext();
+      }
+
+      @Override
+      public Chunk next() {
+        ColumnarEntries entries = internalIterator.next();
+        return new Chunk(entries.timestamps, entries.values);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
 
 
   /**
@@ -384,6 +421,45 @@ public class TimeseriesTable extends TimeseriesDataset
     }
   }
 
+  /**
+   * The timestamps and values of the entries of one time interval, as returned by
+   * {@link #readChunks(byte[], long, long, byte[][]) readChunks(byte[], long, long, byte[]...)}.
+   * The value of the i-th entry is at the same index as its timestamp.
+   */
+  public static final class Chunk {
+    private final long[] timestamps;
+    private final byte[][] values;
+
+    private Chunk(long[] timestamps, byte[][] values) {
+      this.timestamps = timestamps;
+      this.values = values;
+    }
+
+    /**
+     * Returns the number of entries in the chunk.
+     * @return the number of entries in the chunk
+     */
+    public int size() {
+      return timestamps.length;
+    }
+
+    /**
+     * Returns the timestamps of the entries.
+     * @return the timestamps of the entries
+     */
+    public long[] getTimestamps() {
+      return timestamps;
+    }
+
+    /**
+     * Returns the values of the entries.
+     * @return the values of the entries
+     */
+    public byte[][] getValues() {
+      return values;
+    }
+  }
+
   /**
    * Time series table entry.
    */
@@ -189,6 +189,8 @@ public interface Store {
   /**
    * Fetches run records for particular program.
    * Returned ProgramRunRecords are sorted by their startTime.
+   * The records are read in a read-only transaction, hence they may lag behind recent writes if a read
+   * replica is configured.
    *
    * @param id        id of the program
    * @param status    status of the program running/completed/failed or all
@@ -210,6 +212,8 @@ public interface Store {
 
   /**
    * Fetches run records for the particular status.
+   * The records are read in a read-only transaction, hence they may lag behind recent writes if a read
+   * replica is configured.
    *
    * @param status status of the program to filter the records
    * @param startTime fetch run history that has started after the startTime in seconds
@@ -268,6 +272,8 @@ public interface Store {
   /**
    * Fetches the historical (i.e COMPLETED or FAILED or KILLED) run records from a given set of namespaces
    * which matches both the earliestStopTime and latestStartTime conditions.
+   * The records are read in a read-only transaction, hence they may lag behind recent writes if a read
+   * replica is configured.
    *
    * @param namespaces fetch run history that is belonged to one of these namespaces
    * @param earliestStopTime fetch run history that has stopped at or after the earliestStopTime in seconds
@@ -495,6 +501,8 @@ public interface Store {
 
   /**
    * Fetches run records for multiple programs.
+   * The records are read in a read-only transaction, hence they may lag behind recent writes if a read
+   * replica is configured.
    *
    * @param programs  the programs to get run records for
    * @param status    status of the program running/completed/failed or all
@@ -25,6 +25,7 @@ import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.service.RetryStrategies;
 import io.cdap.cdap.common.service.RetryStrategy;
 import io.cdap.cdap.logging.appender.LogAppenderInitializer;
+import io.cdap.cdap.logging.appender.LogRateLimiter;
 import io.cdap.cdap.proto.ProgramType;
 import io.cdap.cdap.proto.id.NamespaceId;
 import io.cdap.cdap.proto.id.ProfileId;
@@ -60,6 +61,12 @@ public final class SystemArguments {
   private static final String LOG_LEVEL = "system.log.level";
   private static final String LOGGER_LOG_LEVEL_PREFIX = LOG_LEVEL + ".";
 
+  // Keys for log publishing rate limit
+  private static final String LOG_RATE_LIMIT = "system." + Constants.Logging.PUBLISH_RATE_LIMIT;
+  private static final String LOG_RATE_LIMIT_BURST = "system." + Constants.Logging.PUBLISH_RATE_LIMIT_BURST;
+  private static final String LOG_RATE_LIMIT_SAMPLING_RATIO =
+    "system." + Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO;
+
   // Keys for retry policy
   private static final String RETRY_POLICY_TYPE = "system." + Constants.Retry.TYPE;
   private static final String RETRY_POLICY_MAX_TIME_SECS = "system." + Constants.Retry.MAX_TIME_SECS;
@@ -128,6 +135,29 @@ public final class SystemArguments {
     initializer.setLogLevels(getLogLevels(args.asMap()));
   }
 
+  /**
+   * Overrides the log publishing rate limit configurations in the given {@link CConfiguration} with the values
+   * from the given arguments. The events per second limit only applies to the namespace of the program.
+   *
+   * @param args the arguments to use for looking up the log rate limit
+   * @param namespace the namespace of the program
+   * @param cConf the configuration to update
+   */
+  public static void setLogRateLimit(Map<String, String> args, String namespace, CConfiguration cConf) {
+    long rate = getNonNegativeLong(args, LOG_RATE_LIMIT, LOG_RATE_LIMIT, -1L);
+    if (rate >= 0) {
+      cConf.setLong(LogRateLimiter.getNamespaceRateKey(namespace), rate);
+    }
+    long burst = getNonNegativeLong(args, LOG_RATE_LIMIT_BURST, LOG_RATE_LIMIT_BURST, -1L);
+    if (burst >= 0) {
+      cConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT_BURST, burst);
+    }
+    int samplingRatio = getNonNegativeInt(args, LOG_RATE_LIMIT_SAMPLING_RATIO, LOG_RATE_LIMIT_SAMPLING_RATIO, -1);
+    if (samplingRatio >= 0) {
+      cConf.setInt(Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO, samplingRatio);
+    }
+  }
+
   /**
    * Set the transaction timeout in the given arguments.
    */
@@ -53,6 +53,7 @@ import io.cdap.cdap.internal.app.runtime.BasicArguments;
 import io.cdap.cdap.internal.app.runtime.ProgramOptionConstants;
 import io.cdap.cdap.internal.app.runtime.ProgramRunners;
 import io.cdap.cdap.internal.app.runtime.SimpleProgramOptions;
+import io.cdap.cdap.internal.app.runtime.SystemArguments;
 import io.cdap.cdap.internal.app.runtime.codec.ArgumentsCodec;
 import io.cdap.cdap.internal.app.runtime.codec.ProgramOptionsCodec;
 import io.cdap.cdap.internal.app.runtime.monitor.RuntimeMonitorServer;
@@ -247,6 +248,8 @@ public abstract class AbstractProgramTwillRunnable<T extends ProgramRunner> impl
     CConfiguration cConf = CConfiguration.create();
     cConf.clear();
     cConf.addResource(new File(systemArgs.getOption(ProgramOptionConstants.CDAP_CONF_FILE)).toURI().toURL());
+    // the log appender of the container is created from this configuration, for all types of programs
+    SystemArguments.setLogRateLimit(programOptions.getUserArguments().asMap(), programRunId.getNamespace(), cConf);
 
     maxStopSeconds = cConf.getLong(io.cdap.cdap.common.conf.Constants.AppFabric.PROGRAM_MAX_STOP_SECONDS);
 
@@ -64,6 +64,7 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -249,9 +250,11 @@ public class AppMetadataStore {
   public List<ApplicationId> getAllAppVersionsAppIds(String namespaceId, String appId)
     throws IOException {
     List<ApplicationId> appIds = new ArrayList<>();
+    // Only the primary keys are needed, so avoid reading the application specifications
+    Collection<String> columns = Collections.singleton(StoreDefinition.AppMetadataStore.VERSION_FIELD);
     try (CloseableIterator<StructuredRow> iterator =
            getApplicationSpecificationTable().scan(getNamespaceAndApplicationRange(namespaceId, appId),
-                                                   Integer.MAX_VALUE)) {
+                                                   Integer.MAX_VALUE, columns)) {
       while (iterator.hasNext()) {
         StructuredRow row = iterator.next();
         appIds.add(
@@ -265,12 +268,18 @@ public class AppMetadataStore {
 
   public Map<ApplicationId, ApplicationMeta> getApplicationsForAppIds(Collection<ApplicationId> appIds)
     throws IOException {
+    List<List<Field<?>>> multiKeys = new ArrayList<>(appIds.size());
+    for (ApplicationId appId : appIds) {
+      multiKeys.add(getApplicationPrimaryKeys(appId.getNamespace(), appId.getApplication(), appId.getVersion()));
+    }
+
     Map<ApplicationId, ApplicationMeta> result = new HashMap<>();
-    for (ApplicationId appId: appIds) {
-      ApplicationMeta applicationMeta = getApplication(appId);
-      if (applicationMeta != null) {
-        result.put(appId, getApplication(appId));
-      }
+    for (StructuredRow row : getApplicationSpecificationTable().multiRead(multiKeys)) {
+      ApplicationId appId = new ApplicationId(row.getString(StoreDefinition.AppMetadataStore.NAMESPACE_FIELD),
+                                              row.getString(StoreDefinition.AppMetadataStore.APPLICATION_FIELD),
+                                              row.getString(StoreDefinition.AppMetadataStore.VERSION_FIELD));
+      result.put(appId, GSON.fromJson(row.getString(StoreDefinition.AppMetadataStore.APPLICATION_DATA_FIELD),
+                                      ApplicationMeta.class));
     }
     return result;
   }
@@ -930,10 +939,20 @@ public class AppMetadataStore {
    */
   public Map<ProgramRunId, RunRecordMeta> getActiveRuns(Set<NamespaceId> namespaces, Predicate<RunRecordMeta> filter)
     throws IOException {
-    Map<ProgramRunId, RunRecordMeta> result = new HashMap<>();
+    List<Range> ranges = new ArrayList<>(namespaces.size());
     for (NamespaceId namespaceId : namespaces) {
-      List<Field<?>> prefix = getRunRecordNamespacePrefix(TYPE_RUN_RECORD_ACTIVE, namespaceId);
-      result.putAll(getProgramRunIdMap(Range.singleton(prefix), filter));
+      ranges.add(Range.singleton(getRunRecordNamespacePrefix(TYPE_RUN_RECORD_ACTIVE, namespaceId)));
+    }
+
+    // Scan the active runs of all the namespaces at once
+    Map<ProgramRunId, RunRecordMeta> result = new HashMap<>();
+    try (CloseableIterator<StructuredRow> iterator = getRunRecordsTable().multiScan(ranges, Integer.MAX_VALUE)) {
+      while (iterator.hasNext()) {
+        RunRecordMeta meta = deserializeRunRecordMeta(iterator.next());
+        if (filter.test(meta)) {
+          result.put(meta.getProgramRunId(), meta);
+        }
+      }
     }
     return result;
   }
@@ -1340,10 +1359,19 @@ public class AppMetadataStore {
       throw new BadRequestException(String.format("%d programs found, the maximum number supported is 100",
                                                   programIds.size()));
     }
+    List<List<Field<?>>> multiKeys = new ArrayList<>(programIds.size());
     for (ProgramId programId : programIds) {
-      List<Field<?>> countKey = getProgramCountPrimaryKeys(TYPE_COUNT, programId);
-      Optional<StructuredRow> row = getProgramCountsTable().read(countKey);
-      result.put(programId, row.isPresent() ? row.get().getLong(StoreDefinition.AppMetadataStore.COUNTS) : 0);
+      multiKeys.add(getProgramCountPrimaryKeys(TYPE_COUNT, programId));
+      result.put(programId, 0L);
+    }
+    for (StructuredRow row : getProgramCountsTable().multiRead(multiKeys)) {
+      ProgramId programId =
+        new ApplicationId(row.getString(StoreDefinition.AppMetadataStore.NAMESPACE_FIELD),
+                          row.getString(StoreDefinition.AppMetadataStore.APPLICATION_FIELD),
+                          row.getString(StoreDefinition.AppMetadataStore.VERSION_FIELD))
+          .program(ProgramType.valueOf(row.getString(StoreDefinition.AppMetadataStore.PROGRAM_TYPE_FIELD)),
+                   row.getString(StoreDefinition.AppMetadataStore.PROGRAM_FIELD));
+      result.put(programId, row.getLong(StoreDefinition.AppMetadataStore.COUNTS));
     }
     return result;
   }
@@ -307,7 +307,7 @@ public class DefaultStore implements Store {
   public Map<ProgramRunId, RunRecordMeta> getRuns(ProgramId id, ProgramRunStatus status,
                                                   long startTime, long endTime, int limit,
                                                   @Nullable Predicate<RunRecordMeta> filter) {
-    return TransactionRunners.run(transactionRunner, context -> {
+    return TransactionRunners.runReadOnly(transactionRunner, context -> {
       return getAppMetadataStore(context).getRuns(id, status, startTime, endTime, limit, filter);
     });
   }
@@ -322,7 +322,7 @@ public class DefaultStore implements Store {
   public Map<ProgramRunId, RunRecordMeta> getRuns(ProgramRunStatus status, long startTime,
                                                   long endTime, int limit,
                                                   Predicate<RunRecordMeta> filter) {
-    return TransactionRunners.run(transactionRunner, context -> {
+    return TransactionRunners.runReadOnly(transactionRunner, context -> {
       return getAppMetadataStore(context).getRuns(null, status, startTime, endTime, limit, filter);
     });
   }
@@ -371,7 +371,7 @@ public class DefaultStore implements Store {
   @Override
   public Map<ProgramRunId, RunRecordMeta> getHistoricalRuns(Set<NamespaceId> namespaces,
                                                             long earliestStopTime, long latestStartTime, int limit) {
-    return TransactionRunners.run(transactionRunner, context -> {
+    return TransactionRunners.runReadOnly(transactionRunner, context -> {
       return getAppMetadataStore(context).getHistoricalRuns(namespaces, earliestStopTime, latestStartTime, limit);
     });
   }
@@ -779,7 +779,7 @@ public class DefaultStore implements Store {
   @Override
   public List<ProgramHistory> getRuns(Collection<ProgramId> programs, ProgramRunStatus status, long startTime,
                                       long endTime, int limit, Predicate<RunRecordMeta> filter) {
-    return TransactionRunners.run(transactionRunner, context -> {
+    return TransactionRunners.runReadOnly(transactionRunner, context -> {
       List<ProgramHistory> result = new ArrayList<>(programs.size());
       AppMetadataStore appMetadataStore = getAppMetadataStore(context);
 
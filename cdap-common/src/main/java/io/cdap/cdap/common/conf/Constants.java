@@ -446,6 +446,8 @@ public final class Constants {
     public static final String DATA_STORAGE_IMPLEMENTATION = "data.storage.implementation";
     public static final String DATA_STORAGE_NOSQL = "nosql";
     public static final String DATA_STORAGE_SQL = "postgresql";
+    public static final String DATA_STORAGE_LEVELDB = "leveldb";
+    public static final String DATA_STORAGE_LEVELDB_DIR = "data.storage.leveldb.dir";
     public static final String DATA_STORAGE_SQL_DRIVER_EXTERNAL = "data.storage.sql.jdbc.driver.external";
     public static final String DATA_STORAGE_SQL_DRIVER_DIRECTORY = "data.storage.sql.jdbc.driver.directory";
     public static final String DATA_STORAGE_SQL_JDBC_DRIVER_NAME = "data.storage.sql.jdbc.driver.name";
@@ -456,9 +458,20 @@ public final class Constants {
     public static final String DATA_STORAGE_SQL_PASSWORD = "data.storage.sql.jdbc.password";
     public static final String DATA_STORAGE_SQL_PROPERTY_PREFIX = "data.storage.sql.jdbc.property.";
     public static final String DATA_STORAGE_SQL_CONNECTION_SIZE = "data.storage.sql.jdbc.connection.pool.size";
+    public static final String DATA_STORAGE_SQL_REPLICA_JDBC_CONNECTION_URL =
+      "data.storage.sql.jdbc.replica.connection.url";
+    public static final String DATA_STORAGE_SQL_REPLICA_CONNECTION_SIZE =
+      "data.storage.sql.jdbc.replica.connection.pool.size";
+    public static final String DATA_STORAGE_SQL_STATEMENT_CACHE_SIZE = "data.storage.sql.jdbc.statement.cache.size";
+    public static final String DATA_STORAGE_SQL_SCAN_FETCH_SIZE = "data.storage.sql.scan.fetch.size";
+    public static final String DATA_STORAGE_SQL_SCAN_PAGE_SIZE = "data.storage.sql.scan.page.size";
+    public static final String DATA_STORAGE_CACHE_TABLES = "data.storage.cache.tables";
+    public static final String DATA_STORAGE_CACHE_MAX_ROWS = "data.storage.cache.max.rows";
+    public static final String DATA_STORAGE_CACHE_TTL_SECONDS = "data.storage.cache.ttl.seconds";
 
     // used for Guice named bindings
     public static final String TABLE_TYPE = "table.type";
+    public static final String DATA_STORAGE_SQL_REPLICA_DATA_SOURCE = "data.storage.sql.replica.data.source";
     public static final String TABLE_TYPE_NO_TX = "table.type.no.tx";
 
     /**
@@ -634,6 +647,9 @@ public final class Constants {
     public static final Map<String, String> STORAGE_METRICS_TAGS = ImmutableMap.of(
       Tag.COMPONENT, "system.storage",
       Tag.NAMESPACE, NamespaceId.SYSTEM.getNamespace());
+    public static final Map<String, String> STORAGE_REPLICA_METRICS_TAGS = ImmutableMap.of(
+      Tag.COMPONENT, "system.storage.replica",
+      Tag.NAMESPACE, NamespaceId.SYSTEM.getNamespace());
 
     public static final String PROGRAM_METRICS_ENABLED = "app.program.metrics.enabled";
     public static final String STRUCTURED_TABLE_TIME_METRICS_ENABLED = "structured.table.time.metrics.enabled";
@@ -724,6 +740,8 @@ public final class Constants {
         public static final String OP_COUNT = "dataset.store.ops";
         public static final String WRITE_COUNT = "dataset.store.writes";
         public static final String WRITE_BYTES = "dataset.store.bytes";
+        public static final String ROW_KEY_FILTER_CHECKS = "dataset.store.rowkey.filter.checks";
+        public static final String ROW_KEY_FILTER_SKIPS = "dataset.store.rowkey.filter.skips";
       }
 
       /**
@@ -733,6 +751,14 @@ public final class Constants {
         public static final String PROCESS_MIN_DELAY = "log.process.min.delay";
         public static final String PROCESS_MAX_DELAY = "log.process.max.delay";
         public static final String PROCESS_MESSAGES_COUNT = "log.process.message.count";
+        public static final String BUFFER_BATCH_SIZE_BYTES = "log.buffer.batch.size.bytes";
+        public static final String BUFFER_BATCH_EVENTS_COUNT = "log.buffer.batch.events.count";
+        public static final String BUFFER_FLUSH_LATENCY_MS = "log.buffer.flush.latency.ms";
+        public static final String PUBLISH_DROPPED_COUNT = "log.publish.dropped.count";
+        public static final String PUBLISH_QUEUE_SIZE = "log.publish.queue.size";
+        public static final String PUBLISH_QUEUE_DROPPED_COUNT = "log.publish.queue.dropped.count";
+        public static final String PUBLISH_BATCH_EVENTS_COUNT = "log.publish.batch.events.count";
+        public static final String PUBLISH_LATENCY_MS = "log.publish.latency.ms";
       }
     }
 
@@ -765,9 +791,11 @@ public final class Constants {
       public static final String METRICS_PREFIX = "structured.table.";
       public static final String TRANSACTION_COUNT = "structured.table.transaction.count";
       public static final String TRANSACTION_CONFLICT = "structured.table.transaction.conflict";
+      public static final String TRANSACTION_READ_ONLY_COUNT = "structured.table.transaction.read.only.count";
       public static final String ACTIVE_CONNECTIONS = "structured.table.connection.active";
       public static final String IDLE_CONNECTIONS = "structured.table.connection.idle";
       public static final String ERROR_CONNECTIONS = "structured.table.connection.error";
+      public static final String CONNECTION_WAIT_TIME = "structured.table.connection.wait.time";
     }
 
     /**
@@ -827,6 +855,10 @@ public final class Constants {
     // log buffer writer configs
     public static final String LOG_BUFFER_BASE_DIR = "log.buffer.base.dir";
     public static final String LOG_BUFFER_MAX_FILE_SIZE_BYTES = "log.buffer.max.file.size.bytes";
+    // group commit configs for log buffer writes
+    public static final String LOG_BUFFER_GROUP_COMMIT_MAX_BYTES = "log.buffer.group.commit.max.bytes";
+    public static final String LOG_BUFFER_GROUP_COMMIT_LINGER_MS = "log.buffer.group.commit.linger.ms";
+    public static final String LOG_BUFFER_SYNC_ENABLED = "log.buffer.sync.enabled";
     // log buffer recovery configs
     public static final String LOG_BUFFER_RECOVERY_BATCH_SIZE = "log.buffer.recovery.batch.size";
     // number of events to be sent to time event queue processor from incoming queue
@@ -891,6 +923,17 @@ public final class Constants {
     public static final String APPENDER_QUEUE_SIZE = "log.queue.size";
     public static final String NUM_PARTITIONS = "log.publish.num.partitions";
     public static final String LOG_PUBLISH_PARTITION_KEY = "log.publish.partition.key";
+    public static final String APPENDER_BATCH_SIZE = "log.publish.batch.size";
+    public static final String APPENDER_BATCH_LINGER_MS = "log.publish.batch.linger.ms";
+    public static final String APPENDER_QUEUE_FULL_POLICY = "log.publish.queue.full.policy";
+    // rate limit of log events published per program
+    public static final String PUBLISH_RATE_LIMIT = "log.publish.rate.limit.events.per.second";
+    public static final String PUBLISH_RATE_LIMIT_BURST = "log.publish.rate.limit.burst.events";
+    public static final String PUBLISH_RATE_LIMIT_SAMPLING_RATIO = "log.publish.rate.limit.sampling.ratio";
+    public static final String PUBLISH_RATE_LIMIT_EXEMPT_LEVEL = "log.publish.rate.limit.exempt.level";
+    public static final String PUBLISH_RATE_LIMIT_SUMMARY_INTERVAL_SECONDS =
+      "log.publish.rate.limit.summary.interval.seconds";
+    public static final String PUBLISH_RATE_LIMIT_NAMESPACE_PREFIX = "log.publish.rate.limit.namespace.";
 
     public static final String PIPELINE_CONFIG_DIR = "log.process.pipeline.config.dir";
     public static final String PIPELINE_LIBRARY_DIR = "log.process.pipeline.lib.dir";
@@ -1206,6 +1249,10 @@ public final class Constants {
   public static final String CFG_DATA_LEVELDB_BLOCKSIZE = "data.local.storage.blocksize";
   public static final String CFG_DATA_LEVELDB_CACHESIZE = "data.local.storage.cachesize";
   public static final String CFG_DATA_LEVELDB_FSYNC = "data.local.storage.fsync";
+  /** regular expression of the names of the LevelDB tables that keep a bloom filter of their row keys. **/
+  public static final String CFG_DATA_LEVELDB_BLOOM_FILTER_TABLES = "data.local.storage.bloomfilter.tables";
+  public static final String CFG_DATA_LEVELDB_BLOOM_FILTER_EXPECTED_ROWS =
+    "data.local.storage.bloomfilter.expected.rows";
 
   /**
    * Defaults for Data Fabric.
@@ -1214,6 +1261,7 @@ public final class Constants {
   public static final int DEFAULT_DATA_LEVELDB_BLOCKSIZE = 1024;
   public static final long DEFAULT_DATA_LEVELDB_CACHESIZE = 1024 * 1024 * 100;
   public static final boolean DEFAULT_DATA_LEVELDB_FSYNC = true;
+  public static final int DEFAULT_DATA_LEVELDB_BLOOM_FILTER_EXPECTED_ROWS = 1000000;
 
   /**
    * Used for upgrade and backwards compatability
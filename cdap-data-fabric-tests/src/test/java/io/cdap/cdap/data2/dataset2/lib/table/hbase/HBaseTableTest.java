@@ -558,6 +558,55 @@ public class HBaseTableTest extends BufferingTableTest<BufferingTable> {
     Assert.assertEquals(4, encodeCount.get());
   }
 
+  @Test
+  public void testAsyncPersist() throws Exception {
+    String tableName = "asyncPersist";
+    // persist every write before commit, so that all writes are sent in the background
+    DatasetProperties props = TableProperties.builder()
+      .add(BufferingTable.PROPERTY_BUFFER_SPILL_SIZE, "1")
+      .add(HBaseTable.WRITE_BUFFER_SIZE, "1024")
+      .build();
+    Map<String, String> args = ImmutableMap.of(HBaseTable.ASYNC_PERSIST, "true");
+    DatasetAdmin admin = getTableAdmin(CONTEXT1, tableName, props);
+    admin.create();
+    try (BufferingTable table = getTable(CONTEXT1, tableName, props, args)) {
+      // writes sent in the background are visible within the transaction, and are undone by rollback
+      Transaction tx = txClient.startShort();
+      table.startTx(tx);
+      for (int i = 0; i < 100; i++) {
+        table.put(b("row" + i), b("col"), b("val" + i));
+      }
+      Assert.assertArrayEquals(b("val50"), table.get(b("row50"), b("col")));
+      Assert.assertTrue(table.rollbackTx());
+      txClient.abort(tx);
+
+      tx = txClient.startShort();
+      table.startTx(tx);
+      Assert.assertTrue(table.get(b("row50")).isEmpty());
+      for (int i = 0; i < 100; i++) {
+        table.put(b("row" + i), b("col"), b("val" + i));
+      }
+      txClient.canCommitOrThrow(tx, table.getTxChanges());
+      Assert.assertTrue(table.commitTx());
+      txClient.commitOrThrow(tx);
+      table.postTxCommit();
+
+      // all writes are persisted when the transaction commits
+      tx = txClient.startShort();
+      table.startTx(tx);
+      try (Scanner scanner = table.scan(null, null)) {
+        int count = 0;
+        while (scanner.next() != null) {
+          count++;
+        }
+        Assert.assertEquals(100, count);
+      }
+      txClient.commitOrThrow(tx);
+    } finally {
+      admin.drop();
+    }
+  }
+
   @Test
   public void testEnforceTxLifetime() throws Exception {
     String tableName = "enforce-tx-lifetime";
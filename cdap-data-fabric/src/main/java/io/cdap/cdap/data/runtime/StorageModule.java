@@ -22,10 +22,15 @@ import com.google.inject.Injector;
 import com.google.inject.PrivateModule;
 import com.google.inject.Provider;
 import com.google.inject.Scopes;
+import com.google.inject.name.Names;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.spi.data.StructuredTableAdmin;
 import io.cdap.cdap.spi.data.common.CachedStructuredTableRegistry;
+import io.cdap.cdap.spi.data.leveldb.LevelDBStructuredTableAdmin;
+import io.cdap.cdap.spi.data.leveldb.LevelDBStructuredTableRegistry;
+import io.cdap.cdap.spi.data.leveldb.LevelDBStructuredTableStore;
+import io.cdap.cdap.spi.data.leveldb.LevelDBTransactionRunner;
 import io.cdap.cdap.spi.data.nosql.NoSqlStructuredTableAdmin;
 import io.cdap.cdap.spi.data.nosql.NoSqlStructuredTableRegistry;
 import io.cdap.cdap.spi.data.nosql.NoSqlTransactionRunner;
@@ -33,6 +38,7 @@ import io.cdap.cdap.spi.data.sql.PostgresSqlStructuredTableAdmin;
 import io.cdap.cdap.spi.data.sql.RetryingSqlTransactionRunner;
 import io.cdap.cdap.spi.data.sql.SqlStructuredTableRegistry;
 import io.cdap.cdap.spi.data.sql.jdbc.DataSourceProvider;
+import io.cdap.cdap.spi.data.sql.jdbc.ReplicaDataSourceProvider;
 import io.cdap.cdap.spi.data.table.StructuredTableRegistry;
 import io.cdap.cdap.spi.data.transaction.TransactionRunner;
 
@@ -50,11 +56,16 @@ public class StorageModule extends PrivateModule {
     bind(StructuredTableRegistry.class).toProvider(StructuredTableRegistryProvider.class).in(Scopes.SINGLETON);
     bind(DataSourceProvider.class).in(Scopes.SINGLETON);
     bind(DataSource.class).toProvider(DataSourceProvider.class).in(Scopes.SINGLETON);
+    bind(DataSource.class).annotatedWith(Names.named(Constants.Dataset.DATA_STORAGE_SQL_REPLICA_DATA_SOURCE))
+      .toProvider(ReplicaDataSourceProvider.class).in(Scopes.SINGLETON);
+    bind(LevelDBStructuredTableStore.class).in(Scopes.SINGLETON);
 
     expose(TransactionRunner.class);
     expose(StructuredTableAdmin.class);
     expose(StructuredTableRegistry.class);
     expose(DataSource.class);
+    // exposed so that the process that uses the LevelDB storage can close it on shutdown
+    expose(LevelDBStructuredTableStore.class);
   }
 
   /**
@@ -88,9 +99,14 @@ public class StorageModule extends PrivateModule {
         return injector.getInstance(RetryingSqlTransactionRunner.class);
       }
 
+      if (storageImpl.equals(Constants.Dataset.DATA_STORAGE_LEVELDB)) {
+        return injector.getInstance(LevelDBTransactionRunner.class);
+      }
+
       throw new UnsupportedOperationException(
-        String.format("%s is not a supported storage implementation, the supported implementations are %s and %s",
-                      storageImpl, Constants.Dataset.DATA_STORAGE_NOSQL, Constants.Dataset.DATA_STORAGE_SQL));
+        String.format("%s is not a supported storage implementation, the supported implementations are %s, %s and %s",
+                      storageImpl, Constants.Dataset.DATA_STORAGE_NOSQL, Constants.Dataset.DATA_STORAGE_SQL,
+                      Constants.Dataset.DATA_STORAGE_LEVELDB));
     }
   }
 
@@ -123,9 +139,13 @@ public class StorageModule extends PrivateModule {
       if (storageImpl.equals(Constants.Dataset.DATA_STORAGE_SQL)) {
         return injector.getInstance(PostgresSqlStructuredTableAdmin.class);
       }
+      if (storageImpl.equals(Constants.Dataset.DATA_STORAGE_LEVELDB)) {
+        return injector.getInstance(LevelDBStructuredTableAdmin.class);
+      }
       throw new UnsupportedOperationException(
-        String.format("%s is not a supported storage implementation, the supported implementations are %s and %s",
-                      storageImpl, Constants.Dataset.DATA_STORAGE_NOSQL, Constants.Dataset.DATA_STORAGE_SQL));
+        String.format("%s is not a supported storage implementation, the supported implementations are %s, %s and %s",
+                      storageImpl, Constants.Dataset.DATA_STORAGE_NOSQL, Constants.Dataset.DATA_STORAGE_SQL,
+                      Constants.Dataset.DATA_STORAGE_LEVELDB));
     }
   }
 
@@ -159,9 +179,14 @@ public class StorageModule extends PrivateModule {
         SqlStructuredTableRegistry registry = injector.getInstance(SqlStructuredTableRegistry.class);
         return new CachedStructuredTableRegistry(registry);
       }
+      if (storageImpl.equals(Constants.Dataset.DATA_STORAGE_LEVELDB)) {
+        LevelDBStructuredTableRegistry registry = injector.getInstance(LevelDBStructuredTableRegistry.class);
+        return new CachedStructuredTableRegistry(registry);
+      }
       throw new UnsupportedOperationException(
-        String.format("%s is not a supported storage implementation, the supported implementations are %s and %s",
-                      storageImpl, Constants.Dataset.DATA_STORAGE_NOSQL, Constants.Dataset.DATA_STORAGE_SQL));
+        String.format("%s is not a supported storage implementation, the supported implementations are %s, %s and %s",
+                      storageImpl, Constants.Dataset.DATA_STORAGE_NOSQL, Constants.Dataset.DATA_STORAGE_SQL,
+                      Constants.Dataset.DATA_STORAGE_LEVELDB));
     }
   }
 }
@@ -45,6 +45,7 @@ import org.apache.twill.filesystem.LocationFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -77,6 +78,10 @@ public final class FileSetDataset implements FileSet, DatasetOutputCommitter {
   private final String inputFormatClassName;
   private final String outputFormatClassName;
   private final String permissions;
+  private final FileSetReadCache readCache;
+  private final int readPrefetch;
+  // index of the last input location that was submitted for prefetching
+  private int prefetchedIndex = -1;
 
   /**
    * Constructor.
@@ -113,6 +118,12 @@ public final class FileSetDataset implements FileSet, DatasetOutputCommitter {
                                                      FileSetProperties.getOutputFormat(spec.getProperties()));
     this.permissions = secondIfFirstIsNull(FileSetProperties.getFilePermissions(runtimeArguments),
                                            FileSetProperties.getFilePermissions(spec.getProperties()));
+    long readCacheSize = FileSetProperties.getReadCacheSize(spec.getProperties());
+    this.readCache = readCacheSize <= 0 ? null : FileSetReadCache.get(
+      new File(new File(cConf.get(Constants.CFG_LOCAL_DATA_DIR), cConf.get(Constants.AppFabric.TEMP_DIR)),
+               "fileset-cache/" + datasetContext.getNamespaceId() + "/" + spec.getName()).getAbsoluteFile(),
+      readCacheSize);
+    this.readPrefetch = FileSetProperties.getReadPrefetch(spec.getProperties());
   }
 
   // similar to Objects.firstNonNull, but we allow both parameters to be null
@@ -174,7 +185,7 @@ public final class FileSetDataset implements FileSet, DatasetOutputCommitter {
   }
 
   private List<Location> determineInputLocations() {
-    List<Location> locations = Lists.newLinkedList();
+    List<Location> locations = new ArrayList<>();
     for (String path : FileSetArguments.getInputPaths(runtimeArguments)) {
       locations.add(createLocation(path));
     }
@@ -325,7 +336,43 @@ public final class FileSetDataset implements FileSet, DatasetOutputCommitter {
 
   @ReadOnly
   private InputStream getInputStream(Location location) throws IOException {
-    return location.getInputStream();
+    if (readCache == null) {
+      return location.getInputStream();
+    }
+    prefetchAfter(location);
+    return readCache.getInputStream(location);
+  }
+
+  /**
+   * If the given location is one of the input locations, submits the next input locations for prefetching.
+   */
+  private synchronized void prefetchAfter(Location location) {
+    if (readPrefetch <= 0) {
+      return;
+    }
+    int index = 0;
+    for (Location input : inputLocations) {
+      if (unwrap(input).equals(location)) {
+        break;
+      }
+      index++;
+    }
+    int end = Math.min(inputLocations.size(), index + 1 + readPrefetch);
+    List<Location> prefetch = new ArrayList<>();
+    for (int i = Math.max(index + 1, prefetchedIndex + 1); i < end; i++) {
+      prefetch.add(unwrap(inputLocations.get(i)));
+    }
+    if (!prefetch.isEmpty()) {
+      prefetchedIndex = end - 1;
+      readCache.prefetch(prefetch);
+    }
+  }
+
+  private static Location unwrap(Location location) {
+    while (location instanceof FileSetLocation) {
+      location = ((FileSetLocation) location).delegate;
+    }
+    return location;
   }
 
   @WriteOnly
@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.data2.dataset2.lib.file;
+
+import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.SettableFuture;
+import io.cdap.cdap.common.utils.DirUtils;
+import io.cdap.cdap.security.impersonation.ImpersonationUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.twill.common.Threads;
+import org.apache.twill.filesystem.FileContextLocationFactory;
+import org.apache.twill.filesystem.Location;
+import org.apache.twill.filesystem.LocationFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * A cache of the files of a file set on local disk, to avoid a round trip to the file system for every open of
+ * a small file that is read repeatedly. Files are keyed by their path and modification time, such that a file
+ * that is rewritten is read again, and the least recently used files are evicted when the total size of the
+ * cached files exceeds the maximum size. There is one cache per cache directory in a process, which is shared by
+ * all instances of the same file set, and its maximum size is the one last requested for that directory.
+ */
+final class FileSetReadCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileSetReadCache.class);
+  private static final int PREFETCH_THREADS = 4;
+  private static final ConcurrentMap<File, FileSetReadCache> CACHES = new ConcurrentHashMap<>();
+  private static final ExecutorService PREFETCH_EXECUTOR =
+    Executors.newFixedThreadPool(PREFETCH_THREADS, Threads.createDaemonThreadFactory("fileset-prefetch-%d"));
+
+  private final File directory;
+  // guarded by this
+  private long maxSize;
+  // cached files in access order, guarded by this
+  private final LinkedHashMap<String, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+  private final ConcurrentMap<String, SettableFuture<File>> loading = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private long size;
+
+  /**
+   * Returns the cache that keeps its files in the given directory, creating it if necessary. If the cache
+   * already exists with a different maximum size, for example because the file set properties were updated,
+   * it is resized to the given maximum size.
+   */
+  static FileSetReadCache get(File directory, long maxSize) {
+    // the constructor cleans up the directory, hence it must only run once per directory
+    FileSetReadCache cache = CACHES.computeIfAbsent(directory, dir -> new FileSetReadCache(dir, maxSize));
+    cache.setMaxSize(maxSize);
+    return cache;
+  }
+
+  private FileSetReadCache(File directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    // files left over by a previous process are not tracked, hence they are removed
+    try {
+      if (directory.exists()) {
+        DirUtils.deleteDirectoryContents(directory, true);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to clean up file set cache directory {}", directory, e);
+    }
+  }
+
+  /**
+   * Opens the given location for reading, from the cache if it contains the current version of the location.
+   * Files larger than the cache are read from the file system.
+   */
+  InputStream getInputStream(Location location) throws IOException {
+    Status status = getStatus(location);
+    if (status.length > getMaxSize()) {
+      return location.getInputStream();
+    }
+    File file = load(location, status);
+    try {
+      return new FileInputStream(file);
+    } catch (IOException e) {
+      // the file was evicted between loading and opening it
+      LOG.trace("Cached file {} for {} is gone, reading from the file system", file, location, e);
+      return location.getInputStream();
+    }
+  }
+
+  /**
+   * Loads the given locations into the cache in the background, in the given order, as the current user.
+   * Directories and locations that cannot be read are skipped.
+   */
+  void prefetch(Iterable<? extends Location> locations) {
+    // the prefetch threads are shared, hence the files must be read as the user that requested the prefetch
+    UserGroupInformation ugi;
+    try {
+      ugi = UserGroupInformation.getCurrentUser();
+    } catch (IOException e) {
+      LOG.debug("Failed to determine the current user, skipping prefetch of {}", locations, e);
+      return;
+    }
+    for (Location location : locations) {
+      PREFETCH_EXECUTOR.execute(() -> {
+        try {
+          ImpersonationUtils.doAs(ugi, () -> {
+            Status status = getStatus(location);
+            if (!status.directory && status.length <= getMaxSize()) {
+              load(location, status);
+            }
+            return null;
+          });
+        } catch (Exception e) {
+          LOG.debug("Failed to prefetch {}", location, e);
+        }
+      });
+    }
+  }
+
+  /**
+   * Returns the number of reads that were served from the cache.
+   */
+  long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of reads that had to copy the file from the file system into the cache.
+   */
+  long getMisses() {
+    return misses.get();
+  }
+
+  private synchronized long getMaxSize() {
+    return maxSize;
+  }
+
+  private synchronized void setMaxSize(long maxSize) {
+    if (this.maxSize != maxSize) {
+      LOG.debug("Changing the maximum size of file set cache {} from {} to {}", directory, this.maxSize, maxSize);
+      this.maxSize = maxSize;
+      evict(null);
+    }
+  }
+
+  /**
+   * Returns the length and modification time of the given location. For locations backed by a Hadoop file
+   * system, both are fetched with a single status call rather than with one round trip each.
+   */
+  private static Status getStatus(Location location) throws IOException {
+    LocationFactory locationFactory = location.getLocationFactory();
+    if (locationFactory instanceof FileContextLocationFactory) {
+      FileStatus status = ((FileContextLocationFactory) locationFactory).getFileContext()
+        .getFileStatus(new Path(location.toURI()));
+      return new Status(status.getLen(), status.getModificationTime(), status.isDirectory());
+    }
+    // other locations are on the local file system, for which these calls are cheap
+    return new Status(location.length(), location.lastModified(), location.isDirectory());
+  }
+
+  private File load(Location location, Status status) throws IOException {
+    long length = status.length;
+    String key = Hashing.md5().hashString(location.toURI() + "@" + status.lastModified).toString();
+    File file = getCached(key);
+    if (file != null) {
+      return file;
+    }
+
+    SettableFuture<File> future = SettableFuture.create();
+    SettableFuture<File> existing = loading.putIfAbsent(key, future);
+    if (existing != null) {
+      // another thread, for example a prefetch, is copying the same file
+      hits.incrementAndGet();
+      return getUninterruptibly(existing);
+    }
+    try {
+      // the file may have been added after the first lookup, by a thread that is no longer loading it
+      file = getCached(key);
+      if (file != null) {
+        future.set(file);
+        return file;
+      }
+      misses.incrementAndGet();
+      file = copy(location, key);
+      add(key, file, length);
+      future.set(file);
+      return file;
+    } catch (Throwable t) {
+      future.setException(t);
+      Throwables.propagateIfInstanceOf(t, IOException.class);
+      throw Throwables.propagate(t);
+    } finally {
+      loading.remove(key, future);
+    }
+  }
+
+  @Nullable
+  private synchronized File getCached(String key) {
+    CachedFile cached = files.get(key);
+    if (cached == null) {
+      return null;
+    }
+    hits.incrementAndGet();
+    return cached.file;
+  }
+
+  private File copy(Location location, String key) throws IOException {
+    DirUtils.mkdirs(directory);
+    File tmpFile = File.createTempFile(key, ".tmp", directory);
+    try {
+      try (InputStream in = location.getInputStream(); OutputStream out = new FileOutputStream(tmpFile)) {
+        ByteStreams.copy(in, out);
+      }
+      File file = new File(directory, key);
+      if (!tmpFile.renameTo(file)) {
+        throw new IOException("Failed to rename " + tmpFile + " to " + file);
+      }
+      return file;
+    } finally {
+      tmpFile.delete();
+    }
+  }
+
+  private synchronized void add(String key, File file, long length) {
+    CachedFile previous = files.put(key, new CachedFile(file, length));
+    if (previous != null) {
+      size -= previous.length;
+    }
+    size += length;
+    evict(key);
+  }
+
+  /**
+   * Evicts the least recently used files until the cache fits into its maximum size, except for the given key.
+   */
+  private synchronized void evict(@Nullable String keep) {
+    Iterator<Map.Entry<String, CachedFile>> iterator = files.entrySet().iterator();
+    while (size > maxSize && iterator.hasNext()) {
+      Map.Entry<String, CachedFile> entry = iterator.next();
+      if (entry.getKey().equals(keep)) {
+        continue;
+      }
+      iterator.remove();
+      // the file may be gone or have a different length on disk, hence the length recorded when it was added is used
+      size -= entry.getValue().length;
+      // readers that already opened the file can still read it
+      if (!entry.getValue().file.delete()) {
+        LOG.debug("Failed to delete evicted file {}", entry.getValue().file);
+      }
+    }
+  }
+
+  private static File getUninterruptibly(SettableFuture<File> future) throws IOException {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return future.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+          throw Throwables.propagate(e.getCause());
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * The length, modification time and type of a location.
+   */
+  private static final class Status {
+    private final long length;
+    private final long lastModified;
+    private final boolean directory;
+
+    private Status(long length, long lastModified, boolean directory) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.directory = directory;
+    }
+  }
+
+  /**
+   * A file in the cache, together with the length that it was accounted with.
+   */
+  private static final class CachedFile {
+    private final File file;
+    private final long length;
+
+    private CachedFile(File file, long length) {
+      this.file = file;
+      this.length = length;
+    }
+  }
+}
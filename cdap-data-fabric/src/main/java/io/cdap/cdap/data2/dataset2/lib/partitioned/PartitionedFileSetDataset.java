@@ -57,9 +57,11 @@ import io.cdap.cdap.api.dataset.lib.PartitionMetadata;
 import io.cdap.cdap.api.dataset.lib.PartitionOutput;
 import io.cdap.cdap.api.dataset.lib.PartitionedFileSet;
 import io.cdap.cdap.api.dataset.lib.PartitionedFileSetArguments;
+import io.cdap.cdap.api.dataset.lib.PartitionedFileSetProperties;
 import io.cdap.cdap.api.dataset.lib.Partitioning;
 import io.cdap.cdap.api.dataset.lib.Partitioning.FieldType;
 import io.cdap.cdap.api.dataset.lib.partitioned.PartitionKeyCodec;
+import io.cdap.cdap.api.dataset.table.Get;
 import io.cdap.cdap.api.dataset.table.Put;
 import io.cdap.cdap.api.dataset.table.Row;
 import io.cdap.cdap.api.dataset.table.Scanner;
@@ -86,6 +88,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -94,6 +97,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
 /**
@@ -129,6 +133,7 @@ public class PartitionedFileSetDataset extends AbstractDataset
   private static final byte[] LAST_MODIFICATION_TIME_COL = { 'm' };
   private static final byte[] RELATIVE_PATH = { 'p' };
   private static final byte[] METADATA_PREFIX = { 'm', '.' };
+  private static final byte[] INDEXED_FIELD_PREFIX = { 'f', '.' };
 
   protected final FileSet files;
   protected final DatasetSpecification spec;
@@ -136,6 +141,8 @@ public class PartitionedFileSetDataset extends AbstractDataset
   private final boolean exploreEnabled;
   protected final Map<String, String> runtimeArguments;
   protected final Partitioning partitioning;
+  // partitioning fields that are indexed in the partitions table
+  private final Set<String> indexedFields;
   private final IndexedTable partitionsTable;
   private final Provider<ExploreFacade> exploreFacadeProvider;
 
@@ -164,6 +171,7 @@ public class PartitionedFileSetDataset extends AbstractDataset
     this.exploreEnabled = FileSetProperties.isExploreEnabled(spec.getProperties());
     this.runtimeArguments = arguments;
     this.partitioning = partitioning;
+    this.indexedFields = PartitionedFileSetProperties.getIndexedFields(spec.getProperties());
     this.exploreFacadeProvider = exploreFacadeProvider;
     this.datasetInstanceId = new DatasetId(datasetContext.getNamespaceId(), name);
   }
@@ -331,44 +339,99 @@ public class PartitionedFileSetDataset extends AbstractDataset
 
   public void addPartition(PartitionKey key, String path, Map<String, String> metadata, boolean filesCreated,
                            boolean allowAppend) {
-    byte[] rowKey = generateRowKey(key, partitioning);
-    Row row = partitionsTable.get(rowKey);
-    boolean appending = !row.isEmpty();
-    if (appending && !allowAppend) {
-      throw new PartitionAlreadyExistsException(getName(), key);
-    }
-    if (appending) {
-      // this can happen if user originally created the partition with a custom relative path
-      String existingPath = Bytes.toString(row.get(RELATIVE_PATH));
-      if (!path.equals(existingPath)) {
-        throw new DataSetException(String.format("Attempting to append to Dataset '%s', to partition '%s' with a " +
-                                                   "different path. Original path: '%s'. New path: '%s'",
-                                                 getName(), key.toString(), existingPath, path));
-      }
+    addPartitions(Collections.singletonMap(key, path), metadata, filesCreated, allowAppend);
+  }
+
+  @WriteOnly
+  @Override
+  public void addPartitions(Map<PartitionKey, String> partitions) {
+    addPartitions(partitions, Collections.<String, String>emptyMap());
+  }
+
+  @WriteOnly
+  @Override
+  public void addPartitions(Map<PartitionKey, String> partitions, Map<String, String> metadata) {
+    addPartitions(partitions, metadata, false, false);
+  }
+
+  /**
+   * Adds multiple partitions, with the same metadata for all of them. The existing rows of the partitions are read
+   * with one batched get, the rows are written with one batched put, and the partitions are added to explore in
+   * parallel.
+   */
+  public void addPartitions(Map<PartitionKey, String> partitions, Map<String, String> metadata, boolean filesCreated,
+                            boolean allowAppend) {
+    if (partitions.isEmpty()) {
+      return;
+    }
+    List<PartitionKey> keys = new ArrayList<>(partitions.keySet());
+    List<Get> gets = new ArrayList<>(keys.size());
+    for (PartitionKey key : keys) {
+      gets.add(new Get(generateRowKey(key, partitioning)));
     }
-    LOG.debug("{} partition with key {} and path {} to dataset {}", appending ? "Appending to" : "Creating",
-              key, path, getName());
-    AddPartitionOperation operation = new AddPartitionOperation(key, path, filesCreated);
-    operationsInThisTx.add(operation);
+    List<Row> rows = partitionsTable.get(gets);
 
-    Put put = new Put(rowKey);
+    List<Put> puts = new ArrayList<>(keys.size());
+    List<AddPartitionOperation> operations = new ArrayList<>(keys.size());
+    Map<PartitionKey, String> createdPartitions = new LinkedHashMap<>();
+    Map<PartitionKey, AddPartitionOperation> createOperations = new HashMap<>();
     byte[] nowInMillis = Bytes.toBytes(System.currentTimeMillis());
-    if (!appending) {
-      put.add(RELATIVE_PATH, Bytes.toBytes(path));
-      put.add(CREATION_TIME_COL, nowInMillis);
-    }
-    put.add(LAST_MODIFICATION_TIME_COL, nowInMillis);
+    for (int i = 0; i < keys.size(); i++) {
+      PartitionKey key = keys.get(i);
+      String path = partitions.get(key);
+      Row row = rows.get(i);
+      boolean appending = !row.isEmpty();
+      if (appending && !allowAppend) {
+        throw new PartitionAlreadyExistsException(getName(), key);
+      }
+      if (appending) {
+        // this can happen if user originally created the partition with a custom relative path
+        String existingPath = Bytes.toString(row.get(RELATIVE_PATH));
+        if (!path.equals(existingPath)) {
+          throw new DataSetException(String.format("Attempting to append to Dataset '%s', to partition '%s' with a " +
+                                                     "different path. Original path: '%s'. New path: '%s'",
+                                                   getName(), key.toString(), existingPath, path));
+        }
+      }
+      LOG.debug("{} partition with key {} and path {} to dataset {}", appending ? "Appending to" : "Creating",
+                key, path, getName());
+      AddPartitionOperation operation = new AddPartitionOperation(key, path, filesCreated);
+      operations.add(operation);
+
+      Put put = new Put(gets.get(i).getRow());
+      if (!appending) {
+        put.add(RELATIVE_PATH, Bytes.toBytes(path));
+        put.add(CREATION_TIME_COL, nowInMillis);
+        // the values of the indexed fields are stored in their own columns, to be indexed by the partitions table
+        for (String indexedField : indexedFields) {
+          put.add(getIndexedFieldColumn(indexedField),
+                  FieldTypes.toBytes(key.getField(indexedField), partitioning.getFields().get(indexedField)));
+        }
+        createdPartitions.put(key, path);
+        createOperations.put(key, operation);
+      }
+      put.add(LAST_MODIFICATION_TIME_COL, nowInMillis);
 
-    // we allow updates, because an update will only happen if its an append
-    addMetadataToPut(row, metadata, put, true);
-    // index each row by its transaction's write pointer
-    put.add(WRITE_PTR_COL, tx.getWritePointer());
+      // we allow updates, because an update will only happen if its an append
+      addMetadataToPut(row, metadata, put, true);
+      // index each row by its transaction's write pointer
+      put.add(WRITE_PTR_COL, tx.getWritePointer());
+      puts.add(put);
+    }
 
-    partitionsTable.put(put);
+    // only track the operations once all partitions are validated, so that none of them is added if one fails
+    operationsInThisTx.addAll(operations);
+    partitionsTable.put(puts);
 
-    if (!appending) {
-      addPartitionToExplore(key, path);
-      operation.setExplorePartitionCreated();
+    if (!createdPartitions.isEmpty()) {
+      if (createdPartitions.size() == 1) {
+        Map.Entry<PartitionKey, String> entry = createdPartitions.entrySet().iterator().next();
+        addPartitionToExplore(entry.getKey(), entry.getValue());
+        createOperations.get(entry.getKey()).setExplorePartitionCreated();
+      } else {
+        // mark each partition as soon as it is added, so that a rollback drops exactly the added partitions
+        addPartitionsToExplore(createdPartitions, key -> createOperations.get(key).setExplorePartitionCreated());
+      }
     }
   }
 
@@ -590,6 +653,24 @@ public class PartitionedFileSetDataset extends AbstractDataset
     }
   }
 
+  private void addPartitionsToExplore(Map<PartitionKey, String> partitions, Consumer<PartitionKey> addedListener) {
+    if (exploreEnabled) {
+      ExploreFacade exploreFacade = exploreFacadeProvider.get();
+      if (exploreFacade != null) {
+        Map<PartitionKey, String> locations = new LinkedHashMap<>();
+        for (Map.Entry<PartitionKey, String> entry : partitions.entrySet()) {
+          locations.put(entry.getKey(), files.getLocation(entry.getValue()).toURI().getPath());
+        }
+        try {
+          exploreFacade.addPartitions(datasetInstanceId, spec, locations, addedListener);
+        } catch (Exception e) {
+          throw new DataSetException(String.format(
+            "Unable to add %d partitions to explore table.", partitions.size()), e);
+        }
+      }
+    }
+  }
+
   @WriteOnly
   @Override
   public void dropPartition(PartitionKey key) {
@@ -759,38 +840,114 @@ public class PartitionedFileSetDataset extends AbstractDataset
   protected void getPartitions(@Nullable PartitionFilter filter, PartitionConsumer consumer, boolean decodeMetadata) {
     byte[] startKey = generateStartKey(filter);
     byte[] endKey = generateStopKey(filter);
+    if (startKey == null && endKey == null) {
+      // the filter does not bound the leading partitioning field, so use an index to avoid scanning all partitions
+      PartitionFilter.Condition<? extends Comparable> indexedCondition = getIndexedCondition(filter);
+      if (indexedCondition != null) {
+        try (Scanner scanner = scanIndex(indexedCondition)) {
+          getPartitions(filter, consumer, decodeMetadata, scanner, Long.MAX_VALUE);
+        }
+        return;
+      }
+    }
     getPartitions(filter, consumer, decodeMetadata, startKey, endKey, Long.MAX_VALUE);
   }
 
+  /**
+   * Returns the condition of the filter on an indexed field, preferring a condition that matches a single value,
+   * or null if the filter has no condition on any of the indexed fields.
+   */
+  @Nullable
+  private PartitionFilter.Condition<? extends Comparable> getIndexedCondition(@Nullable PartitionFilter filter) {
+    if (filter == null) {
+      return null;
+    }
+    PartitionFilter.Condition<? extends Comparable> rangeCondition = null;
+    for (String indexedField : indexedFields) {
+      PartitionFilter.Condition<? extends Comparable> condition = filter.getCondition(indexedField);
+      if (condition == null) {
+        continue;
+      }
+      if (condition.isSingleValue()) {
+        return condition;
+      }
+      if (rangeCondition == null) {
+        rangeCondition = condition;
+      }
+    }
+    return rangeCondition;
+  }
+
+  /**
+   * Returns a scanner over the partitions whose indexed field matches the given condition.
+   */
+  private Scanner scanIndex(PartitionFilter.Condition<? extends Comparable> condition) {
+    String fieldName = condition.getFieldName();
+    FieldType fieldType = partitioning.getFields().get(fieldName);
+    byte[] column = getIndexedFieldColumn(fieldName);
+    if (condition.isSingleValue()) {
+      return partitionsTable.readByIndex(column, indexValue(fieldName, fieldType, condition.getValue()));
+    }
+    return partitionsTable.scanByIndex(column, indexValue(fieldName, fieldType, condition.getLower()),
+                                       indexValue(fieldName, fieldType, condition.getUpper()));
+  }
+
+  @Nullable
+  private static byte[] indexValue(String fieldName, FieldType fieldType, @Nullable Comparable value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      fieldType.validate(value);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid partition filter: Value for field '%s' is incompatible with the partitioning: %s",
+        fieldName, e.getMessage()));
+    }
+    return FieldTypes.toBytes(value, fieldType);
+  }
+
+  /**
+   * Returns the column of the partitions table that stores the value of the given indexed partitioning field.
+   */
+  static byte[] getIndexedFieldColumn(String fieldName) {
+    return Bytes.add(INDEXED_FIELD_PREFIX, Bytes.toBytes(fieldName));
+  }
+
   private void getPartitions(@Nullable PartitionFilter filter, PartitionConsumer consumer, boolean decodeMetadata,
                              @Nullable byte[] startKey, @Nullable byte[] endKey, long limit) {
-    long count = 0L;
     try (Scanner scanner = partitionsTable.scan(startKey, endKey)) {
-      while (count < limit) {
-        Row row = scanner.next();
-        if (row == null) {
-          break;
-        }
-        PartitionKey key;
-        try {
-          key = parseRowKey(row.getRow(), partitioning);
-        } catch (IllegalArgumentException e) {
-          LOG.debug(String.format("Failed to parse row key for partitioned file set '%s': %s",
-                                  getName(), Bytes.toStringBinary(row.getRow())));
-          continue;
-        }
-        if (filter != null && !filter.match(key)) {
-          continue;
-        }
-        byte[] pathBytes = row.get(RELATIVE_PATH);
-        if (pathBytes != null) {
-          consumer.consume(key, Bytes.toString(pathBytes), decodeMetadata ? metadataFromRow(row) : null);
-        }
-        count++;
+      getPartitions(filter, consumer, decodeMetadata, scanner, limit);
+    }
+  }
+
+  private void getPartitions(@Nullable PartitionFilter filter, PartitionConsumer consumer, boolean decodeMetadata,
+                             Scanner scanner, long limit) {
+    long count = 0L;
+    while (count < limit) {
+      Row row = scanner.next();
+      if (row == null) {
+        break;
       }
-      if (count == 0) {
-        warnIfInvalidPartitionFilter(filter, partitioning);
+      PartitionKey key;
+      try {
+        key = parseRowKey(row.getRow(), partitioning);
+      } catch (IllegalArgumentException e) {
+        LOG.debug(String.format("Failed to parse row key for partitioned file set '%s': %s",
+                                getName(), Bytes.toStringBinary(row.getRow())));
+        continue;
+      }
+      if (filter != null && !filter.match(key)) {
+        continue;
       }
+      byte[] pathBytes = row.get(RELATIVE_PATH);
+      if (pathBytes != null) {
+        consumer.consume(key, Bytes.toString(pathBytes), decodeMetadata ? metadataFromRow(row) : null);
+      }
+      count++;
+    }
+    if (count == 0) {
+      warnIfInvalidPartitionFilter(filter, partitioning);
     }
   }
 
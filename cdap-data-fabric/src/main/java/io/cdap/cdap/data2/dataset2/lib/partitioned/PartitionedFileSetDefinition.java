@@ -49,6 +49,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Defines the partitioned dataset type. At this time, the partitions are not managed by the
@@ -89,10 +90,16 @@ public class PartitionedFileSetDefinition
   public DatasetSpecification configure(String instanceName, DatasetProperties properties) {
     Partitioning partitioning = PartitionedFileSetProperties.getPartitioning(properties.getProperties());
     Preconditions.checkArgument(partitioning != null, "Properties do not contain partitioning");
+    Set<String> indexedFields = PartitionedFileSetProperties.getIndexedFields(properties.getProperties());
+    for (String indexedField : indexedFields) {
+      Preconditions.checkArgument(partitioning.getFields().containsKey(indexedField),
+                                  "Indexed field '%s' is not a field of the partitioning %s",
+                                  indexedField, partitioning);
+    }
     // define the columns for indexing on the partitionsTable
     DatasetProperties indexedTableProperties = DatasetProperties.builder()
       .addAll(properties.getProperties())
-      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, INDEXED_COLS)
+      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, getIndexedColumns(indexedFields))
       .build();
 
     Map<String, String> pfsProperties = new HashMap<>(properties.getProperties());
@@ -134,13 +141,20 @@ public class PartitionedFileSetDefinition
       throw new IncompatibleUpdateException(String.format(
         "Partitioning cannot be changed. Existing: %s, new: %s", oldPartitioning, newPartitioning));
     }
+    // validate that the indexed fields are not changing, because existing partitions would be missing from the index
+    Set<String> oldIndexedFields = PartitionedFileSetProperties.getIndexedFields(currentSpec.getProperties());
+    Set<String> newIndexedFields = PartitionedFileSetProperties.getIndexedFields(properties.getProperties());
+    if (!oldIndexedFields.equals(newIndexedFields)) {
+      throw new IncompatibleUpdateException(String.format(
+        "Indexed partitioning fields cannot be changed. Existing: %s, new: %s", oldIndexedFields, newIndexedFields));
+    }
 
     Map<String, String> pfsProperties = new HashMap<>(properties.getProperties());
 
     // define the columns for indexing on the partitionsTable
     DatasetProperties indexedTableProperties = DatasetProperties.builder()
       .addAll(properties.getProperties())
-      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, INDEXED_COLS)
+      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, getIndexedColumns(newIndexedFields))
       .build();
 
     // only set the default base path property if the default was set the last time it was configured,
@@ -194,6 +208,18 @@ public class PartitionedFileSetDefinition
                                          getExploreProvider());
   }
 
+  /**
+   * Returns the columns to index in the partitions table, which are the write pointer and creation time columns,
+   * and one column for each of the given indexed partitioning fields.
+   */
+  private static String getIndexedColumns(Set<String> indexedFields) {
+    StringBuilder builder = new StringBuilder(INDEXED_COLS);
+    for (String indexedField : indexedFields) {
+      builder.append(',').append(Bytes.toString(PartitionedFileSetDataset.getIndexedFieldColumn(indexedField)));
+    }
+    return builder.toString();
+  }
+
   // if the arguments do not contain an output location, generate one from the partition key (if present)
   protected static Map<String, String> updateArgumentsIfNeeded(Map<String, String> arguments,
                                                                Partitioning partitioning) {
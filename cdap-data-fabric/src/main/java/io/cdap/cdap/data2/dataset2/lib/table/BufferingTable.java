@@ -73,8 +73,10 @@ import javax.annotation.Nullable;
  *       not in in-memory buffer twice, two times it will try to fetch it from persistent store.
  *       Given the snapshot isolation tx model, this can be improved in future implementations.
  * <p>
- * NOTE: current implementation persists changes only at the end of transaction. Beware of OOME. There should be better
- *       implementation for MapReduce case (YMMV though, for counters/aggregations this implementation looks sweet)
+ * NOTE: changes are persisted at the end of transaction. If {@link #PROPERTY_BUFFER_SPILL_SIZE} is set, they are
+ *       persisted earlier once the buffered changes grow beyond that many bytes, so that large transactions (e.g. in
+ *       MapReduce) don't run out of memory. Changes persisted before commit are visible to the transaction itself
+ *       only and are undone on rollback.
  * <p>
  * NOTE: Using {@link #get(byte[], byte[], byte[], int)} is generally always not efficient since it always hits the
  *       persisted store even if all needed data is in-memory buffer. See more info at method javadoc
@@ -86,6 +88,13 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
 
   protected static final byte[] DELETE_MARKER = new byte[0];
 
+  /**
+   * Table property for the approximate size in bytes of the in-memory buffer above which the buffered changes are
+   * persisted before the transaction commits. If not set, or set to a zero or negative value, changes are only
+   * persisted on commit.
+   */
+  public static final String PROPERTY_BUFFER_SPILL_SIZE = "dataset.table.buffer.spill.size";
+
   // name of the table
   private final String name;
   // conflict detection level
@@ -94,12 +103,17 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
   private final byte[] nameAsTxChangePrefix;
   // Whether read-less increments should be used when increment() is called
   private final boolean enableReadlessIncrements;
+  // Size of the in-memory buffer above which the buffered changes are persisted before commit, disabled if <= 0
+  private final long bufferSpillSize;
 
   // In-memory buffer that keeps not yet persisted data. It is row->(column->value) map. Value can be null which means
   // that the corresponded column was removed.
   private NavigableMap<byte[], NavigableMap<byte[], Update>> buff;
+  // Approximate size in bytes of the rows, columns and values in the in-memory buffer
+  private long buffSize;
 
-  // Keeps track of what was persisted so far
+  // Keeps track of what was persisted so far. Changes persisted before commit are kept as row->(column->null), since
+  // undo only needs the keys
   private NavigableMap<byte[], NavigableMap<byte[], Update>> toUndo;
 
   // Report data ops metrics to
@@ -145,6 +159,10 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
     this.name = name;
     this.conflictLevel = TableProperties.getConflictDetection(properties, ConflictDetection.ROW);
     this.enableReadlessIncrements = enableReadlessIncrements;
+    // Buffered read-less increments cannot be persisted early, since a second increment of the same column in the
+    // same transaction would overwrite the first one, which has the same version
+    String spillSize = properties.get(PROPERTY_BUFFER_SPILL_SIZE);
+    this.bufferSpillSize = enableReadlessIncrements || spillSize == null ? 0L : Long.parseLong(spillSize);
     // TODO: having central dataset management service will allow us to use table ids instead of names, which will
     //       reduce changeset size transferred to/from server
     // we want it to be of format length+value to avoid conflicts like table="ab", row="cd" vs table="abc", row="d"
@@ -273,6 +291,7 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
     }
     // starting with fresh buffer when tx starts
     buff.clear();
+    buffSize = 0;
     toUndo = null;
     this.tx = tx;
   }
@@ -308,55 +327,125 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
 
   private Collection<byte[]> getRowChanges() {
     // we resolve conflicts on row level of individual table
-    List<byte[]> changes = new ArrayList<>(buff.size());
+    // the changes persisted before commit are in toUndo, the ones not yet persisted are in the buffer
+    List<byte[]> changes = new ArrayList<>(buff.size() + (toUndo == null ? 0 : toUndo.size()));
+    if (toUndo != null) {
+      for (byte[] changedRow : toUndo.keySet()) {
+        changes.add(Bytes.add(getNameAsTxChangePrefix(), changedRow));
+      }
+    }
     for (byte[] changedRow : buff.keySet()) {
-      changes.add(Bytes.add(getNameAsTxChangePrefix(), changedRow));
+      if (toUndo == null || !toUndo.containsKey(changedRow)) {
+        changes.add(Bytes.add(getNameAsTxChangePrefix(), changedRow));
+      }
     }
     return changes;
   }
 
   private Collection<byte[]> getColumnChanges() {
     // we resolve conflicts on row level of individual table
-    List<byte[]> changes = new ArrayList<>(buff.size());
-    for (Map.Entry<byte[], NavigableMap<byte[], Update>> rowChange : buff.entrySet()) {
-      if (rowChange.getValue() == null) {
-        // NOTE: as of now we cannot detect conflict between delete whole row and row's column value change.
-        //       this is not a big problem as of now, as row deletion is now act as deletion of every column, but this
-        //       will change in future, so we will have to address the issue.
-        continue;
+    // the changes persisted before commit are in toUndo, the ones not yet persisted are in the buffer
+    List<byte[]> changes = new ArrayList<>(buff.size() + (toUndo == null ? 0 : toUndo.size()));
+    if (toUndo != null) {
+      for (Map.Entry<byte[], NavigableMap<byte[], Update>> rowChange : toUndo.entrySet()) {
+        addColumnChanges(changes, rowChange.getKey(), rowChange.getValue(), null);
       }
+    }
+    for (Map.Entry<byte[], NavigableMap<byte[], Update>> rowChange : buff.entrySet()) {
+      addColumnChanges(changes, rowChange.getKey(), rowChange.getValue(),
+                       toUndo == null ? null : toUndo.get(rowChange.getKey()));
+    }
+    return changes;
+  }
 
-      // using length + value format to prevent conflicts like row="ab", column="cd" vs row="abc", column="d"
-      byte[] rowTxChange = Bytes.add(Bytes.toBytes(rowChange.getKey().length), rowChange.getKey());
+  private void addColumnChanges(List<byte[]> changes, byte[] row, @Nullable Map<byte[], Update> columns,
+                                @Nullable Map<byte[], Update> excludedColumns) {
+    if (columns == null) {
+      // NOTE: as of now we cannot detect conflict between delete whole row and row's column value change.
+      //       this is not a big problem as of now, as row deletion is now act as deletion of every column, but this
+      //       will change in future, so we will have to address the issue.
+      return;
+    }
 
-      for (byte[] column : rowChange.getValue().keySet()) {
+    // using length + value format to prevent conflicts like row="ab", column="cd" vs row="abc", column="d"
+    byte[] rowTxChange = Bytes.add(Bytes.toBytes(row.length), row);
+
+    for (byte[] column : columns.keySet()) {
+      if (excludedColumns == null || !excludedColumns.containsKey(column)) {
         changes.add(Bytes.add(getNameAsTxChangePrefix(), rowTxChange, column));
       }
     }
-    return changes;
   }
 
   @Override
   public boolean commitTx() throws Exception {
     if (!buff.isEmpty()) {
-      // We first assume that all data will be persisted. So that if exception happen during persist we try to
-      // rollback everything we had in in-memory buffer.
-      toUndo = buff;
-      // clearing up in-memory buffer by initializing new map.
-      // NOTE: we want to init map here so that if no changes are made we re-use same instance of the map in next tx
-      // NOTE: we could cache two maps and swap them to avoid creation of map instances, but code would be ugly
-      buff = new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR);
-      // TODO: tracking of persisted items can be optimized by returning a pair {succeededOrNot, persisted} which
-      //       tells if persisting succeeded and what was persisted (i.e. what we will have to undo in case of rollback)
-      persist(toUndo);
+      persistBuffer(false);
     }
     return true;
   }
 
+  /**
+   * Persists the in-memory buffer and starts a new one, keeping track of the persisted changes for rollback.
+   *
+   * @param spill whether the buffer is persisted before commit because it grew too large
+   */
+  private void persistBuffer(boolean spill) throws Exception {
+    NavigableMap<byte[], NavigableMap<byte[], Update>> toPersist = buff;
+    // clearing up in-memory buffer by initializing new map.
+    // NOTE: we want to init map here so that if no changes are made we re-use same instance of the map in next tx
+    // NOTE: we could cache two maps and swap them to avoid creation of map instances, but code would be ugly
+    buff = new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR);
+    buffSize = 0;
+
+    // We first assume that all data will be persisted. So that if exception happen during persist we try to
+    // rollback everything we had in in-memory buffer.
+    if (toUndo == null && !spill) {
+      // the buffer is not used anymore after commit, hence it can be kept for undo as is
+      toUndo = toPersist;
+    } else {
+      // only keep the keys of spilled changes, so that their values don't stay in memory until the tx completes
+      if (toUndo == null) {
+        toUndo = Maps.newTreeMap(Bytes.BYTES_COMPARATOR);
+      }
+      for (Map.Entry<byte[], NavigableMap<byte[], Update>> row : toPersist.entrySet()) {
+        NavigableMap<byte[], Update> persistedColumns = toUndo.get(row.getKey());
+        if (persistedColumns == null) {
+          persistedColumns = Maps.newTreeMap(Bytes.BYTES_COMPARATOR);
+          toUndo.put(row.getKey(), persistedColumns);
+        }
+        for (byte[] column : row.getValue().keySet()) {
+          persistedColumns.put(column, null);
+        }
+      }
+    }
+    // TODO: tracking of persisted items can be optimized by returning a pair {succeededOrNot, persisted} which
+    //       tells if persisting succeeded and what was persisted (i.e. what we will have to undo in case of rollback)
+    persist(toPersist);
+  }
+
+  /**
+   * Persists the buffered changes before commit if the in-memory buffer grew beyond the spill size.
+   */
+  private void spillBufferIfNeeded() {
+    if (bufferSpillSize <= 0 || buffSize < bufferSpillSize) {
+      return;
+    }
+    LOG.trace("Persisting {} buffered rows of {} bytes before commit for table {}",
+              buff.size(), buffSize, getTransactionAwareName());
+    try {
+      persistBuffer(true);
+    } catch (Exception e) {
+      LOG.debug("persisting buffer failed for table: " + getTransactionAwareName(), e);
+      throw new DataSetException("persisting buffer failed", e);
+    }
+  }
+
   @Override
   public void postTxCommit() {
     // don't need buffer anymore: tx has been committed
     buff.clear();
+    buffSize = 0;
     toUndo = null;
     tx = null;
   }
@@ -364,6 +453,7 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
   @Override
   public boolean rollbackTx() throws Exception {
     buff.clear();
+    buffSize = 0;
     if (toUndo != null) {
       undo(toUndo);
       toUndo = null;
@@ -513,11 +603,14 @@ public abstract class BufferingTable extends AbstractTable implements MeteredDat
         warnAboutEmptyValue(columns[i]);
       }
       colVals.put(copy(columns[i]), new PutValue(copy(values[i])));
+      buffSize += getSize(columns[i]) + getSize(values[i]);
     }
     if (newRow) {
       // NOTE: we copy passed row's byte arrays to protect buffer against possible changes of this array on client
       buff.put(copy(row), colVals);
+      buffSize += getSize(row);
     }
+    spillBufferIfNeeded();
   }
 
   /**
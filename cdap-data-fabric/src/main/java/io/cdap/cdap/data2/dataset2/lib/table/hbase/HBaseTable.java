@@ -24,6 +24,7 @@ import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.cdap.cdap.api.annotation.ReadOnly;
 import io.cdap.cdap.api.annotation.WriteOnly;
 import io.cdap.cdap.api.common.Bytes;
@@ -63,6 +64,7 @@ import org.apache.tephra.Transaction;
 import org.apache.tephra.TransactionCodec;
 import org.apache.tephra.TxConstants;
 import org.apache.tephra.util.TxUtils;
+import org.apache.twill.common.Threads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +75,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
@@ -95,6 +101,17 @@ public class HBaseTable extends BufferingTable {
 
   public static final String SAFE_INCREMENTS = "dataset.table.safe.readless.increments";
 
+  /**
+   * Runtime argument to enable writing to HBase in the background. The writes of a transaction are then sent while
+   * the program continues buffering writes, and the transaction only waits for them when it commits.
+   */
+  public static final String ASYNC_PERSIST = "dataset.table.async.persist";
+
+  /**
+   * Table property for the size in bytes of the HBase client write buffer.
+   */
+  public static final String WRITE_BUFFER_SIZE = "dataset.table.write.buffer.size";
+
   private final HBaseTableUtil tableUtil;
   private final HTable hTable;
   private final String hTableName;
@@ -110,6 +127,10 @@ public class HBaseTable extends BufferingTable {
 
   private final Map<String, String> arguments;
   private final Map<String, String> properties;
+  // sends the writes to HBase in the background, null if writes are sent synchronously
+  private final ExecutorService persistExecutor;
+  // the background writes that have not been waited for
+  private final List<Future<?>> pendingWrites = new ArrayList<>();
 
   private byte[] encodedTx;
 
@@ -126,8 +147,9 @@ public class HBaseTable extends BufferingTable {
           TableProperties.getReadlessIncrementSupport(spec.getProperties()), spec.getProperties());
     TableId hBaseTableId = tableUtil.createHTableId(new NamespaceId(datasetContext.getNamespaceId()), spec.getName());
     HTable hTable = tableUtil.createHTable(hConf, hBaseTableId);
-    // todo: make configurable
-    hTable.setWriteBufferSize(HBaseTableUtil.DEFAULT_WRITE_BUFFER_SIZE);
+    String writeBufferSize = spec.getProperty(WRITE_BUFFER_SIZE);
+    hTable.setWriteBufferSize(writeBufferSize == null ?
+                                HBaseTableUtil.DEFAULT_WRITE_BUFFER_SIZE : Long.parseLong(writeBufferSize));
     hTable.setAutoFlushTo(false);
     this.tableUtil = tableUtil;
     this.hTable = hTable;
@@ -142,6 +164,8 @@ public class HBaseTable extends BufferingTable {
       cConf.getInt(TxConstants.Manager.CFG_TX_MAX_LIFETIME, TxConstants.Manager.DEFAULT_TX_MAX_LIFETIME)));
     this.arguments = args;
     this.properties = spec.getProperties();
+    this.persistExecutor = Boolean.parseBoolean(args.get(ASYNC_PERSIST)) ?
+      Executors.newSingleThreadExecutor(Threads.createDaemonThreadFactory("hbase-table-persist-%d")) : null;
   }
 
   @Override
@@ -180,13 +204,52 @@ public class HBaseTable extends BufferingTable {
     encodedTx = null;
   }
 
+  @Override
+  public boolean commitTx() throws Exception {
+    boolean success = super.commitTx();
+    // the transaction can only be committed after all its writes are persisted
+    awaitPendingWrites();
+    return success;
+  }
+
   @Override
   public boolean rollbackTx() throws Exception {
+    // the writes must complete before they can be undone
+    try {
+      awaitPendingWrites();
+    } catch (IOException e) {
+      LOG.debug("Background write failed before rollback for table {}", hTableName, e);
+    }
     boolean success = super.rollbackTx();
     encodedTx = null;
     return success;
   }
 
+  /**
+   * Waits for all background writes to complete.
+   *
+   * @throws IOException if any of the writes failed
+   */
+  private void awaitPendingWrites() throws IOException {
+    if (pendingWrites.isEmpty()) {
+      return;
+    }
+    // wait for all writes even if one fails, so that no write is still running when the caller continues
+    Throwable failure = null;
+    for (Future<?> write : pendingWrites) {
+      try {
+        Uninterruptibles.getUninterruptibly(write);
+      } catch (ExecutionException e) {
+        failure = failure == null ? e.getCause() : failure;
+      }
+    }
+    pendingWrites.clear();
+    if (failure != null) {
+      Throwables.propagateIfInstanceOf(failure, IOException.class);
+      throw new IOException("Failed to write to HBase table " + hTableName, failure);
+    }
+  }
+
   @Override
   protected List<Map<byte[], byte[]>> getPersisted(List<io.cdap.cdap.api.dataset.table.Get> gets) {
     if (gets.isEmpty()) {
@@ -208,6 +271,11 @@ public class HBaseTable extends BufferingTable {
       return Collections.emptyList();
     }
 
+    try {
+      awaitPendingWrites();
+    } catch (IOException e) {
+      throw new DataSetException("Write failed on table " + hTableName, e);
+    }
     Result[] hbaseResults = hbaseGet(hbaseGets);
 
     List<Map<byte[], byte[]>> results = new ArrayList<>(gets.size());
@@ -244,7 +312,11 @@ public class HBaseTable extends BufferingTable {
   public void close() throws IOException {
     try {
       super.close();
+      awaitPendingWrites();
     } finally {
+      if (persistExecutor != null) {
+        persistExecutor.shutdownNow();
+      }
       hTable.close();
     }
   }
@@ -306,21 +378,23 @@ public class HBaseTable extends BufferingTable {
         mutations.add(put.build());
       }
     }
-    if (!hbaseFlush(mutations)) {
+    if (mutations.isEmpty()) {
       LOG.info("No writes to persist!");
+    } else if (persistExecutor == null) {
+      hbaseFlush(mutations);
+    } else {
+      // HTable is not thread-safe, so writes are only sent by the executor, and reads wait for the pending writes
+      pendingWrites.add(persistExecutor.submit(() -> {
+        hbaseFlush(mutations);
+        return null;
+      }));
     }
   }
 
   @WriteOnly
-  private boolean hbaseFlush(List<Mutation> mutations)
-    throws IOException, InterruptedException {
-
-    if (!mutations.isEmpty()) {
-      hTable.batch(mutations, new Object[mutations.size()]);
-      hTable.flushCommits();
-      return true;
-    }
-    return false;
+  private void hbaseFlush(List<Mutation> mutations) throws IOException, InterruptedException {
+    hTable.batch(mutations, new Object[mutations.size()]);
+    hTable.flushCommits();
   }
 
   private PutBuilder getPut(PutBuilder existing, byte[] row, @Nullable byte[] txId) {
@@ -437,6 +511,7 @@ public class HBaseTable extends BufferingTable {
   @ReadOnly
   @Override
   protected Scanner scanPersisted(io.cdap.cdap.api.dataset.table.Scan scan) throws Exception {
+    awaitPendingWrites();
     ScanBuilder hScan = tableUtil.buildScan();
     hScan.addFamily(columnFamily);
 
@@ -532,6 +607,7 @@ public class HBaseTable extends BufferingTable {
   // columns being null means to get all rows; empty columns means get no rows.
   @ReadOnly
   private NavigableMap<byte[], byte[]> getInternal(byte[] row, @Nullable byte[][] columns) throws IOException {
+    awaitPendingWrites();
     if (columns != null && columns.length == 0) {
       return EMPTY_ROW_MAP;
     }
@@ -22,6 +22,7 @@ import com.google.common.collect.Maps;
 import io.cdap.cdap.api.annotation.ReadOnly;
 import io.cdap.cdap.api.annotation.WriteOnly;
 import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.data.batch.ConcurrentSplitReadable;
 import io.cdap.cdap.api.dataset.DataSetException;
 import io.cdap.cdap.api.dataset.DatasetContext;
 import io.cdap.cdap.api.dataset.DatasetSpecification;
@@ -42,9 +43,10 @@ import java.util.NavigableMap;
 import javax.annotation.Nullable;
 
 /**
- * In-memory implementation of Table.
+ * In-memory implementation of Table. Its splits can be read concurrently, since {@link InMemoryTableService} and
+ * the in-memory buffer support concurrent reads.
  */
-public class InMemoryTable extends BufferingTable {
+public class InMemoryTable extends BufferingTable implements ConcurrentSplitReadable {
 
   /**
    * Type name
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.data2.dataset2.lib.table.leveldb;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bloom filter of the row keys of a LevelDB table, used to answer reads of rows that do not exist without
+ * seeking into the table. Rows are added before they are written, and never removed, so that the filter
+ * can have false positives but no false negatives.
+ */
+public final class LevelDBRowKeyFilter {
+
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.01d;
+
+  private final BloomFilter<byte[]> filter;
+  private final AtomicLong checks = new AtomicLong();
+  private final AtomicLong skips = new AtomicLong();
+
+  LevelDBRowKeyFilter(int expectedRows) {
+    this.filter = BloomFilter.create(Funnels.byteArrayFunnel(), expectedRows, FALSE_POSITIVE_PROBABILITY);
+  }
+
+  /**
+   * Records that the given row may exist in the table.
+   */
+  synchronized void add(byte[] row) {
+    filter.put(row);
+  }
+
+  /**
+   * Returns {@code false} if the given row definitely does not exist in the table.
+   */
+  boolean mightContain(byte[] row) {
+    boolean result;
+    synchronized (this) {
+      result = filter.mightContain(row);
+    }
+    checks.incrementAndGet();
+    if (!result) {
+      skips.incrementAndGet();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of reads that consulted this filter.
+   */
+  public long getChecks() {
+    return checks.get();
+  }
+
+  /**
+   * Returns the number of reads that were answered by this filter without reading the table.
+   */
+  public long getSkips() {
+    return skips.get();
+  }
+}
@@ -20,9 +20,11 @@ import com.google.common.collect.Maps;
 import io.cdap.cdap.api.annotation.ReadOnly;
 import io.cdap.cdap.api.annotation.WriteOnly;
 import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.data.batch.ConcurrentSplitReadable;
 import io.cdap.cdap.api.dataset.DataSetException;
 import io.cdap.cdap.api.dataset.DatasetContext;
 import io.cdap.cdap.api.dataset.DatasetSpecification;
+import io.cdap.cdap.api.dataset.table.Get;
 import io.cdap.cdap.api.dataset.table.Row;
 import io.cdap.cdap.api.dataset.table.Scan;
 import io.cdap.cdap.api.dataset.table.Scanner;
@@ -35,14 +37,17 @@ import io.cdap.cdap.data2.dataset2.lib.table.Update;
 import io.cdap.cdap.data2.dataset2.lib.table.inmemory.PrefixedNamespaces;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import javax.annotation.Nullable;
 
 /**
- * A table client based on LevelDB.
+ * A table client based on LevelDB. Its splits can be read concurrently, since LevelDB and the in-memory buffer
+ * support concurrent reads.
  */
-public class LevelDBTable extends BufferingTable {
+public class LevelDBTable extends BufferingTable implements ConcurrentSplitReadable {
 
   private final LevelDBTableCore core;
   private long persistedVersion;
@@ -119,6 +124,12 @@ public class LevelDBTable extends BufferingTable {
     return core.getRow(row, columns, null, null, -1, tx);
   }
 
+  @ReadOnly
+  @Override
+  protected List<Map<byte[], byte[]>> getPersisted(List<Get> gets) throws Exception {
+    return Collections.unmodifiableList(core.getRows(gets, tx));
+  }
+
   @ReadOnly
   @Override
   protected NavigableMap<byte[], byte[]> getPersisted(byte[] row, byte[] startColumn, byte[] stopColumn, int limit)
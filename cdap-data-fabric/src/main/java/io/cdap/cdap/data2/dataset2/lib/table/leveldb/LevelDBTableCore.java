@@ -17,7 +17,9 @@
 package io.cdap.cdap.data2.dataset2.lib.table.leveldb;
 
 import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Striped;
 import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.dataset.table.Get;
 import io.cdap.cdap.api.dataset.table.Result;
 import io.cdap.cdap.api.dataset.table.Row;
 import io.cdap.cdap.api.dataset.table.Scanner;
@@ -34,13 +36,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 /**
@@ -70,10 +76,13 @@ public class LevelDBTableCore {
 
   private final String tableName;
   private final LevelDBTableService service;
+  // locks for the read-modify-write operations, so that operations on different rows can run concurrently
+  private final Striped<Lock> rowLocks;
 
   public LevelDBTableCore(String tableName, LevelDBTableService service) {
     this.tableName = tableName;
     this.service = service;
+    this.rowLocks = service.getRowLocks(tableName);
   }
 
   private DB getDB() throws IOException {
@@ -84,8 +93,31 @@ public class LevelDBTableCore {
     return service.getWriteOptions();
   }
 
+  /**
+   * Adds the given rows to the row key filter of the table, if it has one. This must happen before the rows
+   * are written, so that a concurrent read never misses a row that exists.
+   */
+  private void addToRowKeyFilter(Collection<byte[]> rows) throws IOException {
+    LevelDBRowKeyFilter filter = service.getRowKeyFilter(tableName);
+    if (filter != null) {
+      for (byte[] row : rows) {
+        filter.add(row);
+      }
+    }
+  }
 
-  public synchronized boolean swap(byte[] row, byte[] column, byte[] oldValue, byte[] newValue) throws IOException {
+
+  public boolean swap(byte[] row, byte[] column, byte[] oldValue, byte[] newValue) throws IOException {
+    Lock lock = rowLocks.get(Bytes.hashCode(row));
+    lock.lock();
+    try {
+      return swapLocked(row, column, oldValue, newValue);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean swapLocked(byte[] row, byte[] column, byte[] oldValue, byte[] newValue) throws IOException {
     byte[] existing = getRow(row, new byte[][] { column }, null, null, -1, null).get(column);
     // verify
     if (oldValue == null && existing != null) {
@@ -104,11 +136,14 @@ public class LevelDBTableCore {
     return true;
   }
 
-  public synchronized Map<byte[], Long> increment(byte[] row, Map<byte[], Long> increments) throws IOException {
+  public Map<byte[], Long> increment(byte[] row, Map<byte[], Long> increments) throws IOException {
     Map<byte[], Long> result = new TreeMap<>(Bytes.BYTES_COMPARATOR);
 
     DB db = getDB();
+    addToRowKeyFilter(Collections.singleton(row));
     WriteBatch writeBatch = db.createWriteBatch();
+    Lock lock = rowLocks.get(Bytes.hashCode(row));
+    lock.lock();
     try (Snapshot snapshot = db.getSnapshot()) {
       ReadOptions readOptions = new ReadOptions().snapshot(snapshot);
 
@@ -120,19 +155,28 @@ public class LevelDBTableCore {
         writeBatch.put(rowKey, Bytes.toBytes(newValue));
       }
       db.write(writeBatch, service.getWriteOptions());
+    } finally {
+      lock.unlock();
     }
 
     return result;
   }
 
 
-  public synchronized void increment(NavigableMap<byte[], NavigableMap<byte[], Long>> updates) throws IOException {
+  public void increment(NavigableMap<byte[], NavigableMap<byte[], Long>> updates) throws IOException {
     if (updates.isEmpty()) {
       return;
     }
 
     DB db = getDB();
+    addToRowKeyFilter(updates.keySet());
     WriteBatch writeBatch = db.createWriteBatch();
+    // The bulk get returns the locks in a consistent order, so that concurrent batches cannot deadlock
+    List<Integer> rowHashes = updates.keySet().stream().map(Bytes::hashCode).collect(Collectors.toList());
+    Iterable<Lock> locks = rowLocks.bulkGet(rowHashes);
+    for (Lock lock : locks) {
+      lock.lock();
+    }
     try (Snapshot snapshot = db.getSnapshot()) {
       ReadOptions readOptions = new ReadOptions().snapshot(snapshot);
 
@@ -145,6 +189,10 @@ public class LevelDBTableCore {
         }
       }
       db.write(writeBatch, service.getWriteOptions());
+    } finally {
+      for (Lock lock : locks) {
+        lock.unlock();
+      }
     }
   }
 
@@ -162,6 +210,7 @@ public class LevelDBTableCore {
 
   public void persist(Map<byte[], ? extends Map<byte[], byte[]>> changes, long version) throws IOException {
     DB db = getDB();
+    addToRowKeyFilter(changes.keySet());
     // todo support writing null when no transaction
     WriteBatch batch = db.createWriteBatch();
     for (Map.Entry<byte[], ? extends Map<byte[], byte[]>> row : changes.entrySet()) {
@@ -174,6 +223,7 @@ public class LevelDBTableCore {
   }
 
   public void put(byte[] row, byte[] column, byte[] value, long version) throws IOException {
+    addToRowKeyFilter(Collections.singleton(row));
     getDB().put(createPutKey(row, column, version), value);
   }
 
@@ -223,15 +273,63 @@ public class LevelDBTableCore {
       Arrays.sort(columns, Bytes.BYTES_COMPARATOR);
       limit = columns.length;
     }
+    LevelDBRowKeyFilter filter = service.getRowKeyFilter(tableName);
+    if (filter != null && !filter.mightContain(row)) {
+      return Collections.emptyNavigableMap();
+    }
 
-    byte[] startKey = createStartKey(row, columns == null ? startCol : columns[0]);
-    byte[] endKey = createEndKey(row, columns == null ? stopCol : upperBound(columns[columns.length - 1]));
     try (DBIterator iterator = getDB().iterator()) {
-      iterator.seek(startKey);
-      return getRow(iterator, endKey, tx, false, columns, limit).getSecond();
+      return readRow(iterator, row, columns, startCol, stopCol, limit, tx);
     }
   }
 
+  /**
+   * Reads multiple rows of the table. All rows are read with the same iterator, which is cheaper than creating
+   * a new iterator for every row.
+   * @return the column maps of the rows, in the same order as the given gets
+   */
+  public List<NavigableMap<byte[], byte[]>> getRows(List<Get> gets, @Nullable Transaction tx) throws IOException {
+    List<NavigableMap<byte[], byte[]>> results = new ArrayList<>(gets.size());
+    LevelDBRowKeyFilter filter = service.getRowKeyFilter(tableName);
+    DBIterator iterator = null;
+    try {
+      for (Get get : gets) {
+        byte[][] columns = null;
+        if (get.getColumns() != null) {
+          columns = get.getColumns().toArray(new byte[get.getColumns().size()][]);
+          Arrays.sort(columns, Bytes.BYTES_COMPARATOR);
+        }
+        if ((columns != null && columns.length == 0) || (filter != null && !filter.mightContain(get.getRow()))) {
+          results.add(Collections.emptyNavigableMap());
+          continue;
+        }
+        if (iterator == null) {
+          iterator = getDB().iterator();
+        }
+        results.add(readRow(iterator, get.getRow(), columns, null, null, columns == null ? -1 : columns.length, tx));
+      }
+    } finally {
+      if (iterator != null) {
+        iterator.close();
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Reads one row of the table with the given iterator.
+   * @param columns If non-null, only columns contained in this will be returned. The given columns must be sorted
+   *                and not empty.
+   */
+  private NavigableMap<byte[], byte[]> readRow(DBIterator iterator, byte[] row, @Nullable byte[][] columns,
+                                               @Nullable byte[] startCol, @Nullable byte[] stopCol,
+                                               int limit, @Nullable Transaction tx) {
+    byte[] startKey = createStartKey(row, columns == null ? startCol : columns[0]);
+    byte[] endKey = createEndKey(row, columns == null ? stopCol : upperBound(columns[columns.length - 1]));
+    iterator.seek(startKey);
+    return getRow(iterator, endKey, tx, false, columns, limit).getSecond();
+  }
+
   private static Scanner createEmptyScanner() {
     return new Scanner() {
       @Override
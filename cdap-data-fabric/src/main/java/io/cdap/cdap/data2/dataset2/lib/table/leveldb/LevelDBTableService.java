@@ -23,13 +23,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.Striped;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.cdap.cdap.api.common.Bytes;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.data2.util.TableId;
 import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBComparator;
+import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteOptions;
 import org.slf4j.Logger;
@@ -43,6 +46,9 @@ import java.net.URLEncoder;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 import static org.iq80.leveldb.impl.Iq80DBFactory.factory;
 
@@ -53,14 +59,20 @@ import static org.iq80.leveldb.impl.Iq80DBFactory.factory;
 public class LevelDBTableService implements AutoCloseable {
 
   private static final Logger LOG = LoggerFactory.getLogger(LevelDBTableService.class);
+  // number of locks for the read-modify-write operations on the rows of a table
+  private static final int ROW_LOCK_STRIPES = 64;
 
   private int blockSize;
   private long cacheSize;
   private String basePath;
   private WriteOptions writeOptions;
   private boolean isClosed;
+  private Pattern bloomFilterTables;
+  private int bloomFilterExpectedRows;
 
   private final ConcurrentMap<String, DB> tables = Maps.newConcurrentMap();
+  private final ConcurrentMap<String, Striped<Lock>> rowLocks = Maps.newConcurrentMap();
+  private final ConcurrentMap<String, LevelDBRowKeyFilter> rowKeyFilters = Maps.newConcurrentMap();
 
   /**
    * To avoid database locking issues make sure that the single LevelDBTableService instance
@@ -90,6 +102,10 @@ public class LevelDBTableService implements AutoCloseable {
     cacheSize = config.getLong(Constants.CFG_DATA_LEVELDB_CACHESIZE, Constants.DEFAULT_DATA_LEVELDB_CACHESIZE);
     writeOptions = new WriteOptions().sync(
       config.getBoolean(Constants.CFG_DATA_LEVELDB_FSYNC, Constants.DEFAULT_DATA_LEVELDB_FSYNC));
+    String filterTables = config.get(Constants.CFG_DATA_LEVELDB_BLOOM_FILTER_TABLES);
+    bloomFilterTables = filterTables == null || filterTables.isEmpty() ? null : Pattern.compile(filterTables);
+    bloomFilterExpectedRows = config.getInt(Constants.CFG_DATA_LEVELDB_BLOOM_FILTER_EXPECTED_ROWS,
+                                            Constants.DEFAULT_DATA_LEVELDB_BLOOM_FILTER_EXPECTED_ROWS);
   }
 
   /**
@@ -100,6 +116,8 @@ public class LevelDBTableService implements AutoCloseable {
       Closeables.closeQuietly(entries);
     }
     tables.clear();
+    rowKeyFilters.clear();
+    rowLocks.clear();
   }
 
   private void ensureOpen() {
@@ -144,7 +162,10 @@ public class LevelDBTableService implements AutoCloseable {
       String tableName = getTableName(dir.getName());
       // NOTE: we are using recursion to traverse file tree as we know that leveldb table fs tree is couple levels deep.
       long size = getSize(dir);
-      builder.put(LevelDBNameConverter.from(tableName), new TableStats(size));
+      LevelDBRowKeyFilter filter = rowKeyFilters.get(tableName);
+      TableStats stats = filter == null
+        ? new TableStats(size) : new TableStats(size, filter.getChecks(), filter.getSkips());
+      builder.put(LevelDBNameConverter.from(tableName), stats);
     }
     return builder.build();
   }
@@ -171,6 +192,55 @@ public class LevelDBTableService implements AutoCloseable {
     return writeOptions;
   }
 
+  /**
+   * Returns the striped locks for the rows of the given table. The same locks are returned for all the users of the
+   * table, so that the read-modify-write operations on the same row from different table instances are serialized.
+   */
+  public Striped<Lock> getRowLocks(String tableName) {
+    return rowLocks.computeIfAbsent(tableName, name -> Striped.lock(ROW_LOCK_STRIPES));
+  }
+
+  /**
+   * Returns the bloom filter of the row keys of the given table, or {@code null} if the table does not keep one.
+   * The filter is built from the existing rows of the table the first time it is requested.
+   */
+  @Nullable
+  public LevelDBRowKeyFilter getRowKeyFilter(String tableName) throws IOException {
+    if (bloomFilterTables == null || !bloomFilterTables.matcher(tableName).matches()) {
+      return null;
+    }
+    LevelDBRowKeyFilter filter = rowKeyFilters.get(tableName);
+    if (filter == null) {
+      synchronized (rowKeyFilters) {
+        filter = rowKeyFilters.get(tableName);
+        if (filter == null) {
+          filter = createRowKeyFilter(tableName);
+          rowKeyFilters.put(tableName, filter);
+        }
+      }
+    }
+    return filter;
+  }
+
+  private LevelDBRowKeyFilter createRowKeyFilter(String tableName) throws IOException {
+    LevelDBRowKeyFilter filter = new LevelDBRowKeyFilter(bloomFilterExpectedRows);
+    int rows = 0;
+    byte[] previousRow = null;
+    try (DBIterator iterator = getTable(tableName).iterator()) {
+      iterator.seekToFirst();
+      while (iterator.hasNext()) {
+        byte[] row = KeyValue.fromKey(iterator.next().getKey()).getRow();
+        if (previousRow == null || !Bytes.equals(previousRow, row)) {
+          filter.add(row);
+          previousRow = row;
+          rows++;
+        }
+      }
+    }
+    LOG.debug("Created row key bloom filter with {} rows for table {}", rows, tableName);
+    return filter;
+  }
+
   public DB getTable(String tableName) throws IOException {
     ensureOpen();
     DB db = tables.get(tableName);
@@ -239,6 +309,9 @@ public class LevelDBTableService implements AutoCloseable {
   public void dropTable(String name) throws IOException {
     ensureOpen();
     DB db = tables.remove(name);
+    rowKeyFilters.remove(name);
+    // the locks are only shared by the users of the table, which can no longer use it once it is dropped
+    rowLocks.remove(name);
     if (db != null) {
       db.close();
     }
@@ -289,13 +362,35 @@ public class LevelDBTableService implements AutoCloseable {
    */
   public static final class TableStats {
     private final long diskSizeBytes;
+    private final long rowKeyFilterChecks;
+    private final long rowKeyFilterSkips;
 
     public TableStats(long sizeInBytes) {
+      this(sizeInBytes, 0L, 0L);
+    }
+
+    public TableStats(long sizeInBytes, long rowKeyFilterChecks, long rowKeyFilterSkips) {
       this.diskSizeBytes = sizeInBytes;
+      this.rowKeyFilterChecks = rowKeyFilterChecks;
+      this.rowKeyFilterSkips = rowKeyFilterSkips;
     }
 
     public long getDiskSizeBytes() {
       return diskSizeBytes;
     }
+
+    /**
+     * Returns the number of reads that consulted the row key filter of the table, see {@link LevelDBRowKeyFilter}.
+     */
+    public long getRowKeyFilterChecks() {
+      return rowKeyFilterChecks;
+    }
+
+    /**
+     * Returns the number of reads that the row key filter of the table answered without reading the table.
+     */
+    public long getRowKeyFilterSkips() {
+      return rowKeyFilterSkips;
+    }
   }
 }
@@ -96,11 +96,15 @@ public class LevelDBDatasetMetricsReporter extends AbstractScheduledService impl
   private void report(Map<TableId, LevelDBTableService.TableStats> datasetStat) throws DatasetManagementException {
     for (Map.Entry<TableId, LevelDBTableService.TableStats> statEntry : datasetStat.entrySet()) {
       String namespace = statEntry.getKey().getNamespace();
+      String tableName = statEntry.getKey().getTableName();
       // emit metrics for only user datasets, tables in system namespace are ignored
       if (NamespaceId.SYSTEM.getNamespace().equals(namespace)) {
+        // except for the row key filter counts, which are reported with the table name as the dataset
+        reportRowKeyFilter(metricsService.getContext(ImmutableMap.of(Constants.Metrics.Tag.NAMESPACE, namespace,
+                                                                     Constants.Metrics.Tag.DATASET, tableName)),
+                           statEntry.getValue());
         continue;
       }
-      String tableName = statEntry.getKey().getTableName();
 
       Collection<DatasetSpecificationSummary> instances = dsFramework.getInstances(new NamespaceId(namespace));
       for (DatasetSpecificationSummary spec : instances) {
@@ -111,10 +115,19 @@ public class LevelDBDatasetMetricsReporter extends AbstractScheduledService impl
                                                       Constants.Metrics.Tag.DATASET, spec.getName()));
           int sizeInMb = (int) (statEntry.getValue().getDiskSizeBytes() / BYTES_IN_MB);
           collector.gauge("dataset.size.mb", sizeInMb);
+          reportRowKeyFilter(collector, statEntry.getValue());
           break;
         }
       }
     }
   }
 
+  private void reportRowKeyFilter(MetricsContext collector, LevelDBTableService.TableStats stats) {
+    // the counts are totals since the filter was created, tables without a filter have no checks
+    if (stats.getRowKeyFilterChecks() > 0) {
+      collector.gauge(Constants.Metrics.Name.Dataset.ROW_KEY_FILTER_CHECKS, stats.getRowKeyFilterChecks());
+      collector.gauge(Constants.Metrics.Name.Dataset.ROW_KEY_FILTER_SKIPS, stats.getRowKeyFilterSkips());
+    }
+  }
+
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.common;
+
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import io.cdap.cdap.api.metrics.MetricsCollector;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.spi.data.InvalidFieldException;
+import io.cdap.cdap.spi.data.StructuredRow;
+import io.cdap.cdap.spi.data.StructuredTable;
+import io.cdap.cdap.spi.data.table.StructuredTableSchema;
+import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Range;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
+/**
+ * Structured table that takes a delegation and serves the reads of full rows by primary key from the
+ * {@link StructuredTableRowCache}. All other reads go to the delegation.
+ */
+final class CachingStructuredTable implements StructuredTable {
+  private final StructuredTableSchema schema;
+  private final StructuredTable structuredTable;
+  private final StructuredTableRowCache.TransactionScope txScope;
+  private final StructuredTableRowCache.TableCache tableCache;
+  private final MetricsCollector metricsCollector;
+  private final String metricPrefix;
+
+  CachingStructuredTable(StructuredTableSchema schema, StructuredTable structuredTable,
+                         StructuredTableRowCache.TransactionScope txScope,
+                         StructuredTableRowCache.TableCache tableCache, MetricsCollector metricsCollector) {
+    this.schema = schema;
+    this.structuredTable = structuredTable;
+    this.txScope = txScope;
+    this.tableCache = tableCache;
+    this.metricsCollector = metricsCollector;
+    this.metricPrefix = Constants.Metrics.StructuredTable.METRICS_PREFIX + schema.getTableId().getName() + ".";
+  }
+
+  @Override
+  public void upsert(Collection<Field<?>> fields) throws InvalidFieldException, IOException {
+    written(Collections.singleton(fields));
+    structuredTable.upsert(fields);
+  }
+
+  @Override
+  public void multiUpsert(Collection<? extends Collection<Field<?>>> multiFields)
+    throws InvalidFieldException, IOException {
+    written(multiFields);
+    structuredTable.multiUpsert(multiFields);
+  }
+
+  @Override
+  public Optional<StructuredRow> read(Collection<Field<?>> keys) throws InvalidFieldException, IOException {
+    List<Field<?>> key = txScope.isWritten(tableCache) ? null : StructuredTableRowCache.getKey(schema, keys);
+    if (key == null) {
+      return structuredTable.read(keys);
+    }
+
+    StructuredRow row = tableCache.get(key);
+    if (row != null) {
+      metricsCollector.increment(metricPrefix + "cache.hit", 1L);
+      return Optional.of(row);
+    }
+    metricsCollector.increment(metricPrefix + "cache.miss", 1L);
+    Optional<StructuredRow> result = structuredTable.read(keys);
+    result.ifPresent(r -> txScope.put(tableCache, key, r));
+    return result;
+  }
+
+  @Override
+  public Optional<StructuredRow> read(Collection<Field<?>> keys,
+                                      Collection<String> columns) throws InvalidFieldException, IOException {
+    return structuredTable.read(keys, columns);
+  }
+
+  @Override
+  public Collection<StructuredRow> multiRead(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException {
+    if (txScope.isWritten(tableCache)) {
+      return structuredTable.multiRead(multiKeys);
+    }
+
+    List<StructuredRow> result = new ArrayList<>();
+    List<Collection<Field<?>>> missedKeys = new ArrayList<>();
+    for (Collection<Field<?>> keys : multiKeys) {
+      List<Field<?>> key = StructuredTableRowCache.getKey(schema, keys);
+      StructuredRow row = key == null ? null : tableCache.get(key);
+      if (row == null) {
+        missedKeys.add(keys);
+      } else {
+        result.add(row);
+      }
+    }
+    metricsCollector.increment(metricPrefix + "cache.hit", result.size());
+    if (missedKeys.isEmpty()) {
+      return result;
+    }
+
+    metricsCollector.increment(metricPrefix + "cache.miss", missedKeys.size());
+    for (StructuredRow row : structuredTable.multiRead(missedKeys)) {
+      List<Field<?>> key = StructuredTableRowCache.getKey(schema, row.getPrimaryKeys());
+      if (key != null) {
+        txScope.put(tableCache, key, row);
+      }
+      result.add(row);
+    }
+    return result;
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit) throws InvalidFieldException, IOException {
+    return structuredTable.scan(keyRange, limit);
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit,
+                                               Collection<String> columns) throws InvalidFieldException, IOException {
+    return structuredTable.scan(keyRange, limit, columns);
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit, @Nullable Collection<String> columns,
+                                               Collection<Field<?>> filters)
+    throws InvalidFieldException, IOException {
+    return structuredTable.scan(keyRange, limit, columns, filters);
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> multiScan(Collection<Range> keyRanges,
+                                                    int limit) throws InvalidFieldException, IOException {
+    return structuredTable.multiScan(keyRanges, limit);
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Field<?> index) throws InvalidFieldException, IOException {
+    return structuredTable.scan(index);
+  }
+
+  @Override
+  public boolean compareAndSwap(Collection<Field<?>> keys, Field<?> oldValue, Field<?> newValue)
+    throws InvalidFieldException, IOException {
+    written(Collections.singleton(keys));
+    return structuredTable.compareAndSwap(keys, oldValue, newValue);
+  }
+
+  @Override
+  public void increment(Collection<Field<?>> keys, String column,
+                        long amount) throws InvalidFieldException, IOException {
+    written(Collections.singleton(keys));
+    structuredTable.increment(keys, column, amount);
+  }
+
+  @Override
+  public void delete(Collection<Field<?>> keys) throws InvalidFieldException, IOException {
+    written(Collections.singleton(keys));
+    structuredTable.delete(keys);
+  }
+
+  @Override
+  public void multiDelete(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException {
+    written(multiKeys);
+    structuredTable.multiDelete(multiKeys);
+  }
+
+  @Override
+  public void deleteAll(Range keyRange) throws InvalidFieldException, IOException {
+    txScope.cleared(tableCache);
+    structuredTable.deleteAll(keyRange);
+  }
+
+  @Override
+  public long count(Range keyRange) throws InvalidFieldException, IOException {
+    return structuredTable.count(keyRange);
+  }
+
+  @Override
+  public void close() throws IOException {
+    structuredTable.close();
+  }
+
+  /**
+   * Invalidates the cached rows of the given keys. If any of the keys is not a complete primary key, the write
+   * fails in the delegation, but the whole table is invalidated to be safe.
+   */
+  private void written(Collection<? extends Collection<Field<?>>> multiKeys) {
+    List<List<Field<?>>> keys = new ArrayList<>(multiKeys.size());
+    for (Collection<Field<?>> fields : multiKeys) {
+      List<Field<?>> key = StructuredTableRowCache.getKey(schema, fields);
+      if (key == null) {
+        txScope.cleared(tableCache);
+        return;
+      }
+      keys.add(key);
+    }
+    txScope.written(tableCache, keys);
+  }
+}
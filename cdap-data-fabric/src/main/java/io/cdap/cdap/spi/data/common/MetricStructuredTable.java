@@ -16,6 +16,7 @@
 
 package io.cdap.cdap.spi.data.common;
 
+import io.cdap.cdap.api.dataset.lib.AbstractCloseableIterator;
 import io.cdap.cdap.api.dataset.lib.CloseableIterator;
 import io.cdap.cdap.api.metrics.MetricsCollector;
 import io.cdap.cdap.common.conf.Constants;
@@ -29,6 +30,7 @@ import io.cdap.cdap.spi.data.table.field.Range;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * Structured table that takes a delegation and emit metrics on each operation.
@@ -66,6 +68,26 @@ public class MetricStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public void multiUpsert(Collection<? extends Collection<Field<?>>> multiFields)
+    throws InvalidFieldException, IOException {
+    try {
+      if (!emitTimeMetrics) {
+        structuredTable.multiUpsert(multiFields);
+      } else {
+        long curTime = System.nanoTime();
+        structuredTable.multiUpsert(multiFields);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "multiUpsert.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "multiUpsert.count", 1L);
+      metricsCollector.increment(metricPrefix + "multiUpsert.rows", multiFields.size());
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "multiUpsert.error", 1L);
+      throw e;
+    }
+  }
+
   @Override
   public Optional<StructuredRow> read(Collection<Field<?>> keys) throws InvalidFieldException, IOException {
     try {
@@ -107,6 +129,28 @@ public class MetricStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public Collection<StructuredRow> multiRead(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException {
+    try {
+      Collection<StructuredRow> result;
+      if (!emitTimeMetrics) {
+        result = structuredTable.multiRead(multiKeys);
+      } else {
+        long curTime = System.nanoTime();
+        result = structuredTable.multiRead(multiKeys);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "multiRead.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "multiRead.count", 1L);
+      metricsCollector.increment(metricPrefix + "multiRead.rows", result.size());
+      return result;
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "multiRead.error", 1L);
+      throw e;
+    }
+  }
+
   @Override
   public CloseableIterator<StructuredRow> scan(Range keyRange, int limit) throws InvalidFieldException, IOException {
     try {
@@ -120,13 +164,77 @@ public class MetricStructuredTable implements StructuredTable {
         metricsCollector.increment(metricPrefix + "scan.time", duration);
       }
       metricsCollector.increment(metricPrefix + "scan.count", 1L);
-      return result;
+      return new RowCountingIterator(result, metricPrefix + "scan.rows");
     } catch (Exception e) {
       metricsCollector.increment(metricPrefix + "scan.error", 1L);
       throw e;
     }
   }
 
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit,
+                                               Collection<String> columns) throws InvalidFieldException, IOException {
+    try {
+      CloseableIterator<StructuredRow> result;
+      if (!emitTimeMetrics) {
+        result = structuredTable.scan(keyRange, limit, columns);
+      } else {
+        long curTime = System.nanoTime();
+        result = structuredTable.scan(keyRange, limit, columns);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "scan.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "scan.count", 1L);
+      return new RowCountingIterator(result, metricPrefix + "scan.rows");
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "scan.error", 1L);
+      throw e;
+    }
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit, @Nullable Collection<String> columns,
+                                               Collection<Field<?>> filters)
+    throws InvalidFieldException, IOException {
+    try {
+      CloseableIterator<StructuredRow> result;
+      if (!emitTimeMetrics) {
+        result = structuredTable.scan(keyRange, limit, columns, filters);
+      } else {
+        long curTime = System.nanoTime();
+        result = structuredTable.scan(keyRange, limit, columns, filters);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "filter.scan.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "filter.scan.count", 1L);
+      return new RowCountingIterator(result, metricPrefix + "filter.scan.rows");
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "filter.scan.error", 1L);
+      throw e;
+    }
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> multiScan(Collection<Range> keyRanges,
+                                                    int limit) throws InvalidFieldException, IOException {
+    try {
+      CloseableIterator<StructuredRow> result;
+      if (!emitTimeMetrics) {
+        result = structuredTable.multiScan(keyRanges, limit);
+      } else {
+        long curTime = System.nanoTime();
+        result = structuredTable.multiScan(keyRanges, limit);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "multiScan.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "multiScan.count", 1L);
+      return new RowCountingIterator(result, metricPrefix + "multiScan.rows");
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "multiScan.error", 1L);
+      throw e;
+    }
+  }
+
   @Override
   public CloseableIterator<StructuredRow> scan(Field<?> index) throws InvalidFieldException, IOException {
     try {
@@ -140,7 +248,7 @@ public class MetricStructuredTable implements StructuredTable {
         metricsCollector.increment(metricPrefix + "index.scan.time", duration);
       }
       metricsCollector.increment(metricPrefix + "index.scan.count", 1L);
-      return result;
+      return new RowCountingIterator(result, metricPrefix + "index.scan.rows");
     } catch (Exception e) {
       metricsCollector.increment(metricPrefix + "index.scan.error", 1L);
       throw e;
@@ -205,6 +313,26 @@ public class MetricStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public void multiDelete(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException {
+    try {
+      if (!emitTimeMetrics) {
+        structuredTable.multiDelete(multiKeys);
+      } else {
+        long curTime = System.nanoTime();
+        structuredTable.multiDelete(multiKeys);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "multiDelete.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "multiDelete.count", 1L);
+      metricsCollector.increment(metricPrefix + "multiDelete.rows", multiKeys.size());
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "multiDelete.error", 1L);
+      throw e;
+    }
+  }
+
   @Override
   public void deleteAll(Range keyRange) throws InvalidFieldException, IOException {
     try {
@@ -223,8 +351,60 @@ public class MetricStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public long count(Range keyRange) throws InvalidFieldException, IOException {
+    try {
+      long result;
+      if (!emitTimeMetrics) {
+        result = structuredTable.count(keyRange);
+      } else {
+        long curTime = System.nanoTime();
+        result = structuredTable.count(keyRange);
+        long duration = System.nanoTime() - curTime;
+        metricsCollector.increment(metricPrefix + "count.time", duration);
+      }
+      metricsCollector.increment(metricPrefix + "count.count", 1L);
+      return result;
+    } catch (Exception e) {
+      metricsCollector.increment(metricPrefix + "count.error", 1L);
+      throw e;
+    }
+  }
+
   @Override
   public void close() throws IOException {
     structuredTable.close();
   }
+
+  /**
+   * A {@link CloseableIterator} that emits the number of rows returned by a scan when it is closed.
+   */
+  private final class RowCountingIterator extends AbstractCloseableIterator<StructuredRow> {
+    private final CloseableIterator<StructuredRow> delegate;
+    private final String metricName;
+    private long rows;
+
+    RowCountingIterator(CloseableIterator<StructuredRow> delegate, String metricName) {
+      this.delegate = delegate;
+      this.metricName = metricName;
+    }
+
+    @Override
+    protected StructuredRow computeNext() {
+      if (!delegate.hasNext()) {
+        return endOfData();
+      }
+      rows++;
+      return delegate.next();
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+      if (rows > 0) {
+        metricsCollector.increment(metricName, rows);
+        rows = 0;
+      }
+    }
+  }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.common;
+
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cdap.cdap.api.metrics.MetricsCollector;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.spi.data.StructuredRow;
+import io.cdap.cdap.spi.data.StructuredTable;
+import io.cdap.cdap.spi.data.table.StructuredTableSchema;
+import io.cdap.cdap.spi.data.table.field.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * A process wide cache of rows read by primary key from the structured tables listed in
+ * {@link Constants.Dataset#DATA_STORAGE_CACHE_TABLES}. Rows are evicted after
+ * {@link Constants.Dataset#DATA_STORAGE_CACHE_TTL_SECONDS} or when a table has more than
+ * {@link Constants.Dataset#DATA_STORAGE_CACHE_MAX_ROWS} rows cached.
+ *
+ * Writes made through this cache invalidate the written rows, both when they are made and after the transaction is
+ * committed. Writes made by other processes are only visible once the cached rows expire, hence caching should only
+ * be enabled for tables that are read much more often than they are written.
+ */
+public class StructuredTableRowCache {
+  private static final Logger LOG = LoggerFactory.getLogger(StructuredTableRowCache.class);
+
+  private final Map<String, TableCache> tableCaches;
+
+  public StructuredTableRowCache(CConfiguration cConf) {
+    long maxRows = cConf.getLong(Constants.Dataset.DATA_STORAGE_CACHE_MAX_ROWS, 1000L);
+    long ttlSeconds = cConf.getLong(Constants.Dataset.DATA_STORAGE_CACHE_TTL_SECONDS, 30L);
+    Map<String, TableCache> caches = new HashMap<>();
+    if (maxRows > 0 && ttlSeconds > 0) {
+      for (String table : Splitter.on(',').trimResults().omitEmptyStrings()
+        .split(cConf.get(Constants.Dataset.DATA_STORAGE_CACHE_TABLES, ""))) {
+        caches.put(table, new TableCache(maxRows, ttlSeconds));
+      }
+    }
+    if (!caches.isEmpty()) {
+      LOG.debug("Enabling row cache for structured tables {}.", caches.keySet());
+    }
+    this.tableCaches = Collections.unmodifiableMap(caches);
+  }
+
+  /**
+   * Returns {@code true} if caching is enabled for any table.
+   */
+  public boolean isEnabled() {
+    return !tableCaches.isEmpty();
+  }
+
+  /**
+   * Creates a new {@link TransactionScope}. It must be called when a transaction starts, before any table is read.
+   */
+  public TransactionScope startTransaction() {
+    return new TransactionScope();
+  }
+
+  /**
+   * Tracks the cached tables used by one transaction.
+   */
+  public final class TransactionScope {
+    private final Map<TableCache, Long> startGenerations;
+    private final Map<TableCache, Set<List<Field<?>>>> writtenKeys;
+    private final Set<TableCache> clearedTables;
+
+    private TransactionScope() {
+      this.startGenerations = new HashMap<>();
+      for (TableCache tableCache : tableCaches.values()) {
+        startGenerations.put(tableCache, tableCache.generation.get());
+      }
+      this.writtenKeys = new HashMap<>();
+      this.clearedTables = new HashSet<>();
+    }
+
+    /**
+     * Returns a {@link StructuredTable} that caches the reads from the given table, or the table itself if caching is
+     * not enabled for it.
+     */
+    public StructuredTable wrap(StructuredTableSchema schema, StructuredTable table,
+                                MetricsCollector metricsCollector) {
+      TableCache tableCache = tableCaches.get(schema.getTableId().getName());
+      if (tableCache == null) {
+        return table;
+      }
+      return new CachingStructuredTable(schema, table, this, tableCache, metricsCollector);
+    }
+
+    /**
+     * Invalidates the rows written in the transaction again. It must be called after the transaction is committed,
+     * since a concurrent transaction may have cached the previous rows before the commit.
+     */
+    public void committed() {
+      for (Map.Entry<TableCache, Set<List<Field<?>>>> entry : writtenKeys.entrySet()) {
+        entry.getKey().invalidate(entry.getValue());
+      }
+      for (TableCache tableCache : clearedTables) {
+        tableCache.invalidateAll();
+      }
+    }
+
+    /**
+     * Returns {@code true} if the given table was written in this transaction. Such table is no longer read from the
+     * cache, nor populates the cache, since it may contain uncommitted changes.
+     */
+    boolean isWritten(TableCache tableCache) {
+      return writtenKeys.containsKey(tableCache) || clearedTables.contains(tableCache);
+    }
+
+    /**
+     * Caches the given row, unless any row of the table was invalidated since this transaction started.
+     */
+    void put(TableCache tableCache, List<Field<?>> key, StructuredRow row) {
+      long startGeneration = startGenerations.get(tableCache);
+      if (tableCache.generation.get() != startGeneration) {
+        return;
+      }
+      tableCache.cache.put(key, row);
+      // Re-check after the put, so that an invalidation racing with the put is not lost
+      if (tableCache.generation.get() != startGeneration) {
+        tableCache.cache.invalidate(key);
+      }
+    }
+
+    void written(TableCache tableCache, Collection<List<Field<?>>> keys) {
+      writtenKeys.computeIfAbsent(tableCache, k -> new HashSet<>()).addAll(keys);
+      tableCache.invalidate(keys);
+    }
+
+    void cleared(TableCache tableCache) {
+      clearedTables.add(tableCache);
+      tableCache.invalidateAll();
+    }
+  }
+
+  /**
+   * The cached rows of one table, keyed by the primary key fields in the order of the table schema.
+   */
+  static final class TableCache {
+    private final Cache<List<Field<?>>, StructuredRow> cache;
+    private final AtomicLong generation;
+
+    private TableCache(long maxRows, long ttlSeconds) {
+      this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxRows)
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .build();
+      this.generation = new AtomicLong();
+    }
+
+    @Nullable
+    StructuredRow get(List<Field<?>> key) {
+      return cache.getIfPresent(key);
+    }
+
+    private void invalidate(Collection<List<Field<?>>> keys) {
+      generation.incrementAndGet();
+      cache.invalidateAll(keys);
+    }
+
+    private void invalidateAll() {
+      generation.incrementAndGet();
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * Returns the primary key fields from the given fields in the order of the table schema, or {@code null} if the
+   * fields do not contain all the primary keys.
+   */
+  @Nullable
+  static List<Field<?>> getKey(StructuredTableSchema schema, Collection<Field<?>> fields) {
+    List<String> primaryKeys = schema.getPrimaryKeys();
+    Map<String, Field<?>> fieldMap = new HashMap<>();
+    for (Field<?> field : fields) {
+      if (schema.isPrimaryKeyColumn(field.getName())) {
+        fieldMap.put(field.getName(), field);
+      }
+    }
+    if (fieldMap.size() != primaryKeys.size()) {
+      return null;
+    }
+    List<Field<?>> key = new ArrayList<>(primaryKeys.size());
+    for (String primaryKey : primaryKeys) {
+      key.add(fieldMap.get(primaryKey));
+    }
+    return key;
+  }
+}
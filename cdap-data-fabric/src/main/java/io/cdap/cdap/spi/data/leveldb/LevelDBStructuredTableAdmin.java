@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import com.google.inject.Inject;
+import io.cdap.cdap.spi.data.StructuredTableAdmin;
+import io.cdap.cdap.spi.data.TableAlreadyExistsException;
+import io.cdap.cdap.spi.data.table.StructuredTableId;
+import io.cdap.cdap.spi.data.table.StructuredTableRegistry;
+import io.cdap.cdap.spi.data.table.StructuredTableSchema;
+import io.cdap.cdap.spi.data.table.StructuredTableSpecification;
+import io.cdap.cdap.spi.data.table.field.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * The LevelDB admin, which registers the tables in the {@link StructuredTableRegistry}. All the tables share the
+ * same LevelDB database, hence there is nothing to create for a new table.
+ */
+public final class LevelDBStructuredTableAdmin implements StructuredTableAdmin {
+  private static final Logger LOG = LoggerFactory.getLogger(LevelDBStructuredTableAdmin.class);
+
+  private final LevelDBStructuredTableStore store;
+  private final StructuredTableRegistry registry;
+
+  @Inject
+  LevelDBStructuredTableAdmin(LevelDBStructuredTableStore store, StructuredTableRegistry registry) {
+    this.store = store;
+    this.registry = registry;
+  }
+
+  @Override
+  public void create(StructuredTableSpecification spec) throws IOException, TableAlreadyExistsException {
+    if (registry.getSpecification(spec.getTableId()) != null) {
+      throw new TableAlreadyExistsException(spec.getTableId());
+    }
+    LOG.info("Creating table {} in the LevelDB storage", spec);
+    registry.registerSpecification(spec);
+  }
+
+  @Override
+  public StructuredTableSpecification getSpecification(StructuredTableId tableId) {
+    return registry.getSpecification(tableId);
+  }
+
+  @Override
+  public void drop(StructuredTableId tableId) throws IOException {
+    StructuredTableSpecification spec = registry.getSpecification(tableId);
+    if (spec == null) {
+      return;
+    }
+    LOG.info("Dropping table {} in the LevelDB storage", tableId.getName());
+    // Delete the rows together with their index entries before removing the table
+    LevelDBTransaction transaction = store.startTransaction();
+    try {
+      LevelDBStructuredTableContext.createTable(transaction, new StructuredTableSchema(spec)).deleteAll(Range.all());
+      if (!store.commit(transaction)) {
+        throw new IOException("Failed to drop table " + tableId.getName() + " due to a concurrent write");
+      }
+    } finally {
+      store.finish(transaction);
+    }
+    registry.removeSpecification(tableId);
+  }
+}
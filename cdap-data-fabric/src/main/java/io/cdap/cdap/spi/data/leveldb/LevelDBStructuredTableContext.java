@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.dataset.lib.IndexedTable;
+import io.cdap.cdap.api.metrics.MetricsCollector;
+import io.cdap.cdap.spi.data.StructuredTable;
+import io.cdap.cdap.spi.data.StructuredTableAdmin;
+import io.cdap.cdap.spi.data.StructuredTableContext;
+import io.cdap.cdap.spi.data.TableNotFoundException;
+import io.cdap.cdap.spi.data.common.MetricStructuredTable;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
+import io.cdap.cdap.spi.data.nosql.NoSqlStructuredTable;
+import io.cdap.cdap.spi.data.table.StructuredTableId;
+import io.cdap.cdap.spi.data.table.StructuredTableSchema;
+import io.cdap.cdap.spi.data.table.StructuredTableSpecification;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+
+/**
+ * The LevelDB context to get the table. The tables use the same row layout as the nosql tables, but on top of the
+ * {@link LevelDBTransaction} instead of the dataset framework.
+ */
+public class LevelDBStructuredTableContext implements StructuredTableContext {
+  private final StructuredTableAdmin admin;
+  private final LevelDBTransaction transaction;
+  private final MetricsCollector metricsCollector;
+  private final boolean emitTimeMetrics;
+  private final StructuredTableRowCache.TransactionScope cacheScope;
+
+  LevelDBStructuredTableContext(StructuredTableAdmin admin, LevelDBTransaction transaction,
+                                MetricsCollector metricsCollector, boolean emitTimeMetrics,
+                                @Nullable StructuredTableRowCache.TransactionScope cacheScope) {
+    this.admin = admin;
+    this.transaction = transaction;
+    this.metricsCollector = metricsCollector;
+    this.emitTimeMetrics = emitTimeMetrics;
+    this.cacheScope = cacheScope;
+  }
+
+  @Override
+  public StructuredTable getTable(StructuredTableId tableId) throws TableNotFoundException {
+    StructuredTableSpecification specification = admin.getSpecification(tableId);
+    if (specification == null) {
+      throw new TableNotFoundException(tableId);
+    }
+    StructuredTableSchema schema = new StructuredTableSchema(specification);
+    StructuredTable table = createTable(transaction, schema);
+    if (cacheScope != null) {
+      table = cacheScope.wrap(schema, table, metricsCollector);
+    }
+    return new MetricStructuredTable(tableId, table, metricsCollector, emitTimeMetrics);
+  }
+
+  /**
+   * Creates a {@link StructuredTable} that reads and writes in the given transaction.
+   */
+  static StructuredTable createTable(LevelDBTransaction transaction, StructuredTableSchema schema) {
+    SortedSet<byte[]> indexColumns = new TreeSet<>(Bytes.BYTES_COMPARATOR);
+    for (String index : schema.getIndexes()) {
+      indexColumns.add(Bytes.toBytes(index));
+    }
+    IndexedTable indexedTable =
+      new IndexedTable(schema.getTableId().getName(),
+                       new LevelDBTransactionTable(transaction, LevelDBStructuredTableStore.DATA_PREFIX),
+                       new LevelDBTransactionTable(transaction, LevelDBStructuredTableStore.INDEX_PREFIX),
+                       indexColumns, Bytes.toBytes(schema.getTableId().getName()));
+    return new NoSqlStructuredTable(indexedTable, schema);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import com.google.gson.Gson;
+import com.google.inject.Inject;
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.spi.data.TableAlreadyExistsException;
+import io.cdap.cdap.spi.data.table.StructuredTableId;
+import io.cdap.cdap.spi.data.table.StructuredTableRegistry;
+import io.cdap.cdap.spi.data.table.StructuredTableSpecification;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+/**
+ * LevelDB implementation of StructuredTableRegistry, which stores the table specifications in the
+ * {@link LevelDBStructuredTableStore} outside of any transaction.
+ */
+public class LevelDBStructuredTableRegistry implements StructuredTableRegistry {
+  private static final Logger LOG = LoggerFactory.getLogger(LevelDBStructuredTableRegistry.class);
+  private static final Gson GSON = new Gson();
+
+  private final LevelDBStructuredTableStore store;
+
+  @Inject
+  LevelDBStructuredTableRegistry(LevelDBStructuredTableStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public void initialize() throws IOException {
+    store.getDB();
+  }
+
+  @Override
+  public void registerSpecification(StructuredTableSpecification specification)
+    throws IOException, TableAlreadyExistsException {
+    LOG.debug("Registering table specification {}", specification);
+    StructuredTableId tableId = specification.getTableId();
+    DB db = store.getDB();
+    byte[] key = getKey(tableId);
+    // Synchronize on the store, so that the check and the write are atomic
+    synchronized (store) {
+      if (db.get(key) != null) {
+        throw new TableAlreadyExistsException(tableId);
+      }
+      db.put(key, Bytes.toBytes(GSON.toJson(specification)));
+    }
+  }
+
+  @Nullable
+  @Override
+  public StructuredTableSpecification getSpecification(StructuredTableId tableId) {
+    byte[] serialized = getDB().get(getKey(tableId));
+    return serialized == null ? null : GSON.fromJson(Bytes.toString(serialized), StructuredTableSpecification.class);
+  }
+
+  @Override
+  public void removeSpecification(StructuredTableId tableId) {
+    LOG.debug("Removing table specification for table {}", tableId);
+    getDB().delete(getKey(tableId));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    try (DBIterator iterator = getDB().iterator()) {
+      iterator.seek(LevelDBStructuredTableStore.REGISTRY_PREFIX);
+      return !iterator.hasNext()
+        || !Bytes.startsWith(iterator.peekNext().getKey(), LevelDBStructuredTableStore.REGISTRY_PREFIX);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to scan the LevelDB structured table registry", e);
+    }
+  }
+
+  private DB getDB() {
+    try {
+      return store.getDB();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to open the LevelDB structured table storage", e);
+    }
+  }
+
+  private static byte[] getKey(StructuredTableId tableId) {
+    return Bytes.concat(LevelDBStructuredTableStore.REGISTRY_PREFIX, Bytes.toBytes(tableId.getName()));
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.iq80.leveldb.impl.Iq80DBFactory.factory;
+
+/**
+ * The embedded LevelDB database that stores all the structured tables, without going through the dataset framework
+ * and Tephra. Each transaction reads from a snapshot of the database taken when it starts, and buffers its writes in
+ * memory until it commits them in one write batch. A transaction fails to commit with a conflict if any of the keys
+ * it writes was written by another transaction committed after it started.
+ */
+public class LevelDBStructuredTableStore implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(LevelDBStructuredTableStore.class);
+
+  static final byte[] REGISTRY_PREFIX = {'r'};
+  static final byte[] DATA_PREFIX = {'d'};
+  static final byte[] INDEX_PREFIX = {'i'};
+
+  private final File dbDir;
+  private final int blockSize;
+  private final long cacheSize;
+  private final WriteOptions writeOptions;
+  // start sequence of the active transactions -> number of transactions started at that sequence
+  private final NavigableMap<Long, Integer> activeTransactions;
+  // key -> commit sequence of the last transaction that wrote the key
+  private final NavigableMap<byte[], Long> lastCommits;
+  // keys written by each commit, in commit order, to remove from lastCommits once no transaction can conflict on them
+  private final Deque<Map.Entry<Long, Collection<byte[]>>> commits;
+  private long commitSequence;
+  private DB db;
+  private boolean closed;
+
+  @Inject
+  LevelDBStructuredTableStore(CConfiguration cConf) {
+    String dir = cConf.get(Constants.Dataset.DATA_STORAGE_LEVELDB_DIR);
+    Preconditions.checkNotNull(dir, "No directory configured for the LevelDB structured table storage.");
+    this.dbDir = new File(dir);
+    this.blockSize = cConf.getInt(Constants.CFG_DATA_LEVELDB_BLOCKSIZE, Constants.DEFAULT_DATA_LEVELDB_BLOCKSIZE);
+    this.cacheSize = cConf.getLong(Constants.CFG_DATA_LEVELDB_CACHESIZE, Constants.DEFAULT_DATA_LEVELDB_CACHESIZE);
+    this.writeOptions = new WriteOptions().sync(
+      cConf.getBoolean(Constants.CFG_DATA_LEVELDB_FSYNC, Constants.DEFAULT_DATA_LEVELDB_FSYNC));
+    this.activeTransactions = new TreeMap<>();
+    this.lastCommits = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    this.commits = new ArrayDeque<>();
+  }
+
+  /**
+   * Returns the database, opening it if it is not yet opened.
+   */
+  synchronized DB getDB() throws IOException {
+    if (closed) {
+      throw new IOException("LevelDB structured table storage at " + dbDir + " is already closed");
+    }
+    if (db == null) {
+      Options options = new Options();
+      options.createIfMissing(true);
+      options.errorIfExists(false);
+      options.blockSize(blockSize);
+      options.cacheSize(cacheSize);
+      LOG.debug("Opening LevelDB structured table storage at {}", dbDir);
+      db = factory.open(dbDir, options);
+    }
+    return db;
+  }
+
+  /**
+   * Starts a new transaction that reads from a snapshot of the current state of the database.
+   */
+  LevelDBTransaction startTransaction() throws IOException {
+    DB db = getDB();
+    synchronized (this) {
+      activeTransactions.merge(commitSequence, 1, Integer::sum);
+      return new LevelDBTransaction(db, db.getSnapshot(), commitSequence);
+    }
+  }
+
+  /**
+   * Commits the writes of the given transaction.
+   *
+   * @return {@code true} if the writes were committed, {@code false} if the transaction conflicts with another
+   *         transaction committed after it started, in which case nothing is written
+   */
+  boolean commit(LevelDBTransaction transaction) throws IOException {
+    NavigableMap<byte[], byte[]> writes = transaction.getWrites();
+    if (writes.isEmpty()) {
+      return true;
+    }
+    synchronized (this) {
+      for (byte[] key : writes.keySet()) {
+        Long lastCommit = lastCommits.get(key);
+        if (lastCommit != null && lastCommit > transaction.getStartSequence()) {
+          return false;
+        }
+      }
+      try (WriteBatch batch = db.createWriteBatch()) {
+        for (Map.Entry<byte[], byte[]> entry : writes.entrySet()) {
+          if (entry.getValue() == null) {
+            batch.delete(entry.getKey());
+          } else {
+            batch.put(entry.getKey(), entry.getValue());
+          }
+        }
+        db.write(batch, writeOptions);
+      }
+      commitSequence++;
+      for (byte[] key : writes.keySet()) {
+        lastCommits.put(key, commitSequence);
+      }
+      commits.addLast(new AbstractMap.SimpleImmutableEntry<>(commitSequence, writes.keySet()));
+      return true;
+    }
+  }
+
+  /**
+   * Ends the given transaction, whether it is committed or not, and releases its snapshot.
+   */
+  void finish(LevelDBTransaction transaction) {
+    synchronized (this) {
+      activeTransactions.computeIfPresent(transaction.getStartSequence(), (k, v) -> v == 1 ? null : v - 1);
+
+      // Commits at or before the start of the oldest active transaction can no longer conflict with any transaction
+      long minSequence = activeTransactions.isEmpty() ? commitSequence : activeTransactions.firstKey();
+      while (!commits.isEmpty() && commits.peekFirst().getKey() <= minSequence) {
+        Map.Entry<Long, Collection<byte[]>> commit = commits.removeFirst();
+        for (byte[] key : commit.getValue()) {
+          lastCommits.remove(key, commit.getKey());
+        }
+      }
+    }
+    try {
+      transaction.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to release the snapshot of a LevelDB structured table transaction", e);
+    }
+  }
+
+  /**
+   * Closes the database. It is not reopened by later operations, which fail instead.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    closed = true;
+    if (db != null) {
+      db.close();
+      db = null;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.dataset.lib.AbstractCloseableIterator;
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * A transaction on the {@link LevelDBStructuredTableStore}. Reads see the snapshot of the database taken when the
+ * transaction started, together with the writes of the transaction itself, which are buffered in memory.
+ */
+final class LevelDBTransaction implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(LevelDBTransaction.class);
+
+  private final DB db;
+  private final Snapshot snapshot;
+  private final ReadOptions readOptions;
+  private final long startSequence;
+  // buffered writes, a null value is a delete
+  private final NavigableMap<byte[], byte[]> writes;
+
+  LevelDBTransaction(DB db, Snapshot snapshot, long startSequence) {
+    this.db = db;
+    this.snapshot = snapshot;
+    this.readOptions = new ReadOptions().snapshot(snapshot);
+    this.startSequence = startSequence;
+    this.writes = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+  }
+
+  long getStartSequence() {
+    return startSequence;
+  }
+
+  NavigableMap<byte[], byte[]> getWrites() {
+    return writes;
+  }
+
+  @Nullable
+  byte[] get(byte[] key) {
+    if (writes.containsKey(key)) {
+      return writes.get(key);
+    }
+    return db.get(key, readOptions);
+  }
+
+  void put(byte[] key, byte[] value) {
+    writes.put(key, value);
+  }
+
+  void delete(byte[] key) {
+    writes.put(key, null);
+  }
+
+  /**
+   * Scans the keys from the start key (inclusive) to the stop key (exclusive). The writes made after the scan is
+   * created are not visible to the scan.
+   */
+  CloseableIterator<Map.Entry<byte[], byte[]>> scan(byte[] startKey, byte[] stopKey) {
+    Iterator<Map.Entry<byte[], byte[]>> buffered =
+      new TreeMap<>(writes.subMap(startKey, true, stopKey, false)).entrySet().iterator();
+    DBIterator persisted = db.iterator(readOptions);
+    persisted.seek(startKey);
+
+    return new AbstractCloseableIterator<Map.Entry<byte[], byte[]>>() {
+      private Map.Entry<byte[], byte[]> nextBuffered = nextOrNull(buffered);
+      private Map.Entry<byte[], byte[]> nextPersisted = nextPersisted();
+
+      @Override
+      protected Map.Entry<byte[], byte[]> computeNext() {
+        while (nextBuffered != null || nextPersisted != null) {
+          Map.Entry<byte[], byte[]> entry;
+          int cmp = nextBuffered == null ? 1
+            : nextPersisted == null ? -1 : Bytes.compareTo(nextBuffered.getKey(), nextPersisted.getKey());
+          if (cmp <= 0) {
+            // The buffered write overrides the persisted value of the same key
+            entry = nextBuffered;
+            nextBuffered = nextOrNull(buffered);
+            if (cmp == 0) {
+              nextPersisted = nextPersisted();
+            }
+          } else {
+            entry = nextPersisted;
+            nextPersisted = nextPersisted();
+          }
+          if (entry.getValue() != null) {
+            return entry;
+          }
+        }
+        return endOfData();
+      }
+
+      @Override
+      public void close() {
+        try {
+          persisted.close();
+        } catch (IOException e) {
+          LOG.warn("Error closing LevelDB iterator", e);
+        }
+      }
+
+      @Nullable
+      private Map.Entry<byte[], byte[]> nextPersisted() {
+        if (!persisted.hasNext()) {
+          return null;
+        }
+        Map.Entry<byte[], byte[]> entry = persisted.next();
+        if (Bytes.compareTo(entry.getKey(), stopKey) >= 0) {
+          return null;
+        }
+        return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    snapshot.close();
+  }
+
+  @Nullable
+  private static <T> T nextOrNull(Iterator<T> iterator) {
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import com.google.inject.Inject;
+import io.cdap.cdap.api.metrics.MetricsCollectionService;
+import io.cdap.cdap.api.metrics.MetricsContext;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
+import io.cdap.cdap.spi.data.transaction.TransactionException;
+import io.cdap.cdap.spi.data.transaction.TransactionRunner;
+import io.cdap.cdap.spi.data.transaction.TxRunnable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LevelDB transaction runner, which runs the transaction on a snapshot of the {@link LevelDBStructuredTableStore} and
+ * commits the buffered writes at the end. The transaction is retried if it conflicts with another transaction.
+ */
+public class LevelDBTransactionRunner implements TransactionRunner {
+  private static final Logger LOG = LoggerFactory.getLogger(LevelDBTransactionRunner.class);
+  private static final int MAX_RETRIES = 20;
+  private static final long DELAY_MILLIS = 100;
+
+  private final LevelDBStructuredTableAdmin admin;
+  private final LevelDBStructuredTableStore store;
+  private final MetricsCollectionService metricsCollectionService;
+  private final boolean emitTimeMetrics;
+  private final StructuredTableRowCache rowCache;
+
+  @Inject
+  LevelDBTransactionRunner(LevelDBStructuredTableAdmin admin, LevelDBStructuredTableStore store,
+                           MetricsCollectionService metricsCollectionService, CConfiguration cConf) {
+    this.admin = admin;
+    this.store = store;
+    this.metricsCollectionService = metricsCollectionService;
+    this.emitTimeMetrics = cConf.getBoolean(Constants.Metrics.STRUCTURED_TABLE_TIME_METRICS_ENABLED);
+    StructuredTableRowCache rowCache = new StructuredTableRowCache(cConf);
+    this.rowCache = rowCache.isEnabled() ? rowCache : null;
+  }
+
+  @Override
+  public void run(TxRunnable runnable) throws TransactionException {
+    MetricsContext metricsCollector = metricsCollectionService.getContext(Constants.Metrics.STORAGE_METRICS_TAGS);
+    int retries = 0;
+    while (true) {
+      metricsCollector.increment(Constants.Metrics.StructuredTable.TRANSACTION_COUNT, 1L);
+      LevelDBTransaction transaction;
+      try {
+        transaction = store.startTransaction();
+      } catch (IOException e) {
+        throw new TransactionException("Unable to start a transaction on the LevelDB storage", e);
+      }
+
+      try {
+        StructuredTableRowCache.TransactionScope cacheScope = rowCache == null ? null : rowCache.startTransaction();
+        runnable.run(new LevelDBStructuredTableContext(admin, transaction, metricsCollector, emitTimeMetrics,
+                                                       cacheScope));
+        if (store.commit(transaction)) {
+          if (cacheScope != null) {
+            cacheScope.committed();
+          }
+          return;
+        }
+      } catch (Exception e) {
+        throw new TransactionException("Failed to execute the LevelDB transaction.", e);
+      } finally {
+        store.finish(transaction);
+      }
+
+      metricsCollector.increment(Constants.Metrics.StructuredTable.TRANSACTION_CONFLICT, 1L);
+      LOG.trace("LevelDB transaction conflicted with another transaction, retry count {}.", retries);
+      if (++retries > MAX_RETRIES) {
+        throw new TransactionException("Failed to commit the LevelDB transaction.",
+                                       new ConcurrentModificationException(
+                                         "Transaction conflicted after " + MAX_RETRIES + " retries"));
+      }
+      try {
+        TimeUnit.MILLISECONDS.sleep(DELAY_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TransactionException("Interrupted while retrying the LevelDB transaction.", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.leveldb;
+
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.data.batch.RecordScanner;
+import io.cdap.cdap.api.data.batch.Split;
+import io.cdap.cdap.api.data.batch.SplitReader;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import io.cdap.cdap.api.dataset.table.Delete;
+import io.cdap.cdap.api.dataset.table.Get;
+import io.cdap.cdap.api.dataset.table.Increment;
+import io.cdap.cdap.api.dataset.table.Put;
+import io.cdap.cdap.api.dataset.table.Result;
+import io.cdap.cdap.api.dataset.table.Row;
+import io.cdap.cdap.api.dataset.table.Scan;
+import io.cdap.cdap.api.dataset.table.Scanner;
+import io.cdap.cdap.api.dataset.table.Table;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Table} on the {@link LevelDBTransaction}, which stores all the columns of a row as one LevelDB value under
+ * the row key prepended with the table prefix. Only the operations used by the structured tables are supported.
+ */
+final class LevelDBTransactionTable implements Table {
+  private final LevelDBTransaction transaction;
+  private final byte[] prefix;
+
+  LevelDBTransactionTable(LevelDBTransaction transaction, byte[] prefix) {
+    this.transaction = transaction;
+    this.prefix = prefix;
+  }
+
+  @Override
+  public Row get(byte[] row) {
+    return new Result(row, getColumns(row));
+  }
+
+  @Override
+  public byte[] get(byte[] row, byte[] column) {
+    return getColumns(row).get(column);
+  }
+
+  @Override
+  public Row get(byte[] row, byte[][] columns) {
+    NavigableMap<byte[], byte[]> rowColumns = getColumns(row);
+    NavigableMap<byte[], byte[]> result = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    for (byte[] column : columns) {
+      byte[] value = rowColumns.get(column);
+      if (value != null) {
+        result.put(column, value);
+      }
+    }
+    return new Result(row, result);
+  }
+
+  @Override
+  public Row get(byte[] row, @Nullable byte[] startColumn, @Nullable byte[] stopColumn, int limit) {
+    NavigableMap<byte[], byte[]> result = getColumns(row);
+    if (startColumn != null) {
+      result = result.tailMap(startColumn, true);
+    }
+    if (stopColumn != null) {
+      result = result.headMap(stopColumn, false);
+    }
+    NavigableMap<byte[], byte[]> limited = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    for (Map.Entry<byte[], byte[]> entry : result.entrySet()) {
+      if (limited.size() >= limit) {
+        break;
+      }
+      limited.put(entry.getKey(), entry.getValue());
+    }
+    return new Result(row, limited);
+  }
+
+  @Override
+  public Row get(Get get) {
+    List<byte[]> columns = get.getColumns();
+    return columns == null ? get(get.getRow()) : get(get.getRow(), columns.toArray(new byte[columns.size()][]));
+  }
+
+  @Override
+  public List<Row> get(List<Get> gets) {
+    List<Row> rows = new ArrayList<>(gets.size());
+    for (Get get : gets) {
+      rows.add(get(get));
+    }
+    return rows;
+  }
+
+  @Override
+  public void put(byte[] row, byte[] column, byte[] value) {
+    put(row, new byte[][] { column }, new byte[][] { value });
+  }
+
+  @Override
+  public void put(byte[] row, byte[][] columns, byte[][] values) {
+    NavigableMap<byte[], byte[]> rowColumns = getColumns(row);
+    for (int i = 0; i < columns.length; i++) {
+      // A null value deletes the column
+      if (values[i] == null) {
+        rowColumns.remove(columns[i]);
+      } else {
+        rowColumns.put(columns[i], values[i]);
+      }
+    }
+    putColumns(row, rowColumns);
+  }
+
+  @Override
+  public void put(Put put) {
+    Map<byte[], byte[]> values = put.getValues();
+    put(put.getRow(), values.keySet().toArray(new byte[values.size()][]),
+        values.values().toArray(new byte[values.size()][]));
+  }
+
+  @Override
+  public void delete(byte[] row) {
+    transaction.delete(Bytes.concat(prefix, row));
+  }
+
+  @Override
+  public void delete(byte[] row, byte[] column) {
+    delete(row, new byte[][] { column });
+  }
+
+  @Override
+  public void delete(byte[] row, byte[][] columns) {
+    NavigableMap<byte[], byte[]> rowColumns = getColumns(row);
+    for (byte[] column : columns) {
+      rowColumns.remove(column);
+    }
+    putColumns(row, rowColumns);
+  }
+
+  @Override
+  public void delete(Delete delete) {
+    List<byte[]> columns = delete.getColumns();
+    if (columns == null) {
+      delete(delete.getRow());
+    } else {
+      delete(delete.getRow(), columns.toArray(new byte[columns.size()][]));
+    }
+  }
+
+  @Override
+  public long incrementAndGet(byte[] row, byte[] column, long amount) {
+    return Bytes.toLong(incrementAndGet(row, new byte[][] { column }, new long[] { amount }).get(column));
+  }
+
+  @Override
+  public Row incrementAndGet(byte[] row, byte[][] columns, long[] amounts) {
+    NavigableMap<byte[], byte[]> rowColumns = getColumns(row);
+    NavigableMap<byte[], byte[]> result = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    for (int i = 0; i < columns.length; i++) {
+      byte[] value = rowColumns.get(columns[i]);
+      if (value != null && value.length != Bytes.SIZEOF_LONG) {
+        throw new NumberFormatException("Attempted to increment a value that is not convertible to long," +
+                                          " row: " + Bytes.toStringBinary(row) +
+                                          " column: " + Bytes.toStringBinary(columns[i]));
+      }
+      byte[] updated = Bytes.toBytes((value == null ? 0L : Bytes.toLong(value)) + amounts[i]);
+      rowColumns.put(columns[i], updated);
+      result.put(columns[i], updated);
+    }
+    putColumns(row, rowColumns);
+    return new Result(row, result);
+  }
+
+  @Override
+  public Row incrementAndGet(Increment increment) {
+    Map<byte[], Long> values = increment.getValues();
+    byte[][] columns = new byte[values.size()][];
+    long[] amounts = new long[values.size()];
+    int i = 0;
+    for (Map.Entry<byte[], Long> entry : values.entrySet()) {
+      columns[i] = entry.getKey();
+      amounts[i] = entry.getValue();
+      i++;
+    }
+    return incrementAndGet(increment.getRow(), columns, amounts);
+  }
+
+  @Override
+  public void increment(byte[] row, byte[] column, long amount) {
+    incrementAndGet(row, column, amount);
+  }
+
+  @Override
+  public void increment(byte[] row, byte[][] columns, long[] amounts) {
+    incrementAndGet(row, columns, amounts);
+  }
+
+  @Override
+  public void increment(Increment increment) {
+    incrementAndGet(increment);
+  }
+
+  @Override
+  public Scanner scan(@Nullable byte[] startRow, @Nullable byte[] stopRow) {
+    CloseableIterator<Map.Entry<byte[], byte[]>> iterator =
+      transaction.scan(startRow == null ? prefix : Bytes.concat(prefix, startRow),
+                       stopRow == null ? Bytes.stopKeyForPrefix(prefix) : Bytes.concat(prefix, stopRow));
+    return new Scanner() {
+      @Nullable
+      @Override
+      public Row next() {
+        if (!iterator.hasNext()) {
+          return null;
+        }
+        Map.Entry<byte[], byte[]> entry = iterator.next();
+        return new Result(Arrays.copyOfRange(entry.getKey(), prefix.length, entry.getKey().length),
+                          decodeColumns(entry.getValue()));
+      }
+
+      @Override
+      public void close() {
+        iterator.close();
+      }
+    };
+  }
+
+  @Override
+  public Scanner scan(Scan scan) {
+    if (scan.getFilter() != null) {
+      throw new UnsupportedOperationException("Scan with filter is not supported");
+    }
+    return scan(scan.getStartRow(), scan.getStopRow());
+  }
+
+  @Override
+  public List<Split> getSplits(int numSplits, @Nullable byte[] start, @Nullable byte[] stop) {
+    throw new UnsupportedOperationException("Batch read is not supported");
+  }
+
+  @Override
+  public boolean compareAndSwap(byte[] key, byte[] keyColumn, @Nullable byte[] oldValue, @Nullable byte[] newValue) {
+    NavigableMap<byte[], byte[]> rowColumns = getColumns(key);
+    if (!Arrays.equals(oldValue, rowColumns.get(keyColumn))) {
+      return false;
+    }
+    put(key, keyColumn, newValue);
+    return true;
+  }
+
+  @Override
+  public void write(byte[] key, Put value) {
+    put(value);
+  }
+
+  @Override
+  public List<Split> getSplits() {
+    throw new UnsupportedOperationException("Batch read is not supported");
+  }
+
+  @Override
+  public SplitReader<byte[], Row> createSplitReader(Split split) {
+    throw new UnsupportedOperationException("Batch read is not supported");
+  }
+
+  @Override
+  public Type getRecordType() {
+    throw new UnsupportedOperationException("Record read and write is not supported");
+  }
+
+  @Override
+  public RecordScanner<StructuredRecord> createSplitRecordScanner(Split split) {
+    throw new UnsupportedOperationException("Record read and write is not supported");
+  }
+
+  @Override
+  public void write(StructuredRecord structuredRecord) {
+    throw new UnsupportedOperationException("Record read and write is not supported");
+  }
+
+  @Override
+  public void close() {
+    // no-op, the transaction is released by the transaction runner
+  }
+
+  private NavigableMap<byte[], byte[]> getColumns(byte[] row) {
+    byte[] value = transaction.get(Bytes.concat(prefix, row));
+    return value == null ? new TreeMap<>(Bytes.BYTES_COMPARATOR) : decodeColumns(value);
+  }
+
+  private void putColumns(byte[] row, NavigableMap<byte[], byte[]> columns) {
+    if (columns.isEmpty()) {
+      transaction.delete(Bytes.concat(prefix, row));
+    } else {
+      transaction.put(Bytes.concat(prefix, row), encodeColumns(columns));
+    }
+  }
+
+  /**
+   * Encodes the columns of a row as the number of columns, followed by the length and bytes of each column name and
+   * value.
+   */
+  private static byte[] encodeColumns(NavigableMap<byte[], byte[]> columns) {
+    int size = Bytes.SIZEOF_INT;
+    for (Map.Entry<byte[], byte[]> entry : columns.entrySet()) {
+      size += 2 * Bytes.SIZEOF_INT + entry.getKey().length + entry.getValue().length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    buffer.putInt(columns.size());
+    for (Map.Entry<byte[], byte[]> entry : columns.entrySet()) {
+      buffer.putInt(entry.getKey().length).put(entry.getKey());
+      buffer.putInt(entry.getValue().length).put(entry.getValue());
+    }
+    return buffer.array();
+  }
+
+  private static NavigableMap<byte[], byte[]> decodeColumns(byte[] bytes) {
+    NavigableMap<byte[], byte[]> columns = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int size = buffer.getInt();
+    for (int i = 0; i < size; i++) {
+      byte[] column = new byte[buffer.getInt()];
+      buffer.get(column);
+      byte[] value = new byte[buffer.getInt()];
+      buffer.get(value);
+      columns.put(column, value);
+    }
+    return columns;
+  }
+}
@@ -17,13 +17,18 @@
 package io.cdap.cdap.spi.data.nosql;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.cdap.api.dataset.lib.AbstractCloseableIterator;
 import io.cdap.cdap.api.dataset.lib.CloseableIterator;
 import io.cdap.cdap.api.dataset.lib.IndexedTable;
+import io.cdap.cdap.api.dataset.table.Get;
 import io.cdap.cdap.api.dataset.table.Put;
+import io.cdap.cdap.api.dataset.table.Result;
 import io.cdap.cdap.api.dataset.table.Row;
 import io.cdap.cdap.api.dataset.table.Scanner;
+import io.cdap.cdap.common.utils.ImmutablePair;
 import io.cdap.cdap.data2.dataset2.lib.table.MDSKey;
 import io.cdap.cdap.spi.data.InvalidFieldException;
 import io.cdap.cdap.spi.data.StructuredRow;
@@ -37,11 +42,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Nosql structured table implementation. This table will prepend the table name as the prefix for each row key.
@@ -51,14 +63,17 @@ public final class NoSqlStructuredTable implements StructuredTable {
   private final IndexedTable table;
   private final StructuredTableSchema schema;
   private final FieldValidator fieldValidator;
-  // this key prefix will be used for any row in this table
-  private final MDSKey keyPrefix;
+  // this key prefix will be used for any row in this table, it is encoded the same way as a MDSKey
+  private final byte[] keyPrefix;
+  // the encoded column names, so that writing many rows does not encode the same names again
+  private final Map<String, byte[]> columnBytes;
 
   public NoSqlStructuredTable(IndexedTable table, StructuredTableSchema schema) {
     this.table = table;
     this.schema = schema;
-    this.keyPrefix = new MDSKey.Builder().add(schema.getTableId().getName()).build();
+    this.keyPrefix = new MDSKey.Builder().add(schema.getTableId().getName()).build().getKey();
     this.fieldValidator = new FieldValidator(schema);
+    this.columnBytes = new HashMap<>();
   }
 
   @Override
@@ -67,6 +82,18 @@ public final class NoSqlStructuredTable implements StructuredTable {
     table.put(convertFieldsToBytes(fields));
   }
 
+  @Override
+  public void multiUpsert(Collection<? extends Collection<Field<?>>> multiFields) throws InvalidFieldException {
+    LOG.trace("Table {}: Write multiple rows {}", schema.getTableId(), multiFields);
+    // Convert all the rows first, so that no row is written if any of them is invalid
+    List<Put> puts = new ArrayList<>(multiFields.size());
+    for (Collection<Field<?>> fields : multiFields) {
+      puts.add(convertFieldsToBytes(fields));
+    }
+    // The index entries of all the rows are updated with one batched read of the existing rows
+    table.put(puts);
+  }
+
   @Override
   public Optional<StructuredRow> read(Collection<Field<?>> keys) throws InvalidFieldException {
     LOG.trace("Table {}: Read with keys {}", schema.getTableId(), keys);
@@ -86,12 +113,91 @@ public final class NoSqlStructuredTable implements StructuredTable {
     return row.isEmpty() ? Optional.empty() : Optional.of(new NoSqlStructuredRow(row, schema));
   }
 
+  @Override
+  public Collection<StructuredRow> multiRead(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException {
+    LOG.trace("Table {}: Read with multiple keys {}", schema.getTableId(), multiKeys);
+    List<Get> gets = new ArrayList<>(multiKeys.size());
+    for (Collection<Field<?>> keys : multiKeys) {
+      gets.add(new Get(convertKeyToBytes(keys, false)));
+    }
+
+    // The underlying table fetches all the rows in one batch
+    List<StructuredRow> result = new ArrayList<>();
+    for (Row row : table.get(gets)) {
+      if (!row.isEmpty()) {
+        result.add(new NoSqlStructuredRow(row, schema));
+      }
+    }
+    return result;
+  }
+
   @Override
   public CloseableIterator<StructuredRow> scan(Range keyRange, int limit) throws InvalidFieldException {
     LOG.trace("Table {}: Scan range {} with limit {}", schema.getTableId(), keyRange, limit);
     return new LimitIterator(new ScannerIterator(getScanner(keyRange), schema), limit);
   }
 
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit,
+                                               Collection<String> columns) throws InvalidFieldException {
+    if (columns == null || columns.isEmpty()) {
+      throw new IllegalArgumentException("No columns are specified to read");
+    }
+    return scan(keyRange, limit, columns, Collections.emptyList());
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit, @Nullable Collection<String> columns,
+                                               Collection<Field<?>> filters) throws InvalidFieldException {
+    LOG.trace("Table {}: Scan range {} with limit {}, columns {} and filters {}",
+              schema.getTableId(), keyRange, limit, columns, filters);
+    byte[][] columnBytes = columns == null ? null : convertColumnsToBytes(columns);
+    // The filters are matched against the encoded column values, so that rows are only decoded when they match
+    byte[][] filterColumns = new byte[filters.size()][];
+    byte[][] filterValues = new byte[filters.size()][];
+    int i = 0;
+    for (Field<?> filter : filters) {
+      fieldValidator.validateField(filter);
+      if (schema.isPrimaryKeyColumn(filter.getName())) {
+        throw new IllegalArgumentException("Cannot use a primary key field as a scan filter");
+      }
+      filterColumns[i] = Bytes.toBytes(filter.getName());
+      filterValues[i] = fieldToBytes(filter);
+      i++;
+    }
+    return new LimitIterator(new ScannerIterator(getScanner(keyRange), schema, columnBytes,
+                                                 filterColumns, filterValues), limit);
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> multiScan(Collection<Range> keyRanges,
+                                                    int limit) throws InvalidFieldException {
+    LOG.trace("Table {}: Scan ranges {} with limit {}", schema.getTableId(), keyRanges, limit);
+    List<ImmutablePair<byte[], byte[]>> scanKeys = new ArrayList<>(keyRanges.size());
+    for (Range keyRange : keyRanges) {
+      ImmutablePair<byte[], byte[]> keys = getScanKeys(keyRange);
+      if (Bytes.compareTo(keys.getFirst(), keys.getSecond()) < 0) {
+        scanKeys.add(keys);
+      }
+    }
+    scanKeys.sort((o1, o2) -> Bytes.compareTo(o1.getFirst(), o2.getFirst()));
+
+    // Merge the overlapping ranges, so that the rows are scanned in key order without duplicates
+    List<ImmutablePair<byte[], byte[]>> merged = new ArrayList<>(scanKeys.size());
+    for (ImmutablePair<byte[], byte[]> keys : scanKeys) {
+      int last = merged.size() - 1;
+      if (last >= 0 && Bytes.compareTo(keys.getFirst(), merged.get(last).getSecond()) <= 0) {
+        if (Bytes.compareTo(keys.getSecond(), merged.get(last).getSecond()) > 0) {
+          merged.set(last, ImmutablePair.of(merged.get(last).getFirst(), keys.getSecond()));
+        }
+      } else {
+        merged.add(keys);
+      }
+    }
+    return new LimitIterator(new ScannerIterator(new MultiRangeScanner(merged), schema), limit);
+  }
+
   @Override
   public CloseableIterator<StructuredRow> scan(Field<?> index) throws InvalidFieldException {
     LOG.trace("Table {}: Scan index {}", schema.getTableId(), index);
@@ -152,6 +258,18 @@ public final class NoSqlStructuredTable implements StructuredTable {
     table.delete(convertKeyToBytes(keys, false));
   }
 
+  @Override
+  public void multiDelete(Collection<? extends Collection<Field<?>>> multiKeys) throws InvalidFieldException {
+    LOG.trace("Table {}: Delete with multiple keys {}", schema.getTableId(), multiKeys);
+    List<byte[]> rows = new ArrayList<>(multiKeys.size());
+    for (Collection<Field<?>> keys : multiKeys) {
+      rows.add(convertKeyToBytes(keys, false));
+    }
+    for (byte[] row : rows) {
+      table.delete(row);
+    }
+  }
+
   @Override
   public void deleteAll(Range keyRange) throws InvalidFieldException, IOException {
     LOG.trace("Table {}: DeleteAll with range {}", schema.getTableId(), keyRange);
@@ -163,6 +281,19 @@ public final class NoSqlStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public long count(Range keyRange) throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Count with range {}", schema.getTableId(), keyRange);
+    long count = 0;
+    try (Scanner scanner = getScanner(keyRange)) {
+      // Only count the rows, without decoding them
+      while (scanner.next() != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   @Override
   public void close() throws IOException {
     table.close();
@@ -179,11 +310,11 @@ public final class NoSqlStructuredTable implements StructuredTable {
    */
   private byte[] convertKeyToBytes(Collection<Field<?>> keys, boolean allowPrefix) throws InvalidFieldException {
     fieldValidator.validatePrimaryKeys(keys, allowPrefix);
-    MDSKey.Builder mdsKey = new MDSKey.Builder(keyPrefix);
-    for (Field<?> key : keys) {
-      addKey(mdsKey, key, schema.getType(key.getName()));
+    ByteArrayDataOutput key = newKey();
+    for (Field<?> field : keys) {
+      addKey(key, field, schema.getType(field.getName()));
     }
-    return mdsKey.build().getKey();
+    return key.toByteArray();
   }
 
   /**
@@ -200,7 +331,7 @@ public final class NoSqlStructuredTable implements StructuredTable {
       if (schema.getType(column) == null) {
         throw new InvalidFieldException(schema.getTableId(), column);
       }
-      bytes[i] = Bytes.toBytes(column);
+      bytes[i] = getColumnBytes(column);
       i++;
     }
     return bytes;
@@ -224,7 +355,7 @@ public final class NoSqlStructuredTable implements StructuredTable {
     int numColumns = fields.size() - schema.getPrimaryKeys().size();
 
     // add the table name as the prefix
-    MDSKey.Builder key = new MDSKey.Builder(keyPrefix);
+    ByteArrayDataOutput key = newKey();
     byte[][] columns = new byte[numColumns][];
     byte[][] values = new byte[numColumns][];
 
@@ -237,42 +368,62 @@ public final class NoSqlStructuredTable implements StructuredTable {
         if (schema.getType(field.getName()) == null) {
           throw new InvalidFieldException(schema.getTableId(), field.getName());
         }
-        columns[i] = Bytes.toBytes(field.getName());
+        columns[i] = getColumnBytes(field.getName());
         values[i] = fieldToBytes(field);
         i++;
       }
     }
 
-    Put put = new Put(key.build().getKey());
+    Put put = new Put(key.toByteArray());
     for (int index = 0; index < columns.length; index++) {
       put.add(columns[index], values[index]);
     }
     return put;
   }
 
-  private void addKey(MDSKey.Builder key, Field<?> field, FieldType.Type type) throws InvalidFieldException {
+  /**
+   * Returns a new row key with the table name prefix. The keys are encoded in one buffer the same way as
+   * {@link MDSKey.Builder}, which would copy the key for each part.
+   */
+  private ByteArrayDataOutput newKey() {
+    ByteArrayDataOutput key = ByteStreams.newDataOutput(keyPrefix.length + 64);
+    key.write(keyPrefix);
+    return key;
+  }
+
+  private void addKey(ByteArrayDataOutput key, Field<?> field, FieldType.Type type) throws InvalidFieldException {
     if (field.getValue() == null) {
       throw new InvalidFieldException(schema.getTableId(), field.getName(), "is a primary key and value is null");
     }
 
     switch (type) {
       case INTEGER:
-        key.add((Integer) field.getValue());
+        key.writeInt((Integer) field.getValue());
         return;
       case LONG:
-        key.add((Long) field.getValue());
+        key.writeLong((Long) field.getValue());
         return;
       case STRING:
-        key.add((String) field.getValue());
+        addKeyPart(key, Bytes.toBytes((String) field.getValue()));
         return;
       case BYTES:
-        key.add((byte[]) field.getValue());
+        addKeyPart(key, (byte[]) field.getValue());
         return;
       default:
         throw new InvalidFieldException(schema.getTableId(), field.getName());
     }
   }
 
+  private static void addKeyPart(ByteArrayDataOutput key, byte[] part) {
+    // variable length parts are encoded as the length followed by the bytes
+    key.writeInt(part.length);
+    key.write(part);
+  }
+
+  private byte[] getColumnBytes(String column) {
+    return columnBytes.computeIfAbsent(column, Bytes::toBytes);
+  }
+
   private byte[] fieldToBytes(Field<?> field) throws InvalidFieldException {
     if (field.getValue() == null) {
       return null;
@@ -297,6 +448,14 @@ public final class NoSqlStructuredTable implements StructuredTable {
   }
 
   private Scanner getScanner(Range keyRange) {
+    ImmutablePair<byte[], byte[]> scanKeys = getScanKeys(keyRange);
+    return table.scan(scanKeys.getFirst(), scanKeys.getSecond());
+  }
+
+  /**
+   * Returns the start row (inclusive) and stop row (exclusive) to scan for the given range.
+   */
+  private ImmutablePair<byte[], byte[]> getScanKeys(Range keyRange) {
     // the method will always prepend the table name as prefix
     byte[] begin = convertKeyToBytes(keyRange.getBegin(), true);
     byte[] end = convertKeyToBytes(keyRange.getEnd(), true);
@@ -313,7 +472,48 @@ public final class NoSqlStructuredTable implements StructuredTable {
       end = Bytes.stopKeyForPrefix(end);
     }
 
-    return table.scan(begin, end);
+    return ImmutablePair.of(begin, end);
+  }
+
+  /**
+   * A {@link Scanner} that scans the given row ranges one after another. Each range is only scanned after the
+   * previous one is exhausted.
+   */
+  private final class MultiRangeScanner implements Scanner {
+    private final Iterator<ImmutablePair<byte[], byte[]>> scanKeys;
+    private Scanner scanner;
+
+    MultiRangeScanner(List<ImmutablePair<byte[], byte[]>> scanKeys) {
+      this.scanKeys = scanKeys.iterator();
+    }
+
+    @Nullable
+    @Override
+    public Row next() {
+      while (true) {
+        if (scanner == null) {
+          if (!scanKeys.hasNext()) {
+            return null;
+          }
+          ImmutablePair<byte[], byte[]> keys = scanKeys.next();
+          scanner = table.scan(keys.getFirst(), keys.getSecond());
+        }
+        Row row = scanner.next();
+        if (row != null) {
+          return row;
+        }
+        scanner.close();
+        scanner = null;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (scanner != null) {
+        scanner.close();
+        scanner = null;
+      }
+    }
   }
 
   /**
@@ -356,19 +556,59 @@ public final class NoSqlStructuredTable implements StructuredTable {
   static final class ScannerIterator extends AbstractCloseableIterator<StructuredRow> {
     private final Scanner scanner;
     private final StructuredTableSchema schema;
+    private final byte[][] columns;
+    private final byte[][] filterColumns;
+    private final byte[][] filterValues;
 
     ScannerIterator(Scanner scanner, StructuredTableSchema schema) {
+      this(scanner, schema, null, new byte[0][], new byte[0][]);
+    }
+
+    /**
+     * Creates an iterator that only returns the given columns of the rows that match the filters.
+     *
+     * @param columns the columns to return, or {@code null} to return all the columns
+     * @param filterColumns the columns to filter on
+     * @param filterValues the values that the filter columns must have, a {@code null} value matches unset columns
+     */
+    ScannerIterator(Scanner scanner, StructuredTableSchema schema, @Nullable byte[][] columns,
+                    byte[][] filterColumns, byte[][] filterValues) {
       this.scanner = scanner;
       this.schema = schema;
+      this.columns = columns;
+      this.filterColumns = filterColumns;
+      this.filterValues = filterValues;
     }
 
     @Override
     protected StructuredRow computeNext() {
-      Row row = scanner.next();
-      if (row == null) {
-        return endOfData();
+      Row row;
+      while ((row = scanner.next()) != null) {
+        if (matches(row)) {
+          return new NoSqlStructuredRow(columns == null ? row : project(row), schema);
+        }
+      }
+      return endOfData();
+    }
+
+    private boolean matches(Row row) {
+      for (int i = 0; i < filterColumns.length; i++) {
+        if (!Bytes.equals(row.get(filterColumns[i]), filterValues[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Row project(Row row) {
+      Map<byte[], byte[]> projected = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+      for (byte[] column : columns) {
+        byte[] value = row.get(column);
+        if (value != null) {
+          projected.put(column, value);
+        }
       }
-      return new NoSqlStructuredRow(row, schema);
+      return new Result(row.getRow(), projected);
     }
 
     @Override
@@ -26,12 +26,14 @@ import io.cdap.cdap.spi.data.StructuredTableContext;
 import io.cdap.cdap.spi.data.StructuredTableInstantiationException;
 import io.cdap.cdap.spi.data.TableNotFoundException;
 import io.cdap.cdap.spi.data.common.MetricStructuredTable;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
 import io.cdap.cdap.spi.data.table.StructuredTableId;
 import io.cdap.cdap.spi.data.table.StructuredTableSchema;
 import io.cdap.cdap.spi.data.table.StructuredTableSpecification;
 
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 /**
  * The nosql context to get the table.
@@ -41,13 +43,16 @@ public class NoSqlStructuredTableContext implements StructuredTableContext {
   private final DatasetContext datasetContext;
   private final MetricsCollector metricsCollector;
   private final boolean emitTimeMetrics;
+  private final StructuredTableRowCache.TransactionScope cacheScope;
 
   NoSqlStructuredTableContext(NoSqlStructuredTableAdmin tableAdmin, DatasetContext datasetContext,
-                              MetricsCollector metricsCollector, boolean emitTimeMetrics) {
+                              MetricsCollector metricsCollector, boolean emitTimeMetrics,
+                              @Nullable StructuredTableRowCache.TransactionScope cacheScope) {
     this.tableAdmin = tableAdmin;
     this.datasetContext = datasetContext;
     this.metricsCollector = metricsCollector;
     this.emitTimeMetrics = emitTimeMetrics;
+    this.cacheScope = cacheScope;
   }
 
   @Override
@@ -68,9 +73,13 @@ public class NoSqlStructuredTableContext implements StructuredTableContext {
         arguments.put(IndexedTable.INDEX_COLUMNS_CONF_KEY, Joiner.on(",").join(specification.getIndexes()));
         arguments.put(IndexedTable.DYNAMIC_INDEXING_PREFIX, tableId.getName());
       }
+      StructuredTableSchema schema = new StructuredTableSchema(specification);
       StructuredTable table =
         new NoSqlStructuredTable(datasetContext.getDataset(NoSqlStructuredTableAdmin.ENTITY_TABLE_NAME, arguments),
-                                 new StructuredTableSchema(specification));
+                                 schema);
+      if (cacheScope != null) {
+        table = cacheScope.wrap(schema, table, metricsCollector);
+      }
       return new MetricStructuredTable(tableId, table, metricsCollector, emitTimeMetrics);
     } catch (DatasetInstantiationException e) {
       throw new StructuredTableInstantiationException(
@@ -24,6 +24,7 @@ import io.cdap.cdap.api.metrics.MetricsContext;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.data2.transaction.Transactions;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
 import io.cdap.cdap.spi.data.nosql.dataset.NoSQLTransactionals;
 import io.cdap.cdap.spi.data.nosql.dataset.TableDatasetSupplier;
 import io.cdap.cdap.spi.data.transaction.TransactionException;
@@ -35,6 +36,7 @@ import org.apache.tephra.TransactionSystemClient;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * No sql transaction runner to start a transaction
@@ -44,6 +46,7 @@ public class NoSqlTransactionRunner implements TransactionRunner {
   private final Transactional transactional;
   private final MetricsCollectionService metricsCollectionService;
   private final boolean emitTimeMetrics;
+  private final StructuredTableRowCache rowCache;
 
   @Inject
   public NoSqlTransactionRunner(NoSqlStructuredTableAdmin tableAdmin, TransactionSystemClient txClient,
@@ -59,16 +62,24 @@ public class NoSqlTransactionRunner implements TransactionRunner {
       RetryStrategies.retryOnConflict(20, 100));
     this.metricsCollectionService = metricsCollectionService;
     this.emitTimeMetrics = cConf.getBoolean(Constants.Metrics.STRUCTURED_TABLE_TIME_METRICS_ENABLED);
+    StructuredTableRowCache rowCache = new StructuredTableRowCache(cConf);
+    this.rowCache = rowCache.isEnabled() ? rowCache : null;
   }
 
   @Override
   public void run(TxRunnable runnable) throws TransactionException {
     try {
       MetricsContext metricsCollector = metricsCollectionService.getContext(Constants.Metrics.STORAGE_METRICS_TAGS);
-      transactional.execute(
-        datasetContext -> runnable.run(new NoSqlStructuredTableContext(tableAdmin, datasetContext,
-                                                                       metricsCollector, emitTimeMetrics))
-      );
+      // The transaction can be retried on conflict, hence only the scope of the last attempt is committed
+      AtomicReference<StructuredTableRowCache.TransactionScope> cacheScope = new AtomicReference<>();
+      transactional.execute(datasetContext -> {
+        cacheScope.set(rowCache == null ? null : rowCache.startTransaction());
+        runnable.run(new NoSqlStructuredTableContext(tableAdmin, datasetContext,
+                                                     metricsCollector, emitTimeMetrics, cacheScope.get()));
+      });
+      if (cacheScope.get() != null) {
+        cacheScope.get().committed();
+      }
     } catch (TransactionFailureException e) {
       throw new TransactionException("Failure executing NoSql transaction:", e.getCause() == null ? e : e.getCause());
     }
@@ -44,6 +44,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -57,29 +59,78 @@ import javax.annotation.Nullable;
  */
 public class PostgresSqlStructuredTable implements StructuredTable {
   private static final Logger LOG = LoggerFactory.getLogger(PostgresSqlStructuredTable.class);
+  // maximum number of rows addressed by one multi-row read or delete statement
+  private static final int MULTI_KEYS_BATCH_SIZE = 1000;
+  static final int DEFAULT_SCAN_FETCH_SIZE = 1000;
+  static final int DEFAULT_SCAN_PAGE_SIZE = 10000;
 
   private final Connection connection;
   private final StructuredTableSchema tableSchema;
   private final FieldValidator fieldValidator;
+  private final int scanFetchSize;
+  private final int scanPageSize;
 
   public PostgresSqlStructuredTable(Connection connection, StructuredTableSchema tableSchema) {
+    this(connection, tableSchema, DEFAULT_SCAN_FETCH_SIZE, DEFAULT_SCAN_PAGE_SIZE);
+  }
+
+  /**
+   * Creates a table that streams scan results.
+   *
+   * @param connection the connection to the sql instance
+   * @param tableSchema the schema of the table
+   * @param scanFetchSize the number of rows fetched from the server-side cursor at a time, or {@code 0} to let the
+   *                      driver fetch the entire result at once. The cursor is only used when auto-commit is off.
+   * @param scanPageSize the maximum number of rows returned by one scan query. Scans with a larger limit are
+   *                     executed as multiple queries, each continuing after the primary key of the last row returned
+   *                     by the previous one. A value of {@code 0} disables paging.
+   */
+  public PostgresSqlStructuredTable(Connection connection, StructuredTableSchema tableSchema,
+                                    int scanFetchSize, int scanPageSize) {
     this.connection = connection;
     this.tableSchema = tableSchema;
     this.fieldValidator = new FieldValidator(tableSchema);
+    this.scanFetchSize = scanFetchSize;
+    this.scanPageSize = scanPageSize;
   }
 
   @Override
   public void upsert(Collection<Field<?>> fields) throws InvalidFieldException, IOException {
     LOG.trace("Table {}: Write fields {}", tableSchema.getTableId(), fields);
-    Set<String> fieldNames = fields.stream().map(Field::getName).collect(Collectors.toSet());
-    if (!fieldNames.containsAll(tableSchema.getPrimaryKeys())) {
-      throw new InvalidFieldException(tableSchema.getTableId(), fields,
-                                      String.format("Given fields %s do not contain all the " +
-                                                      "primary keys %s", fieldNames, tableSchema.getPrimaryKeys()));
-    }
+    validateContainsPrimaryKeys(fields);
     upsertInternal(fields);
   }
 
+  @Override
+  public void multiUpsert(Collection<? extends Collection<Field<?>>> multiFields)
+    throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Write multiple rows {}", tableSchema.getTableId(), multiFields);
+    // Group the rows by the write query, so that rows with the same columns are written in one batch
+    Map<String, List<Collection<Field<?>>>> batches = new LinkedHashMap<>();
+    for (Collection<Field<?>> fields : multiFields) {
+      validateContainsPrimaryKeys(fields);
+      batches.computeIfAbsent(getWriteSqlQuery(fields, null), k -> new ArrayList<>()).add(fields);
+    }
+
+    for (Map.Entry<String, List<Collection<Field<?>>>> batch : batches.entrySet()) {
+      try (PreparedStatement statement = connection.prepareStatement(batch.getKey())) {
+        for (Collection<Field<?>> fields : batch.getValue()) {
+          int index = 1;
+          for (Field<?> field : fields) {
+            setField(statement, field, index);
+            index++;
+          }
+          statement.addBatch();
+        }
+        LOG.trace("SQL statement: {} with {} rows", batch.getKey(), batch.getValue().size());
+        statement.executeBatch();
+      } catch (SQLException e) {
+        throw new IOException(String.format("Failed to write %d rows to table %s",
+                                            batch.getValue().size(), tableSchema.getTableId().getName()), e);
+      }
+    }
+  }
+
   @Override
   public Optional<StructuredRow> read(Collection<Field<?>> keys) throws InvalidFieldException, IOException {
     return readRow(keys, null);
@@ -98,26 +149,154 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     return readRow(keys, columnFields);
   }
 
+  @Override
+  public Collection<StructuredRow> multiRead(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Read with multiple keys {}", tableSchema.getTableId(), multiKeys);
+    List<StructuredRow> result = new ArrayList<>();
+    for (List<Collection<Field<?>>> keysBatch : getMultiKeysBatches(multiKeys)) {
+      String readQuery = "SELECT * FROM " + tableSchema.getTableId().getName()
+        + " WHERE " + getInClause(keysBatch.size()) + ";";
+      try (PreparedStatement statement = connection.prepareStatement(readQuery)) {
+        setMultiKeys(statement, keysBatch);
+        LOG.trace("SQL statement: {}", statement);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          ResultSetMetaData metaData = resultSet.getMetaData();
+          int numCols = metaData.getColumnCount();
+          while (resultSet.next()) {
+            Map<String, Object> row = new HashMap<>();
+            for (int i = 1; i <= numCols; i++) {
+              row.put(metaData.getColumnName(i), resultSet.getObject(i));
+            }
+            result.add(new SqlStructuredRow(tableSchema, row));
+          }
+        }
+      } catch (SQLException e) {
+        throw new IOException(String.format("Failed to read %d rows from table %s",
+                                            keysBatch.size(), tableSchema.getTableId().getName()), e);
+      }
+    }
+    return result;
+  }
+
   @Override
   public CloseableIterator<StructuredRow> scan(Range keyRange, int limit) throws InvalidFieldException, IOException {
     LOG.trace("Table {}: Scan range {} with limit {}", tableSchema.getTableId(), keyRange, limit);
-    fieldValidator.validatePrimaryKeys(keyRange.getBegin(), true);
-    fieldValidator.validatePrimaryKeys(keyRange.getEnd(), true);
-    String scanQuery = getScanQuery(keyRange, limit);
+    return scanInternal(keyRange, limit, null, Collections.emptyList());
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit,
+                                               Collection<String> columns) throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Scan range {} with limit {} and columns {}", tableSchema.getTableId(), keyRange, limit,
+              columns);
+    if (columns == null || columns.isEmpty()) {
+      throw new IllegalArgumentException("No columns are specified to read");
+    }
+    return scanInternal(keyRange, limit, columns, Collections.emptyList());
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> scan(Range keyRange, int limit, @Nullable Collection<String> columns,
+                                               Collection<Field<?>> filters)
+    throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Scan range {} with limit {}, columns {} and filters {}", tableSchema.getTableId(), keyRange,
+              limit, columns, filters);
+    for (Field<?> filter : filters) {
+      fieldValidator.validateField(filter);
+      if (tableSchema.isPrimaryKeyColumn(filter.getName())) {
+        throw new IllegalArgumentException("Cannot use a primary key field as a scan filter");
+      }
+    }
+    return scanInternal(keyRange, limit, columns, filters);
+  }
+
+  @Override
+  public CloseableIterator<StructuredRow> multiScan(Collection<Range> keyRanges,
+                                                    int limit) throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Scan ranges {} with limit {}", tableSchema.getTableId(), keyRanges, limit);
+    if (keyRanges.isEmpty()) {
+      return new AbstractCloseableIterator<StructuredRow>() {
+        @Override
+        protected StructuredRow computeNext() {
+          return endOfData();
+        }
+
+        @Override
+        public void close() {
+          // no-op
+        }
+      };
+    }
+    return scanInternal(keyRanges, limit, null, Collections.emptyList());
+  }
+
+  private CloseableIterator<StructuredRow> scanInternal(Range keyRange, int limit, @Nullable Collection<String> columns,
+                                                        Collection<Field<?>> filters) throws IOException {
+    return scanInternal(Collections.singleton(keyRange), limit, columns, filters);
+  }
+
+  private CloseableIterator<StructuredRow> scanInternal(Collection<Range> keyRanges, int limit,
+                                                        @Nullable Collection<String> columns,
+                                                        Collection<Field<?>> filters) throws IOException {
+    for (Range keyRange : keyRanges) {
+      fieldValidator.validatePrimaryKeys(keyRange.getBegin(), true);
+      fieldValidator.validatePrimaryKeys(keyRange.getEnd(), true);
+    }
+    // If any of the ranges is unbounded, the whole table is scanned
+    if (keyRanges.size() > 1 && keyRanges.stream().anyMatch(r -> r.getBegin().isEmpty() && r.getEnd().isEmpty())) {
+      keyRanges = Collections.singleton(Range.all());
+    }
+
+    Set<String> columnFields = null;
+    if (columns != null) {
+      // always have the primary key fields included in the columns
+      columnFields = new LinkedHashSet<>(tableSchema.getPrimaryKeys());
+      for (String column : columns) {
+        if (tableSchema.getType(column) == null) {
+          throw new InvalidFieldException(tableSchema.getTableId(), column);
+        }
+        columnFields.add(column);
+      }
+    }
+
+    if (scanPageSize > 0 && limit > scanPageSize) {
+      return new PagingScanIterator(keyRanges, limit, columnFields, filters);
+    }
+    return scanPage(keyRanges, null, limit, columnFields, filters);
+  }
+
+  /**
+   * Executes a single scan query, streaming the result through a server-side cursor if a fetch size is set.
+   *
+   * @param keyRanges the ranges to scan, rows matching any of them are returned
+   * @param afterKeys if not null, only rows with primary keys greater than the given keys are returned
+   */
+  private ResultSetIterator scanPage(Collection<Range> keyRanges, @Nullable Collection<Field<?>> afterKeys,
+                                     int limit, @Nullable Collection<String> columns,
+                                     Collection<Field<?>> filters) throws IOException {
+    String scanQuery = getScanQuery(keyRanges, afterKeys, limit, columns, filters);
 
     // We don't close the statement here because once it is closed, the result set is also closed.
     try {
       PreparedStatement statement = connection.prepareStatement(scanQuery);
+      if (scanFetchSize > 0) {
+        statement.setFetchSize(scanFetchSize);
+      }
       int index = 1;
-      if (keyRange.getBegin() != null) {
-        for (Field<?> key : keyRange.getBegin()) {
+      for (Range keyRange : keyRanges) {
+        index = setRange(statement, keyRange, index);
+      }
+      if (afterKeys != null) {
+        for (Field<?> key : afterKeys) {
           setField(statement, key, index);
           index++;
         }
       }
-      if (keyRange.getEnd() != null) {
-        for (Field<?> key : keyRange.getEnd()) {
-          setField(statement, key, index);
+      for (Field<?> filter : filters) {
+        // null filters are matched with IS NULL, which has no parameter
+        if (filter.getValue() != null) {
+          setField(statement, filter, index);
           index++;
         }
       }
@@ -125,8 +304,8 @@ public class PostgresSqlStructuredTable implements StructuredTable {
       ResultSet resultSet = statement.executeQuery();
       return new ResultSetIterator(statement, resultSet, tableSchema);
     } catch (SQLException e) {
-      throw new IOException(String.format("Failed to scan from table %s with range %s",
-                                          tableSchema.getTableId().getName(), keyRange), e);
+      throw new IOException(String.format("Failed to scan from table %s with ranges %s",
+                                          tableSchema.getTableId().getName(), keyRanges), e);
     }
   }
 
@@ -142,6 +321,9 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     // We don't close the statement here because once it is closed, the result set is also closed.
     try {
       PreparedStatement statement = connection.prepareStatement(sql);
+      if (scanFetchSize > 0) {
+        statement.setFetchSize(scanFetchSize);
+      }
       setField(statement, index, 1);
       LOG.trace("SQL statement: {}", statement);
       ResultSet resultSet = statement.executeQuery();
@@ -266,6 +448,24 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public void multiDelete(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Delete with multiple keys {}", tableSchema.getTableId(), multiKeys);
+    for (List<Collection<Field<?>>> keysBatch : getMultiKeysBatches(multiKeys)) {
+      String sqlQuery = String.format("DELETE FROM %s WHERE %s;",
+                                      tableSchema.getTableId().getName(), getInClause(keysBatch.size()));
+      try (PreparedStatement statement = connection.prepareStatement(sqlQuery)) {
+        setMultiKeys(statement, keysBatch);
+        LOG.trace("SQL statement: {}", statement);
+        statement.executeUpdate();
+      } catch (SQLException e) {
+        throw new IOException(String.format("Failed to delete %d rows from table %s",
+                                            keysBatch.size(), tableSchema.getTableId().getName()), e);
+      }
+    }
+  }
+
   @Override
   public void deleteAll(Range keyRange) throws InvalidFieldException, IOException {
     LOG.trace("Table {}: DeleteAll with range {}", tableSchema.getTableId(), keyRange);
@@ -294,6 +494,31 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     }
   }
 
+  @Override
+  public long count(Range keyRange) throws InvalidFieldException, IOException {
+    LOG.trace("Table {}: Count with range {}", tableSchema.getTableId(), keyRange);
+    fieldValidator.validatePrimaryKeys(keyRange.getBegin(), true);
+    fieldValidator.validatePrimaryKeys(keyRange.getEnd(), true);
+
+    StringBuilder countQuery = new StringBuilder("SELECT COUNT(*) FROM ").append(tableSchema.getTableId().getName());
+    if (!keyRange.getBegin().isEmpty() || !keyRange.getEnd().isEmpty()) {
+      countQuery.append(" WHERE ");
+      appendRange(countQuery, keyRange);
+    }
+    countQuery.append(";");
+
+    try (PreparedStatement statement = connection.prepareStatement(countQuery.toString())) {
+      setRange(statement, keyRange);
+      LOG.trace("SQL statement: {}", statement);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? resultSet.getLong(1) : 0L;
+      }
+    } catch (SQLException e) {
+      throw new IOException(String.format("Failed to count the rows in table %s with range %s",
+                                          tableSchema.getTableId().getName(), keyRange), e);
+    }
+  }
+
   @Override
   public void close() throws IOException {
     try {
@@ -303,6 +528,47 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     }
   }
 
+  private void validateContainsPrimaryKeys(Collection<Field<?>> fields) throws InvalidFieldException {
+    Set<String> fieldNames = fields.stream().map(Field::getName).collect(Collectors.toSet());
+    if (!fieldNames.containsAll(tableSchema.getPrimaryKeys())) {
+      throw new InvalidFieldException(tableSchema.getTableId(), fields,
+                                      String.format("Given fields %s do not contain all the " +
+                                                      "primary keys %s", fieldNames, tableSchema.getPrimaryKeys()));
+    }
+  }
+
+  /**
+   * Validates the given primary keys and splits them into batches of at most {@link #MULTI_KEYS_BATCH_SIZE} keys.
+   */
+  private List<List<Collection<Field<?>>>> getMultiKeysBatches(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException {
+    List<List<Collection<Field<?>>>> batches = new ArrayList<>();
+    List<Collection<Field<?>>> batch = new ArrayList<>();
+    for (Collection<Field<?>> keys : multiKeys) {
+      fieldValidator.validatePrimaryKeys(keys, false);
+      batch.add(keys);
+      if (batch.size() >= MULTI_KEYS_BATCH_SIZE) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  private void setMultiKeys(PreparedStatement statement,
+                            Collection<Collection<Field<?>>> multiKeys) throws SQLException, InvalidFieldException {
+    int index = 1;
+    for (Collection<Field<?>> keys : multiKeys) {
+      for (Field<?> key : keys) {
+        setField(statement, key, index);
+        index++;
+      }
+    }
+  }
+
   private void upsertInternal(Collection<Field<?>> fields) throws IOException {
     String sqlQuery = getWriteSqlQuery(fields, null);
     try (PreparedStatement statement = connection.prepareStatement(sqlQuery)) {
@@ -357,6 +623,33 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     }
   }
 
+  /**
+   * Sets the begin and end keys of the range as the parameters of the statement, starting from the first parameter.
+   *
+   * @return the index of the next parameter
+   */
+  private int setRange(PreparedStatement statement, Range range) throws SQLException, InvalidFieldException {
+    return setRange(statement, range, 1);
+  }
+
+  /**
+   * Sets the begin and end keys of the range as the parameters of the statement, starting from the given parameter.
+   *
+   * @return the index of the next parameter
+   */
+  private int setRange(PreparedStatement statement, Range range,
+                       int index) throws SQLException, InvalidFieldException {
+    for (Field<?> key : range.getBegin()) {
+      setField(statement, key, index);
+      index++;
+    }
+    for (Field<?> key : range.getEnd()) {
+      setField(statement, key, index);
+      index++;
+    }
+    return index;
+  }
+
   private void setField(PreparedStatement statement, Field field,
                         int parameterIndex) throws SQLException, InvalidFieldException {
     fieldValidator.validateField(field);
@@ -464,17 +757,53 @@ public class PostgresSqlStructuredTable implements StructuredTable {
    * Get the scan query for the range given. For example, if the range provides key1, key2 as the begin and end to
    * scan, both rows are inclusive, it will generate the following query:
    * SELECT * FROM simpletable WHERE (key1,key2)>=(?,?) AND (key1,key2)<=(?,?) LIMIT 10;
+   * With columns col1, col2 and filters on col3 and col4, where the col4 filter value is null, it will generate:
+   * SELECT key1,key2,col1,col2 FROM simpletable WHERE (key1,key2)>=(?,?) AND (key1,key2)<=(?,?)
+   * AND col3=? AND col4 IS NULL LIMIT 10;
+   * With multiple ranges, the ranges are combined with OR, and with after keys, the rows are further restricted:
+   * SELECT * FROM simpletable WHERE (((key1)>=(?) AND (key1)<=(?)) OR ((key1)>=(?) AND (key1)<=(?)))
+   * AND (key1,key2)>(?,?) LIMIT 10;
    *
-   * @param range the range to scan.
+   * @param ranges the ranges to scan.
+   * @param afterKeys if not null, only select rows with primary keys greater than these keys
    * @param limit limit number of row
+   * @param columns the columns to select, or null to select all the columns
+   * @param filters the filters on the column values
    * @return the scan query
    */
-  private String getScanQuery(Range range, int limit) {
-    StringBuilder queryString = new StringBuilder("SELECT * FROM ").append(tableSchema.getTableId().getName());
-    if (!range.getBegin().isEmpty() || !range.getEnd().isEmpty()) {
-      queryString.append(" WHERE ");
-      appendRange(queryString, range);
+  private String getScanQuery(Collection<Range> ranges, @Nullable Collection<Field<?>> afterKeys, int limit,
+                              @Nullable Collection<String> columns, Collection<Field<?>> filters) {
+    StringBuilder queryString = new StringBuilder("SELECT ")
+      .append(columns == null ? "*" : Joiner.on(",").join(columns))
+      .append(" FROM ").append(tableSchema.getTableId().getName());
+
+    StringJoiner conditions = new StringJoiner(" AND ", " WHERE ", "");
+    conditions.setEmptyValue("");
+    if (ranges.size() == 1) {
+      Range range = ranges.iterator().next();
+      if (!range.getBegin().isEmpty() || !range.getEnd().isEmpty()) {
+        StringBuilder rangeCondition = new StringBuilder();
+        appendRange(rangeCondition, range);
+        conditions.add(rangeCondition);
+      }
+    } else {
+      StringJoiner rangesJoiner = new StringJoiner(" OR ", "(", ")");
+      for (Range range : ranges) {
+        StringBuilder rangeCondition = new StringBuilder("(");
+        appendRange(rangeCondition, range);
+        rangesJoiner.add(rangeCondition.append(")"));
+      }
+      conditions.add(rangesJoiner.toString());
     }
+    if (afterKeys != null) {
+      StringBuilder afterCondition = new StringBuilder();
+      appendScanBound(afterCondition, afterKeys, ">");
+      conditions.add(afterCondition);
+    }
+    for (Field<?> filter : filters) {
+      conditions.add(filter.getName() + (filter.getValue() == null ? " IS NULL" : "=?"));
+    }
+    queryString.append(conditions.toString());
 
     queryString.append(getOrderByClause(tableSchema.getPrimaryKeys()));
     queryString.append(" LIMIT ").append(limit).append(";");
@@ -521,6 +850,30 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     return statement.toString();
   }
 
+  /**
+   * Get the clause that matches the given number of complete primary keys. For example, if the table has two primary
+   * keys (key1, key2), for two rows it will generate the following clause:
+   * (key1,key2) IN ((?,?),(?,?))
+   *
+   * @param numRows the number of rows to match
+   * @return the clause
+   */
+  private String getInClause(int numRows) {
+    StringJoiner keyJoiner = new StringJoiner(",", "(", ")");
+    StringJoiner valueJoiner = new StringJoiner(",", "(", ")");
+    for (String key : tableSchema.getPrimaryKeys()) {
+      keyJoiner.add(key);
+      valueJoiner.add("?");
+    }
+
+    StringJoiner rowsJoiner = new StringJoiner(",", "(", ")");
+    String value = valueJoiner.toString();
+    for (int i = 0; i < numRows; i++) {
+      rowsJoiner.add(value);
+    }
+    return keyJoiner.toString() + " IN " + rowsJoiner.toString();
+  }
+
   private String getEqualsClause(Collection<Field<?>> keys) {
     StringJoiner joiner = new StringJoiner(" AND ");
     for (Field<?> key : keys) {
@@ -556,6 +909,73 @@ public class PostgresSqlStructuredTable implements StructuredTable {
     }
   }
 
+  /**
+   * An iterator that scans ranges with keyset pagination. Each page is a separate scan query that starts right
+   * after the primary key of the last row of the previous page, so that neither the client nor the server has to
+   * hold the entire result.
+   */
+  private final class PagingScanIterator extends AbstractCloseableIterator<StructuredRow> {
+    private final Collection<Range> keyRanges;
+    private final Collection<String> columns;
+    private final Collection<Field<?>> filters;
+    private int remaining;
+    private ResultSetIterator page;
+    private int pageLimit;
+    private int pageRows;
+    private StructuredRow lastRow;
+
+    PagingScanIterator(Collection<Range> keyRanges, int limit, @Nullable Collection<String> columns,
+                       Collection<Field<?>> filters) {
+      this.keyRanges = keyRanges;
+      this.columns = columns;
+      this.filters = filters;
+      this.remaining = limit;
+    }
+
+    @Override
+    protected StructuredRow computeNext() {
+      while (true) {
+        if (remaining <= 0) {
+          close();
+          return endOfData();
+        }
+        if (page == null) {
+          pageLimit = Math.min(scanPageSize, remaining);
+          pageRows = 0;
+          try {
+            page = scanPage(keyRanges, lastRow == null ? null : lastRow.getPrimaryKeys(), pageLimit,
+                            columns, filters);
+          } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to scan from table %s with ranges %s",
+                                                     tableSchema.getTableId().getName(), keyRanges), e);
+          }
+        }
+
+        if (page.hasNext()) {
+          lastRow = page.next();
+          pageRows++;
+          remaining--;
+          return lastRow;
+        }
+
+        page.close();
+        page = null;
+        // A partial page means there are no more rows in the range
+        if (pageRows < pageLimit) {
+          return endOfData();
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      if (page != null) {
+        page.close();
+        page = null;
+      }
+    }
+  }
+
   private static final class ResultSetIterator extends AbstractCloseableIterator<StructuredRow> {
     private final Statement statement;
     private final ResultSet resultSet;
@@ -17,12 +17,14 @@
 package io.cdap.cdap.spi.data.sql;
 
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import io.cdap.cdap.api.metrics.MetricsCollectionService;
 import io.cdap.cdap.api.metrics.MetricsContext;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.data2.transaction.Transactions;
 import io.cdap.cdap.spi.data.StructuredTableAdmin;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
 import io.cdap.cdap.spi.data.transaction.TransactionException;
 import io.cdap.cdap.spi.data.transaction.TransactionRunner;
 import io.cdap.cdap.spi.data.transaction.TxRunnable;
@@ -48,20 +50,40 @@ public class RetryingSqlTransactionRunner implements TransactionRunner {
 
   @Inject
   public RetryingSqlTransactionRunner(StructuredTableAdmin tableAdmin, DataSource dataSource,
+                                      @Named(Constants.Dataset.DATA_STORAGE_SQL_REPLICA_DATA_SOURCE)
+                                        DataSource readDataSource,
                                       MetricsCollectionService metricsCollectionService, CConfiguration cConf) {
     this.transactionRunner =
-      new SqlTransactionRunner(tableAdmin, dataSource, metricsCollectionService,
-                               cConf.getBoolean(Constants.Metrics.STRUCTURED_TABLE_TIME_METRICS_ENABLED));
+      new SqlTransactionRunner(tableAdmin, dataSource, readDataSource, metricsCollectionService,
+                               cConf.getBoolean(Constants.Metrics.STRUCTURED_TABLE_TIME_METRICS_ENABLED),
+                               cConf.getInt(Constants.Dataset.DATA_STORAGE_SQL_SCAN_FETCH_SIZE,
+                                            PostgresSqlStructuredTable.DEFAULT_SCAN_FETCH_SIZE),
+                               cConf.getInt(Constants.Dataset.DATA_STORAGE_SQL_SCAN_PAGE_SIZE,
+                                            PostgresSqlStructuredTable.DEFAULT_SCAN_PAGE_SIZE),
+                               new StructuredTableRowCache(cConf));
     this.metricsCollectionService = metricsCollectionService;
   }
 
   @Override
   public void run(TxRunnable runnable) throws TransactionException {
+    runWithRetry(runnable, false);
+  }
+
+  @Override
+  public void runReadOnly(TxRunnable runnable) throws TransactionException {
+    runWithRetry(runnable, true);
+  }
+
+  private void runWithRetry(TxRunnable runnable, boolean readOnly) throws TransactionException {
     int retries = 0;
     MetricsContext metricsCollector = metricsCollectionService.getContext(Constants.Metrics.STORAGE_METRICS_TAGS);
     while (true) {
       try {
-        transactionRunner.run(runnable);
+        if (readOnly) {
+          transactionRunner.runReadOnly(runnable);
+        } else {
+          transactionRunner.run(runnable);
+        }
         break;
       } catch (SqlTransactionException e) {
         String sqlState = e.getSqlException().getSQLState();
@@ -23,11 +23,13 @@ import io.cdap.cdap.spi.data.StructuredTableContext;
 import io.cdap.cdap.spi.data.StructuredTableInstantiationException;
 import io.cdap.cdap.spi.data.TableNotFoundException;
 import io.cdap.cdap.spi.data.common.MetricStructuredTable;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
 import io.cdap.cdap.spi.data.table.StructuredTableId;
 import io.cdap.cdap.spi.data.table.StructuredTableSchema;
 import io.cdap.cdap.spi.data.table.StructuredTableSpecification;
 
 import java.sql.Connection;
+import javax.annotation.Nullable;
 
 /**
  * The Sql context to get the table.
@@ -37,13 +39,33 @@ public class SqlStructuredTableContext implements StructuredTableContext {
   private final Connection connection;
   private final MetricsCollector metricsCollector;
   private final boolean emitTimeMetrics;
+  private final int scanFetchSize;
+  private final int scanPageSize;
+  private final StructuredTableRowCache.TransactionScope cacheScope;
 
   public SqlStructuredTableContext(StructuredTableAdmin structuredTableAdmin, Connection connection,
                                    MetricsCollector metricsCollector, boolean emitTimeMetrics) {
+    this(structuredTableAdmin, connection, metricsCollector, emitTimeMetrics,
+         PostgresSqlStructuredTable.DEFAULT_SCAN_FETCH_SIZE, PostgresSqlStructuredTable.DEFAULT_SCAN_PAGE_SIZE);
+  }
+
+  public SqlStructuredTableContext(StructuredTableAdmin structuredTableAdmin, Connection connection,
+                                   MetricsCollector metricsCollector, boolean emitTimeMetrics,
+                                   int scanFetchSize, int scanPageSize) {
+    this(structuredTableAdmin, connection, metricsCollector, emitTimeMetrics, scanFetchSize, scanPageSize, null);
+  }
+
+  public SqlStructuredTableContext(StructuredTableAdmin structuredTableAdmin, Connection connection,
+                                   MetricsCollector metricsCollector, boolean emitTimeMetrics,
+                                   int scanFetchSize, int scanPageSize,
+                                   @Nullable StructuredTableRowCache.TransactionScope cacheScope) {
     this.admin = structuredTableAdmin;
     this.connection = connection;
     this.metricsCollector = metricsCollector;
     this.emitTimeMetrics = emitTimeMetrics;
+    this.scanFetchSize = scanFetchSize;
+    this.scanPageSize = scanPageSize;
+    this.cacheScope = cacheScope;
   }
 
   @Override
@@ -53,8 +75,11 @@ public class SqlStructuredTableContext implements StructuredTableContext {
     if (specification == null) {
       throw new TableNotFoundException(tableId);
     }
-    return new MetricStructuredTable(
-      tableId, new PostgresSqlStructuredTable(connection, new StructuredTableSchema(specification)),
-      metricsCollector, emitTimeMetrics);
+    StructuredTableSchema schema = new StructuredTableSchema(specification);
+    StructuredTable table = new PostgresSqlStructuredTable(connection, schema, scanFetchSize, scanPageSize);
+    if (cacheScope != null) {
+      table = cacheScope.wrap(schema, table, metricsCollector);
+    }
+    return new MetricStructuredTable(tableId, table, metricsCollector, emitTimeMetrics);
   }
 }
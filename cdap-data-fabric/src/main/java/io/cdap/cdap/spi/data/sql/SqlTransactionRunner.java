@@ -22,6 +22,7 @@ import io.cdap.cdap.api.metrics.MetricsContext;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
 import io.cdap.cdap.spi.data.StructuredTableAdmin;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
 import io.cdap.cdap.spi.data.transaction.TransactionException;
 import io.cdap.cdap.spi.data.transaction.TransactionRunner;
 import io.cdap.cdap.spi.data.transaction.TxRunnable;
@@ -30,18 +31,24 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
 
 /**
- * Sql transaction runner will set the transaction isolation level and start a transaction.
+ * Sql transaction runner will set the transaction isolation level and start a transaction. The read-only transactions
+ * are executed on the read {@link DataSource}, which can be a read replica of the sql instance.
  */
 public class SqlTransactionRunner implements TransactionRunner {
   private static final Logger LOG = LoggerFactory.getLogger(SqlTransactionRunner.class);
 
   private final StructuredTableAdmin admin;
   private final DataSource dataSource;
+  private final DataSource readDataSource;
   private final MetricsCollectionService metricsCollectionService;
   private final boolean emitTimeMetrics;
+  private final int scanFetchSize;
+  private final int scanPageSize;
+  private final StructuredTableRowCache rowCache;
 
   @VisibleForTesting
   public SqlTransactionRunner(StructuredTableAdmin admin, DataSource dataSource) {
@@ -50,15 +57,47 @@ public class SqlTransactionRunner implements TransactionRunner {
 
   public SqlTransactionRunner(StructuredTableAdmin tableAdmin, DataSource dataSource,
                               MetricsCollectionService metricsCollectionService, boolean emitTimeMetrics) {
+    this(tableAdmin, dataSource, metricsCollectionService, emitTimeMetrics,
+         PostgresSqlStructuredTable.DEFAULT_SCAN_FETCH_SIZE, PostgresSqlStructuredTable.DEFAULT_SCAN_PAGE_SIZE);
+  }
+
+  public SqlTransactionRunner(StructuredTableAdmin tableAdmin, DataSource dataSource,
+                              MetricsCollectionService metricsCollectionService, boolean emitTimeMetrics,
+                              int scanFetchSize, int scanPageSize) {
+    this(tableAdmin, dataSource, metricsCollectionService, emitTimeMetrics, scanFetchSize, scanPageSize, null);
+  }
+
+  public SqlTransactionRunner(StructuredTableAdmin tableAdmin, DataSource dataSource,
+                              MetricsCollectionService metricsCollectionService, boolean emitTimeMetrics,
+                              int scanFetchSize, int scanPageSize, @Nullable StructuredTableRowCache rowCache) {
+    this(tableAdmin, dataSource, dataSource, metricsCollectionService, emitTimeMetrics, scanFetchSize, scanPageSize,
+         rowCache);
+  }
+
+  public SqlTransactionRunner(StructuredTableAdmin tableAdmin, DataSource dataSource, DataSource readDataSource,
+                              MetricsCollectionService metricsCollectionService, boolean emitTimeMetrics,
+                              int scanFetchSize, int scanPageSize, @Nullable StructuredTableRowCache rowCache) {
     this.admin = tableAdmin;
     this.dataSource = dataSource;
+    this.readDataSource = readDataSource;
     this.metricsCollectionService = metricsCollectionService;
     this.emitTimeMetrics = emitTimeMetrics;
+    this.scanFetchSize = scanFetchSize;
+    this.scanPageSize = scanPageSize;
+    this.rowCache = rowCache == null || !rowCache.isEnabled() ? null : rowCache;
   }
 
   @Override
   public void run(TxRunnable runnable) throws TransactionException {
+    execute(runnable, dataSource, false);
+  }
+
+  @Override
+  public void runReadOnly(TxRunnable runnable) throws TransactionException {
+    execute(runnable, readDataSource, true);
+  }
 
+  private void execute(TxRunnable runnable, DataSource dataSource, boolean readOnly) throws TransactionException {
     Connection connection;
     try {
       connection = dataSource.getConnection();
@@ -69,10 +108,21 @@ public class SqlTransactionRunner implements TransactionRunner {
     try {
       MetricsContext metricsCollector = metricsCollectionService.getContext(Constants.Metrics.STORAGE_METRICS_TAGS);
       metricsCollector.increment(Constants.Metrics.StructuredTable.TRANSACTION_COUNT, 1L);
+      if (readOnly) {
+        metricsCollector.increment(Constants.Metrics.StructuredTable.TRANSACTION_READ_ONLY_COUNT, 1L);
+        connection.setReadOnly(true);
+      }
       connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
       connection.setAutoCommit(false);
-      runnable.run(new SqlStructuredTableContext(admin, connection, metricsCollector, emitTimeMetrics));
+      // A read replica can be behind the primary, hence the rows read from it must not be cached
+      StructuredTableRowCache.TransactionScope cacheScope =
+        rowCache == null || dataSource != this.dataSource ? null : rowCache.startTransaction();
+      runnable.run(new SqlStructuredTableContext(admin, connection, metricsCollector, emitTimeMetrics,
+                                                 scanFetchSize, scanPageSize, cacheScope));
       connection.commit();
+      if (cacheScope != null) {
+        cacheScope.committed();
+      }
     } catch (Exception e) {
       Throwable cause = e.getCause();
       if (cause instanceof SQLException) {
@@ -80,6 +130,14 @@ public class SqlTransactionRunner implements TransactionRunner {
       }
       rollback(connection, new TransactionException("Failed to execute the sql queries.", e));
     } finally {
+      if (readOnly) {
+        // Reset the connection before returning it to the pool
+        try {
+          connection.setReadOnly(false);
+        } catch (SQLException e) {
+          LOG.warn("Failed to reset the read-only sql connection after a transaction", e);
+        }
+      }
       try {
         connection.close();
       } catch (SQLException e) {
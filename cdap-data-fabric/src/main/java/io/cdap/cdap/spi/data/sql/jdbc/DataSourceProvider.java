@@ -17,6 +17,7 @@
 package io.cdap.cdap.spi.data.sql.jdbc;
 
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -47,6 +48,9 @@ import javax.sql.DataSource;
  */
 public class DataSourceProvider implements Provider<DataSource> {
   private static final Logger LOG = LoggerFactory.getLogger(DataSourceProvider.class);
+  // the connection property of the postgres jdbc driver for the number of statements it caches per connection
+  @VisibleForTesting
+  static final String PREPARED_STATEMENT_CACHE_QUERIES = "preparedStatementCacheQueries";
 
   private final CConfiguration cConf;
   private final SConfiguration sConf;
@@ -89,6 +93,32 @@ public class DataSourceProvider implements Provider<DataSource> {
     if (jdbcUrl == null) {
       throw new IllegalArgumentException("The jdbc connection url is not specified.");
     }
+    GenericObjectPool<PoolableConnection> connectionPool =
+      createConnectionPool(jdbcUrl, cConf.getInt(Constants.Dataset.DATA_STORAGE_SQL_CONNECTION_SIZE));
+    PoolingDataSource<PoolableConnection> dataSource = new PoolingDataSource<>(connectionPool);
+    this.dataSource = new MetricsDataSource(dataSource, metricsCollectionService, connectionPool,
+                                            cConf.getBoolean(Constants.Metrics.STRUCTURED_TABLE_TIME_METRICS_ENABLED));
+    return this.dataSource;
+  }
+
+  /**
+   * Creates a {@link DataSource} for the read replica of the sql instance, using the same credentials and properties
+   * as the primary one. Connection metrics of the replica are emitted with the
+   * {@link Constants.Metrics#STORAGE_REPLICA_METRICS_TAGS}.
+   *
+   * @param jdbcUrl the jdbc url of the read replica
+   */
+  DataSource createReplicaDataSource(String jdbcUrl) {
+    // Make sure the jdbc driver is loaded
+    get();
+    GenericObjectPool<PoolableConnection> connectionPool =
+      createConnectionPool(jdbcUrl, cConf.getInt(Constants.Dataset.DATA_STORAGE_SQL_REPLICA_CONNECTION_SIZE));
+    return new MetricsDataSource(new PoolingDataSource<>(connectionPool), metricsCollectionService, connectionPool,
+                                 cConf.getBoolean(Constants.Metrics.STRUCTURED_TABLE_TIME_METRICS_ENABLED),
+                                 Constants.Metrics.STORAGE_REPLICA_METRICS_TAGS);
+  }
+
+  private GenericObjectPool<PoolableConnection> createConnectionPool(String jdbcUrl, int poolSize) {
     Properties properties = retrieveJDBCConnectionProperties();
     LOG.info("Creating the DataSource with jdbc url: {}", jdbcUrl);
 
@@ -98,13 +128,12 @@ public class DataSourceProvider implements Provider<DataSource> {
     // the PoolingDataSource will be thread safe as long as the connectin pool is thread-safe
     GenericObjectPool<PoolableConnection> connectionPool = new GenericObjectPool<>(poolableConnectionFactory);
     poolableConnectionFactory.setPool(connectionPool);
-    connectionPool.setMaxTotal(cConf.getInt(Constants.Dataset.DATA_STORAGE_SQL_CONNECTION_SIZE));
-    PoolingDataSource<PoolableConnection> dataSource = new PoolingDataSource<>(connectionPool);
-    this.dataSource = new MetricsDataSource(dataSource, metricsCollectionService, connectionPool);
-    return this.dataSource;
+    connectionPool.setMaxTotal(poolSize);
+    return connectionPool;
   }
 
-  private Properties retrieveJDBCConnectionProperties() {
+  @VisibleForTesting
+  Properties retrieveJDBCConnectionProperties() {
     Properties properties = new Properties();
     String username = sConf.get(Constants.Dataset.DATA_STORAGE_SQL_USERNAME);
     String password = sConf.get(Constants.Dataset.DATA_STORAGE_SQL_PASSWORD);
@@ -124,6 +153,14 @@ public class DataSourceProvider implements Provider<DataSource> {
                        cConfEntry.getValue());
       }
     }
+
+    // Prepared statements are cached by the driver rather than pooled by DBCP. The driver keeps the parsed
+    // statements of each connection keyed by the sql, also after they are closed, and uses server-side prepared
+    // statements for the ones executed repeatedly. An explicitly configured driver property takes precedence.
+    String statementCacheSize = cConf.get(Constants.Dataset.DATA_STORAGE_SQL_STATEMENT_CACHE_SIZE);
+    if (statementCacheSize != null && !properties.containsKey(PREPARED_STATEMENT_CACHE_QUERIES)) {
+      properties.setProperty(PREPARED_STATEMENT_CACHE_QUERIES, statementCacheSize);
+    }
     return properties;
   }
 
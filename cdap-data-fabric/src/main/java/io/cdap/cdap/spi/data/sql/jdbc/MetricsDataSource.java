@@ -25,29 +25,50 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
 import java.util.logging.Logger;
 import javax.sql.DataSource;
 
 /**
- * A metrics data source that will emit metrics about the number of connections.
+ * A metrics data source that will emit metrics about the number of connections, and optionally the time spent
+ * waiting for a connection from the pool.
  */
 public class MetricsDataSource implements DataSource {
   private final DataSource dataSource;
   private final MetricsCollectionService metricsCollectionService;
   private final ObjectPool objectPool;
+  private final boolean emitTimeMetrics;
+  private final Map<String, String> metricsTags;
 
   public MetricsDataSource(DataSource dataSource, MetricsCollectionService metricsCollectionService,
                            ObjectPool objectPool) {
+    this(dataSource, metricsCollectionService, objectPool, false);
+  }
+
+  public MetricsDataSource(DataSource dataSource, MetricsCollectionService metricsCollectionService,
+                           ObjectPool objectPool, boolean emitTimeMetrics) {
+    this(dataSource, metricsCollectionService, objectPool, emitTimeMetrics, Constants.Metrics.STORAGE_METRICS_TAGS);
+  }
+
+  public MetricsDataSource(DataSource dataSource, MetricsCollectionService metricsCollectionService,
+                           ObjectPool objectPool, boolean emitTimeMetrics, Map<String, String> metricsTags) {
     this.dataSource = dataSource;
     this.metricsCollectionService = metricsCollectionService;
     this.objectPool = objectPool;
+    this.emitTimeMetrics = emitTimeMetrics;
+    this.metricsTags = metricsTags;
   }
 
   @Override
   public Connection getConnection() throws SQLException {
-    MetricsContext metricsCollector = metricsCollectionService.getContext(Constants.Metrics.STORAGE_METRICS_TAGS);
+    MetricsContext metricsCollector = metricsCollectionService.getContext(metricsTags);
     try {
+      long startTime = System.nanoTime();
       Connection connection = dataSource.getConnection();
+      if (emitTimeMetrics) {
+        metricsCollector.increment(Constants.Metrics.StructuredTable.CONNECTION_WAIT_TIME,
+                                   System.nanoTime() - startTime);
+      }
       metricsCollector.gauge(Constants.Metrics.StructuredTable.ACTIVE_CONNECTIONS, objectPool.getNumActive());
       metricsCollector.gauge(Constants.Metrics.StructuredTable.IDLE_CONNECTIONS, objectPool.getNumIdle());
       return connection;
@@ -59,9 +80,14 @@ public class MetricsDataSource implements DataSource {
 
   @Override
   public Connection getConnection(String username, String password) throws SQLException {
-    MetricsContext metricsCollector = metricsCollectionService.getContext(Constants.Metrics.STORAGE_METRICS_TAGS);
+    MetricsContext metricsCollector = metricsCollectionService.getContext(metricsTags);
     try {
+      long startTime = System.nanoTime();
       Connection connection = dataSource.getConnection(username, password);
+      if (emitTimeMetrics) {
+        metricsCollector.increment(Constants.Metrics.StructuredTable.CONNECTION_WAIT_TIME,
+                                   System.nanoTime() - startTime);
+      }
       metricsCollector.gauge(Constants.Metrics.StructuredTable.ACTIVE_CONNECTIONS, objectPool.getNumActive());
       metricsCollector.gauge(Constants.Metrics.StructuredTable.IDLE_CONNECTIONS, objectPool.getNumIdle());
       return connection;
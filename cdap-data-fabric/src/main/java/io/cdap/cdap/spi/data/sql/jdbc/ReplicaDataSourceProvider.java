@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.sql.jdbc;
+
+import com.google.common.base.Strings;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+
+import javax.sql.DataSource;
+
+/**
+ * Class to instantiate the {@link DataSource} for the read-only transactions on the sql related structured table.
+ * If there is no read replica configured, the {@link DataSource} of the primary sql instance is returned.
+ */
+public class ReplicaDataSourceProvider implements Provider<DataSource> {
+
+  private final CConfiguration cConf;
+  private final DataSourceProvider dataSourceProvider;
+
+  private volatile DataSource dataSource;
+
+  @Inject
+  public ReplicaDataSourceProvider(CConfiguration cConf, DataSourceProvider dataSourceProvider) {
+    this.cConf = cConf;
+    this.dataSourceProvider = dataSourceProvider;
+  }
+
+  @Override
+  public DataSource get() {
+    if (dataSource != null) {
+      return dataSource;
+    }
+    return constructDataSource();
+  }
+
+  private synchronized DataSource constructDataSource() {
+    if (dataSource != null) {
+      return dataSource;
+    }
+    String jdbcUrl = cConf.get(Constants.Dataset.DATA_STORAGE_SQL_REPLICA_JDBC_CONNECTION_URL);
+    dataSource = Strings.isNullOrEmpty(jdbcUrl)
+      ? dataSourceProvider.get() : dataSourceProvider.createReplicaDataSource(jdbcUrl);
+    return dataSource;
+  }
+}
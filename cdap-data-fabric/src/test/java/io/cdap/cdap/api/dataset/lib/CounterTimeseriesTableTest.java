@@ -135,10 +135,31 @@ public class CounterTimeseriesTableTest {
         result = table.read(rowKey4, timestamp1, timestamp6, tag1, tag2);
         assertCounterEquals(rowKey4, 44L, timestamp5, result.next());
         assertFalse(result.hasNext());
+
+        // chunked reads return the same counters as reads
+        assertChunks(table.read(rowKey4, timestamp1, timestamp6), table.readChunks(rowKey4, timestamp1, timestamp6));
+        assertChunks(table.read(rowKey4, timestamp1, timestamp6, tag1),
+                     table.readChunks(rowKey4, timestamp1, timestamp6, tag1));
+        assertChunks(table.read(rowKey3, timestamp1, timestamp6, tag2, tag1),
+                     table.readChunks(rowKey3, timestamp1, timestamp6, tag2, tag1));
       }
     });
   }
 
+  private static void assertChunks(Iterator<CounterTimeseriesTable.Counter> expected,
+                                   Iterator<CounterTimeseriesTable.CounterChunk> chunks) {
+    while (chunks.hasNext()) {
+      CounterTimeseriesTable.CounterChunk chunk = chunks.next();
+      assertTrue(chunk.size() > 0);
+      for (int i = 0; i < chunk.size(); i++) {
+        CounterTimeseriesTable.Counter counter = expected.next();
+        assertEquals(counter.getTimestamp(), chunk.getTimestamps()[i]);
+        assertEquals(counter.getValue(), chunk.getValues()[i]);
+      }
+    }
+    assertFalse(expected.hasNext());
+  }
+
   public static void assertCounterEquals(byte[] expectedCount, long expectedValue, long expectedTimestamp,
                                          CounterTimeseriesTable.Counter actual) {
     assertEquals(expectedCount.length, actual.getCounter().length);
@@ -33,6 +33,10 @@ import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -394,6 +398,18 @@ public class IndexedTableTest {
             scanner.close();
           }
 
+          // the false positives are also filtered if the indexed column is not read
+          scanner = iTable.readByIndex(ab, c, new byte[][] { a });
+          try {
+            Row row = scanner.next();
+            Assert.assertNotNull(row);
+            Assert.assertArrayEquals(y, row.getRow());
+            Assert.assertTrue(row.isEmpty());
+            assertEmpty(scanner);
+          } finally {
+            scanner.close();
+          }
+
           // ensure that scanByIndex filters the false positive rows in index
           scanner = iTable.scanByIndex(a, bcd, null);
           try {
@@ -828,6 +844,165 @@ public class IndexedTableTest {
       dsFrameworkUtil.deleteInstance(incrTabInstance);
     }
   }
+
+  @Test
+  public void testBatchPut() throws Exception {
+    DatasetId batchTabInstance = DatasetFrameworkTestUtil.NAMESPACE_ID.dataset("batchtab");
+    dsFrameworkUtil.createInstance("indexedTable", batchTabInstance, DatasetProperties.builder()
+      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, idxColString)
+      .build());
+    final IndexedTable iTable = dsFrameworkUtil.getInstance(batchTabInstance);
+
+    try {
+      TransactionExecutor tx = dsFrameworkUtil.newTransactionExecutor(iTable);
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          iTable.put(Arrays.asList(new Put(keyA).add(idxCol, idx1).add(valCol, valA),
+                                   new Put(keyB).add(idxCol, idx2).add(valCol, valB)));
+        }
+      });
+
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          TableAssert.assertRow(readFirst(iTable.readByIndex(idxCol, idx1)), keyA, colIdxVal,
+                                new byte[][]{idx1, valA});
+          TableAssert.assertRow(readFirst(iTable.readByIndex(idxCol, idx2)), keyB, colIdxVal,
+                                new byte[][]{idx2, valB});
+
+          // move a to idx 2, change only the value of b, and put c twice in the same batch
+          iTable.put(Arrays.asList(new Put(keyA).add(idxCol, idx2),
+                                   new Put(keyB).add(valCol, valBB)));
+          iTable.put(Arrays.asList(new Put(keyC).add(idxCol, idx1).add(valCol, valC),
+                                   new Put(keyC).add(idxCol, idx3)));
+        }
+      });
+
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          assertEmpty(iTable.readByIndex(idxCol, idx1));
+          try (Scanner scanner = iTable.readByIndex(idxCol, idx2)) {
+            TableAssert.assertRow(scanner.next(), keyA, colIdxVal, new byte[][]{idx2, valA});
+            TableAssert.assertRow(scanner.next(), keyB, colIdxVal, new byte[][]{idx2, valBB});
+            assertEmpty(scanner);
+          }
+          TableAssert.assertRow(readFirst(iTable.readByIndex(idxCol, idx3)), keyC, colIdxVal,
+                                new byte[][]{idx3, valC});
+        }
+      });
+    } finally {
+      dsFrameworkUtil.deleteInstance(batchTabInstance);
+    }
+  }
+
+  @Test
+  public void testIndexProjection() throws Exception {
+    DatasetId projectionTabInstance = DatasetFrameworkTestUtil.NAMESPACE_ID.dataset("projectiontab");
+    dsFrameworkUtil.createInstance("indexedTable", projectionTabInstance, DatasetProperties.builder()
+      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, idxColString)
+      .build());
+    final IndexedTable iTable = dsFrameworkUtil.getInstance(projectionTabInstance);
+    final byte[] otherCol = { 'o', 't', 'h', 'e', 'r' };
+
+    try {
+      TransactionExecutor tx = dsFrameworkUtil.newTransactionExecutor(iTable);
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          // more rows than are read with a single multi-get
+          for (int i = 0; i < 250; i++) {
+            iTable.put(new Put(Bytes.toBytes(i)).add(idxCol, i % 2 == 0 ? idx1 : idx2)
+                         .add(valCol, Bytes.toBytes(i)).add(otherCol, valA));
+          }
+        }
+      });
+
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          int count = 0;
+          try (Scanner scanner = iTable.readByIndex(idxCol, idx1, new byte[][] { valCol })) {
+            Row row;
+            while ((row = scanner.next()) != null) {
+              TableAssert.assertRow(row, Bytes.toBytes(count * 2), new byte[][] { valCol },
+                                    new byte[][] { Bytes.toBytes(count * 2) });
+              Assert.assertEquals(1, row.getColumns().size());
+              count++;
+            }
+          }
+          Assert.assertEquals(125, count);
+
+          count = 0;
+          try (Scanner scanner = iTable.scanByIndex(idxCol, idx1, null, new byte[][] { idxCol, otherCol })) {
+            Row row;
+            while ((row = scanner.next()) != null) {
+              Assert.assertEquals(2, row.getColumns().size());
+              Assert.assertArrayEquals(valA, row.get(otherCol));
+              count++;
+            }
+          }
+          Assert.assertEquals(250, count);
+
+          // without projection all columns are returned
+          Row row = readFirst(iTable.readByIndex(idxCol, idx2));
+          TableAssert.assertRow(row, Bytes.toBytes(1), new byte[][] { idxCol, otherCol, valCol },
+                                new byte[][] { idx2, valA, Bytes.toBytes(1) });
+        }
+      });
+    } finally {
+      dsFrameworkUtil.deleteInstance(projectionTabInstance);
+    }
+  }
+
+  @Test
+  public void testParallelScan() throws Exception {
+    DatasetId parallelTabInstance = DatasetFrameworkTestUtil.NAMESPACE_ID.dataset("paralleltab");
+    dsFrameworkUtil.createInstance("indexedTable", parallelTabInstance, DatasetProperties.builder()
+      .add(IndexedTable.INDEX_COLUMNS_CONF_KEY, idxColString)
+      .build());
+    final IndexedTable iTable = dsFrameworkUtil.getInstance(parallelTabInstance);
+
+    try {
+      TransactionExecutor tx = dsFrameworkUtil.newTransactionExecutor(iTable);
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          for (int i = 0; i < 100; i++) {
+            iTable.put(new Put(Bytes.toBytes(i)).add(idxCol, idx1).add(valCol, Bytes.toBytes(i)));
+          }
+        }
+      });
+
+      tx.execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          // all rows are returned exactly once, and index entries are not returned
+          Set<Integer> rows = new HashSet<>();
+          try (Scanner scanner = iTable.parallelScan(null, null, 4)) {
+            Row row;
+            while ((row = scanner.next()) != null) {
+              Assert.assertArrayEquals(row.getRow(), row.get(valCol));
+              Assert.assertTrue(rows.add(Bytes.toInt(row.getRow())));
+            }
+          }
+          Assert.assertEquals(100, rows.size());
+          try (Scanner scanner = iTable.parallelScan(Bytes.toBytes(10), Bytes.toBytes(20), 4)) {
+            rows.clear();
+            Row row;
+            while ((row = scanner.next()) != null) {
+              rows.add(Bytes.toInt(row.getRow()));
+            }
+          }
+          Assert.assertEquals(10, rows.size());
+        }
+      });
+    } finally {
+      dsFrameworkUtil.deleteInstance(parallelTabInstance);
+    }
+  }
+
   /**
    * Asserts that the given scanner contains no more rows.
    */
@@ -366,6 +366,68 @@ public class KeyValueTableTest {
     dsFrameworkUtil.deleteInstance(tBatch);
   }
 
+  @Test
+  public void testParallelScan() throws Exception {
+    DatasetId tParallel = DatasetFrameworkTestUtil.NAMESPACE_ID.dataset("tParallel");
+    dsFrameworkUtil.createInstance("keyValueTable", tParallel, DatasetProperties.EMPTY);
+
+    final KeyValueTable t = dsFrameworkUtil.getInstance(tParallel);
+    TransactionExecutor txnl = dsFrameworkUtil.newTransactionExecutor(t);
+
+    final SortedSet<Long> keysWritten = Sets.newTreeSet();
+
+    txnl.execute(new TransactionExecutor.Subroutine() {
+      @Override
+      public void apply() throws Exception {
+        // write 1000 random values to the table and remember them in a set
+        Random rand = new Random(451);
+        for (int i = 0; i < 1000; i++) {
+          long keyLong = rand.nextLong();
+          byte[] key = Bytes.toBytes(keyLong);
+          t.write(key, key);
+          keysWritten.add(keyLong);
+        }
+      }
+    });
+
+    txnl.execute(new TransactionExecutor.Subroutine() {
+      @Override
+      public void apply() throws Exception {
+        // writes of the current transaction are seen by the parallel scan
+        t.write(Bytes.toBytes(0L), Bytes.toBytes(0L));
+        SortedSet<Long> expected = Sets.newTreeSet(keysWritten);
+        expected.add(0L);
+        Assert.assertEquals(expected, parallelScan(t, null, null, 4));
+
+        // scan a subrange
+        Assert.assertEquals(keysWritten.subSet(0x10000000L, 0x40000000L),
+                            parallelScan(t, Bytes.toBytes(0x10000000L), Bytes.toBytes(0x40000000L), 3));
+
+        // closing the iterator before reading all entries stops the scan
+        CloseableIterator<KeyValue<byte[], byte[]>> iterator = t.parallelScan(null, null, 4);
+        Assert.assertTrue(iterator.hasNext());
+        iterator.next();
+        iterator.close();
+        Assert.assertFalse(iterator.hasNext());
+      }
+    });
+
+    dsFrameworkUtil.deleteInstance(tParallel);
+  }
+
+  // helper to read all keys of a range with a parallel scan and verify their values
+  private SortedSet<Long> parallelScan(KeyValueTable t, byte[] start, byte[] stop, int parallelism) {
+    SortedSet<Long> keys = Sets.newTreeSet();
+    try (CloseableIterator<KeyValue<byte[], byte[]>> iterator = t.parallelScan(start, stop, parallelism)) {
+      while (iterator.hasNext()) {
+        KeyValue<byte[], byte[]> keyValue = iterator.next();
+        Assert.assertArrayEquals(keyValue.getKey(), keyValue.getValue());
+        Assert.assertTrue(keys.add(Bytes.toLong(keyValue.getKey())));
+      }
+    }
+    return keys;
+  }
+
   // helper to verify that the split readers for the given splits return exactly a set of keys
   private void verifySplits(KeyValueTable t, List<Split> splits, SortedSet<Long> keysToVerify)
     throws InterruptedException {
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.api.dataset.lib;
+
+import io.cdap.cdap.api.data.batch.BatchReadable;
+import io.cdap.cdap.api.data.batch.ConcurrentSplitReadable;
+import io.cdap.cdap.api.data.batch.SimpleSplit;
+import io.cdap.cdap.api.data.batch.Split;
+import io.cdap.cdap.api.data.batch.SplitReader;
+import io.cdap.cdap.common.utils.Tasks;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link ParallelSplitIterator}.
+ */
+public class ParallelSplitIteratorTest {
+
+  private static final int SPLITS = 4;
+  private static final int SPLIT_SIZE = 5000;
+
+  @Test
+  public void testSequentialRead() {
+    RangeReadable readable = new RangeReadable();
+    SortedSet<Integer> values = new TreeSet<>();
+    try (CloseableIterator<Integer> iterator = new ParallelSplitIterator<>(readable, readable.getSplits(),
+                                                                           (key, value) -> value, 4, new Object())) {
+      while (iterator.hasNext()) {
+        Assert.assertTrue(values.add(iterator.next()));
+      }
+    }
+    Assert.assertEquals(SPLITS * SPLIT_SIZE, values.size());
+    // a table that does not support concurrent reads is only read by the consumer thread
+    Assert.assertEquals(Collections.singleton(Thread.currentThread()), readable.readerThreads);
+  }
+
+  @Test
+  public void testConcurrentRead() throws Exception {
+    ConcurrentRangeReadable readable = new ConcurrentRangeReadable();
+    SortedSet<Integer> values = new TreeSet<>();
+    try (CloseableIterator<Integer> iterator = new ParallelSplitIterator<>(readable, readable.getSplits(),
+                                                                           (key, value) -> value, 4, readable)) {
+      while (iterator.hasNext()) {
+        Assert.assertTrue(values.add(iterator.next()));
+      }
+    }
+    Assert.assertEquals(SPLITS * SPLIT_SIZE, values.size());
+    Assert.assertFalse(readable.readerThreads.contains(Thread.currentThread()));
+
+    // closing the iterator before reading all records ends the reader threads
+    readable.readerThreads.clear();
+    CloseableIterator<Integer> iterator = new ParallelSplitIterator<>(readable, readable.getSplits(),
+                                                                      (key, value) -> value, 4, readable);
+    Assert.assertTrue(iterator.hasNext());
+    iterator.next();
+    iterator.close();
+    Assert.assertFalse(iterator.hasNext());
+    Tasks.waitFor(true, () -> readable.readerThreads.stream().noneMatch(Thread::isAlive),
+                  10, TimeUnit.SECONDS, 50, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * A {@link BatchReadable} of {@link #SPLITS} ranges of {@link #SPLIT_SIZE} integers, which records the threads
+   * that read it.
+   */
+  private static class RangeReadable implements BatchReadable<Integer, Integer> {
+
+    final Set<Thread> readerThreads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<Split> getSplits() {
+      List<Split> splits = new ArrayList<>();
+      for (int i = 0; i < SPLITS; i++) {
+        SimpleSplit split = new SimpleSplit();
+        split.set("start", String.valueOf(i * SPLIT_SIZE));
+        splits.add(split);
+      }
+      return splits;
+    }
+
+    @Override
+    public SplitReader<Integer, Integer> createSplitReader(Split split) {
+      readerThreads.add(Thread.currentThread());
+      return new SplitReader<Integer, Integer>() {
+        private int current;
+        private int end;
+
+        @Override
+        public void initialize(Split split) {
+          current = Integer.parseInt(((SimpleSplit) split).get("start")) - 1;
+          end = current + SPLIT_SIZE;
+        }
+
+        @Override
+        public boolean nextKeyValue() {
+          readerThreads.add(Thread.currentThread());
+          return ++current <= end;
+        }
+
+        @Override
+        public Integer getCurrentKey() {
+          return current;
+        }
+
+        @Override
+        public Integer getCurrentValue() {
+          return current;
+        }
+
+        @Override
+        public void close() {
+          // no-op
+        }
+      };
+    }
+  }
+
+  /**
+   * A {@link RangeReadable} that supports concurrent reads.
+   */
+  private static final class ConcurrentRangeReadable extends RangeReadable implements ConcurrentSplitReadable {
+  }
+}
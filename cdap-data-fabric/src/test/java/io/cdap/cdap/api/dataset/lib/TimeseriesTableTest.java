@@ -121,10 +121,33 @@ public class TimeseriesTableTest {
 
         // different metric
         assertReadResult(table.read(metric2, ts + hour, ts + 3 * hour, tag2), m2e3);
+
+        // chunked reads return the same entries as reads
+        assertChunks(table.read(metric1, ts, ts + 5 * hour), table.readChunks(metric1, ts, ts + 5 * hour));
+        assertChunks(table.read(metric1, ts, ts + 5 * hour, tag2), table.readChunks(metric1, ts, ts + 5 * hour, tag2));
+        assertChunks(table.read(metric1, ts, ts + 5 * hour, tag2, tag4),
+                     table.readChunks(metric1, ts, ts + 5 * hour, tag2, tag4));
+        assertChunks(table.read(metric1, ts + second, ts + 3 * hour, tag3, tag2),
+                     table.readChunks(metric1, ts + second, ts + 3 * hour, tag3, tag2));
+        assertChunks(table.read(metric2, ts, ts + 5 * hour, tag1), table.readChunks(metric2, ts, ts + 5 * hour, tag1));
+        Assert.assertFalse(table.readChunks(metric1, ts, ts + 5 * hour, tag4).hasNext());
       }
     });
   }
 
+  private void assertChunks(Iterator<TimeseriesTable.Entry> expected, Iterator<TimeseriesTable.Chunk> chunks) {
+    while (chunks.hasNext()) {
+      TimeseriesTable.Chunk chunk = chunks.next();
+      Assert.assertTrue(chunk.size() > 0);
+      for (int i = 0; i < chunk.size(); i++) {
+        TimeseriesTable.Entry entry = expected.next();
+        Assert.assertEquals(entry.getTimestamp(), chunk.getTimestamps()[i]);
+        Assert.assertArrayEquals(entry.getValue(), chunk.getValues()[i]);
+      }
+    }
+    Assert.assertFalse(expected.hasNext());
+  }
+
   @Test(expected = TransactionFailureException.class)
   public void testInvalidTimeRangeCondition() throws Exception {
     TransactionExecutor txnl = dsFrameworkUtil.newTransactionExecutor(table);
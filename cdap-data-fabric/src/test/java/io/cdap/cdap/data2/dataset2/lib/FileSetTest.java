@@ -16,8 +16,10 @@
 
 package io.cdap.cdap.data2.dataset2.lib;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
 import io.cdap.cdap.api.dataset.DataSetException;
 import io.cdap.cdap.api.dataset.DatasetManagementException;
 import io.cdap.cdap.api.dataset.DatasetProperties;
@@ -48,6 +50,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 public class FileSetTest {
@@ -224,6 +229,55 @@ public class FileSetTest {
     Assert.assertEquals(NullOutputFormat.class.getName(), fs.getOutputFormatClassName());
   }
 
+  @Test
+  public void testReadCache() throws Exception {
+    DatasetId datasetId = OTHER_NAMESPACE.dataset("cachedFileSet");
+    dsFrameworkUtil.createInstance("fileSet", datasetId, FileSetProperties.builder()
+      .setReadCacheSize(100)
+      .setReadPrefetch(2)
+      .build());
+    Map<String, String> args = Maps.newHashMap();
+    FileSetArguments.setInputPaths(args, Arrays.asList("a", "b", "c", "large"));
+    FileSet fileSet = dsFrameworkUtil.getInstance(datasetId, args);
+    for (String name : new String[] { "a", "b", "c" }) {
+      writeString(fileSet.getLocation(name), name);
+    }
+    // a file that is larger than the cache is always read from the file system
+    writeString(fileSet.getLocation("large"), Strings.repeat("x", 200));
+
+    // reads of the first input location prefetch the next ones, and all reads see the same content
+    for (int i = 0; i < 2; i++) {
+      List<Location> inputs = fileSet.getInputLocations();
+      Assert.assertEquals("a", readString(inputs.get(0)));
+      Assert.assertEquals("b", readString(inputs.get(1)));
+      Assert.assertEquals("c", readString(inputs.get(2)));
+      Assert.assertEquals(Strings.repeat("x", 200), readString(inputs.get(3)));
+    }
+
+    // a file that is rewritten is read again
+    Location location = fileSet.getLocation("a");
+    writeString(location, "aa");
+    Assert.assertTrue(new File(location.toURI()).setLastModified(location.lastModified() + 10000));
+    Assert.assertEquals("aa", readString(fileSet.getInputLocations().get(0)));
+
+    // other instances of the file set see the same content
+    FileSet other = dsFrameworkUtil.getInstance(datasetId, args);
+    Assert.assertEquals("aa", readString(other.getInputLocations().get(0)));
+    Assert.assertEquals("b", readString(other.getInputLocations().get(1)));
+  }
+
+  private static void writeString(Location location, String content) throws IOException {
+    try (OutputStream out = location.getOutputStream()) {
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String readString(Location location) throws IOException {
+    try (InputStream in = location.getInputStream()) {
+      return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+    }
+  }
+
   @Test
   public void testAbsolutePath() throws IOException, DatasetManagementException {
     String absolutePath = tmpFolder.newFolder() + "/absolute/path";
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.data2.dataset2.lib.file;
+
+import com.google.common.io.ByteStreams;
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.common.utils.Tasks;
+import org.apache.twill.filesystem.LocalLocationFactory;
+import org.apache.twill.filesystem.Location;
+import org.apache.twill.filesystem.LocationFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link FileSetReadCache}.
+ */
+public class FileSetReadCacheTest {
+
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  private LocationFactory locationFactory;
+  private File cacheDir;
+
+  @Before
+  public void setup() throws IOException {
+    locationFactory = new LocalLocationFactory(TMP_FOLDER.newFolder());
+    // a new directory for each test, so that each test gets its own cache
+    cacheDir = TMP_FOLDER.newFolder();
+  }
+
+  @Test
+  public void testHitsAndMisses() throws Exception {
+    FileSetReadCache cache = FileSetReadCache.get(cacheDir, 100);
+    Assert.assertSame(cache, FileSetReadCache.get(cacheDir, 100));
+
+    Location a = write("a", "aaaa");
+    Location b = write("b", "bbbb");
+
+    Assert.assertEquals("aaaa", read(cache, a));
+    Assert.assertEquals("aaaa", read(cache, a));
+    Assert.assertEquals("bbbb", read(cache, b));
+    Assert.assertEquals(1L, cache.getHits());
+    Assert.assertEquals(2L, cache.getMisses());
+
+    // files larger than the cache are read from the file system and not counted
+    Location large = write("large", new String(new char[101]).replace('\0', 'x'));
+    Assert.assertEquals(101, read(cache, large).length());
+    Assert.assertEquals(1L, cache.getHits());
+    Assert.assertEquals(2L, cache.getMisses());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    FileSetReadCache cache = FileSetReadCache.get(cacheDir, 10);
+
+    Location a = write("a", "aaaa");
+    Location b = write("b", "bbbb");
+    Location c = write("c", "cccc");
+
+    Assert.assertEquals("aaaa", read(cache, a));
+    Assert.assertEquals("bbbb", read(cache, b));
+    // reading b again makes a the least recently used file, which gets evicted by c
+    Assert.assertEquals("bbbb", read(cache, b));
+    Assert.assertEquals("cccc", read(cache, c));
+    Assert.assertEquals(1L, cache.getHits());
+    Assert.assertEquals(3L, cache.getMisses());
+    Assert.assertEquals(2, cacheDir.list().length);
+
+    Assert.assertEquals("bbbb", read(cache, b));
+    Assert.assertEquals("cccc", read(cache, c));
+    Assert.assertEquals(3L, cache.getHits());
+    Assert.assertEquals(3L, cache.getMisses());
+
+    // a was evicted, reading it again evicts b
+    Assert.assertEquals("aaaa", read(cache, a));
+    Assert.assertEquals(3L, cache.getHits());
+    Assert.assertEquals(4L, cache.getMisses());
+    Assert.assertEquals(2, cacheDir.list().length);
+  }
+
+  @Test
+  public void testResize() throws Exception {
+    FileSetReadCache cache = FileSetReadCache.get(cacheDir, 100);
+
+    Location a = write("a", "aaaa");
+    Location b = write("b", "bbbb");
+    Assert.assertEquals("aaaa", read(cache, a));
+    Assert.assertEquals("bbbb", read(cache, b));
+    Assert.assertEquals(2, cacheDir.list().length);
+
+    // getting the cache with a smaller size shrinks the existing cache, evicting the least recently used file
+    Assert.assertSame(cache, FileSetReadCache.get(cacheDir, 5));
+    Assert.assertEquals(1, cacheDir.list().length);
+    Assert.assertEquals("bbbb", read(cache, b));
+    Assert.assertEquals(1L, cache.getHits());
+    Assert.assertEquals(2L, cache.getMisses());
+
+    // files larger than the new size are read from the file system
+    Location c = write("c", "cccccc");
+    Assert.assertEquals("cccccc", read(cache, c));
+    Assert.assertEquals(2L, cache.getMisses());
+  }
+
+  @Test
+  public void testModifiedFile() throws Exception {
+    FileSetReadCache cache = FileSetReadCache.get(cacheDir, 100);
+
+    Location a = write("a", "before");
+    long lastModified = a.lastModified();
+    Assert.assertEquals("before", read(cache, a));
+    Assert.assertEquals("before", read(cache, a));
+    Assert.assertEquals(1L, cache.getHits());
+    Assert.assertEquals(1L, cache.getMisses());
+
+    // rewrite the file with a different modification time, the new content must be read
+    write("a", "after");
+    Assert.assertTrue(new File(a.toURI()).setLastModified(lastModified + TimeUnit.SECONDS.toMillis(10)));
+    Assert.assertEquals("after", read(cache, a));
+    Assert.assertEquals(1L, cache.getHits());
+    Assert.assertEquals(2L, cache.getMisses());
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    FileSetReadCache cache = FileSetReadCache.get(cacheDir, 100);
+
+    Location a = write("a", "aaaa");
+    Location b = write("b", "bbbb");
+    Location dir = locationFactory.create("dir");
+    Assert.assertTrue(dir.mkdirs());
+
+    // directories are skipped
+    cache.prefetch(Arrays.asList(a, dir, b));
+    Tasks.waitFor(2L, cache::getMisses, 10, TimeUnit.SECONDS, 50, TimeUnit.MILLISECONDS);
+
+    // the reads either find the prefetched files in the cache or wait for the prefetch to complete
+    Assert.assertEquals("aaaa", read(cache, a));
+    Assert.assertEquals("bbbb", read(cache, b));
+    Assert.assertEquals(2L, cache.getHits());
+    Assert.assertEquals(2L, cache.getMisses());
+  }
+
+  private Location write(String name, String content) throws IOException {
+    Location location = locationFactory.create(name);
+    try (OutputStream os = location.getOutputStream()) {
+      os.write(Bytes.toBytes(content));
+    }
+    return location;
+  }
+
+  private String read(FileSetReadCache cache, Location location) throws IOException {
+    try (InputStream is = cache.getInputStream(location)) {
+      return Bytes.toString(ByteStreams.toByteArray(is));
+    }
+  }
+}
@@ -533,6 +533,94 @@ public class PartitionedFileSetTest {
       .build();
   }
 
+  @Test
+  public void testIndexedFields() throws Exception {
+    DatasetId indexedInstance = DatasetFrameworkTestUtil.NAMESPACE_ID.dataset("indexed");
+    dsFrameworkUtil.createInstance("partitionedFileSet", indexedInstance, PartitionedFileSetProperties.builder()
+      .setPartitioning(PARTITIONING_1)
+      .setIndexedFields("i")
+      .build());
+    try {
+      final PartitionedFileSet pfs = dsFrameworkUtil.getInstance(indexedInstance);
+      dsFrameworkUtil.newTransactionExecutor((TransactionAware) pfs).execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          for (String s : new String[] { "a", "b" }) {
+            for (int i = 0; i < 5; i++) {
+              PartitionKey key = PartitionKey.builder().addStringField("s", s).addIntField("i", i)
+                .addLongField("l", 17L).build();
+              pfs.getPartitionOutput(key).addPartition();
+            }
+          }
+        }
+      });
+
+      dsFrameworkUtil.newTransactionExecutor((TransactionAware) pfs).execute(new TransactionExecutor.Subroutine() {
+        @Override
+        public void apply() throws Exception {
+          // the filters don't bound the leading field 's', so the partitions are looked up by the index on 'i'
+          Assert.assertEquals(2, pfs.getPartitions(PartitionFilter.builder().addValueCondition("i", 2).build()).size());
+          Assert.assertEquals(4, pfs.getPartitions(PartitionFilter.builder().addRangeCondition("i", 1, 3).build())
+            .size());
+          Assert.assertEquals(6, pfs.getPartitions(PartitionFilter.builder().addRangeCondition("i", 2, null).build())
+            .size());
+          Assert.assertEquals(0, pfs.getPartitions(PartitionFilter.builder().addValueCondition("i", 2)
+                                                     .addValueCondition("l", 18L).build()).size());
+
+          // dropped partitions are removed from the index
+          pfs.dropPartition(PartitionKey.builder().addStringField("s", "a").addIntField("i", 2)
+                              .addLongField("l", 17L).build());
+          Set<PartitionDetail> partitions =
+            pfs.getPartitions(PartitionFilter.builder().addValueCondition("i", 2).build());
+          Assert.assertEquals(1, partitions.size());
+          Assert.assertEquals("b", partitions.iterator().next().getPartitionKey().getField("s"));
+        }
+      });
+    } finally {
+      dsFrameworkUtil.deleteInstance(indexedInstance);
+    }
+  }
+
+  @Test
+  public void testAddPartitions() throws Exception {
+    final PartitionedFileSet pfs = dsFrameworkUtil.getInstance(pfsInstance);
+    final Map<PartitionKey, String> partitions = new HashMap<>();
+    for (int i = 0; i < 3; i++) {
+      partitions.put(generateUniqueKey(), "path" + i);
+    }
+    final Map<String, String> metadata = ImmutableMap.of("key", "value");
+
+    dsFrameworkUtil.newTransactionExecutor((TransactionAware) pfs).execute(new TransactionExecutor.Subroutine() {
+      @Override
+      public void apply() throws Exception {
+        pfs.addPartitions(partitions, metadata);
+      }
+    });
+
+    dsFrameworkUtil.newTransactionExecutor((TransactionAware) pfs).execute(new TransactionExecutor.Subroutine() {
+      @Override
+      public void apply() throws Exception {
+        for (Map.Entry<PartitionKey, String> entry : partitions.entrySet()) {
+          PartitionDetail partition = pfs.getPartition(entry.getKey());
+          Assert.assertNotNull(partition);
+          Assert.assertEquals(entry.getValue(), partition.getRelativePath());
+          Assert.assertEquals(metadata, partition.getMetadata().asMap());
+        }
+        Assert.assertEquals(partitions.size(), pfs.getPartitions(null).size());
+
+        // adding a partition that already exists fails
+        Map<PartitionKey, String> existing = ImmutableMap.of(generateUniqueKey(), "new",
+                                                             partitions.keySet().iterator().next(), "other");
+        try {
+          pfs.addPartitions(existing);
+          Assert.fail("Expected PartitionAlreadyExistsException");
+        } catch (PartitionAlreadyExistsException e) {
+          // expected
+        }
+      }
+    });
+  }
+
   @Test
   public void testPartitionCreationTime() throws Exception {
     final PartitionedFileSet dataset = dsFrameworkUtil.getInstance(pfsInstance);
@@ -193,6 +193,70 @@ public abstract class BufferingTableTest<T extends BufferingTable> extends Table
     }
   }
 
+  /**
+   * Tests that buffered writes are persisted before commit once the buffer grows beyond the spill size, and that
+   * they are still part of the transaction.
+   */
+  @Test
+  public void testBufferSpill() throws Exception {
+    String testBufferSpill = "testBufferSpill";
+    DatasetProperties props = TableProperties.builder()
+      .add(BufferingTable.PROPERTY_BUFFER_SPILL_SIZE, "1")
+      .build();
+    DatasetAdmin admin = getTableAdmin(CONTEXT1, testBufferSpill, props);
+    admin.create();
+    try {
+      Transaction tx1 = txClient.startShort();
+      BufferingTable table1 = getTable(CONTEXT1, testBufferSpill, props);
+      table1.startTx(tx1);
+      table1.put(R1, a(C1), a(V1));
+      table1.put(R2, a(C2), a(V2));
+
+      // written values are persisted before commit, and are visible within the transaction
+      TableAssert.assertScan(a(R1, R2), aa(a(C1, V1), a(C2, V2)), table1.scanPersisted(new Scan(null, null)));
+      TableAssert.assertRow(a(C1, V1), table1.get(R1, a(C1)));
+      TableAssert.assertScan(a(R1, R2), aa(a(C1, V1), a(C2, V2)), table1.scan(null, null));
+      // persisted changes are still reported for conflict detection
+      Assert.assertEquals(2, table1.getTxChanges().size());
+
+      // rolling back undoes the persisted changes
+      Assert.assertTrue(table1.rollbackTx());
+      txClient.abort(tx1);
+
+      Transaction tx2 = txClient.startShort();
+      BufferingTable table2 = getTable(CONTEXT1, testBufferSpill, props);
+      table2.startTx(tx2);
+      TableAssert.assertRow(a(), table2.get(R1, a(C1)));
+      TableAssert.assertRow(a(), table2.get(R2, a(C2)));
+
+      // writes persisted before commit and the ones still buffered are all visible after commit
+      table2.put(R1, a(C1), a(V2));
+      table2.put(R1, a(C2), a(V1));
+      // a row that was persisted several times is reported once
+      Assert.assertEquals(1, table2.getTxChanges().size());
+      txClient.canCommitOrThrow(tx2, table2.getTxChanges());
+      Assert.assertTrue(table2.commitTx());
+      txClient.commitOrThrow(tx2);
+      table2.postTxCommit();
+
+      Transaction tx3 = txClient.startShort();
+      table2.startTx(tx3);
+      TableAssert.assertRow(a(C1, V2, C2, V1), table2.get(R1, a(C1, C2)));
+      txClient.commitOrThrow(tx3);
+
+      // without the spill size, changes are only persisted on commit
+      Transaction tx4 = txClient.startShort();
+      BufferingTable table3 = getTable(CONTEXT1, testBufferSpill, DatasetProperties.EMPTY);
+      table3.startTx(tx4);
+      table3.put(R2, a(C1), a(V1));
+      TableAssert.assertScan(a(R1), aa(a(C1, V2, C2, V1)), table3.scanPersisted(new Scan(null, null)));
+      Assert.assertTrue(table3.rollbackTx());
+      txClient.abort(tx4);
+    } finally {
+      admin.drop();
+    }
+  }
+
   @Test
   public void testChangingParamsAndReturnValues() throws Exception {
     // The test verifies that one can re-use byte arrays passed as parameters to write methods of a table without
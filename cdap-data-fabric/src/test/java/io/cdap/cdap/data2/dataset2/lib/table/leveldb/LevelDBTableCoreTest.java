@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.data2.dataset2.lib.table.leveldb;
+
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.data2.util.TableId;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link LevelDBTableCore}.
+ */
+public class LevelDBTableCoreTest {
+  private static final Logger LOG = LoggerFactory.getLogger(LevelDBTableCoreTest.class);
+  private static final byte[] COLUMN = Bytes.toBytes("c");
+  private static final int NUM_INCREMENTS = 2000;
+
+  @ClassRule
+  public static TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private static LevelDBTableService service;
+
+  @BeforeClass
+  public static void init() throws Exception {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.set(Constants.CFG_DATA_LEVELDB_DIR, tmpFolder.newFolder().getAbsolutePath());
+    service = new LevelDBTableService();
+    service.setConfiguration(cConf);
+  }
+
+  @AfterClass
+  public static void finish() {
+    service.close();
+  }
+
+  @Test
+  public void testConcurrentIncrements() throws Exception {
+    String tableName = "concurrentIncrements";
+    service.ensureTableExists(tableName);
+
+    for (int numThreads : new int[] { 1, 2, 4, 8 }) {
+      byte[] sharedRow = Bytes.toBytes("shared" + numThreads);
+      ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        long startTime = System.nanoTime();
+        for (int t = 0; t < numThreads; t++) {
+          // Each thread uses its own table instance, like different dataset instances of the same table
+          LevelDBTableCore core = new LevelDBTableCore(tableName, service);
+          byte[] row = Bytes.toBytes("row" + numThreads + "." + t);
+          futures.add(executor.submit(() -> {
+            for (int i = 0; i < NUM_INCREMENTS; i++) {
+              core.increment(row, Collections.singletonMap(COLUMN, 1L));
+              NavigableMap<byte[], Long> columns = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+              columns.put(COLUMN, 1L);
+              NavigableMap<byte[], NavigableMap<byte[], Long>> updates = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+              updates.put(sharedRow, columns);
+              core.increment(updates);
+            }
+            return null;
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+        LOG.info("{} increments with {} threads took {} ms", 2 * NUM_INCREMENTS * numThreads, numThreads,
+                 TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      } finally {
+        executor.shutdownNow();
+      }
+
+      LevelDBTableCore core = new LevelDBTableCore(tableName, service);
+      for (int t = 0; t < numThreads; t++) {
+        Assert.assertEquals(NUM_INCREMENTS, getValue(core, Bytes.toBytes("row" + numThreads + "." + t)));
+      }
+      Assert.assertEquals(NUM_INCREMENTS * numThreads, getValue(core, sharedRow));
+    }
+  }
+
+  @Test
+  public void testConcurrentSwaps() throws Exception {
+    String tableName = "concurrentSwaps";
+    service.ensureTableExists(tableName);
+    byte[] row = Bytes.toBytes("row");
+
+    // Each thread increments the same value with compare and swap, so every swap must see the latest value
+    int numThreads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        LevelDBTableCore core = new LevelDBTableCore(tableName, service);
+        futures.add(executor.submit(() -> {
+          int swapped = 0;
+          while (swapped < NUM_INCREMENTS / numThreads) {
+            byte[] oldValue = core.getRow(row, new byte[][] { COLUMN }, null, null, -1, null).get(COLUMN);
+            long value = oldValue == null ? 0L : Bytes.toLong(oldValue);
+            if (core.swap(row, COLUMN, oldValue, Bytes.toBytes(value + 1))) {
+              swapped++;
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(NUM_INCREMENTS, getValue(new LevelDBTableCore(tableName, service), row));
+  }
+
+  @Test
+  public void testRowKeyFilter() throws Exception {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.set(Constants.CFG_DATA_LEVELDB_DIR, tmpFolder.newFolder().getAbsolutePath());
+    cConf.set(Constants.CFG_DATA_LEVELDB_BLOOM_FILTER_TABLES, "cdap_default\\.filtered.*");
+    cConf.setInt(Constants.CFG_DATA_LEVELDB_BLOOM_FILTER_EXPECTED_ROWS, 1000);
+    byte[] value = Bytes.toBytes("v");
+
+    LevelDBTableService filterService = new LevelDBTableService();
+    filterService.setConfiguration(cConf);
+    try {
+      filterService.ensureTableExists("cdap_default.unfiltered");
+      Assert.assertNull(filterService.getRowKeyFilter("cdap_default.unfiltered"));
+
+      // rows written before the filter is created are loaded from the table
+      String tableName = "cdap_default.filteredTable";
+      filterService.ensureTableExists(tableName);
+      LevelDBTableCore core = new LevelDBTableCore(tableName, filterService);
+      core.put(Bytes.toBytes("existing"), COLUMN, value, 1L);
+      filterService.clearTables();
+
+      core = new LevelDBTableCore(tableName, filterService);
+      Assert.assertArrayEquals(value, core.getRow(Bytes.toBytes("existing"), null, null, null, -1, null).get(COLUMN));
+      LevelDBRowKeyFilter filter = filterService.getRowKeyFilter(tableName);
+      Assert.assertNotNull(filter);
+
+      // rows written through every write path are visible to reads
+      core.put(Bytes.toBytes("put"), COLUMN, value, 1L);
+      core.persist(Collections.singletonMap(Bytes.toBytes("persist"), Collections.singletonMap(COLUMN, value)), 1L);
+      core.increment(Bytes.toBytes("increment"), Collections.singletonMap(COLUMN, 1L));
+      Assert.assertTrue(core.swap(Bytes.toBytes("swap"), COLUMN, null, value));
+      for (String row : new String[] { "put", "persist", "increment", "swap" }) {
+        Assert.assertNotNull(core.getRow(Bytes.toBytes(row), null, null, null, -1, null).get(COLUMN));
+      }
+
+      // reads of missing rows are answered by the filter
+      long skips = filter.getSkips();
+      for (int i = 0; i < 100; i++) {
+        Assert.assertTrue(core.getRow(Bytes.toBytes("missing" + i), null, null, null, -1, null).isEmpty());
+      }
+      Assert.assertTrue(filter.getSkips() - skips > 90);
+
+      // the filter counts are part of the table stats that are reported as metrics
+      Map<TableId, LevelDBTableService.TableStats> stats = filterService.getTableStats();
+      LevelDBTableService.TableStats filteredStats = stats.get(TableId.from("default", "filteredTable"));
+      Assert.assertEquals(filter.getChecks(), filteredStats.getRowKeyFilterChecks());
+      Assert.assertEquals(filter.getSkips(), filteredStats.getRowKeyFilterSkips());
+      Assert.assertEquals(0L, stats.get(TableId.from("default", "unfiltered")).getRowKeyFilterChecks());
+
+      // dropping the table drops its filter
+      filterService.dropTable(tableName);
+      filterService.ensureTableExists(tableName);
+      Assert.assertNotSame(filter, filterService.getRowKeyFilter(tableName));
+      Assert.assertTrue(core.getRow(Bytes.toBytes("put"), null, null, null, -1, null).isEmpty());
+    } finally {
+      filterService.close();
+    }
+  }
+
+  private long getValue(LevelDBTableCore core, byte[] row) throws IOException {
+    return core.increment(row, Collections.singletonMap(COLUMN, 0L)).get(COLUMN);
+  }
+}
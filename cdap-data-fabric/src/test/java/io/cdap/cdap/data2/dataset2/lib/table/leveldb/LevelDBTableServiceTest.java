@@ -110,6 +110,20 @@ public class LevelDBTableServiceTest {
     Assert.assertEquals(table2Size, service.getTableStats().get(tableId2).getDiskSizeBytes());
   }
 
+  @Test
+  public void testRowLocksRemovedOnDrop() throws Exception {
+    String table = "cdap_default.lockTable";
+    service.ensureTableExists(table);
+    Assert.assertSame(service.getRowLocks(table), service.getRowLocks(table));
+    Object locks = service.getRowLocks(table);
+
+    // a table created again after it was dropped gets new locks
+    service.dropTable(table);
+    service.ensureTableExists(table);
+    Assert.assertNotSame(locks, service.getRowLocks(table));
+    service.dropTable(table);
+  }
+
   private void writeSome(String tableName) throws IOException {
     LevelDBTableCore table = new LevelDBTableCore(tableName, service);
     Random r = new Random();
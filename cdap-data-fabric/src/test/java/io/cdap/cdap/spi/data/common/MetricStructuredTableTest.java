@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data.common;
+
+import io.cdap.cdap.api.dataset.lib.AbstractCloseableIterator;
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import io.cdap.cdap.api.metrics.MetricsCollector;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.spi.data.StructuredRow;
+import io.cdap.cdap.spi.data.StructuredTable;
+import io.cdap.cdap.spi.data.table.StructuredTableId;
+import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link MetricStructuredTable}.
+ */
+public class MetricStructuredTableTest {
+
+  private static final String PREFIX = Constants.Metrics.StructuredTable.METRICS_PREFIX + "metricTable.";
+
+  @Test
+  public void testRowCounts() throws Exception {
+    List<StructuredRow> rows = Arrays.asList(createRow(), createRow(), createRow());
+    RecordingMetricsCollector metrics = new RecordingMetricsCollector();
+    StructuredTable table = new MetricStructuredTable(new StructuredTableId("metricTable"), createTable(rows),
+                                                      metrics, false);
+
+    // multiRead emits the number of rows returned
+    List<Collection<Field<?>>> keys = Arrays.asList(Collections.emptyList(), Collections.emptyList());
+    Assert.assertEquals(3, table.multiRead(keys).size());
+    Assert.assertEquals(1L, metrics.get(PREFIX + "multiRead.count"));
+    Assert.assertEquals(3L, metrics.get(PREFIX + "multiRead.rows"));
+
+    // scans emit the number of rows consumed when the iterator is closed
+    CloseableIterator<StructuredRow> iterator = table.scan(Range.all(), 10);
+    iterator.next();
+    iterator.next();
+    Assert.assertEquals(0L, metrics.get(PREFIX + "scan.rows"));
+    iterator.close();
+    Assert.assertEquals(1L, metrics.get(PREFIX + "scan.count"));
+    Assert.assertEquals(2L, metrics.get(PREFIX + "scan.rows"));
+
+    // closing the iterator again does not count the rows twice
+    iterator.close();
+    Assert.assertEquals(2L, metrics.get(PREFIX + "scan.rows"));
+
+    try (CloseableIterator<StructuredRow> scan = table.scan(Range.all(), 10)) {
+      while (scan.hasNext()) {
+        scan.next();
+      }
+    }
+    Assert.assertEquals(2L, metrics.get(PREFIX + "scan.count"));
+    Assert.assertEquals(5L, metrics.get(PREFIX + "scan.rows"));
+  }
+
+  private static StructuredRow createRow() {
+    return (StructuredRow) Proxy.newProxyInstance(StructuredRow.class.getClassLoader(),
+                                                  new Class<?>[] { StructuredRow.class }, (proxy, method, args) -> {
+        throw new UnsupportedOperationException(method.getName());
+      });
+  }
+
+  /**
+   * Creates a table that returns the given rows for multiRead and scans, and does not support other operations.
+   */
+  private static StructuredTable createTable(List<StructuredRow> rows) {
+    return (StructuredTable) Proxy.newProxyInstance(StructuredTable.class.getClassLoader(),
+                                                    new Class<?>[] { StructuredTable.class }, (proxy, method, args) -> {
+        switch (method.getName()) {
+          case "multiRead":
+            return rows;
+          case "scan":
+            Iterator<StructuredRow> iterator = rows.iterator();
+            return new AbstractCloseableIterator<StructuredRow>() {
+              @Override
+              protected StructuredRow computeNext() {
+                return iterator.hasNext() ? iterator.next() : endOfData();
+              }
+
+              @Override
+              public void close() {
+                // no-op
+              }
+            };
+          default:
+            throw new UnsupportedOperationException(method.getName());
+        }
+      });
+  }
+
+  /**
+   * A {@link MetricsCollector} that sums up the increments of each metric.
+   */
+  private static final class RecordingMetricsCollector implements MetricsCollector {
+    private final Map<String, Long> metrics = new HashMap<>();
+
+    @Override
+    public void increment(String metricName, long value) {
+      metrics.merge(metricName, value, Long::sum);
+    }
+
+    @Override
+    public void gauge(String metricName, long value) {
+      metrics.put(metricName, value);
+    }
+
+    long get(String metricName) {
+      return metrics.getOrDefault(metricName, 0L);
+    }
+  }
+}
@@ -24,18 +24,31 @@ import com.google.inject.Scopes;
 import com.opentable.db.postgres.embedded.EmbeddedPostgres;
 import io.cdap.cdap.api.metrics.MetricsCollectionService;
 import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.guice.ConfigModule;
 import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
 import io.cdap.cdap.data.runtime.StorageModule;
+import io.cdap.cdap.spi.data.StructuredTable;
 import io.cdap.cdap.spi.data.StructuredTableAdmin;
 import io.cdap.cdap.spi.data.StructuredTableTest;
+import io.cdap.cdap.spi.data.common.StructuredTableRowCache;
+import io.cdap.cdap.spi.data.table.StructuredTableId;
 import io.cdap.cdap.spi.data.table.StructuredTableRegistry;
+import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Fields;
+import io.cdap.cdap.spi.data.transaction.TransactionException;
 import io.cdap.cdap.spi.data.transaction.TransactionRunner;
+import io.cdap.cdap.spi.data.transaction.TransactionRunners;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Test for SQL structured table.
@@ -44,10 +57,14 @@ public class SqlStructuredTableTest extends StructuredTableTest {
   private static EmbeddedPostgres pg;
   private static StructuredTableAdmin tableAdmin;
   private static TransactionRunner transactionRunner;
+  private static DataSource dataSource;
 
   @BeforeClass
   public static void beforeClass() throws Exception {
     CConfiguration cConf = CConfiguration.create();
+    // Use small scan sizes to exercise cursor fetching and scan paging
+    cConf.setInt(Constants.Dataset.DATA_STORAGE_SQL_SCAN_FETCH_SIZE, 3);
+    cConf.setInt(Constants.Dataset.DATA_STORAGE_SQL_SCAN_PAGE_SIZE, 10);
     pg = PostgresInstantiator.createAndStart(cConf, TEMP_FOLDER.newFolder());
 
     Injector injector = Guice.createInjector(
@@ -64,6 +81,7 @@ public class SqlStructuredTableTest extends StructuredTableTest {
     injector.getInstance(StructuredTableRegistry.class).initialize();
     tableAdmin = injector.getInstance(StructuredTableAdmin.class);
     transactionRunner = injector.getInstance(TransactionRunner.class);
+    dataSource = injector.getInstance(DataSource.class);
 
     Assert.assertEquals(PostgresSqlStructuredTableAdmin.class, tableAdmin.getClass());
     Assert.assertEquals(RetryingSqlTransactionRunner.class, transactionRunner.getClass());
@@ -85,4 +103,76 @@ public class SqlStructuredTableTest extends StructuredTableTest {
   protected TransactionRunner getTransactionRunner() {
     return transactionRunner;
   }
+
+  @Test
+  public void testRowCache() throws Exception {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.set(Constants.Dataset.DATA_STORAGE_CACHE_TABLES, "simpleTable");
+    TransactionRunner cachingRunner =
+      new SqlTransactionRunner(tableAdmin, dataSource, new NoOpMetricsCollectionService(), false,
+                               PostgresSqlStructuredTable.DEFAULT_SCAN_FETCH_SIZE,
+                               PostgresSqlStructuredTable.DEFAULT_SCAN_PAGE_SIZE, new StructuredTableRowCache(cConf));
+    StructuredTableId tableId = new StructuredTableId("simpleTable");
+    List<Field<?>> keys = Arrays.asList(Fields.intField("key", 1), Fields.longField("key2", 2L));
+
+    TransactionRunners.run(cachingRunner, context -> {
+      StructuredTable table = context.getTable(tableId);
+      Assert.assertFalse(table.read(keys).isPresent());
+      table.upsert(Arrays.asList(keys.get(0), keys.get(1), Fields.stringField("col1", "v1")));
+      // Reads after a write in the same transaction see the uncommitted row
+      Assert.assertEquals("v1", table.read(keys).get().getString("col1"));
+    });
+    Assert.assertEquals("v1", readString(cachingRunner, tableId, keys));
+
+    // Writes from a runner without the cache, like writes from another process, are not seen until the row expires
+    TransactionRunners.run(transactionRunner, context -> {
+      context.getTable(tableId).upsert(Arrays.asList(keys.get(0), keys.get(1), Fields.stringField("col1", "v2")));
+    });
+    Assert.assertEquals("v1", readString(cachingRunner, tableId, keys));
+    Assert.assertEquals(1, TransactionRunners.run(cachingRunner, context -> {
+      return context.getTable(tableId).multiRead(Collections.singleton(keys)).size();
+    }).intValue());
+
+    // Writes from the caching runner invalidate the cached row
+    TransactionRunners.run(cachingRunner, context -> {
+      context.getTable(tableId).upsert(Arrays.asList(keys.get(0), keys.get(1), Fields.stringField("col1", "v3")));
+    });
+    Assert.assertEquals("v3", readString(cachingRunner, tableId, keys));
+    TransactionRunners.run(cachingRunner, context -> {
+      context.getTable(tableId).delete(keys);
+    });
+    Assert.assertNull(readString(cachingRunner, tableId, keys));
+  }
+
+  @Test
+  public void testReadOnlyTransaction() throws Exception {
+    StructuredTableId tableId = new StructuredTableId("simpleTable");
+    List<Field<?>> keys = Arrays.asList(Fields.intField("key", 1), Fields.longField("key2", 2L));
+    TransactionRunners.run(transactionRunner, context -> {
+      context.getTable(tableId).upsert(Arrays.asList(keys.get(0), keys.get(1), Fields.stringField("col1", "v1")));
+    });
+
+    // Without a replica configured, the read-only transactions see the committed writes of the primary
+    Assert.assertEquals("v1", TransactionRunners.runReadOnly(transactionRunner, context -> {
+      return context.getTable(tableId).read(keys).map(row -> row.getString("col1")).orElse(null);
+    }));
+
+    // Writes are rejected in a read-only transaction
+    try {
+      transactionRunner.runReadOnly(context -> {
+        context.getTable(tableId).upsert(Arrays.asList(keys.get(0), keys.get(1), Fields.stringField("col1", "v2")));
+      });
+      Assert.fail("Expected a write in a read-only transaction to fail");
+    } catch (TransactionException e) {
+      // expected
+    }
+    Assert.assertEquals("v1", readString(transactionRunner, tableId, keys));
+  }
+
+  private String readString(TransactionRunner runner, StructuredTableId tableId,
+                            List<Field<?>> keys) throws Exception {
+    return TransactionRunners.run(runner, context -> {
+      return context.getTable(tableId).read(keys).map(row -> row.getString("col1")).orElse(null);
+    }, Exception.class);
+  }
 }
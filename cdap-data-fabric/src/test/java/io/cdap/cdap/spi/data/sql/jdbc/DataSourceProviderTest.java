@@ -16,11 +16,14 @@
 
 package io.cdap.cdap.spi.data.sql.jdbc;
 
+import com.opentable.db.postgres.embedded.EmbeddedPostgres;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.conf.SConfiguration;
 import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
 import io.cdap.cdap.common.test.AppJarHelper;
+import io.cdap.cdap.spi.data.sql.PostgresInstantiator;
+import org.apache.commons.dbcp2.DelegatingStatement;
 import org.apache.twill.filesystem.LocalLocationFactory;
 import org.junit.Assert;
 import org.junit.ClassRule;
@@ -32,8 +35,10 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
 import java.util.Enumeration;
 import java.util.Properties;
 import java.util.logging.Logger;
@@ -79,6 +84,56 @@ public class DataSourceProviderTest {
     Assert.assertNotNull(loadedDriver);
   }
 
+  @Test
+  public void testStatementCache() throws Exception {
+    // the statement cache size is passed to the driver
+    CConfiguration cConf = CConfiguration.create();
+    cConf.setInt(Constants.Dataset.DATA_STORAGE_SQL_STATEMENT_CACHE_SIZE, 1);
+    DataSourceProvider provider = new DataSourceProvider(cConf, SConfiguration.create(),
+                                                         new NoOpMetricsCollectionService());
+    Properties properties = provider.retrieveJDBCConnectionProperties();
+    Assert.assertEquals("1", properties.getProperty(DataSourceProvider.PREPARED_STATEMENT_CACHE_QUERIES));
+
+    // an explicitly configured driver property takes precedence
+    cConf.set(Constants.Dataset.DATA_STORAGE_SQL_PROPERTY_PREFIX + DataSourceProvider.PREPARED_STATEMENT_CACHE_QUERIES,
+              "5");
+    properties = provider.retrieveJDBCConnectionProperties();
+    Assert.assertEquals("5", properties.getProperty(DataSourceProvider.PREPARED_STATEMENT_CACHE_QUERIES));
+
+    cConf = CConfiguration.create();
+    cConf.setInt(Constants.Dataset.DATA_STORAGE_SQL_STATEMENT_CACHE_SIZE, 1);
+    try (EmbeddedPostgres pg = PostgresInstantiator.createAndStart(cConf, TEMP_FOLDER.newFolder())) {
+      DataSource dataSource = new DataSourceProvider(cConf, SConfiguration.create(),
+                                                     new NoOpMetricsCollectionService()).get();
+      try (Connection connection = dataSource.getConnection()) {
+        // the cache size does not limit the number of statements that can be open on a connection
+        try (PreparedStatement stmt1 = connection.prepareStatement("SELECT 1");
+             PreparedStatement stmt2 = connection.prepareStatement("SELECT 2")) {
+          Assert.assertTrue(stmt1.execute());
+          Assert.assertTrue(stmt2.execute());
+        }
+        // statements are not pooled by the connection pool, closed statements are reprepared from the driver cache
+        Statement statement;
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1")) {
+          statement = getStatement(stmt);
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1")) {
+          Assert.assertNotSame(statement, getStatement(stmt));
+          Assert.assertTrue(stmt.execute());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the statement of the jdbc driver that the given statement delegates to.
+   */
+  private Statement getStatement(Statement statement) {
+    Statement result = ((DelegatingStatement) statement).getInnermostDelegate();
+    Assert.assertNotNull(result);
+    return result;
+  }
+
   public static final class NoopDriver implements Driver {
 
     @Override
@@ -33,9 +33,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Explore client facade to be used by datasets.
@@ -133,6 +136,48 @@ public class ExploreFacade {
     handleExploreFuture(futureSuccess, "add", "partition", datasetInstance.getDataset());
   }
 
+  /**
+   * Adds multiple partitions to the explore table of a dataset. The partitions are added in parallel, and this method
+   * returns once all of them have been added. If adding any of the partitions fails, this method still waits for all
+   * other partitions, and then throws the first failure.
+   *
+   * @param datasetInstance dataset instance id
+   * @param spec the dataset specification of the dataset
+   * @param partitions a map from partition key to the location of the partition
+   * @param addedListener called with the key of each partition that was added, before this method returns or throws
+   */
+  public void addPartitions(DatasetId datasetInstance, DatasetSpecification spec,
+                            Map<PartitionKey, String> partitions,
+                            Consumer<PartitionKey> addedListener) throws ExploreException, SQLException {
+    if (!exploreEnabled) {
+      return;
+    }
+
+    Map<PartitionKey, ListenableFuture<Void>> futures = new LinkedHashMap<>();
+    for (Map.Entry<PartitionKey, String> partition : partitions.entrySet()) {
+      futures.put(partition.getKey(),
+                  exploreClient.addPartition(datasetInstance, spec, partition.getKey(), partition.getValue()));
+    }
+    Exception failure = null;
+    for (Map.Entry<PartitionKey, ListenableFuture<Void>> future : futures.entrySet()) {
+      try {
+        handleExploreFuture(future.getValue(), "add", "partition", datasetInstance.getDataset());
+        addedListener.accept(future.getKey());
+      } catch (ExploreException | SQLException | RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      Throwables.propagateIfInstanceOf(failure, ExploreException.class);
+      Throwables.propagateIfInstanceOf(failure, SQLException.class);
+      throw Throwables.propagate(failure);
+    }
+  }
+
   public void dropPartition(DatasetId datasetInstance, DatasetSpecification spec,
                             PartitionKey key) throws ExploreException, SQLException {
     if (!exploreEnabled) {
@@ -89,6 +89,7 @@ import io.cdap.cdap.security.guice.SecurityModules;
 import io.cdap.cdap.security.server.ExternalAuthenticationServer;
 import io.cdap.cdap.security.store.SecureStoreService;
 import io.cdap.cdap.spi.data.StructuredTableAdmin;
+import io.cdap.cdap.spi.data.leveldb.LevelDBStructuredTableStore;
 import io.cdap.cdap.spi.data.table.StructuredTableRegistry;
 import io.cdap.cdap.spi.metadata.MetadataStorage;
 import io.cdap.cdap.store.StoreDefinition;
@@ -138,6 +139,7 @@ public class StandaloneMain {
   private final TwillRunnerService remoteExecutionTwillRunnerService;
   private final MetadataSubscriberService metadataSubscriberService;
   private final LevelDBTableService levelDBTableService;
+  private final LevelDBStructuredTableStore levelDBStructuredTableStore;
   private final SecureStoreService secureStoreService;
   private final PreviewHttpServer previewHttpServer;
   private final MetadataStorage metadataStorage;
@@ -153,6 +155,7 @@ public class StandaloneMain {
     injector = Guice.createInjector(modules);
 
     levelDBTableService = injector.getInstance(LevelDBTableService.class);
+    levelDBStructuredTableStore = injector.getInstance(LevelDBStructuredTableStore.class);
     messagingService = injector.getInstance(MessagingService.class);
     authorizerInstantiator = injector.getInstance(AuthorizerInstantiator.class);
     router = injector.getInstance(NettyRouter.class);
@@ -355,6 +358,7 @@ public class StandaloneMain {
       authorizerInstantiator.close();
       metadataStorage.close();
       levelDBTableService.close();
+      levelDBStructuredTableStore.close();
     } catch (Throwable e) {
       halt = true;
       LOG.error("Exception during shutdown", e);
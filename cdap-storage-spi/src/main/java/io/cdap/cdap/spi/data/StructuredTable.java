@@ -25,6 +25,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * Abstraction for a table that contains rows and columns.
@@ -44,6 +45,18 @@ public interface StructuredTable extends Closeable {
    */
   void upsert(Collection<Field<?>> fields) throws InvalidFieldException, IOException;
 
+  /**
+   * Insert or replace multiple rows in the table. Each element of the collection contains the fields of one row,
+   * including the primary key and the rest of the columns to write. Implementations write the rows in as few
+   * round trips to the storage as possible.
+   *
+   * @param multiFields the fields of the rows to write
+   * @throws InvalidFieldException if any of the fields are not part of the table schema, or the types of the value
+   *                               do not match
+   * @throws IOException if there is an error writing to the table
+   */
+  void multiUpsert(Collection<? extends Collection<Field<?>>> multiFields) throws InvalidFieldException, IOException;
+
   /**
    * Read a single row with all the columns from the table.
    *
@@ -71,6 +84,20 @@ public interface StructuredTable extends Closeable {
   Optional<StructuredRow> read(Collection<Field<?>> keys,
                                Collection<String> columns) throws InvalidFieldException, IOException;
 
+  /**
+   * Read multiple rows with all the columns from the table. Implementations read the rows in as few round trips to
+   * the storage as possible.
+   *
+   * @param multiKeys the primary keys of the rows to read
+   * @return the rows that exist in the table, in no particular order. Rows that are missing in the table are not
+   *         included.
+   * @throws InvalidFieldException if any of the keys are not part of the table schema, or the types of the value
+   *                               do not match
+   * @throws IOException if there is an error reading from the table
+   */
+  Collection<StructuredRow> multiRead(Collection<? extends Collection<Field<?>>> multiKeys)
+    throws InvalidFieldException, IOException;
+
   /**
    * Read a set of rows from the table matching the key range.
    * The rows returned will be sorted on the primary key order.
@@ -84,6 +111,57 @@ public interface StructuredTable extends Closeable {
    */
   CloseableIterator<StructuredRow> scan(Range keyRange, int limit) throws InvalidFieldException, IOException;
 
+  /**
+   * Read a set of rows with the specified columns from the table matching the key range. The primary keys will also
+   * be contained in the columns. The rows returned will be sorted on the primary key order.
+   *
+   * @param keyRange key range for the scan
+   * @param limit maximum number of rows to return
+   * @param columns the columns to read. This collection must not be empty, otherwise IllegalArgumentException will
+   *                be thrown
+   * @return a {@link CloseableIterator} of rows
+   * @throws InvalidFieldException if any of the keys or columns are not part of the table schema, or the types of
+   *                               the value do not match
+   * @throws IOException if there is an error scanning the table
+   */
+  CloseableIterator<StructuredRow> scan(Range keyRange, int limit,
+                                        Collection<String> columns) throws InvalidFieldException, IOException;
+
+  /**
+   * Read a set of rows with the specified columns from the table matching the key range and the filters.
+   * Only rows where every filter column is equal to the filter value are returned. A filter with a null value
+   * matches rows where the column is not set. The filtering is done by the storage, so rows that do not match
+   * are not transferred to the caller. The rows returned will be sorted on the primary key order.
+   *
+   * @param keyRange key range for the scan
+   * @param limit maximum number of rows to return, after applying the filters
+   * @param columns the columns to read, or {@code null} to read all the columns. The primary keys will always be
+   *                contained in the columns
+   * @param filters the values that the returned rows must have. The filters cannot be on primary key columns,
+   *                the key range should be used instead
+   * @return a {@link CloseableIterator} of rows
+   * @throws InvalidFieldException if any of the keys, columns or filters are not part of the table schema, or the
+   *                               types of the value do not match
+   * @throws IOException if there is an error scanning the table
+   */
+  CloseableIterator<StructuredRow> scan(Range keyRange, int limit, @Nullable Collection<String> columns,
+                                        Collection<Field<?>> filters) throws InvalidFieldException, IOException;
+
+  /**
+   * Read a set of rows from the table matching any of the key ranges. The ranges may overlap, but each row is only
+   * returned once. The rows returned will be sorted on the primary key order. Implementations scan all the ranges with
+   * as few round trips to the storage as possible.
+   *
+   * @param keyRanges key ranges for the scan
+   * @param limit maximum number of rows to return, across all the ranges
+   * @return a {@link CloseableIterator} of rows
+   * @throws InvalidFieldException if any of the keys are not part of the table schema, or the types of the value
+   *                               do not match
+   * @throws IOException if there is an error scanning the table
+   */
+  CloseableIterator<StructuredRow> multiScan(Collection<Range> keyRanges,
+                                             int limit) throws InvalidFieldException, IOException;
+
   /**
    * Read a set of rows from the table matching the index.
    * The rows returned will be sorted on the primary key order.
@@ -136,6 +214,17 @@ public interface StructuredTable extends Closeable {
    */
   void delete(Collection<Field<?>> keys) throws InvalidFieldException, IOException;
 
+  /**
+   * Delete multiple rows from the table. Implementations delete the rows in as few round trips to the storage as
+   * possible.
+   *
+   * @param multiKeys the primary keys of the rows to delete
+   * @throws InvalidFieldException if any of the keys are not part of the table schema, or the types of the value
+   *                               do not match
+   * @throws IOException if there is an error deleting from the table
+   */
+  void multiDelete(Collection<? extends Collection<Field<?>>> multiKeys) throws InvalidFieldException, IOException;
+
   /**
    * Delete a range of rows from the table.
    *
@@ -145,4 +234,15 @@ public interface StructuredTable extends Closeable {
    * @throws IOException if there is an error reading or deleting from the table
    */
   void deleteAll(Range keyRange) throws InvalidFieldException, IOException;
+
+  /**
+   * Count the number of rows in the table matching the key range, without reading the rows.
+   *
+   * @param keyRange key range of the rows to count
+   * @return the number of rows in the range
+   * @throws InvalidFieldException if any of the keys are not part of table schema,
+   *                               or their types do not match the schema
+   * @throws IOException if there is an error reading from the table
+   */
+  long count(Range keyRange) throws InvalidFieldException, IOException;
 }
@@ -34,4 +34,17 @@ public interface TransactionRunner {
    * @throws TransactionException if failed to execute the given {@link TxRunnable} in a transaction
    */
   void run(TxRunnable runnable) throws TransactionException;
+
+  /**
+   * Executes a set of read operations via a {@link TxRunnable} in a read-only transaction. Implementations can run
+   * the transaction on a read replica, hence the reads can be slightly behind the latest committed writes. Any write
+   * through the provided {@link StructuredTableContext} may fail. By default, this is the same as
+   * {@link #run(TxRunnable)}.
+   *
+   * @param runnable the runnable to be executed in the read-only transaction
+   * @throws TransactionException if failed to execute the given {@link TxRunnable} in a transaction
+   */
+  default void runReadOnly(TxRunnable runnable) throws TransactionException {
+    run(runnable);
+  }
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.spi.data;
+
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import io.cdap.cdap.spi.data.table.StructuredTableId;
+import io.cdap.cdap.spi.data.table.StructuredTableSpecification;
+import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Fields;
+import io.cdap.cdap.spi.data.table.field.Range;
+import io.cdap.cdap.spi.data.transaction.TransactionRunner;
+import io.cdap.cdap.spi.data.transaction.TransactionRunners;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a common workload mix against a {@link StructuredTable} implementation and reports the throughput and the
+ * latency percentiles of each operation. Each operation runs in its own transaction, the same way the system stores
+ * use the tables.
+ *
+ * The benchmark is not part of the unit tests. It only runs if the system property
+ * {@code structured.table.benchmark} is {@code true}, for example with
+ * {@code mvn test -Dtest=SqlStructuredTableBenchmarkTest -Dstructured.table.benchmark=true}.
+ * The size of the workload can be changed with the system properties {@code structured.table.benchmark.rows},
+ * {@code structured.table.benchmark.operations} and {@code structured.table.benchmark.threads}.
+ */
+public abstract class StructuredTableBenchmarkTest {
+  private static final Logger LOG = LoggerFactory.getLogger(StructuredTableBenchmarkTest.class);
+
+  private static final StructuredTableSpecification BENCHMARK_SPEC;
+  private static final StructuredTableId BENCHMARK_TABLE = new StructuredTableId("benchmarkTable");
+  private static final String PREFIX = "prefix";
+  private static final String KEY = "key";
+  private static final String STRING_COL = "str_col";
+  private static final String LONG_COL = "long_col";
+  private static final int NUM_PREFIXES = 10;
+  private static final int MULTI_UPSERT_SIZE = 10;
+
+  private static final int NUM_ROWS = Integer.getInteger("structured.table.benchmark.rows", 500);
+  private static final int NUM_OPERATIONS = Integer.getInteger("structured.table.benchmark.operations", 200);
+  private static final int NUM_THREADS = Integer.getInteger("structured.table.benchmark.threads", 4);
+
+  static {
+    try {
+      BENCHMARK_SPEC = new StructuredTableSpecification.Builder()
+        .withId(BENCHMARK_TABLE)
+        .withFields(Fields.intType(PREFIX), Fields.intType(KEY), Fields.stringType(STRING_COL),
+                    Fields.longType(LONG_COL))
+        .withPrimaryKeys(PREFIX, KEY)
+        .withIndexes(STRING_COL)
+        .build();
+    } catch (InvalidFieldException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @BeforeClass
+  public static void checkEnabled() {
+    // runs before the setup of the subclasses, hence no backend is started if the benchmark is disabled
+    Assume.assumeTrue("The benchmark is disabled", Boolean.getBoolean("structured.table.benchmark"));
+  }
+
+  protected abstract StructuredTableAdmin getStructuredTableAdmin();
+  protected abstract TransactionRunner getTransactionRunner();
+
+  private final TransactionRunner transactionRunner = getTransactionRunner();
+
+  @Before
+  public void init() throws Exception {
+    getStructuredTableAdmin().create(BENCHMARK_SPEC);
+  }
+
+  @After
+  public void teardown() throws Exception {
+    getStructuredTableAdmin().drop(BENCHMARK_TABLE);
+  }
+
+  @Test
+  public void testWorkload() throws Exception {
+    // Load the rows in batches, so that the load is not dominated by the transaction overhead
+    int batchSize = 100;
+    for (int start = 0; start < NUM_ROWS; start += batchSize) {
+      int batchStart = start;
+      TransactionRunners.run(transactionRunner, context -> {
+        StructuredTable table = context.getTable(BENCHMARK_TABLE);
+        for (int i = batchStart; i < Math.min(batchStart + batchSize, NUM_ROWS); i++) {
+          table.upsert(getFields(i, 0L));
+        }
+      });
+    }
+
+    Map<String, Operation> operations = new LinkedHashMap<>();
+    operations.put("read", (table, i, random) -> {
+      int id = random.nextInt(NUM_ROWS);
+      Optional<StructuredRow> row = table.read(getKeys(id));
+      Assert.assertTrue(row.isPresent());
+    });
+    operations.put("prefix-scan", (table, i, random) -> {
+      Range range = Range.singleton(Collections.singleton(Fields.intField(PREFIX, random.nextInt(NUM_PREFIXES))));
+      consume(table.scan(range, Integer.MAX_VALUE));
+    });
+    operations.put("index-scan", (table, i, random) -> {
+      int id = random.nextInt(NUM_ROWS);
+      Assert.assertEquals(1, consume(table.scan(Fields.stringField(STRING_COL, getString(id)))));
+    });
+    operations.put("upsert", (table, i, random) -> {
+      // Insert new rows after the loaded ones, so that the reads of the other operations are not affected
+      table.upsert(getFields(NUM_ROWS + i, 0L));
+    });
+    operations.put("multi-upsert", (table, i, random) -> {
+      // Insert new rows after the rows of the upsert operation
+      List<Collection<Field<?>>> rows = new ArrayList<>();
+      for (int j = 0; j < MULTI_UPSERT_SIZE; j++) {
+        rows.add(getFields(NUM_ROWS + NUM_OPERATIONS + i * MULTI_UPSERT_SIZE + j, 0L));
+      }
+      table.multiUpsert(rows);
+    });
+    operations.put("compare-and-swap", (table, i, random) -> {
+      // Each operation swaps a different row, so that the swaps do not conflict with each other
+      int id = i % NUM_ROWS;
+      Long value = table.read(getKeys(id)).map(row -> row.getLong(LONG_COL)).orElse(null);
+      Assert.assertNotNull(value);
+      Assert.assertTrue(table.compareAndSwap(getKeys(id), Fields.longField(LONG_COL, value),
+                                             Fields.longField(LONG_COL, value + 1)));
+    });
+    operations.put("increment", (table, i, random) ->
+      table.increment(getKeys(random.nextInt(NUM_ROWS)), LONG_COL, 1L));
+
+    List<String> report = new ArrayList<>();
+    report.add(String.format("%-18s %12s %10s %10s %10s %10s", "operation", "ops/sec",
+                             "p50 (ms)", "p95 (ms)", "p99 (ms)", "max (ms)"));
+    for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+      report.add(runOperation(entry.getKey(), entry.getValue()));
+    }
+
+    // Verify all the writes made it to the table
+    TransactionRunners.run(transactionRunner, context -> {
+      StructuredTable table = context.getTable(BENCHMARK_TABLE);
+      Assert.assertEquals(NUM_ROWS + NUM_OPERATIONS * (1 + MULTI_UPSERT_SIZE), table.count(Range.all()));
+    });
+
+    LOG.info("Workload of {} rows, {} operations and {} threads on {}:\n{}", NUM_ROWS, NUM_OPERATIONS, NUM_THREADS,
+             getClass().getSimpleName(), String.join("\n", report));
+  }
+
+  /**
+   * Runs the given operation {@link #NUM_OPERATIONS} times with {@link #NUM_THREADS} threads and returns a report
+   * line of the throughput and latencies.
+   */
+  private String runOperation(String name, Operation operation) throws Exception {
+    long[] latencies = new long[NUM_OPERATIONS];
+    AtomicInteger counter = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      long startTime = System.nanoTime();
+      for (int t = 0; t < NUM_THREADS; t++) {
+        futures.add(executor.submit(() -> {
+          Random random = ThreadLocalRandom.current();
+          int index = counter.getAndIncrement();
+          while (index < NUM_OPERATIONS) {
+            int opIndex = index;
+            long opStart = System.nanoTime();
+            TransactionRunners.run(transactionRunner,
+                                   context -> operation.run(context.getTable(BENCHMARK_TABLE), opIndex, random));
+            latencies[index] = System.nanoTime() - opStart;
+            index = counter.getAndIncrement();
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      long elapsed = System.nanoTime() - startTime;
+
+      Arrays.sort(latencies);
+      return String.format("%-18s %12.1f %10.3f %10.3f %10.3f %10.3f", name,
+                           NUM_OPERATIONS * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                           toMillis(percentile(latencies, 0.50)), toMillis(percentile(latencies, 0.95)),
+                           toMillis(percentile(latencies, 0.99)), toMillis(latencies[latencies.length - 1]));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static long percentile(long[] sortedValues, double percentile) {
+    int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+    return sortedValues[Math.max(0, index)];
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static int consume(CloseableIterator<StructuredRow> iterator) {
+    int count = 0;
+    try {
+      while (iterator.hasNext()) {
+        iterator.next();
+        count++;
+      }
+    } finally {
+      iterator.close();
+    }
+    return count;
+  }
+
+  private static List<Field<?>> getKeys(int id) {
+    return Arrays.asList(Fields.intField(PREFIX, id % NUM_PREFIXES), Fields.intField(KEY, id));
+  }
+
+  private static List<Field<?>> getFields(int id, long value) {
+    return Arrays.asList(Fields.intField(PREFIX, id % NUM_PREFIXES), Fields.intField(KEY, id),
+                         Fields.stringField(STRING_COL, getString(id)), Fields.longField(LONG_COL, value));
+  }
+
+  private static String getString(int id) {
+    return "value-" + id;
+  }
+
+  /**
+   * An operation of the workload, which runs in a transaction. The index of the operation is the same when the
+   * transaction is retried.
+   */
+  private interface Operation {
+    void run(StructuredTable table, int index, Random random) throws Exception;
+  }
+}
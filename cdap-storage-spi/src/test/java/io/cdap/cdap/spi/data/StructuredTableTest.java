@@ -175,6 +175,144 @@ public abstract class StructuredTableTest {
     // TODO: test end only range
   }
 
+  @Test
+  public void testScanLimit() throws Exception {
+    int max = 100;
+
+    List<Collection<Field<?>>> expected = writeSimpleStructuredRows(max, "");
+
+    // Scans larger than the underlying scan batch size should still return all rows in order
+    Assert.assertEquals(expected, scanSimpleStructuredRows(Range.all(), Integer.MAX_VALUE));
+    Assert.assertEquals(expected.subList(0, 25), scanSimpleStructuredRows(Range.all(), 25));
+
+    Range range = Range.create(Collections.singleton(Fields.intField(KEY, 5)), Range.Bound.INCLUSIVE,
+                               Collections.singleton(Fields.intField(KEY, 95)), Range.Bound.EXCLUSIVE);
+    Assert.assertEquals(expected.subList(5, 95), scanSimpleStructuredRows(range, Integer.MAX_VALUE));
+    Assert.assertEquals(expected.subList(5, 55), scanSimpleStructuredRows(range, 50));
+
+    range = Range.from(Collections.singleton(Fields.intField(KEY, 40)), Range.Bound.EXCLUSIVE);
+    Assert.assertEquals(expected.subList(41, max), scanSimpleStructuredRows(range, Integer.MAX_VALUE));
+
+    range = Range.to(Collections.singleton(Fields.intField(KEY, 60)), Range.Bound.INCLUSIVE);
+    Assert.assertEquals(expected.subList(0, 61), scanSimpleStructuredRows(range, Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testMultiScan() throws Exception {
+    int max = 100;
+
+    List<Collection<Field<?>>> expected = writeSimpleStructuredRows(max, "");
+
+    // The ranges are not sorted and overlap, rows should still be returned once in key order
+    List<Range> ranges = Arrays.asList(
+      Range.create(Collections.singleton(Fields.intField(KEY, 50)), Range.Bound.INCLUSIVE,
+                   Collections.singleton(Fields.intField(KEY, 55)), Range.Bound.INCLUSIVE),
+      Range.create(Collections.singleton(Fields.intField(KEY, 8)), Range.Bound.INCLUSIVE,
+                   Collections.singleton(Fields.intField(KEY, 12)), Range.Bound.EXCLUSIVE),
+      Range.singleton(Collections.singleton(Fields.intField(KEY, 70))),
+      Range.create(Collections.singleton(Fields.intField(KEY, 5)), Range.Bound.INCLUSIVE,
+                   Collections.singleton(Fields.intField(KEY, 10)), Range.Bound.EXCLUSIVE));
+    List<Collection<Field<?>>> expectedRows = new ArrayList<>(expected.subList(5, 12));
+    expectedRows.addAll(expected.subList(50, 56));
+    expectedRows.addAll(expected.subList(70, 71));
+
+    Assert.assertEquals(expectedRows, multiScanSimpleStructuredRows(ranges, Integer.MAX_VALUE));
+    Assert.assertEquals(expectedRows.subList(0, 9), multiScanSimpleStructuredRows(ranges, 9));
+
+    // An unbounded range matches all the rows
+    List<Range> allRanges = Arrays.asList(Range.singleton(Collections.singleton(Fields.intField(KEY, 70))),
+                                          Range.all());
+    Assert.assertEquals(expected, multiScanSimpleStructuredRows(allRanges, Integer.MAX_VALUE));
+
+    Assert.assertEquals(Collections.emptyList(),
+                        multiScanSimpleStructuredRows(Collections.emptyList(), Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testScanColumnsAndFilters() throws Exception {
+    int max = 20;
+    writeSimpleStructuredRows(max, "");
+    // Write a row without the string column
+    List<Field<?>> noStringRow = Arrays.asList(Fields.intField(KEY, max), Fields.longField(KEY2, (long) max),
+                                               Fields.doubleField(DOUBLE_COL, 1.0d));
+    getTransactionRunner().run(context -> context.getTable(SIMPLE_TABLE).upsert(noStringRow));
+
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+
+      // Only the primary keys and the requested columns are returned
+      try (CloseableIterator<StructuredRow> iterator =
+             table.scan(Range.all(), max, Collections.singleton(STRING_COL))) {
+        for (int i = 0; i < max; i++) {
+          Assert.assertTrue(iterator.hasNext());
+          StructuredRow row = iterator.next();
+          Assert.assertEquals(i, (int) row.getInteger(KEY));
+          Assert.assertEquals(i, (long) row.getLong(KEY2));
+          Assert.assertEquals(VAL + i, row.getString(STRING_COL));
+          Assert.assertNull(row.getDouble(DOUBLE_COL));
+        }
+        Assert.assertFalse(iterator.hasNext());
+      }
+
+      // Filter on a column value
+      try (CloseableIterator<StructuredRow> iterator =
+             table.scan(Range.all(), max, null, Collections.singleton(Fields.stringField(STRING_COL, VAL + 7)))) {
+        Assert.assertTrue(iterator.hasNext());
+        StructuredRow row = iterator.next();
+        Assert.assertEquals(7, (int) row.getInteger(KEY));
+        Assert.assertEquals(7.0d, row.getDouble(DOUBLE_COL), 0.0d);
+        Assert.assertFalse(iterator.hasNext());
+      }
+
+      // Filter on a column that is not set
+      try (CloseableIterator<StructuredRow> iterator =
+             table.scan(Range.all(), max, Collections.singleton(DOUBLE_COL),
+                        Collections.singleton(Fields.stringField(STRING_COL, null)))) {
+        Assert.assertTrue(iterator.hasNext());
+        StructuredRow row = iterator.next();
+        Assert.assertEquals(max, (int) row.getInteger(KEY));
+        Assert.assertEquals(1.0d, row.getDouble(DOUBLE_COL), 0.0d);
+        Assert.assertFalse(iterator.hasNext());
+      }
+
+      // The limit applies to the filtered rows
+      List<Integer> keys = new ArrayList<>();
+      try (CloseableIterator<StructuredRow> iterator =
+             table.scan(Range.all(), 2, Collections.singleton(DOUBLE_COL),
+                        Collections.singleton(Fields.doubleField(DOUBLE_COL, 1.0d)))) {
+        iterator.forEachRemaining(row -> keys.add(row.getInteger(KEY)));
+      }
+      Assert.assertEquals(Arrays.asList(1, max), keys);
+
+      // Filters on primary keys are not allowed
+      try {
+        table.scan(Range.all(), max, null, Collections.singleton(Fields.intField(KEY, 1)));
+        Assert.fail("Expected IllegalArgumentException for filtering on a primary key");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    });
+  }
+
+  @Test
+  public void testCount() throws Exception {
+    int max = 50;
+
+    getTransactionRunner().run(context -> Assert.assertEquals(0L, context.getTable(SIMPLE_TABLE).count(Range.all())));
+
+    writeSimpleStructuredRows(max, "");
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+      Assert.assertEquals(max, table.count(Range.all()));
+      Assert.assertEquals(10L, table.count(
+        Range.create(Collections.singleton(Fields.intField(KEY, 5)), Range.Bound.INCLUSIVE,
+                     Collections.singleton(Fields.intField(KEY, 15)), Range.Bound.EXCLUSIVE)));
+      Assert.assertEquals(1L, table.count(Range.singleton(Collections.singleton(Fields.intField(KEY, 46)))));
+      Assert.assertEquals(9L, table.count(Range.from(Collections.singleton(Fields.intField(KEY, 40)),
+                                                     Range.Bound.EXCLUSIVE)));
+    });
+  }
+
   @Test
   public void testSimpleUpdate() throws Exception {
     int max = 10;
@@ -445,6 +583,69 @@ public abstract class StructuredTableTest {
     });
   }
 
+  @Test
+  public void testMultiReadWriteDelete() throws Exception {
+    int max = 10;
+    List<Collection<Field<?>>> expected = new ArrayList<>(max);
+    List<Collection<Field<?>>> keys = new ArrayList<>(max);
+    for (int i = 0; i < max; i++) {
+      expected.add(Arrays.asList(Fields.intField(KEY, i),
+                                 Fields.longField(KEY2, (long) i),
+                                 Fields.stringField(STRING_COL, VAL + i),
+                                 Fields.doubleField(DOUBLE_COL, (double) i),
+                                 Fields.floatField(FLOAT_COL, (float) i),
+                                 Fields.bytesField(BYTES_COL, Bytes.toBytes("bytes-" + i))));
+      keys.add(Arrays.asList(Fields.intField(KEY, i), Fields.longField(KEY2, (long) i)));
+    }
+
+    // Write all rows in one call and read them back
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+      table.multiUpsert(expected);
+    });
+    Assert.assertEquals(expected, readSimpleStructuredRows(max));
+
+    // Read a subset of the rows together with a key that does not exist
+    List<Collection<Field<?>>> readKeys = new ArrayList<>(keys.subList(2, 5));
+    readKeys.add(Arrays.asList(Fields.intField(KEY, max), Fields.longField(KEY2, (long) max)));
+    List<String> columns = Arrays.asList(KEY, KEY2, STRING_COL, DOUBLE_COL, FLOAT_COL, BYTES_COL);
+    List<Collection<Field<?>>> actual = new ArrayList<>();
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+      for (StructuredRow row : table.multiRead(readKeys)) {
+        actual.add(convertRowToFields(row, columns));
+      }
+    });
+    actual.sort((o1, o2) -> Integer.compare((Integer) o1.iterator().next().getValue(),
+                                            (Integer) o2.iterator().next().getValue()));
+    Assert.assertEquals(expected.subList(2, 5), actual);
+
+    // Delete the even rows in one call
+    List<Collection<Field<?>>> deleteKeys = new ArrayList<>();
+    List<Collection<Field<?>>> remaining = new ArrayList<>();
+    for (int i = 0; i < max; i++) {
+      if (i % 2 == 0) {
+        deleteKeys.add(keys.get(i));
+      } else {
+        remaining.add(expected.get(i));
+      }
+    }
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+      table.multiDelete(deleteKeys);
+    });
+    Assert.assertEquals(remaining, readSimpleStructuredRows(max));
+
+    // Empty collections are no-op
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+      table.multiUpsert(Collections.emptyList());
+      table.multiDelete(Collections.emptyList());
+      Assert.assertTrue(table.multiRead(Collections.emptyList()).isEmpty());
+    });
+    Assert.assertEquals(remaining, readSimpleStructuredRows(max));
+  }
+
   private List<Collection<Field<?>>> writeSimpleStructuredRows(int max, String suffix) throws Exception {
     List<Collection<Field<?>>> expected = new ArrayList<>(max);
     // Write rows in reverse order to test sorting
@@ -560,8 +761,21 @@ public abstract class StructuredTableTest {
     }
   }
 
+  private List<Collection<Field<?>>> multiScanSimpleStructuredRows(Collection<Range> ranges,
+                                                                   int max) throws Exception {
+    List<Collection<Field<?>>> actual = new ArrayList<>();
+    getTransactionRunner().run(context -> {
+      StructuredTable table = context.getTable(SIMPLE_TABLE);
+      try (CloseableIterator<StructuredRow> iterator = table.multiScan(ranges, max)) {
+        actual.addAll(convertRowsToFields(iterator, Arrays.asList(KEY, KEY2, STRING_COL, DOUBLE_COL,
+                                                                  FLOAT_COL, BYTES_COL)));
+      }
+    });
+    return actual;
+  }
+
   private List<Collection<Field<?>>> scanSimpleStructuredRows(Range range, int max) throws Exception {
-    List<Collection<Field<?>>> actual = new ArrayList<>(max);
+    List<Collection<Field<?>>> actual = new ArrayList<>();
     getTransactionRunner().run(context -> {
       StructuredTable table = context.getTable(SIMPLE_TABLE);
       try (CloseableIterator<StructuredRow> iterator = table.scan(range, max)) {
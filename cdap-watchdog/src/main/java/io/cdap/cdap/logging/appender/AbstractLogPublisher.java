@@ -16,6 +16,9 @@
 
 package io.cdap.cdap.logging.appender;
 
+import io.cdap.cdap.api.metrics.MetricsContext;
+import io.cdap.cdap.api.metrics.NoopMetricsContext;
+import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.service.AbstractRetryableScheduledService;
 import io.cdap.cdap.common.service.RetryStrategy;
 import org.slf4j.Logger;
@@ -26,6 +29,8 @@ import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 /**
  * A class that continuously serializes logs from a queue and publishes them.
@@ -35,17 +40,50 @@ import java.util.concurrent.TimeUnit;
 public abstract class AbstractLogPublisher<MESSAGE> extends AbstractRetryableScheduledService {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractLogPublisher.class);
 
-  private final int queueSize;
+  /**
+   * Policy for adding a log message when the queue is full.
+   */
+  public enum QueueFullPolicy {
+    // block the logging thread until there is space in the queue
+    BLOCK,
+    // drop the log message
+    DROP
+  }
+
+  private final int batchSize;
+  private final long lingerNanos;
+  private final QueueFullPolicy queueFullPolicy;
+  private final MetricsContext metricsContext;
   private final BlockingQueue<LogMessage> messageQueue;
   private final List<MESSAGE> buffer;
+  private final AtomicLong droppedCount;
   private volatile boolean failed;
   private volatile Thread publishThread;
 
   public AbstractLogPublisher(int queueSize, RetryStrategy retryStrategy) {
+    this(queueSize, retryStrategy, queueSize, 0L, QueueFullPolicy.BLOCK, new NoopMetricsContext());
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param queueSize the maximum number of log messages waiting to be published
+   * @param retryStrategy the retry strategy for publish failures
+   * @param batchSize the maximum number of log messages to publish in one batch
+   * @param lingerMillis the maximum time in milliseconds to wait for a batch to fill up before publishing it
+   * @param queueFullPolicy the {@link QueueFullPolicy} when the queue is full
+   * @param metricsContext the {@link MetricsContext} for emitting queue and publish metrics
+   */
+  public AbstractLogPublisher(int queueSize, RetryStrategy retryStrategy, int batchSize, long lingerMillis,
+                              QueueFullPolicy queueFullPolicy, MetricsContext metricsContext) {
     super(retryStrategy);
-    this.queueSize = queueSize;
+    this.batchSize = batchSize > 0 ? batchSize : queueSize;
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, lingerMillis));
+    this.queueFullPolicy = queueFullPolicy;
+    this.metricsContext = metricsContext;
     this.messageQueue = new ArrayBlockingQueue<>(queueSize);
-    this.buffer = new ArrayList<>(queueSize);
+    this.buffer = new ArrayList<>(this.batchSize);
+    this.droppedCount = new AtomicLong();
   }
 
   /**
@@ -70,7 +108,12 @@ public abstract class AbstractLogPublisher<MESSAGE> extends AbstractRetryableSch
    * @param logMessage the log message to add for publishing
    */
   public final void addMessage(LogMessage logMessage) throws InterruptedException {
-    messageQueue.put(logMessage);
+    if (queueFullPolicy == QueueFullPolicy.BLOCK) {
+      messageQueue.put(logMessage);
+    } else if (!messageQueue.offer(logMessage)) {
+      // The metric is emitted by the publish thread to keep the logging thread cheap
+      droppedCount.incrementAndGet();
+    }
   }
 
   @Override
@@ -137,7 +180,7 @@ public abstract class AbstractLogPublisher<MESSAGE> extends AbstractRetryableSch
    */
   private void publishMessages(List<MESSAGE> buffer,
                                boolean blockForMessage) throws Exception {
-    int maxBufferSize = queueSize;
+    int maxBufferSize = batchSize;
 
     if (blockForMessage) {
       publishThread = Thread.currentThread();
@@ -157,16 +200,55 @@ public abstract class AbstractLogPublisher<MESSAGE> extends AbstractRetryableSch
       }
     }
 
+    // Only wait for the batch to fill up if there is something to publish and it is not a failure retry
+    long lingerDeadline = System.nanoTime() + (blockForMessage && !buffer.isEmpty() ? lingerNanos : 0L);
     while (buffer.size() < maxBufferSize) {
       // Poll for more messages
       LogMessage message = messageQueue.poll();
       if (message == null) {
-        break;
+        message = pollUntil(lingerDeadline);
+        if (message == null) {
+          break;
+        }
       }
       buffer.add(createMessage(message));
     }
 
     // Publish all messages
+    long startTime = System.nanoTime();
     publish(buffer);
+    emitMetrics(buffer.size(), System.nanoTime() - startTime);
+  }
+
+  /**
+   * Polls a message from the queue, waiting until the given deadline if the queue is empty.
+   */
+  @Nullable
+  private LogMessage pollUntil(long deadlineNanos) {
+    long waitNanos = deadlineNanos - System.nanoTime();
+    if (waitNanos <= 0 || !isRunning()) {
+      return null;
+    }
+    publishThread = Thread.currentThread();
+    try {
+      return messageQueue.poll(waitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      // The publisher is getting shutdown. Publish what is in the buffer, same as when blocking for message.
+      return null;
+    } finally {
+      publishThread = null;
+    }
+  }
+
+  private void emitMetrics(int batchEvents, long publishNanos) {
+    metricsContext.gauge(Constants.Metrics.Name.Log.PUBLISH_QUEUE_SIZE, messageQueue.size());
+    long dropped = droppedCount.getAndSet(0L);
+    if (dropped > 0) {
+      metricsContext.increment(Constants.Metrics.Name.Log.PUBLISH_QUEUE_DROPPED_COUNT, dropped);
+    }
+    if (batchEvents > 0) {
+      metricsContext.gauge(Constants.Metrics.Name.Log.PUBLISH_BATCH_EVENTS_COUNT, batchEvents);
+      metricsContext.gauge(Constants.Metrics.Name.Log.PUBLISH_LATENCY_MS, TimeUnit.NANOSECONDS.toMillis(publishNanos));
+    }
   }
 }
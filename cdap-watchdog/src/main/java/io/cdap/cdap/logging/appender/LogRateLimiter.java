@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cdap.cdap.api.metrics.MetricsCollectionService;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.common.logging.LoggingContext;
+import io.cdap.cdap.common.logging.NamespaceLoggingContext;
+import io.cdap.cdap.logging.context.LoggingContextHelper;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Limits the rate of log events published by each program, identified by the log partition of the
+ * {@link LoggingContext}. Each program has its own token bucket, refilled at the configured events per second.
+ * When a bucket is empty, only one out of every {@link Constants.Logging#PUBLISH_RATE_LIMIT_SAMPLING_RATIO}
+ * events is published and the rest are dropped. Events at or above
+ * {@link Constants.Logging#PUBLISH_RATE_LIMIT_EXEMPT_LEVEL} are never dropped.
+ *
+ * Dropped events are counted in the {@link Constants.Metrics.Name.Log#PUBLISH_DROPPED_COUNT} metric, with the
+ * metrics tags of the program run that logged them, and periodically summarized by a log event in the program's
+ * own logging context. Buckets of programs that did not log for a while are discarded.
+ */
+@ThreadSafe
+public final class LogRateLimiter {
+
+  private static final long MIN_BUCKET_EXPIRY_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  private final CConfiguration cConf;
+  private final MetricsCollectionService metricsCollectionService;
+  private final LongSupplier nanoTime;
+  private final long defaultRate;
+  private final long burst;
+  private final int samplingRatio;
+  private final Level exemptLevel;
+  private final long summaryIntervalNanos;
+  private final boolean enabled;
+  private final Cache<String, TokenBucket> buckets;
+
+  public LogRateLimiter(CConfiguration cConf, MetricsCollectionService metricsCollectionService) {
+    this(cConf, metricsCollectionService, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  LogRateLimiter(CConfiguration cConf, MetricsCollectionService metricsCollectionService, LongSupplier nanoTime) {
+    this.cConf = cConf;
+    this.metricsCollectionService = metricsCollectionService;
+    this.nanoTime = nanoTime;
+    this.defaultRate = cConf.getLong(Constants.Logging.PUBLISH_RATE_LIMIT, 0L);
+    this.burst = cConf.getLong(Constants.Logging.PUBLISH_RATE_LIMIT_BURST, 0L);
+    this.samplingRatio = cConf.getInt(Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO, 0);
+    this.exemptLevel = Level.toLevel(cConf.get(Constants.Logging.PUBLISH_RATE_LIMIT_EXEMPT_LEVEL), Level.WARN);
+    this.summaryIntervalNanos = TimeUnit.SECONDS.toNanos(
+      cConf.getLong(Constants.Logging.PUBLISH_RATE_LIMIT_SUMMARY_INTERVAL_SECONDS, 60L));
+    this.enabled = defaultRate > 0
+      || !cConf.getValByRegex("^" + Pattern.quote(Constants.Logging.PUBLISH_RATE_LIMIT_NAMESPACE_PREFIX)).isEmpty();
+    // keep idle buckets for at least two summary intervals, so that their dropped events are still reported
+    this.buckets = CacheBuilder.newBuilder()
+      .expireAfterAccess(Math.max(MIN_BUCKET_EXPIRY_NANOS, 2 * summaryIntervalNanos), TimeUnit.NANOSECONDS)
+      .ticker(new Ticker() {
+        @Override
+        public long read() {
+          return nanoTime.getAsLong();
+        }
+      })
+      .build();
+  }
+
+  /**
+   * Returns {@code true} if rate limiting is configured for any program.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns {@code true} if the given log message should be published, or {@code false} if it should be dropped.
+   */
+  public boolean tryAcquire(LogMessage logMessage) {
+    LoggingContext loggingContext = logMessage.getLoggingContext();
+    TokenBucket bucket = getBucket(loggingContext);
+    if (bucket == null || bucket.tryAcquire(logMessage.getLevel().isGreaterOrEqual(exemptLevel))) {
+      return true;
+    }
+    // the metrics collection service caches contexts by tags, hence this is cheap for repeated drops
+    metricsCollectionService.getContext(getMetricsTags(loggingContext))
+      .increment(Constants.Metrics.Name.Log.PUBLISH_DROPPED_COUNT, 1L);
+    return false;
+  }
+
+  /**
+   * Returns a log message that summarizes the events dropped for the program of the given log message since the
+   * last summary, or {@code null} if there is nothing to report or it is not yet time to report.
+   */
+  @Nullable
+  public LogMessage getDroppedSummary(LogMessage logMessage) {
+    LoggingContext loggingContext = logMessage.getLoggingContext();
+    TokenBucket bucket = getBucket(loggingContext);
+    long dropped = bucket == null ? 0L : bucket.pollDropped(summaryIntervalNanos);
+    if (dropped <= 0L) {
+      return null;
+    }
+
+    LoggingEvent event = new LoggingEvent();
+    event.setLoggerContextRemoteView(logMessage.getLoggerContextVO());
+    // the event is not created by a logger, hence it has no caller data to compute
+    event.setCallerData(new StackTraceElement[0]);
+    event.setLevel(Level.WARN);
+    event.setLoggerName(LogRateLimiter.class.getName());
+    event.setThreadName(Thread.currentThread().getName());
+    event.setTimeStamp(System.currentTimeMillis());
+    event.setMessage(String.format("Dropped %d log events from %s in the last %d seconds due to log rate limit of "
+                                     + "%d events per second", dropped, loggingContext.getLogPartition(),
+                                   TimeUnit.NANOSECONDS.toSeconds(summaryIntervalNanos), bucket.rate));
+    return new LogMessage(event, loggingContext);
+  }
+
+  @Nullable
+  private TokenBucket getBucket(LoggingContext loggingContext) {
+    String key = loggingContext.getLogPartition();
+    TokenBucket bucket = buckets.getIfPresent(key);
+    if (bucket != null) {
+      return bucket.rate > 0 ? bucket : null;
+    }
+
+    String namespace = getTag(loggingContext, NamespaceLoggingContext.TAG_NAMESPACE_ID);
+    long rate = namespace == null ? defaultRate : cConf.getLong(getNamespaceRateKey(namespace), defaultRate);
+    bucket = new TokenBucket(rate, burst > 0 ? burst : rate);
+    TokenBucket existing = buckets.asMap().putIfAbsent(key, bucket);
+    bucket = existing == null ? bucket : existing;
+    return bucket.rate > 0 ? bucket : null;
+  }
+
+  /**
+   * Returns the number of programs that currently have a token bucket.
+   */
+  @VisibleForTesting
+  long getBucketCount() {
+    buckets.cleanUp();
+    return buckets.size();
+  }
+
+  /**
+   * Returns the metrics tags of the program run of the given logging context, such as namespace, application,
+   * program and run id, or only the namespace if the logging context is not a program context.
+   */
+  private static Map<String, String> getMetricsTags(LoggingContext loggingContext) {
+    try {
+      return LoggingContextHelper.getMetricsTags(loggingContext);
+    } catch (IllegalArgumentException e) {
+      String namespace = getTag(loggingContext, NamespaceLoggingContext.TAG_NAMESPACE_ID);
+      return namespace == null
+        ? Collections.emptyMap() : Collections.singletonMap(Constants.Metrics.Tag.NAMESPACE, namespace);
+    }
+  }
+
+  @Nullable
+  private static String getTag(LoggingContext loggingContext, String tagName) {
+    LoggingContext.SystemTag tag = loggingContext.getSystemTagsMap().get(tagName);
+    return tag == null ? null : tag.getValue();
+  }
+
+  /**
+   * Returns the configuration key for the log rate limit of the given namespace.
+   */
+  public static String getNamespaceRateKey(String namespace) {
+    return Constants.Logging.PUBLISH_RATE_LIMIT_NAMESPACE_PREFIX + namespace + ".events.per.second";
+  }
+
+  /**
+   * A token bucket for the log events of one program.
+   */
+  private final class TokenBucket {
+    private final long rate;
+    private final long capacity;
+    private double tokens;
+    private long lastRefillNanos;
+    private long sampleCount;
+    private long dropped;
+    private long lastSummaryNanos;
+
+    TokenBucket(long rate, long capacity) {
+      this.rate = rate;
+      this.capacity = capacity;
+      this.tokens = capacity;
+      this.lastRefillNanos = nanoTime.getAsLong();
+      this.lastSummaryNanos = lastRefillNanos;
+    }
+
+    synchronized boolean tryAcquire(boolean exempt) {
+      long now = nanoTime.getAsLong();
+      tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * rate / (double) TimeUnit.SECONDS.toNanos(1));
+      lastRefillNanos = now;
+
+      if (tokens >= 1d) {
+        tokens--;
+        return true;
+      }
+      if (exempt || (samplingRatio > 0 && sampleCount++ % samplingRatio == 0)) {
+        return true;
+      }
+      dropped++;
+      return false;
+    }
+
+    synchronized long pollDropped(long intervalNanos) {
+      long now = nanoTime.getAsLong();
+      if (dropped == 0L || now - lastSummaryNanos < intervalNanos) {
+        return 0L;
+      }
+      long result = dropped;
+      dropped = 0L;
+      lastSummaryNanos = now;
+      return result;
+    }
+  }
+}
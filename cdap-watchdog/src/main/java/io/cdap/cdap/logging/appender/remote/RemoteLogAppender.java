@@ -20,14 +20,17 @@ package io.cdap.cdap.logging.appender.remote;
 import com.google.common.hash.Hashing;
 import com.google.common.net.HttpHeaders;
 import com.google.inject.Inject;
+import io.cdap.cdap.api.metrics.MetricsCollectionService;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.http.DefaultHttpRequestConfig;
 import io.cdap.cdap.common.internal.remote.RemoteClient;
+import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
 import io.cdap.cdap.common.service.RetryStrategies;
 import io.cdap.cdap.logging.appender.AbstractLogPublisher;
 import io.cdap.cdap.logging.appender.LogAppender;
 import io.cdap.cdap.logging.appender.LogMessage;
+import io.cdap.cdap.logging.appender.LogRateLimiter;
 import io.cdap.cdap.logging.appender.kafka.LogPartitionType;
 import io.cdap.cdap.logging.serialize.LoggingEventSerializer;
 import io.cdap.common.http.HttpMethod;
@@ -57,11 +60,18 @@ import java.util.Map;
 public class RemoteLogAppender extends LogAppender {
   private static final String APPENDER_NAME = "RemoteLogAppender";
   private final RemoteLogPublisher publisher;
+  private final LogRateLimiter rateLimiter;
 
-  @Inject
   public RemoteLogAppender(CConfiguration cConf, DiscoveryServiceClient discoveryServiceClient) {
+    this(cConf, discoveryServiceClient, new NoOpMetricsCollectionService());
+  }
+
+  @Inject
+  public RemoteLogAppender(CConfiguration cConf, DiscoveryServiceClient discoveryServiceClient,
+                           MetricsCollectionService metricsCollectionService) {
     setName(APPENDER_NAME);
     this.publisher = new RemoteLogPublisher(cConf, discoveryServiceClient);
+    this.rateLimiter = new LogRateLimiter(cConf, metricsCollectionService);
   }
 
   @Override
@@ -80,6 +90,19 @@ public class RemoteLogAppender extends LogAppender {
 
   @Override
   protected void appendEvent(LogMessage logMessage) {
+    if (rateLimiter.isEnabled()) {
+      if (!rateLimiter.tryAcquire(logMessage)) {
+        return;
+      }
+      LogMessage summary = rateLimiter.getDroppedSummary(logMessage);
+      if (summary != null) {
+        addMessage(summary);
+      }
+    }
+    addMessage(logMessage);
+  }
+
+  private void addMessage(LogMessage logMessage) {
     logMessage.prepareForDeferredProcessing();
     logMessage.getCallerData();
 
@@ -29,6 +29,7 @@ import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.io.Syncable;
 import io.cdap.cdap.logging.clean.FileMetadataCleaner;
 import io.cdap.cdap.logging.clean.LogCleaner;
+import io.cdap.cdap.logging.clean.LogCompactor;
 import io.cdap.cdap.logging.meta.FileMetaDataWriter;
 import io.cdap.cdap.proto.id.NamespaceId;
 import org.apache.twill.common.Threads;
@@ -65,6 +66,10 @@ public class CDAPLogAppender extends AppenderBase<ILoggingEvent> implements Flus
   private int logCleanupIntervalMins;
   private int fileRetentionDurationDays;
   private int fileCleanupBatchSize;
+  private int logCompactionIntervalMins;
+  private int fileCompactionMinAgeMins;
+  private long fileCompactionTargetSizeBytes;
+  private int fileCompactionDeleteDelayMins;
 
   public CDAPLogAppender() {
     setName(getClass().getName());
@@ -127,6 +132,34 @@ public class CDAPLogAppender extends AppenderBase<ILoggingEvent> implements Flus
     this.fileCleanupBatchSize = batchSize;
   }
 
+  /**
+   * Sets the log compaction interval. Compaction is disabled if it is not set or not positive.
+   */
+  public void setLogCompactionIntervalMins(int logCompactionIntervalMins) {
+    this.logCompactionIntervalMins = logCompactionIntervalMins;
+  }
+
+  /**
+   * Sets the minimum age of a file before it can be merged by the log compaction thread.
+   */
+  public void setFileCompactionMinAgeMins(int fileCompactionMinAgeMins) {
+    this.fileCompactionMinAgeMins = fileCompactionMinAgeMins;
+  }
+
+  /**
+   * Sets the target size of a file created by the log compaction thread.
+   */
+  public void setFileCompactionTargetSizeBytes(long fileCompactionTargetSizeBytes) {
+    this.fileCompactionTargetSizeBytes = fileCompactionTargetSizeBytes;
+  }
+
+  /**
+   * Sets the time after compaction when the merged files are deleted by the log clean up thread.
+   */
+  public void setFileCompactionDeleteDelayMins(int fileCompactionDeleteDelayMins) {
+    this.fileCompactionDeleteDelayMins = fileCompactionDeleteDelayMins;
+  }
+
 
   @Override
   public void start() {
@@ -139,6 +172,14 @@ public class CDAPLogAppender extends AppenderBase<ILoggingEvent> implements Flus
     Preconditions.checkState(fileRetentionDurationDays > 0, "Property fileRetentionDurationDays must be > 0");
     Preconditions.checkState(logCleanupIntervalMins > 0, "Property logCleanupIntervalMins must be > 0");
     Preconditions.checkState(fileCleanupBatchSize > 0, "Property fileCleanupBatchSize must be > 0");
+    if (logCompactionIntervalMins > 0) {
+      // Only files that are no longer written to can be compacted
+      Preconditions.checkState(TimeUnit.MINUTES.toMillis(fileCompactionMinAgeMins) > maxFileLifetimeMs,
+                               "Property fileCompactionMinAgeMins must be greater than maxFileLifetimeMs");
+      Preconditions.checkState(fileCompactionTargetSizeBytes > 0, "Property fileCompactionTargetSizeBytes must be > 0");
+      Preconditions.checkState(fileCompactionDeleteDelayMins >= 0,
+                               "Property fileCompactionDeleteDelayMins must be >= 0");
+    }
 
     if (context instanceof AppenderContext) {
       AppenderContext context = (AppenderContext) this.context;
@@ -154,6 +195,20 @@ public class CDAPLogAppender extends AppenderBase<ILoggingEvent> implements Flus
                                                TimeUnit.DAYS.toMillis(fileRetentionDurationDays),
                                                fileCleanupBatchSize);
         scheduledExecutorService.scheduleAtFixedRate(logCleaner, 10, logCleanupIntervalMins, TimeUnit.MINUTES);
+        if (logCompactionIntervalMins > 0) {
+          // Compaction runs on the same thread as the cleanup, hence they never operate on the same files concurrently.
+          // Like the cleanup, it only runs in the first instance, so that instances don't merge the same files.
+          LogCompactor logCompactor = new LogCompactor(context.getTransactionRunner(),
+                                                       new FileMetaDataWriter(context.getTransactionRunner()),
+                                                       context.getLocationFactory(), filePermissions,
+                                                       TimeUnit.MINUTES.toMillis(fileCompactionMinAgeMins),
+                                                       fileCompactionTargetSizeBytes, syncIntervalBytes,
+                                                       fileCleanupBatchSize,
+                                                       TimeUnit.DAYS.toMillis(fileRetentionDurationDays),
+                                                       TimeUnit.MINUTES.toMillis(fileCompactionDeleteDelayMins));
+          scheduledExecutorService.scheduleAtFixedRate(logCompactor, 20, logCompactionIntervalMins,
+                                                       TimeUnit.MINUTES);
+        }
       }
     } else if (!Boolean.TRUE.equals(context.getObject(Constants.Logging.PIPELINE_VALIDATION))) {
       throw new IllegalStateException("Expected logger context instance of " + AppenderContext.class.getName() +
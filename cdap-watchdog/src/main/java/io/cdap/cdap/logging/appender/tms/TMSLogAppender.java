@@ -17,17 +17,21 @@
 package io.cdap.cdap.logging.appender.tms;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.google.inject.Inject;
 import io.cdap.cdap.api.messaging.MessagePublisher;
 import io.cdap.cdap.api.messaging.MessagingContext;
 import io.cdap.cdap.api.messaging.TopicNotFoundException;
+import io.cdap.cdap.api.metrics.MetricsCollectionService;
+import io.cdap.cdap.api.metrics.MetricsContext;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.common.service.RetryStrategies;
 import io.cdap.cdap.logging.appender.AbstractLogPublisher;
 import io.cdap.cdap.logging.appender.LogAppender;
 import io.cdap.cdap.logging.appender.LogMessage;
+import io.cdap.cdap.logging.appender.LogRateLimiter;
 import io.cdap.cdap.logging.appender.kafka.LogPartitionType;
 import io.cdap.cdap.logging.serialize.LoggingEventSerializer;
 import io.cdap.cdap.messaging.MessagingService;
@@ -49,12 +53,18 @@ public final class TMSLogAppender extends LogAppender {
   private static final String APPENDER_NAME = "TMSLogAppender";
 
   private final TMSLogPublisher tmsLogPublisher;
+  private final LogRateLimiter rateLimiter;
 
   @Inject
-  TMSLogAppender(CConfiguration cConf, MessagingService messagingService) {
+  TMSLogAppender(CConfiguration cConf, MessagingService messagingService,
+                 MetricsCollectionService metricsCollectionService) {
     setName(APPENDER_NAME);
     int queueSize = cConf.getInt(Constants.Logging.APPENDER_QUEUE_SIZE);
-    this.tmsLogPublisher = new TMSLogPublisher(cConf, messagingService, queueSize);
+    MetricsContext metricsContext = metricsCollectionService.getContext(
+      ImmutableMap.of(Constants.Metrics.Tag.NAMESPACE, NamespaceId.SYSTEM.getNamespace(),
+                      Constants.Metrics.Tag.COMPONENT, APPENDER_NAME));
+    this.tmsLogPublisher = new TMSLogPublisher(cConf, messagingService, queueSize, metricsContext);
+    this.rateLimiter = new LogRateLimiter(cConf, metricsCollectionService);
   }
 
   @Override
@@ -73,6 +83,19 @@ public final class TMSLogAppender extends LogAppender {
 
   @Override
   protected void appendEvent(LogMessage logMessage) {
+    if (rateLimiter.isEnabled()) {
+      if (!rateLimiter.tryAcquire(logMessage)) {
+        return;
+      }
+      LogMessage summary = rateLimiter.getDroppedSummary(logMessage);
+      if (summary != null) {
+        addMessage(summary);
+      }
+    }
+    addMessage(logMessage);
+  }
+
+  private void addMessage(LogMessage logMessage) {
     logMessage.prepareForDeferredProcessing();
     logMessage.getCallerData();
 
@@ -101,8 +124,14 @@ public final class TMSLogAppender extends LogAppender {
     private final MessagingContext messagingContext;
     private final LogPartitionType logPartitionType;
 
-    private TMSLogPublisher(CConfiguration cConf, MessagingService messagingService, int queueSize) {
-      super(queueSize, RetryStrategies.fromConfiguration(cConf, "system.log.process."));
+    private TMSLogPublisher(CConfiguration cConf, MessagingService messagingService, int queueSize,
+                            MetricsContext metricsContext) {
+      super(queueSize, RetryStrategies.fromConfiguration(cConf, "system.log.process."),
+            cConf.getInt(Constants.Logging.APPENDER_BATCH_SIZE, queueSize),
+            cConf.getLong(Constants.Logging.APPENDER_BATCH_LINGER_MS, 0L),
+            QueueFullPolicy.valueOf(cConf.get(Constants.Logging.APPENDER_QUEUE_FULL_POLICY,
+                                              QueueFullPolicy.BLOCK.name()).toUpperCase()),
+            metricsContext);
       this.topicPrefix = cConf.get(Constants.Logging.TMS_TOPIC_PREFIX);
       this.numPartitions = cConf.getInt(Constants.Logging.NUM_PARTITIONS);
       this.loggingEventSerializer = new LoggingEventSerializer();
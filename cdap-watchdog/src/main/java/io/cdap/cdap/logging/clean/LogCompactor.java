@@ -0,0 +1,400 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.clean;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closeables;
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import io.cdap.cdap.common.io.Locations;
+import io.cdap.cdap.logging.appender.system.LogPathIdentifier;
+import io.cdap.cdap.logging.meta.FileMetaDataWriter;
+import io.cdap.cdap.logging.serialize.LogSchema;
+import io.cdap.cdap.logging.write.LogLocation;
+import io.cdap.cdap.spi.data.StructuredRow;
+import io.cdap.cdap.spi.data.StructuredTable;
+import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Fields;
+import io.cdap.cdap.spi.data.table.field.Range;
+import io.cdap.cdap.spi.data.transaction.TransactionRunner;
+import io.cdap.cdap.spi.data.transaction.TransactionRunners;
+import io.cdap.cdap.store.StoreDefinition;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.twill.filesystem.Location;
+import org.apache.twill.filesystem.LocationFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+
+/**
+ * Compacts closed log files. For each logging context, consecutive log files older than the minimum age are
+ * merged into larger files, up to the target size. Events in the merged file are sorted by timestamp, so that
+ * the first event of each Avro block is the smallest timestamp in the block, and the file is written with
+ * deflate compression. The meta data of the merged files is replaced atomically with the meta data of the
+ * compacted file, so readers switch to the new file transparently. The merged files are deleted by the
+ * {@link LogCleaner} once the delete delay has passed, so that readers that already opened them can finish.
+ */
+public class LogCompactor implements Runnable {
+  private static final Logger LOG = LoggerFactory.getLogger(LogCompactor.class);
+  private static final String META_SEPARATOR = ":";
+  private static final int DEFLATE_LEVEL = 6;
+
+  private final TransactionRunner transactionRunner;
+  private final FileMetaDataWriter fileMetaDataWriter;
+  private final LocationFactory locationFactory;
+  private final String filePermissions;
+  private final long minFileAgeMs;
+  private final long targetFileSizeBytes;
+  private final int syncIntervalBytes;
+  private final int scanBatchSize;
+  private final long retentionDurationMs;
+  private final long deleteDelayMs;
+
+  public LogCompactor(TransactionRunner transactionRunner, FileMetaDataWriter fileMetaDataWriter,
+                      LocationFactory locationFactory, String filePermissions, long minFileAgeMs,
+                      long targetFileSizeBytes, int syncIntervalBytes, int scanBatchSize,
+                      long retentionDurationMs, long deleteDelayMs) {
+    this.transactionRunner = transactionRunner;
+    this.fileMetaDataWriter = fileMetaDataWriter;
+    this.locationFactory = locationFactory;
+    this.filePermissions = filePermissions;
+    this.minFileAgeMs = minFileAgeMs;
+    this.targetFileSizeBytes = targetFileSizeBytes;
+    this.syncIntervalBytes = syncIntervalBytes;
+    this.scanBatchSize = scanBatchSize;
+    this.retentionDurationMs = retentionDurationMs;
+    this.deleteDelayMs = deleteDelayMs;
+    LOG.debug("Log compaction minimum file age = {}ms, target file size = {} bytes, delete delay = {}ms",
+              minFileAgeMs, targetFileSizeBytes, deleteDelayMs);
+  }
+
+  @Override
+  public void run() {
+    LOG.info("Starting log compaction");
+    long startTime = System.currentTimeMillis();
+    long tillTime = startTime - minFileAgeMs;
+    int compactedCount = 0;
+    int createdCount = 0;
+    int failureCount = 0;
+
+    Range range = Range.all();
+    while (range != null) {
+      List<FileEntry> files = new ArrayList<>();
+      try {
+        range = scanFilesToCompact(range, tillTime, files);
+      } catch (IOException e) {
+        LOG.warn("Got exception while scanning metadata table", e);
+        break;
+      }
+
+      for (List<FileEntry> group : createGroups(files)) {
+        try {
+          compact(group);
+          compactedCount += group.size();
+          createdCount++;
+        } catch (Exception e) {
+          failureCount++;
+          LOG.warn("Failed to compact {} log files of logging context {}",
+                   group.size(), group.get(0).getIdentifier().getRowkey(), e);
+        }
+      }
+    }
+
+    long completionTime = System.currentTimeMillis();
+    LOG.info("Log compaction completed, Compacted {} files into {} files. Failed compactions - {}. " +
+               "Log compaction took {} ms", compactedCount, createdCount, failureCount, (completionTime - startTime));
+  }
+
+  /**
+   * Scans the meta data table starting from the given range and collects consecutive files of one logging context
+   * that were created before the given time.
+   *
+   * @return the range to continue scanning from, or {@code null} if the whole table has been scanned
+   */
+  @Nullable
+  private Range scanFilesToCompact(Range range, long tillTime, List<FileEntry> files) throws IOException {
+    AtomicReference<Range> nextRange = new AtomicReference<>();
+    TransactionRunners.run(transactionRunner, context -> {
+      StructuredTable table = context.getTable(StoreDefinition.LogFileMetaStore.LOG_FILE_META);
+      nextRange.set(scanFilesToCompact(table, range, tillTime, files));
+    }, IOException.class);
+    return nextRange.get();
+  }
+
+  @Nullable
+  @SuppressWarnings("ConstantConditions")
+  private Range scanFilesToCompact(StructuredTable table, Range range,
+                                   long tillTime, List<FileEntry> files) throws IOException {
+    try (CloseableIterator<StructuredRow> iter = table.scan(range, Integer.MAX_VALUE)) {
+      while (iter.hasNext()) {
+        StructuredRow row = iter.next();
+        String rowKey = row.getString(StoreDefinition.LogFileMetaStore.LOGGING_CONTEXT_FIELD);
+        long eventTime = row.getLong(StoreDefinition.LogFileMetaStore.EVENT_TIME_FIELD);
+        long creationTime = row.getLong(StoreDefinition.LogFileMetaStore.CREATION_TIME_FIELD);
+
+        if (!files.isEmpty() && !files.get(0).getIdentifier().getRowkey().equals(rowKey)) {
+          // continue from the start of the next logging context
+          return Range.from(getKeyFields(rowKey, eventTime, creationTime), Range.Bound.INCLUSIVE);
+        }
+        if (files.size() >= scanBatchSize) {
+          // continue from this file in the same logging context
+          return Range.from(getKeyFields(rowKey, eventTime, creationTime), Range.Bound.INCLUSIVE);
+        }
+        if (creationTime > tillTime) {
+          // Only compact consecutive files, so that a compacted file never overlaps with a file that is still
+          // being written. Skip the rest of this logging context and move to the next one.
+          return Range.from(ImmutableList.of(
+            Fields.stringField(StoreDefinition.LogFileMetaStore.LOGGING_CONTEXT_FIELD, rowKey)),
+                            Range.Bound.EXCLUSIVE);
+        }
+        LogPathIdentifier identifier = parseRowKey(rowKey);
+        if (identifier == null) {
+          LOG.debug("Skipping log files of unrecognized logging context {}", rowKey);
+          return Range.from(ImmutableList.of(
+            Fields.stringField(StoreDefinition.LogFileMetaStore.LOGGING_CONTEXT_FIELD, rowKey)),
+                            Range.Bound.EXCLUSIVE);
+        }
+        String path = row.getString(StoreDefinition.LogFileMetaStore.FILE_FIELD);
+        files.add(new FileEntry(identifier, eventTime, creationTime,
+                                Locations.getLocationFromAbsolutePath(locationFactory, path)));
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Groups consecutive files such that each group is smaller than the target file size. Groups with a single
+   * file are dropped, as there is nothing to compact.
+   */
+  private List<List<FileEntry>> createGroups(List<FileEntry> files) {
+    List<List<FileEntry>> groups = new ArrayList<>();
+    List<FileEntry> group = new ArrayList<>();
+    long groupSize = 0L;
+
+    for (FileEntry file : files) {
+      long size;
+      try {
+        size = file.getLocation().length();
+      } catch (IOException e) {
+        LOG.debug("Failed to get the size of log file {}. Skipping it from compaction.", file.getLocation(), e);
+        size = -1L;
+      }
+      if (size < 0 || size >= targetFileSizeBytes || groupSize + size > targetFileSizeBytes) {
+        if (group.size() > 1) {
+          groups.add(group);
+        }
+        group = new ArrayList<>();
+        groupSize = 0L;
+      }
+      if (size >= 0 && size < targetFileSizeBytes) {
+        group.add(file);
+        groupSize += size;
+      }
+    }
+    if (group.size() > 1) {
+      groups.add(group);
+    }
+    return groups;
+  }
+
+  private void compact(List<FileEntry> group) throws Exception {
+    FileEntry first = group.get(0);
+    long eventTime = Long.MAX_VALUE;
+    long creationTime = Long.MIN_VALUE;
+    for (FileEntry file : group) {
+      eventTime = Math.min(eventTime, file.getEventTime());
+      creationTime = Math.max(creationTime, file.getCreationTime());
+    }
+
+    // The compacted file takes the largest creation time of the merged files, so that log retention is not extended
+    Location location = createLocation(first.getLocation(), creationTime);
+    try {
+      long count = merge(group, location);
+      List<LogLocation> replaced = new ArrayList<>();
+      for (FileEntry file : group) {
+        replaced.add(new LogLocation(LogLocation.VERSION_1, file.getEventTime(), file.getCreationTime(),
+                                     file.getLocation(), first.getIdentifier().getNamespaceId(), null));
+      }
+      // Readers may have resolved the merged files before the meta data swap, hence they are not deleted right
+      // away. They are recorded with a creation time such that the log cleaner deletes them after the delay.
+      long deleteCreationTime = System.currentTimeMillis() + deleteDelayMs - retentionDurationMs;
+      fileMetaDataWriter.replaceMetaData(first.getIdentifier(), replaced, eventTime, creationTime, location,
+                                         deleteCreationTime);
+      LOG.debug("Compacted {} log files with {} events into {}", group.size(), count, location);
+    } catch (Exception e) {
+      Locations.deleteQuietly(location);
+      throw e;
+    }
+  }
+
+  private Location createLocation(Location sibling, long creationTime) throws IOException {
+    Location parent = Locations.getParent(sibling);
+    if (parent == null) {
+      throw new IOException("Failed to find the parent directory of log file " + sibling);
+    }
+    long timestamp = System.currentTimeMillis();
+    Location location = parent.append(String.format("%s.compacted.%s.avro", creationTime, timestamp));
+    while (!(filePermissions.isEmpty() ? location.createNew() : location.createNew(filePermissions))) {
+      location = parent.append(String.format("%s.compacted.%s.avro", creationTime, ++timestamp));
+    }
+    return location;
+  }
+
+  /**
+   * Merges the events of the given files into the given location in timestamp order.
+   *
+   * @return the number of events written
+   */
+  private long merge(List<FileEntry> group, Location location) throws IOException {
+    List<Closeable> closeables = new ArrayList<>();
+    try {
+      PriorityQueue<EventReader> readers = new PriorityQueue<>(group.size());
+      for (FileEntry file : group) {
+        DataFileStream<GenericRecord> stream =
+          new DataFileStream<>(file.getLocation().getInputStream(),
+                               new GenericDatumReader<GenericRecord>(LogSchema.LoggingEvent.SCHEMA));
+        closeables.add(stream);
+        EventReader reader = new EventReader(stream);
+        if (reader.advance()) {
+          readers.add(reader);
+        }
+      }
+
+      OutputStream os = filePermissions.isEmpty() ? location.getOutputStream()
+                                                  : location.getOutputStream(filePermissions);
+      closeables.add(os);
+      DataFileWriter<GenericRecord> writer =
+        new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(LogSchema.LoggingEvent.SCHEMA));
+      writer.setCodec(CodecFactory.deflateCodec(DEFLATE_LEVEL));
+      writer.setSyncInterval(syncIntervalBytes);
+      writer.create(LogSchema.LoggingEvent.SCHEMA, os);
+
+      long count = 0L;
+      try {
+        while (!readers.isEmpty()) {
+          EventReader reader = readers.poll();
+          writer.append(reader.getRecord());
+          count++;
+          if (reader.advance()) {
+            readers.add(reader);
+          }
+        }
+      } finally {
+        writer.close();
+      }
+      return count;
+    } finally {
+      Collections.reverse(closeables);
+      for (Closeable closeable : closeables) {
+        Closeables.closeQuietly(closeable);
+      }
+    }
+  }
+
+  @Nullable
+  private LogPathIdentifier parseRowKey(String rowKey) {
+    String[] parts = rowKey.split(META_SEPARATOR);
+    if (parts.length != 3 || !rowKey.endsWith(META_SEPARATOR)) {
+      return null;
+    }
+    LogPathIdentifier identifier = new LogPathIdentifier(parts[0], parts[1], parts[2]);
+    return identifier.getRowkey().equals(rowKey) ? identifier : null;
+  }
+
+  private List<Field<?>> getKeyFields(String rowKey, long eventTime, long creationTime) {
+    return ImmutableList.of(Fields.stringField(StoreDefinition.LogFileMetaStore.LOGGING_CONTEXT_FIELD, rowKey),
+                            Fields.longField(StoreDefinition.LogFileMetaStore.EVENT_TIME_FIELD, eventTime),
+                            Fields.longField(StoreDefinition.LogFileMetaStore.CREATION_TIME_FIELD, creationTime));
+  }
+
+  /**
+   * Reads events from a log file, ordered by the timestamp of the current event.
+   */
+  private static final class EventReader implements Comparable<EventReader> {
+    private final DataFileStream<GenericRecord> stream;
+    private GenericRecord record;
+    private long timestamp;
+
+    private EventReader(DataFileStream<GenericRecord> stream) {
+      this.stream = stream;
+    }
+
+    boolean advance() {
+      if (!stream.hasNext()) {
+        return false;
+      }
+      record = stream.next();
+      timestamp = (Long) record.get("timestamp");
+      return true;
+    }
+
+    GenericRecord getRecord() {
+      return record;
+    }
+
+    @Override
+    public int compareTo(EventReader other) {
+      return Long.compare(timestamp, other.timestamp);
+    }
+  }
+
+  /**
+   * A log file recorded in the meta data table.
+   */
+  private static final class FileEntry {
+    private final LogPathIdentifier identifier;
+    private final long eventTime;
+    private final long creationTime;
+    private final Location location;
+
+    private FileEntry(LogPathIdentifier identifier, long eventTime, long creationTime, Location location) {
+      this.identifier = identifier;
+      this.eventTime = eventTime;
+      this.creationTime = creationTime;
+      this.location = location;
+    }
+
+    LogPathIdentifier getIdentifier() {
+      return identifier;
+    }
+
+    long getEventTime() {
+      return eventTime;
+    }
+
+    long getCreationTime() {
+      return creationTime;
+    }
+
+    Location getLocation() {
+      return location;
+    }
+  }
+}
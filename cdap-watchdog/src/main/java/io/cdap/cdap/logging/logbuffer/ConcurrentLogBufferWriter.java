@@ -18,6 +18,9 @@ package io.cdap.cdap.logging.logbuffer;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterables;
+import io.cdap.cdap.api.metrics.MetricsContext;
+import io.cdap.cdap.api.metrics.NoopMetricsContext;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
 import io.cdap.cdap.logging.pipeline.logbuffer.LogBufferProcessorPipeline;
@@ -29,7 +32,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -52,9 +58,15 @@ import javax.annotation.concurrent.ThreadSafe;
  * 5. Log buffer writer returns list of log events with file offset. These events are sent to log processor pipeline
  * for further processing.
  * 6. Set the state of each PendingLogBufferRequest that are written to COMPLETED (succeed/failure).
- * 7. Set the AtomicBoolean flag back to false.
- * 8. If the PendingLogBufferRequest enqueued by this thread is NOT COMPLETED, go back to step 2.
+ * 7. Set the AtomicBoolean flag back to false and wake up the thread of the first request left in the queue, if any.
+ * 8. If the PendingLogBufferRequest enqueued by this thread is NOT COMPLETED, park until it is completed or the
+ * thread is woken up by a writer, then go back to step 2.
  * </pre>
+ *
+ * Requests written in step 4 form a group commit, which is bounded by
+ * {@link Constants.LogBuffer#LOG_BUFFER_GROUP_COMMIT_MAX_BYTES}. If
+ * {@link Constants.LogBuffer#LOG_BUFFER_GROUP_COMMIT_LINGER_MS} is positive, the writer waits up to that long for
+ * more requests to arrive before writing, so that bursts of small requests share a single flush (and fsync).
  */
 @ThreadSafe
 public class ConcurrentLogBufferWriter implements Closeable {
@@ -65,12 +77,23 @@ public class ConcurrentLogBufferWriter implements Closeable {
   private final List<LogBufferProcessorPipeline> pipelines;
   private final AtomicBoolean writerFlag;
   private final AtomicBoolean closed;
+  private final long lingerNanos;
+  private final long maxBatchBytes;
 
   public ConcurrentLogBufferWriter(CConfiguration cConf,
                                    List<LogBufferProcessorPipeline> pipelines, Runnable cleaner) throws IOException {
-    this.pendingRequestQueue = new PendingRequestQueue();
+    this(cConf, pipelines, cleaner, new NoopMetricsContext());
+  }
+
+  public ConcurrentLogBufferWriter(CConfiguration cConf, List<LogBufferProcessorPipeline> pipelines,
+                                   Runnable cleaner, MetricsContext metricsContext) throws IOException {
+    this.maxBatchBytes = cConf.getLong(Constants.LogBuffer.LOG_BUFFER_GROUP_COMMIT_MAX_BYTES, Long.MAX_VALUE);
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(
+      cConf.getLong(Constants.LogBuffer.LOG_BUFFER_GROUP_COMMIT_LINGER_MS, 0L));
+    this.pendingRequestQueue = new PendingRequestQueue(maxBatchBytes, metricsContext);
     this.logBufferWriter = new LogBufferWriter(cConf.get(Constants.LogBuffer.LOG_BUFFER_BASE_DIR),
                                                cConf.getLong(Constants.LogBuffer.LOG_BUFFER_MAX_FILE_SIZE_BYTES),
+                                               cConf.getBoolean(Constants.LogBuffer.LOG_BUFFER_SYNC_ENABLED, false),
                                                cleaner);
     this.pipelines = pipelines;
     this.writerFlag = new AtomicBoolean();
@@ -85,9 +108,11 @@ public class ConcurrentLogBufferWriter implements Closeable {
     PendingLogBufferRequest pendingLogBufferRequest = new PendingLogBufferRequest(request);
     pendingRequestQueue.enqueue(pendingLogBufferRequest);
 
+    // Threads that don't become the writer park instead of spinning, since the writer may linger for more requests.
+    // They are unparked when their request is completed, or when a writer leaves it in the queue.
     while (!pendingLogBufferRequest.isCompleted()) {
       if (!tryWrite()) {
-        Thread.yield();
+        pendingLogBufferRequest.await();
       }
     }
 
@@ -108,9 +133,14 @@ public class ConcurrentLogBufferWriter implements Closeable {
       return false;
     }
     try {
+      if (lingerNanos > 0 && !closed.get()) {
+        pendingRequestQueue.awaitBatch(lingerNanos, maxBatchBytes);
+      }
       pendingRequestQueue.process(logBufferWriter, pipelines);
     } finally {
       writerFlag.set(false);
+      // requests that were not part of this batch are not completed, hence one of their threads has to take over
+      pendingRequestQueue.wakeUpNext();
     }
     return true;
   }
@@ -121,9 +151,9 @@ public class ConcurrentLogBufferWriter implements Closeable {
       return;
     }
     // Flush everything in the queue.
-    // When this thread can grab the writer flag, all pending write requests must be completed since the closed
-    // flag was already set to false.
-    while (!tryWrite()) {
+    // When this thread can grab the writer flag and the queue is drained, all pending write requests must be
+    // completed since the closed flag was already set to false.
+    while (!tryWrite() || !pendingRequestQueue.isEmpty()) {
       Thread.yield();
     }
     logBufferWriter.close();
@@ -137,33 +167,77 @@ public class ConcurrentLogBufferWriter implements Closeable {
 
     private final Queue<PendingLogBufferRequest> writeQueue;
     private final List<PendingLogBufferRequest> inflightRequests;
+    // total size in bytes of the requests in the writeQueue
+    private final AtomicLong pendingBytes;
+    private final long maxBatchBytes;
+    private final MetricsContext metricsContext;
 
-    private PendingRequestQueue() {
+    private PendingRequestQueue(long maxBatchBytes, MetricsContext metricsContext) {
       this.writeQueue = new ConcurrentLinkedQueue<>();
       this.inflightRequests = new ArrayList<>(100);
+      this.pendingBytes = new AtomicLong();
+      this.maxBatchBytes = maxBatchBytes;
+      this.metricsContext = metricsContext;
     }
 
     void enqueue(PendingLogBufferRequest bufferRequest) {
+      pendingBytes.addAndGet(bufferRequest.getSize());
       writeQueue.add(bufferRequest);
     }
 
+    boolean isEmpty() {
+      return writeQueue.isEmpty();
+    }
+
+    /**
+     * Wakes up the thread waiting for the first request in the queue, if there is one. This method must be called
+     * after releasing the writer flag.
+     */
+    void wakeUpNext() {
+      PendingLogBufferRequest next = writeQueue.peek();
+      if (next != null) {
+        next.wakeUp();
+      }
+    }
+
+    /**
+     * Waits until either the pending requests reach the given size or the linger time has passed.
+     * Returns immediately if there is nothing to write. This method must be called while holding the writer flag.
+     */
+    void awaitBatch(long lingerNanos, long batchBytes) {
+      if (pendingBytes.get() == 0) {
+        return;
+      }
+      long deadline = System.nanoTime() + lingerNanos;
+      while (pendingBytes.get() < batchBytes && System.nanoTime() - deadline < 0) {
+        LockSupport.parkNanos(Math.min(TimeUnit.MICROSECONDS.toNanos(100), lingerNanos));
+      }
+    }
+
     void process(LogBufferWriter writer, List<LogBufferProcessorPipeline> pipelines) {
       // Capture all current events.
       // The reason for capturing instead of using a live iterator is to avoid the possible case of infinite write
       // time. The number of requests in the queue is bounded by the number of threads that call this method.
       // Since this method is expected to be called from a http handler thread, that is bounded by
       // the thread pool size used by the http service.
+      // The batch is capped by maxBatchBytes, with at least one request per batch. Requests left in the queue
+      // are picked up by the next writer.
       inflightRequests.clear();
+      long batchBytes = 0;
       PendingLogBufferRequest request = writeQueue.poll();
       while (request != null) {
         inflightRequests.add(request);
-        request = writeQueue.poll();
+        batchBytes += request.getSize();
+        request = batchBytes < maxBatchBytes ? writeQueue.poll() : null;
       }
+      pendingBytes.addAndGet(-batchBytes);
 
       try {
         if (!inflightRequests.isEmpty()) {
           // persist logs in append only WAL
+          long startNanos = System.nanoTime();
           Iterable<LogBufferEvent> events = writer.write(new PendingEventIterator(inflightRequests.iterator()));
+          emitBatchMetrics(events, batchBytes, System.nanoTime() - startNanos);
           for (LogBufferProcessorPipeline pipeline : pipelines) {
             pipeline.processLogEvents(events.iterator());
           }
@@ -177,6 +251,13 @@ public class ConcurrentLogBufferWriter implements Closeable {
       }
     }
 
+    private void emitBatchMetrics(Iterable<LogBufferEvent> events, long batchBytes, long flushNanos) {
+      metricsContext.gauge(Constants.Metrics.Name.Log.BUFFER_BATCH_SIZE_BYTES, batchBytes);
+      metricsContext.gauge(Constants.Metrics.Name.Log.BUFFER_BATCH_EVENTS_COUNT, Iterables.size(events));
+      metricsContext.gauge(Constants.Metrics.Name.Log.BUFFER_FLUSH_LATENCY_MS,
+                           TimeUnit.NANOSECONDS.toMillis(flushNanos));
+    }
+
     /**
      * Marks all inflight requests as collected through the {@link Iterator#next()} method as completed.
      * This method must be called while holding the writer flag.
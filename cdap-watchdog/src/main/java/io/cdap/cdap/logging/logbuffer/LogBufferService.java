@@ -17,6 +17,7 @@
 package io.cdap.cdap.logging.logbuffer;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.common.util.concurrent.Futures;
@@ -25,6 +26,7 @@ import com.google.common.util.concurrent.Service;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import io.cdap.cdap.api.logging.AppenderContext;
+import io.cdap.cdap.api.metrics.MetricsCollectionService;
 import io.cdap.cdap.common.HttpExceptionHandler;
 import io.cdap.cdap.common.conf.CConfiguration;
 import io.cdap.cdap.common.conf.Constants;
@@ -43,6 +45,7 @@ import io.cdap.cdap.logging.meta.CheckpointManagerFactory;
 import io.cdap.cdap.logging.pipeline.LogProcessorPipelineContext;
 import io.cdap.cdap.logging.pipeline.logbuffer.LogBufferPipelineConfig;
 import io.cdap.cdap.logging.pipeline.logbuffer.LogBufferProcessorPipeline;
+import io.cdap.cdap.proto.id.NamespaceId;
 import io.cdap.http.NettyHttpService;
 import org.apache.twill.common.Cancellable;
 import org.apache.twill.discovery.Discoverable;
@@ -67,6 +70,7 @@ public class LogBufferService extends AbstractIdleService {
   private final CConfiguration cConf;
   private final Provider<AppenderContext> contextProvider;
   private final CheckpointManagerFactory checkpointManagerFactory;
+  private final MetricsCollectionService metricsCollectionService;
   private final List<Service> pipelines = new ArrayList<>();
   private final List<CheckpointManager<LogBufferFileOffset>> checkpointManagers = new ArrayList<>();
 
@@ -78,8 +82,10 @@ public class LogBufferService extends AbstractIdleService {
   @Inject
   public LogBufferService(CConfiguration cConf, DiscoveryService discoveryService,
                           CheckpointManagerFactory checkpointManagerFactory,
-                          Provider<AppenderContext> contextProvider) {
+                          Provider<AppenderContext> contextProvider,
+                          MetricsCollectionService metricsCollectionService) {
     this.cConf = cConf;
+    this.metricsCollectionService = metricsCollectionService;
     this.contextProvider = contextProvider;
     this.checkpointManagerFactory = checkpointManagerFactory;
     this.discoveryService = discoveryService;
@@ -103,7 +109,12 @@ public class LogBufferService extends AbstractIdleService {
     // create concurrent writer
     concurrentWriter = new ConcurrentLogBufferWriter(cConf, bufferPipelines,
                                                      new LogBufferCleaner(cConf, checkpointManagers,
-                                                                          startCleanup));
+                                                                          startCleanup),
+                                                     metricsCollectionService.getContext(ImmutableMap.of(
+                                                       Constants.Metrics.Tag.NAMESPACE,
+                                                       NamespaceId.SYSTEM.getNamespace(),
+                                                       Constants.Metrics.Tag.COMPONENT,
+                                                       Constants.Service.LOG_BUFFER_SERVICE)));
 
     // create and start http service
     httpService = createHttpService();
@@ -20,19 +20,18 @@ import com.google.common.io.Closeables;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.cdap.logging.serialize.LoggingEventSerializer;
 import org.apache.twill.common.Threads;
-import org.apache.twill.filesystem.LocalLocationFactory;
-import org.apache.twill.filesystem.Location;
-import org.apache.twill.filesystem.LocationFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -50,19 +49,25 @@ import java.util.concurrent.Future;
  * <length> <log_event>
  * length = Avro encoded int32 for size in bytes for the log event
  * log_event = Avro encoded log bytes
+ *
+ * Each call to {@link #write(Iterator)} is a single group commit: all the given events are appended and flushed
+ * together and, if sync is enabled, the file is fsync-ed once for the whole batch.
  */
 public class LogBufferWriter implements Flushable, Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(LogBufferWriter.class);
   private static final String FILE_SUFFIX = ".buf";
   private final LoggingEventSerializer logEventSerializer;
-  private final LocationFactory locationFactory;
+  private final File baseDir;
   private final long maxFileSizeInBytes;
+  private final boolean syncEnabled;
   private final Runnable cleaner;
   private final ExecutorService executorService;
   private Future<?> cleanerFuture;
 
   // output stream to write to
   private OutputStream currOutputStream;
+  // channel of the current file, used for fsync
+  private FileChannel currChannel;
   // offset in current open file
   private long currOffset;
   // cache to store monotonically increasing id for file id
@@ -70,12 +75,17 @@ public class LogBufferWriter implements Flushable, Closeable {
   private long writtenBytes;
 
   public LogBufferWriter(String logBufferBaseDir, long maxFileSize, Runnable cleaner) throws IOException {
-    File baseDir = new File(logBufferBaseDir);
+    this(logBufferBaseDir, maxFileSize, false, cleaner);
+  }
+
+  public LogBufferWriter(String logBufferBaseDir, long maxFileSize, boolean syncEnabled,
+                         Runnable cleaner) throws IOException {
+    this.baseDir = new File(logBufferBaseDir);
     // make sure base dir already exists, if not create it.
     Files.createDirectories(baseDir.toPath());
-    this.locationFactory = new LocalLocationFactory(baseDir);
     // max file size after which rotation should happen.
     this.maxFileSizeInBytes = maxFileSize;
+    this.syncEnabled = syncEnabled;
     this.cleaner = cleaner;
     // Mark cleaner future as completed when its initialized
     this.cleanerFuture =  CompletableFuture.completedFuture(0);
@@ -84,7 +94,7 @@ public class LogBufferWriter implements Flushable, Closeable {
 
     // scan file names under base dir and get next monotonically increasing file id
     this.currFileId = getNextFileId(baseDir);
-    this.currOutputStream = new BufferedOutputStream(locationFactory.create(getFileName(currFileId)).getOutputStream());
+    openFile(currFileId);
   }
 
   /**
@@ -101,7 +111,7 @@ public class LogBufferWriter implements Flushable, Closeable {
       LogBufferFileOffset offset = write(event);
       offsets.add(new LogBufferEvent(logEventSerializer.fromBytes(ByteBuffer.wrap(event)), event.length, offset));
     }
-    currOutputStream.flush();
+    flush();
     return offsets;
   }
 
@@ -129,7 +139,7 @@ public class LogBufferWriter implements Flushable, Closeable {
 
     // If number of written bytes exceed the max file size, then rotate the file
     if (writtenBytes >= maxFileSizeInBytes) {
-      currOutputStream = new BufferedOutputStream(rotateFile(currOutputStream).getOutputStream());
+      rotateFile();
     }
 
     // the file id and file pos in offset is where current event is written.
@@ -139,12 +149,15 @@ public class LogBufferWriter implements Flushable, Closeable {
   @Override
   public void flush() throws IOException {
     currOutputStream.flush();
+    if (syncEnabled) {
+      currChannel.force(false);
+    }
   }
 
   @Override
   public void close() throws IOException {
     try {
-      currOutputStream.flush();
+      flush();
     } catch (IOException e) {
       LOG.warn("Error while flushing log buffer output stream.", e);
     }
@@ -173,25 +186,33 @@ public class LogBufferWriter implements Flushable, Closeable {
     return maxFileId + 1;
   }
 
+  /**
+   * Opens the log buffer file with the given id for appending.
+   */
+  private void openFile(long fileId) throws IOException {
+    FileOutputStream fos = new FileOutputStream(new File(baseDir, getFileName(fileId)));
+    currChannel = fos.getChannel();
+    currOutputStream = new BufferedOutputStream(fos);
+  }
+
   /**
    * Rotates the log buffer file.
    */
-  private Location rotateFile(OutputStream currOutputStream) throws IOException {
-    currOutputStream.flush();
-    // close current location output stream
+  private void rotateFile() throws IOException {
+    flush();
+    // close current file output stream
     Closeables.closeQuietly(currOutputStream);
 
     writtenBytes = 0;
     currOffset = 0;
     // update current file id to next monotonically increasing file id
     currFileId = currFileId + 1;
-    Location rotatedLocation = locationFactory.create(getFileName(currFileId));
+    openFile(currFileId);
     // executes log buffer cleaner runnable. Only submit cleaner thread if future is complete. This is because if the
     // rotation is happening faster than clean up, there can be multiple clean up tasks in executorService.
     if (cleanerFuture.isDone()) {
       cleanerFuture = executorService.submit(cleaner);
     }
-    return rotatedLocation;
   }
 
   private String getFileName(long fileId) {
@@ -17,6 +17,7 @@
 package io.cdap.cdap.logging.logbuffer;
 
 import java.util.Iterator;
+import java.util.concurrent.locks.LockSupport;
 import javax.annotation.Nullable;
 
 /**
@@ -24,11 +25,27 @@ import javax.annotation.Nullable;
  */
 public class PendingLogBufferRequest {
   private final LogBufferRequest originalRequest;
-  private boolean completed;
-  private Throwable failureCause;
+  private final long size;
+  // the thread that waits for this request to complete
+  private final Thread thread;
+  private volatile boolean completed;
+  private volatile Throwable failureCause;
 
   PendingLogBufferRequest(LogBufferRequest originalRequest) {
     this.originalRequest = originalRequest;
+    this.thread = Thread.currentThread();
+    long size = 0;
+    for (byte[] event : originalRequest) {
+      size += event.length;
+    }
+    this.size = size;
+  }
+
+  /**
+   * Returns the total size in bytes of all log events in this request.
+   */
+  long getSize() {
+    return size;
   }
 
   boolean isCompleted() {
@@ -48,8 +65,26 @@ public class PendingLogBufferRequest {
   }
 
   void completed(@Nullable Throwable failureCause) {
-    completed = true;
     this.failureCause = failureCause;
+    completed = true;
+    wakeUp();
+  }
+
+  /**
+   * Parks the current thread until this request is completed or {@link #wakeUp()} is called. It may also return
+   * spuriously, hence the caller has to check the completion state again.
+   */
+  void await() {
+    if (!completed) {
+      LockSupport.park(this);
+    }
+  }
+
+  /**
+   * Wakes up the thread that created this request, if it is waiting in {@link #await()}.
+   */
+  void wakeUp() {
+    LockSupport.unpark(thread);
   }
 
   public Iterator<byte[]> getIterator() {
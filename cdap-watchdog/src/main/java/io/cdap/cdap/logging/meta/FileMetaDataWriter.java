@@ -18,6 +18,7 @@ package io.cdap.cdap.logging.meta;
 
 import com.google.common.collect.ImmutableList;
 import io.cdap.cdap.logging.appender.system.LogPathIdentifier;
+import io.cdap.cdap.logging.write.LogLocation;
 import io.cdap.cdap.spi.data.StructuredTable;
 import io.cdap.cdap.spi.data.table.field.Field;
 import io.cdap.cdap.spi.data.table.field.Fields;
@@ -29,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -38,6 +40,12 @@ public class FileMetaDataWriter {
 
   private static final Logger LOG = LoggerFactory.getLogger(FileMetaDataWriter.class);
 
+  /**
+   * Prefix of the logging context under which the meta data of replaced log files is kept until they are deleted.
+   * No reader lists the files of such a logging context.
+   */
+  public static final String REPLACED_PREFIX = "replaced:";
+
   private final TransactionRunner transactionRunner;
 
   public FileMetaDataWriter(TransactionRunner transactionRunner) {
@@ -70,4 +78,53 @@ public class FileMetaDataWriter {
       table.upsert(fields);
     }, IOException.class);
   }
+
+  /**
+   * Atomically replaces the meta data of a set of log files with the meta data of a single log file, which
+   * contains all the events of the replaced files. Readers see either the old files or the new file, never both.
+   * The replaced files are not deleted, since readers may still read them. Instead, their meta data is moved to
+   * the logging context {@link #REPLACED_PREFIX} followed by the identifier, with the given creation time, so that
+   * the log cleaner deletes them once that creation time is beyond the log retention.
+   *
+   * @param identifier logging context identifier.
+   * @param replaced log files being replaced.
+   * @param eventTimeMs start log time associated with the new file.
+   * @param currentTimeMs creation time associated with the new file.
+   * @param location new log file location.
+   * @param replacedCreationTimeMs creation time to record for the replaced files.
+   */
+  public void replaceMetaData(final LogPathIdentifier identifier,
+                              final List<LogLocation> replaced,
+                              final long eventTimeMs,
+                              final long currentTimeMs,
+                              final Location location,
+                              final long replacedCreationTimeMs) throws Exception {
+    LOG.debug("Replacing meta data of {} files for logging context {} with startTimeMs {} sequence Id {} and " +
+                "location {}", replaced.size(), identifier.getRowkey(), eventTimeMs, currentTimeMs, location);
+    TransactionRunners.run(transactionRunner, context -> {
+      StructuredTable table = context.getTable(StoreDefinition.LogFileMetaStore.LOG_FILE_META);
+      String replacedRowkey = REPLACED_PREFIX + identifier.getRowkey();
+      long replacedTimeMs = replacedCreationTimeMs;
+      for (LogLocation logLocation : replaced) {
+        table.delete(getKeyFields(identifier.getRowkey(), logLocation.getEventTimeMs(),
+                                  logLocation.getFileCreationTimeMs()));
+        // the creation time is incremented for every file, so that files with the same event time don't collide
+        List<Field<?>> replacedFields = new ArrayList<>(getKeyFields(replacedRowkey, logLocation.getEventTimeMs(),
+                                                                     replacedTimeMs++));
+        replacedFields.add(Fields.stringField(StoreDefinition.LogFileMetaStore.FILE_FIELD,
+                                              logLocation.getLocation().toURI().getPath()));
+        table.upsert(replacedFields);
+      }
+
+      List<Field<?>> fields = new ArrayList<>(getKeyFields(identifier.getRowkey(), eventTimeMs, currentTimeMs));
+      fields.add(Fields.stringField(StoreDefinition.LogFileMetaStore.FILE_FIELD, location.toURI().getPath()));
+      table.upsert(fields);
+    }, IOException.class);
+  }
+
+  private List<Field<?>> getKeyFields(String rowkey, long eventTimeMs, long currentTimeMs) {
+    return ImmutableList.of(Fields.stringField(StoreDefinition.LogFileMetaStore.LOGGING_CONTEXT_FIELD, rowkey),
+                            Fields.longField(StoreDefinition.LogFileMetaStore.EVENT_TIME_FIELD, eventTimeMs),
+                            Fields.longField(StoreDefinition.LogFileMetaStore.CREATION_TIME_FIELD, currentTimeMs));
+  }
 }
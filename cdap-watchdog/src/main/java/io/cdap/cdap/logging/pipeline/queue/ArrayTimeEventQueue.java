@@ -0,0 +1,446 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.pipeline.queue;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A queue for storing time based events with offsets association. It has the same ordering semantics as
+ * {@link TimeEventQueue}, that is events are iterated in timestamp order, followed by partition order,
+ * followed by offset order, but avoids allocating tree nodes and wrapper objects per event.
+ *
+ * Events are stored in parallel arrays indexed by slot, which are recycled through a free list.
+ * Ordering is maintained by a binary min-heap of slot indices. For each partition, offsets are kept sorted
+ * in a ring buffer, which in the common case of offsets arriving in increasing order is appended to at the tail
+ * and trimmed at the head.
+ *
+ * Iterating without removing pops the skipped events off the heap; they are put back on the next call to
+ * {@link #add} or {@link #iterator()}. The queue must not be modified while being iterated, except through
+ * {@link EventIterator#remove()}.
+ *
+ * @param <EVENT> Type of event stored in the queue.
+ * @param <OFFSET> Type of event offset associated with the event.
+ */
+@NotThreadSafe
+public final class ArrayTimeEventQueue<EVENT, OFFSET extends Comparable<OFFSET>> implements Iterable<EVENT> {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Int2ObjectMap<PartitionOffsets> partitionOffsets;
+
+  // Per slot event data
+  private long[] timestamps;
+  private int[] partitions;
+  private int[] sizes;
+  private Object[] offsets;
+  private Object[] events;
+
+  // Stack of free slots
+  private int[] freeSlots;
+  private int freeCount;
+  // Number of slots ever allocated
+  private int allocated;
+
+  // Min-heap of slots, ordered by (timestamp, partition, offset)
+  private int[] heap;
+  private int heapSize;
+
+  // Slots popped from the heap by iteration without removal, in ascending order
+  private int[] skipped;
+  private int skippedCount;
+
+  private long totalSize;
+  private int modCount;
+
+  public ArrayTimeEventQueue(Iterable<Integer> partitions) {
+    this.partitionOffsets = new Int2ObjectArrayMap<>();
+    for (int partition : partitions) {
+      partitionOffsets.put(partition, new PartitionOffsets());
+    }
+
+    this.timestamps = new long[INITIAL_CAPACITY];
+    this.partitions = new int[INITIAL_CAPACITY];
+    this.sizes = new int[INITIAL_CAPACITY];
+    this.offsets = new Object[INITIAL_CAPACITY];
+    this.events = new Object[INITIAL_CAPACITY];
+    this.freeSlots = new int[INITIAL_CAPACITY];
+    this.heap = new int[INITIAL_CAPACITY];
+    this.skipped = new int[INITIAL_CAPACITY];
+  }
+
+  public void add(EVENT event, long eventTimestamp, int eventSize, int partition, OFFSET offset) {
+    PartitionOffsets partitionOffsets = getOffsets(partition);
+    restoreSkipped();
+    modCount++;
+
+    int idx = partitionOffsets.indexOf(offset);
+    if (idx >= 0) {
+      int existing = partitionOffsets.getSlot(idx);
+      if (existing >= 0) {
+        // Same event is already in the queue
+        if (timestamps[existing] == eventTimestamp) {
+          return;
+        }
+        throw new IllegalArgumentException("Adding different event with the same offset " + offset + ", " + event);
+      }
+    }
+
+    int slot = allocateSlot();
+    timestamps[slot] = eventTimestamp;
+    partitions[slot] = partition;
+    sizes[slot] = eventSize;
+    offsets[slot] = offset;
+    events[slot] = event;
+
+    if (idx >= 0) {
+      partitionOffsets.setSlot(idx, slot);
+    } else {
+      partitionOffsets.insert(-idx - 1, offset, slot);
+    }
+    heapPush(slot);
+    totalSize += eventSize;
+  }
+
+  /**
+   * Returns the event in the queue with the smallest timestamp.
+   */
+  @SuppressWarnings("unchecked")
+  public EVENT first() {
+    if (skippedCount > 0) {
+      return (EVENT) events[skipped[0]];
+    }
+    if (heapSize == 0) {
+      throw new NoSuchElementException();
+    }
+    return (EVENT) events[heap[0]];
+  }
+
+  /**
+   * Returns {@code true} if there is no event in the queue.
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns {@code true} if there is no event for the given partition in the queue.
+   */
+  public boolean isEmpty(int partition) {
+    return getOffsets(partition).isEmpty();
+  }
+
+  /**
+   * Returns the number of events in the queue.
+   */
+  public int size() {
+    return heapSize + skippedCount;
+  }
+
+  /**
+   * Returns the size of all events in the queue.
+   */
+  public long getEventSize() {
+    return totalSize;
+  }
+
+  /**
+   * Returns the smallest offset stored for the given partition.
+   */
+  @SuppressWarnings("unchecked")
+  public OFFSET getSmallestOffset(int partition) {
+    PartitionOffsets partitionOffsets = getOffsets(partition);
+    if (partitionOffsets.isEmpty()) {
+      throw new IllegalStateException("Queue is empty");
+    }
+    return (OFFSET) partitionOffsets.first();
+  }
+
+  @Override
+  public TimeEventQueue.EventIterator<EVENT, OFFSET> iterator() {
+    restoreSkipped();
+    return new TimeEventQueue.EventIterator<EVENT, OFFSET>() {
+
+      private final int expectedModCount = modCount;
+      // The slot returned by the last call to next(), which is always at the top of the heap until removed
+      private int current = -1;
+
+      @Override
+      public boolean hasNext() {
+        return heapSize > (current < 0 ? 0 : 1);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public EVENT next() {
+        checkModCount();
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if (current >= 0) {
+          // The last event was not removed, move it out of the way
+          if (skippedCount == skipped.length) {
+            skipped = Arrays.copyOf(skipped, skipped.length * 2);
+          }
+          skipped[skippedCount++] = heapPop();
+        }
+        current = heap[0];
+        return (EVENT) events[current];
+      }
+
+      @Override
+      public void remove() {
+        checkModCount();
+        if (current < 0) {
+          throw new IllegalStateException("The next() method must be called first.");
+        }
+        heapPop();
+        PartitionOffsets partitionOffsets = ArrayTimeEventQueue.this.partitionOffsets.get(partitions[current]);
+        partitionOffsets.remove(partitionOffsets.indexOf(offsets[current]));
+        totalSize -= sizes[current];
+        freeSlot(current);
+        current = -1;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public OFFSET getOffset() {
+        if (current < 0) {
+          throw new IllegalStateException("The next() method must be called first.");
+        }
+        return (OFFSET) offsets[current];
+      }
+
+      @Override
+      public int getPartition() {
+        if (current < 0) {
+          throw new IllegalStateException("The next() method must be called first.");
+        }
+        return partitions[current];
+      }
+
+      private void checkModCount() {
+        if (expectedModCount != modCount) {
+          throw new ConcurrentModificationException();
+        }
+      }
+    };
+  }
+
+  private PartitionOffsets getOffsets(int partition) {
+    PartitionOffsets offsets = partitionOffsets.get(partition);
+    if (offsets == null) {
+      throw new IllegalArgumentException("Partition " + partition +
+                                           " is not in allowed partitions " + partitionOffsets.keySet());
+    }
+    return offsets;
+  }
+
+  /**
+   * Puts slots skipped by iteration back to the heap.
+   */
+  private void restoreSkipped() {
+    for (int i = 0; i < skippedCount; i++) {
+      heapPush(skipped[i]);
+    }
+    skippedCount = 0;
+  }
+
+  private int allocateSlot() {
+    if (freeCount > 0) {
+      return freeSlots[--freeCount];
+    }
+    if (allocated == timestamps.length) {
+      int capacity = timestamps.length * 2;
+      timestamps = Arrays.copyOf(timestamps, capacity);
+      partitions = Arrays.copyOf(partitions, capacity);
+      sizes = Arrays.copyOf(sizes, capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+      events = Arrays.copyOf(events, capacity);
+      freeSlots = Arrays.copyOf(freeSlots, capacity);
+      heap = Arrays.copyOf(heap, capacity);
+    }
+    return allocated++;
+  }
+
+  private void freeSlot(int slot) {
+    // Release references so that events can be garbage collected
+    offsets[slot] = null;
+    events[slot] = null;
+    freeSlots[freeCount++] = slot;
+  }
+
+  @SuppressWarnings("unchecked")
+  private int compare(int slot1, int slot2) {
+    int cmp = Long.compare(timestamps[slot1], timestamps[slot2]);
+    if (cmp != 0) {
+      return cmp;
+    }
+    cmp = Integer.compare(partitions[slot1], partitions[slot2]);
+    if (cmp != 0) {
+      return cmp;
+    }
+    return ((OFFSET) offsets[slot1]).compareTo((OFFSET) offsets[slot2]);
+  }
+
+  private void heapPush(int slot) {
+    int idx = heapSize++;
+    while (idx > 0) {
+      int parent = (idx - 1) >>> 1;
+      if (compare(heap[parent], slot) <= 0) {
+        break;
+      }
+      heap[idx] = heap[parent];
+      idx = parent;
+    }
+    heap[idx] = slot;
+  }
+
+  private int heapPop() {
+    int top = heap[0];
+    int last = heap[--heapSize];
+    int idx = 0;
+    int half = heapSize >>> 1;
+    while (idx < half) {
+      int child = (idx << 1) + 1;
+      int right = child + 1;
+      if (right < heapSize && compare(heap[right], heap[child]) < 0) {
+        child = right;
+      }
+      if (compare(last, heap[child]) <= 0) {
+        break;
+      }
+      heap[idx] = heap[child];
+      idx = child;
+    }
+    heap[idx] = last;
+    return top;
+  }
+
+  /**
+   * Sorted offsets of a partition, stored in a ring buffer together with the slot of the event of each offset.
+   * Removed offsets that are not at the head are kept with slot {@code -1} until they are trimmed or compacted,
+   * so that the head is always a live offset.
+   */
+  private static final class PartitionOffsets {
+    private Object[] offsets = new Object[INITIAL_CAPACITY];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    Object first() {
+      return offsets[head];
+    }
+
+    int getSlot(int idx) {
+      return slots[position(idx)];
+    }
+
+    void setSlot(int idx, int slot) {
+      slots[position(idx)] = slot;
+    }
+
+    /**
+     * Returns the index of the given offset, or {@code (-(insertion point) - 1)} if it is not found.
+     */
+    @SuppressWarnings("unchecked")
+    int indexOf(Object offset) {
+      Comparable<Object> key = (Comparable<Object>) offset;
+      // Fast path for offsets that are larger than all existing ones
+      if (size == 0 || key.compareTo(offsets[position(size - 1)]) > 0) {
+        return -size - 1;
+      }
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int cmp = key.compareTo(offsets[position(mid)]);
+        if (cmp > 0) {
+          low = mid + 1;
+        } else if (cmp < 0) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -low - 1;
+    }
+
+    void insert(int idx, Object offset, int slot) {
+      if (size == offsets.length) {
+        grow();
+        // Compaction may have shifted the insertion point
+        idx = -indexOf(offset) - 1;
+      }
+      // Shift entries after the insertion point to the right
+      for (int i = size; i > idx; i--) {
+        int to = position(i);
+        int from = position(i - 1);
+        offsets[to] = offsets[from];
+        slots[to] = slots[from];
+      }
+      int pos = position(idx);
+      offsets[pos] = offset;
+      slots[pos] = slot;
+      size++;
+    }
+
+    void remove(int idx) {
+      slots[position(idx)] = -1;
+      // Trim removed entries from the head
+      while (size > 0 && slots[head] < 0) {
+        offsets[head] = null;
+        head = (head + 1) & (offsets.length - 1);
+        size--;
+      }
+    }
+
+    /**
+     * Doubles the capacity of the ring buffer, dropping removed entries.
+     */
+    private void grow() {
+      Object[] newOffsets = new Object[offsets.length * 2];
+      int[] newSlots = new int[offsets.length * 2];
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        int pos = position(i);
+        if (slots[pos] >= 0) {
+          newOffsets[count] = offsets[pos];
+          newSlots[count] = slots[pos];
+          count++;
+        }
+      }
+      offsets = newOffsets;
+      slots = newSlots;
+      head = 0;
+      size = count;
+    }
+
+    private int position(int idx) {
+      return (head + idx) & (offsets.length - 1);
+    }
+  }
+}
@@ -32,7 +32,8 @@ import java.util.Iterator;
 import java.util.Map;
 
 /**
- * The {@link TimeEventQueue} processor to enqueue the log events to {@link TimeEventQueue}, and process them.
+ * The {@link ArrayTimeEventQueue} processor to enqueue the log events to {@link ArrayTimeEventQueue},
+ * and process them.
  * @param <OFFSET> type of the offset
  */
 public class TimeEventQueueProcessor<OFFSET extends Comparable<OFFSET>> {
@@ -41,7 +42,7 @@ public class TimeEventQueueProcessor<OFFSET extends Comparable<OFFSET>> {
   private static final Logger OUTAGE_LOG =
     Loggers.sampling(LOG, LogSamplers.perMessage(() -> LogSamplers.limitRate(60000)));
   private static final double MIN_FREE_FACTOR = 0.5d;
-  private final TimeEventQueue<ILoggingEvent, OFFSET> eventQueue;
+  private final ArrayTimeEventQueue<ILoggingEvent, OFFSET> eventQueue;
   private final LogProcessorPipelineContext context;
   private final MetricsContext metricsContext;
   private final long maxBufferSize;
@@ -56,7 +57,7 @@ public class TimeEventQueueProcessor<OFFSET extends Comparable<OFFSET>> {
     this.maxBufferSize = maxBufferSize;
     this.eventDelayMillis = eventDelayMillis;
     this.metricsContext = context;
-    this.eventQueue = new TimeEventQueue<>(partitions);
+    this.eventQueue = new ArrayTimeEventQueue<>(partitions);
   }
 
   /**
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.cdap.cdap.api.metrics.NoopMetricsContext;
+import io.cdap.cdap.common.logging.LoggingContext;
+import io.cdap.cdap.common.service.RetryStrategies;
+import io.cdap.cdap.logging.context.WorkerLoggingContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit-test for {@link AbstractLogPublisher}.
+ */
+public class AbstractLogPublisherTest {
+
+  private static final LoggingContext LOGGING_CONTEXT = new WorkerLoggingContext("ns", "app", "worker", "run", "0");
+
+  @Test
+  public void testBatchLinger() throws Exception {
+    TestLogPublisher publisher = new TestLogPublisher(100, 10, TimeUnit.MINUTES.toMillis(1),
+                                                      AbstractLogPublisher.QueueFullPolicy.BLOCK);
+    publisher.startAndWait();
+    try {
+      // Messages added one by one should be published as one batch once the batch is full
+      for (int i = 0; i < 10; i++) {
+        publisher.addMessage(createMessage("message " + i));
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+      waitForPublished(publisher, 10);
+      Assert.assertEquals(1, publisher.batches.size());
+      Assert.assertEquals(10, publisher.batches.get(0).size());
+    } finally {
+      publisher.stopAndWait();
+    }
+  }
+
+  @Test
+  public void testDropWhenFull() throws Exception {
+    TestLogPublisher publisher = new TestLogPublisher(5, 0, 0L, AbstractLogPublisher.QueueFullPolicy.DROP);
+
+    // The publisher is not started, hence messages beyond the queue size are dropped without blocking
+    for (int i = 0; i < 10; i++) {
+      publisher.addMessage(createMessage("message " + i));
+    }
+
+    publisher.startAndWait();
+    try {
+      waitForPublished(publisher, 5);
+    } finally {
+      publisher.stopAndWait();
+    }
+    Assert.assertEquals(5, publisher.getPublishedCount());
+  }
+
+  private void waitForPublished(TestLogPublisher publisher, int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (publisher.getPublishedCount() < count && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    Assert.assertEquals(count, publisher.getPublishedCount());
+  }
+
+  private LogMessage createMessage(String message) {
+    LoggingEvent event = new LoggingEvent();
+    event.setLevel(Level.INFO);
+    event.setLoggerName("test.logger");
+    event.setMessage(message);
+    event.setTimeStamp(System.currentTimeMillis());
+    return new LogMessage(event, LOGGING_CONTEXT);
+  }
+
+  /**
+   * A {@link AbstractLogPublisher} that records the published batches.
+   */
+  private static final class TestLogPublisher extends AbstractLogPublisher<String> {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    TestLogPublisher(int queueSize, int batchSize, long lingerMillis, QueueFullPolicy queueFullPolicy) {
+      super(queueSize, RetryStrategies.noRetry(), batchSize, lingerMillis, queueFullPolicy, new NoopMetricsContext());
+    }
+
+    @Override
+    protected String createMessage(LogMessage logMessage) {
+      return logMessage.getFormattedMessage();
+    }
+
+    @Override
+    protected void publish(List<String> logMessages) {
+      if (!logMessages.isEmpty()) {
+        batches.add(new CopyOnWriteArrayList<>(logMessages));
+      }
+    }
+
+    int getPublishedCount() {
+      return batches.stream().mapToInt(List::size).sum();
+    }
+  }
+}
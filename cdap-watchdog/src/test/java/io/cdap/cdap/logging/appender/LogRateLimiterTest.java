@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.appender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.cdap.cdap.api.metrics.MetricsContext;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.common.logging.LoggingContext;
+import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
+import io.cdap.cdap.logging.context.WorkerLoggingContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit-test for {@link LogRateLimiter}.
+ */
+public class LogRateLimiterTest {
+
+  @Test
+  public void testDisabled() {
+    LogRateLimiter rateLimiter = new LogRateLimiter(CConfiguration.create(), new NoOpMetricsCollectionService());
+    Assert.assertFalse(rateLimiter.isEnabled());
+  }
+
+  @Test
+  public void testRateLimit() {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT, 10);
+    cConf.setInt(Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO, 5);
+    cConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT_SUMMARY_INTERVAL_SECONDS, 1);
+
+    AtomicLong nanoTime = new AtomicLong();
+    LogRateLimiter rateLimiter = new LogRateLimiter(cConf, new NoOpMetricsCollectionService(), nanoTime::get);
+    Assert.assertTrue(rateLimiter.isEnabled());
+
+    LoggingContext worker1 = new WorkerLoggingContext("ns1", "app1", "worker1", "run1", "0");
+    LoggingContext worker2 = new WorkerLoggingContext("ns1", "app1", "worker2", "run1", "0");
+
+    // The first 10 events are within the burst
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(rateLimiter.tryAcquire(createMessage(worker1, Level.INFO)));
+    }
+
+    // After that, only one out of every 5 events is published
+    int published = 0;
+    for (int i = 0; i < 100; i++) {
+      if (rateLimiter.tryAcquire(createMessage(worker1, Level.INFO))) {
+        published++;
+      }
+    }
+    Assert.assertEquals(20, published);
+
+    // Warnings are always published
+    Assert.assertTrue(rateLimiter.tryAcquire(createMessage(worker1, Level.WARN)));
+
+    // Other programs have their own limit
+    Assert.assertTrue(rateLimiter.tryAcquire(createMessage(worker2, Level.INFO)));
+
+    // No summary before the summary interval passed
+    Assert.assertNull(rateLimiter.getDroppedSummary(createMessage(worker1, Level.INFO)));
+
+    // After one second, the bucket is refilled and the dropped events are summarized
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(rateLimiter.tryAcquire(createMessage(worker1, Level.INFO)));
+    }
+    LogMessage summary = rateLimiter.getDroppedSummary(createMessage(worker1, Level.INFO));
+    Assert.assertNotNull(summary);
+    Assert.assertEquals(Level.WARN, summary.getLevel());
+    Assert.assertTrue(summary.getFormattedMessage().startsWith("Dropped 80 log events"));
+    Assert.assertNull(rateLimiter.getDroppedSummary(createMessage(worker2, Level.INFO)));
+  }
+
+  @Test
+  public void testNamespaceRateLimit() {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.setLong(LogRateLimiter.getNamespaceRateKey("ns1"), 1);
+    cConf.setInt(Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO, 0);
+
+    AtomicLong nanoTime = new AtomicLong();
+    LogRateLimiter rateLimiter = new LogRateLimiter(cConf, new NoOpMetricsCollectionService(), nanoTime::get);
+    Assert.assertTrue(rateLimiter.isEnabled());
+
+    LoggingContext limited = new WorkerLoggingContext("ns1", "app1", "worker1", "run1", "0");
+    LoggingContext unlimited = new WorkerLoggingContext("ns2", "app1", "worker1", "run1", "0");
+
+    Assert.assertTrue(rateLimiter.tryAcquire(createMessage(limited, Level.INFO)));
+    Assert.assertFalse(rateLimiter.tryAcquire(createMessage(limited, Level.INFO)));
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(rateLimiter.tryAcquire(createMessage(unlimited, Level.INFO)));
+    }
+  }
+
+  @Test
+  public void testDroppedMetricTags() {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT, 1);
+    cConf.setInt(Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO, 0);
+
+    List<Map<String, String>> contexts = new ArrayList<>();
+    NoOpMetricsCollectionService metricsCollectionService = new NoOpMetricsCollectionService() {
+      @Override
+      public MetricsContext getContext(Map<String, String> tags) {
+        contexts.add(tags);
+        return super.getContext(tags);
+      }
+    };
+    LogRateLimiter rateLimiter = new LogRateLimiter(cConf, metricsCollectionService, new AtomicLong()::get);
+
+    LoggingContext worker = new WorkerLoggingContext("ns1", "app1", "worker1", "run1", "0");
+    Assert.assertTrue(rateLimiter.tryAcquire(createMessage(worker, Level.INFO)));
+    Assert.assertTrue(contexts.isEmpty());
+    Assert.assertFalse(rateLimiter.tryAcquire(createMessage(worker, Level.INFO)));
+
+    // The dropped event is counted for the program run that logged it
+    Assert.assertEquals(1, contexts.size());
+    Map<String, String> tags = contexts.get(0);
+    Assert.assertEquals("ns1", tags.get(Constants.Metrics.Tag.NAMESPACE));
+    Assert.assertEquals("app1", tags.get(Constants.Metrics.Tag.APP));
+    Assert.assertEquals("worker1", tags.get(Constants.Metrics.Tag.WORKER));
+    Assert.assertEquals("run1", tags.get(Constants.Metrics.Tag.RUN_ID));
+  }
+
+  @Test
+  public void testIdleBucketExpiry() {
+    CConfiguration cConf = CConfiguration.create();
+    cConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT, 10);
+
+    AtomicLong nanoTime = new AtomicLong();
+    LogRateLimiter rateLimiter = new LogRateLimiter(cConf, new NoOpMetricsCollectionService(), nanoTime::get);
+    for (int i = 0; i < 100; i++) {
+      LoggingContext context = new WorkerLoggingContext("ns1", "app1", "worker" + i, "run1", "0");
+      Assert.assertTrue(rateLimiter.tryAcquire(createMessage(context, Level.INFO)));
+    }
+    Assert.assertEquals(100, rateLimiter.getBucketCount());
+
+    // Only the buckets of programs that keep logging are retained
+    LoggingContext active = new WorkerLoggingContext("ns1", "app1", "worker0", "run1", "0");
+    for (int i = 0; i < 20; i++) {
+      nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+      Assert.assertTrue(rateLimiter.tryAcquire(createMessage(active, Level.INFO)));
+    }
+    Assert.assertEquals(1, rateLimiter.getBucketCount());
+  }
+
+  private LogMessage createMessage(LoggingContext loggingContext, Level level) {
+    LoggingEvent event = new LoggingEvent();
+    event.setLevel(level);
+    event.setLoggerName("test.logger");
+    event.setMessage("message");
+    event.setTimeStamp(System.currentTimeMillis());
+    return new LogMessage(event, loggingContext);
+  }
+}
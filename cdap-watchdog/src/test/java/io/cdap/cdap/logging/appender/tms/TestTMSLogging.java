@@ -16,7 +16,10 @@
 
 package io.cdap.cdap.logging.appender.tms;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -31,10 +34,12 @@ import io.cdap.cdap.common.guice.InMemoryDiscoveryModule;
 import io.cdap.cdap.common.logging.LoggingContext;
 import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
 import io.cdap.cdap.logging.appender.LogAppenderInitializer;
+import io.cdap.cdap.logging.appender.LogMessage;
 import io.cdap.cdap.logging.appender.LoggingTester;
 import io.cdap.cdap.logging.appender.kafka.LogPartitionType;
 import io.cdap.cdap.logging.context.LoggingContextHelper;
 import io.cdap.cdap.logging.context.MapReduceLoggingContext;
+import io.cdap.cdap.logging.context.WorkerLoggingContext;
 import io.cdap.cdap.logging.filter.Filter;
 import io.cdap.cdap.logging.serialize.LoggingEventSerializer;
 import io.cdap.cdap.messaging.MessageFetcher;
@@ -178,4 +183,56 @@ public class TestTMSLogging {
       Assert.assertEquals(String.format("Test log message %s arg1 arg2", i), loggingEvent.getFormattedMessage());
     }
   }
+
+  @Test
+  public void testRateLimitSummary() throws Exception {
+    // use a separate topic, so that the events are not counted by other tests
+    CConfiguration rateLimitConf = CConfiguration.copy(cConf);
+    rateLimitConf.set(Constants.Logging.TMS_TOPIC_PREFIX, "ratelimitlog");
+    rateLimitConf.setInt(Constants.Logging.NUM_PARTITIONS, 1);
+    rateLimitConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT, 1);
+    rateLimitConf.setInt(Constants.Logging.PUBLISH_RATE_LIMIT_SAMPLING_RATIO, 0);
+    rateLimitConf.setLong(Constants.Logging.PUBLISH_RATE_LIMIT_SUMMARY_INTERVAL_SECONDS, 0);
+    TopicId topicId = NamespaceId.SYSTEM.topic("ratelimitlog0");
+    client.createTopic(new TopicMetadata(topicId));
+
+    TMSLogAppender appender = new TMSLogAppender(rateLimitConf, client, new NoOpMetricsCollectionService());
+    appender.start();
+    try {
+      LoggerContext loggerContext = new LoggerContext();
+      ch.qos.logback.classic.Logger logger = loggerContext.getLogger("TestTMSLogging");
+      LoggingContext loggingContext = new WorkerLoggingContext("TKL_NS_1", "APP_1", "WORKER_1", "RUN1", "0");
+
+      // the first event is within the limit, the next two are dropped, and the warning reports the dropped events
+      appender.appendEvent(createMessage(logger, loggingContext, Level.INFO, "first"));
+      appender.appendEvent(createMessage(logger, loggingContext, Level.INFO, "dropped"));
+      appender.appendEvent(createMessage(logger, loggingContext, Level.INFO, "dropped"));
+      appender.appendEvent(createMessage(logger, loggingContext, Level.WARN, "warning"));
+    } finally {
+      appender.stop();
+    }
+
+    LoggingEventSerializer loggingEventSerializer = new LoggingEventSerializer();
+    List<String> messages = new ArrayList<>();
+    try (CloseableIterator<RawMessage> iterator = client.prepareFetch(topicId).fetch()) {
+      while (iterator.hasNext()) {
+        messages.add(loggingEventSerializer.fromBytes(ByteBuffer.wrap(iterator.next().getPayload()))
+                       .getFormattedMessage());
+      }
+    } finally {
+      client.deleteTopic(topicId);
+    }
+
+    Assert.assertEquals(3, messages.size());
+    Assert.assertEquals("first", messages.get(0));
+    Assert.assertTrue(messages.get(1).startsWith("Dropped 2 log events"));
+    Assert.assertEquals("warning", messages.get(2));
+  }
+
+  private LogMessage createMessage(ch.qos.logback.classic.Logger logger, LoggingContext loggingContext,
+                                   Level level, String message) {
+    LoggingEvent event = new LoggingEvent(ch.qos.logback.classic.Logger.class.getName(), logger, level,
+                                          message, null, null);
+    return new LogMessage(event, loggingContext);
+  }
 }
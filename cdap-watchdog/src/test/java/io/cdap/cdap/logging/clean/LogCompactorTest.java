@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2019-2018 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.clean;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import io.cdap.cdap.api.dataset.lib.CloseableIterator;
+import io.cdap.cdap.api.metrics.MetricsCollectionService;
+import io.cdap.cdap.common.conf.CConfiguration;
+import io.cdap.cdap.common.conf.Constants;
+import io.cdap.cdap.common.guice.ConfigModule;
+import io.cdap.cdap.common.guice.NonCustomLocationUnitTestModule;
+import io.cdap.cdap.common.metrics.NoOpMetricsCollectionService;
+import io.cdap.cdap.common.namespace.NamespaceQueryAdmin;
+import io.cdap.cdap.common.namespace.SimpleNamespaceQueryAdmin;
+import io.cdap.cdap.data.runtime.DataSetsModules;
+import io.cdap.cdap.data.runtime.StorageModule;
+import io.cdap.cdap.data.runtime.SystemDatasetRuntimeModule;
+import io.cdap.cdap.logging.LoggingConfiguration;
+import io.cdap.cdap.logging.appender.system.CDAPLogAppender;
+import io.cdap.cdap.logging.appender.system.LogPathIdentifier;
+import io.cdap.cdap.logging.filter.Filter;
+import io.cdap.cdap.logging.guice.LocalLogAppenderModule;
+import io.cdap.cdap.logging.meta.FileMetaDataReader;
+import io.cdap.cdap.logging.meta.FileMetaDataWriter;
+import io.cdap.cdap.logging.read.LogEvent;
+import io.cdap.cdap.logging.serialize.LoggingEventSerializer;
+import io.cdap.cdap.logging.write.LogLocation;
+import io.cdap.cdap.security.auth.context.AuthenticationContextModules;
+import io.cdap.cdap.security.authorization.AuthorizationEnforcementModule;
+import io.cdap.cdap.security.authorization.AuthorizationTestModule;
+import io.cdap.cdap.security.impersonation.DefaultOwnerAdmin;
+import io.cdap.cdap.security.impersonation.OwnerAdmin;
+import io.cdap.cdap.security.impersonation.UGIProvider;
+import io.cdap.cdap.security.impersonation.UnsupportedUGIProvider;
+import io.cdap.cdap.spi.data.StructuredTableAdmin;
+import io.cdap.cdap.spi.data.table.StructuredTableRegistry;
+import io.cdap.cdap.spi.data.transaction.TransactionRunner;
+import io.cdap.cdap.store.StoreDefinition;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.tephra.TransactionManager;
+import org.apache.tephra.runtime.TransactionModules;
+import org.apache.twill.filesystem.Location;
+import org.apache.twill.filesystem.LocationFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit-test for {@link LogCompactor}.
+ */
+public class LogCompactorTest {
+  @ClassRule
+  public static final TemporaryFolder TMP_FOLDER = new TemporaryFolder();
+
+  private static Injector injector;
+  private static TransactionManager txManager;
+
+  @BeforeClass
+  public static void setUpContext() throws Exception {
+    Configuration hConf = HBaseConfiguration.create();
+    final CConfiguration cConf = CConfiguration.create();
+    cConf.set(Constants.CFG_LOCAL_DATA_DIR, TMP_FOLDER.newFolder().getAbsolutePath());
+    String logBaseDir = cConf.get(LoggingConfiguration.LOG_BASE_DIR) + "/" + CDAPLogAppender.class.getSimpleName();
+    cConf.set(LoggingConfiguration.LOG_BASE_DIR, logBaseDir);
+
+    injector = Guice.createInjector(
+      new ConfigModule(cConf, hConf),
+      new NonCustomLocationUnitTestModule(),
+      new TransactionModules().getInMemoryModules(),
+      new LocalLogAppenderModule(),
+      new DataSetsModules().getInMemoryModules(),
+      new SystemDatasetRuntimeModule().getInMemoryModules(),
+      new AuthorizationTestModule(),
+      new AuthorizationEnforcementModule().getInMemoryModules(),
+      new AuthenticationContextModules().getNoOpModule(),
+      new StorageModule(),
+      new AbstractModule() {
+        @Override
+        protected void configure() {
+          bind(MetricsCollectionService.class).to(NoOpMetricsCollectionService.class);
+          bind(UGIProvider.class).to(UnsupportedUGIProvider.class);
+          bind(OwnerAdmin.class).to(DefaultOwnerAdmin.class);
+          bind(NamespaceQueryAdmin.class).to(SimpleNamespaceQueryAdmin.class);
+        }
+      }
+    );
+
+    txManager = injector.getInstance(TransactionManager.class);
+    txManager.startAndWait();
+    StructuredTableRegistry structuredTableRegistry = injector.getInstance(StructuredTableRegistry.class);
+    structuredTableRegistry.initialize();
+    StoreDefinition.LogFileMetaStore.createTables(injector.getInstance(StructuredTableAdmin.class), false);
+  }
+
+  @AfterClass
+  public static void cleanUp() {
+    txManager.stopAndWait();
+  }
+
+  @Test
+  public void testLogCompaction() throws Exception {
+    TransactionRunner transactionRunner = injector.getInstance(TransactionRunner.class);
+    LocationFactory locationFactory = injector.getInstance(LocationFactory.class);
+    FileMetaDataWriter fileMetaDataWriter = new FileMetaDataWriter(transactionRunner);
+    FileMetaDataReader fileMetaDataReader = injector.getInstance(FileMetaDataReader.class);
+    LogPathIdentifier logPathIdentifier = new LogPathIdentifier("testNs", "testApp", "testEntity");
+
+    long currentTime = System.currentTimeMillis();
+    long oldTime = currentTime - TimeUnit.HOURS.toMillis(2);
+    Location dirLocation = locationFactory.create("logs").append("compaction");
+    dirLocation.mkdirs();
+
+    // create 10 old files with 10 events each, where the event timestamps of adjacent files overlap
+    for (int i = 0; i < 10; i++) {
+      Location location = dirLocation.append("old" + i + ".avro");
+      createLogFile(location, oldTime + i * 10, 10);
+      fileMetaDataWriter.writeMetaData(logPathIdentifier, oldTime + i * 10, oldTime + i, location);
+    }
+    // create 2 recent files, which should not be compacted
+    for (int i = 0; i < 2; i++) {
+      Location location = dirLocation.append("new" + i + ".avro");
+      createLogFile(location, currentTime + i * 10, 10);
+      fileMetaDataWriter.writeMetaData(logPathIdentifier, currentTime + i * 10, currentTime + i, location);
+    }
+
+    long retentionMs = TimeUnit.DAYS.toMillis(1);
+    LogCompactor logCompactor = new LogCompactor(transactionRunner, fileMetaDataWriter, locationFactory, "",
+                                                 TimeUnit.HOURS.toMillis(1), 1024 * 1024 * 1024, 1024, 100,
+                                                 retentionMs, TimeUnit.HOURS.toMillis(1));
+    logCompactor.run();
+
+    List<LogLocation> files = fileMetaDataReader.listFiles(logPathIdentifier, 0, Long.MAX_VALUE);
+    Assert.assertEquals(3, files.size());
+
+    // the compacted file has the earliest event time and the latest creation time of the merged files
+    LogLocation compacted = files.get(0);
+    Assert.assertEquals(oldTime, compacted.getEventTimeMs());
+    Assert.assertEquals(oldTime + 9, compacted.getFileCreationTimeMs());
+    Assert.assertTrue(compacted.getLocation().exists());
+
+    // all events are in the compacted file, sorted by timestamp
+    List<Long> timestamps = new ArrayList<>();
+    try (CloseableIterator<LogEvent> iter = compacted.readLog(Filter.EMPTY_FILTER, 0, Long.MAX_VALUE,
+                                                              Integer.MAX_VALUE)) {
+      while (iter.hasNext()) {
+        timestamps.add(iter.next().getLoggingEvent().getTimeStamp());
+      }
+    }
+    Assert.assertEquals(100, timestamps.size());
+    List<Long> sorted = new ArrayList<>(timestamps);
+    sorted.sort(Long::compare);
+    Assert.assertEquals(sorted, timestamps);
+
+    // the merged files are kept for readers that already opened them, until the delete delay has passed
+    FileMetadataCleaner fileMetadataCleaner = new FileMetadataCleaner(transactionRunner);
+    new LogCleaner(fileMetadataCleaner, locationFactory, retentionMs, 100).run();
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(dirLocation.append("old" + i + ".avro").exists());
+    }
+
+    // two hours later, the log cleaner deletes the merged files, while the recent files are kept
+    new LogCleaner(fileMetadataCleaner, locationFactory, retentionMs - TimeUnit.HOURS.toMillis(2), 100).run();
+    for (int i = 0; i < 10; i++) {
+      Assert.assertFalse(dirLocation.append("old" + i + ".avro").exists());
+    }
+    for (int i = 0; i < 2; i++) {
+      Assert.assertTrue(dirLocation.append("new" + i + ".avro").exists());
+    }
+    Assert.assertEquals(files.size(), fileMetaDataReader.listFiles(logPathIdentifier, 0, Long.MAX_VALUE).size());
+    Assert.assertTrue(compacted.getLocation().exists());
+
+    // running compaction again is a no-op, as there is only one old file
+    logCompactor.run();
+    List<LogLocation> newFiles = fileMetaDataReader.listFiles(logPathIdentifier, 0, Long.MAX_VALUE);
+    Assert.assertEquals(files.size(), newFiles.size());
+    for (int i = 0; i < files.size(); i++) {
+      Assert.assertEquals(files.get(i).getLocation(), newFiles.get(i).getLocation());
+    }
+  }
+
+  private void createLogFile(Location location, long startTime, int events) throws IOException {
+    LoggingEventSerializer serializer = new LoggingEventSerializer();
+    try (DataFileWriter<GenericRecord> writer =
+           new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(serializer.getAvroSchema()))) {
+      writer.create(serializer.getAvroSchema(), location.getOutputStream());
+      for (int i = 0; i < events; i++) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLevel(Level.INFO);
+        event.setLoggerName("test.logger");
+        event.setMessage("message " + i);
+        // every file has events that are later than the first events of the next file
+        event.setTimeStamp(startTime + i * 2);
+        writer.append(serializer.toGenericRecord(event));
+      }
+    }
+  }
+}
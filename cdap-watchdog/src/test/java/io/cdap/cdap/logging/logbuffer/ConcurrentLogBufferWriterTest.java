@@ -104,12 +104,28 @@ public class ConcurrentLogBufferWriterTest {
 
   @Test
   public void testConcurrentWrites() throws Exception {
-    int threadCount = 20;
+    CConfiguration cConf = CConfiguration.create();
+    String absolutePath = TMP_FOLDER.newFolder().getAbsolutePath();
+    cConf.set(Constants.LogBuffer.LOG_BUFFER_BASE_DIR, absolutePath);
+    cConf.setLong(Constants.LogBuffer.LOG_BUFFER_MAX_FILE_SIZE_BYTES, 100000);
+    testConcurrentWrites(cConf, absolutePath);
+  }
 
+  @Test
+  public void testGroupCommitWrites() throws Exception {
     CConfiguration cConf = CConfiguration.create();
     String absolutePath = TMP_FOLDER.newFolder().getAbsolutePath();
     cConf.set(Constants.LogBuffer.LOG_BUFFER_BASE_DIR, absolutePath);
     cConf.setLong(Constants.LogBuffer.LOG_BUFFER_MAX_FILE_SIZE_BYTES, 100000);
+    // small batches with linger and fsync, so that requests are split across multiple group commits
+    cConf.setLong(Constants.LogBuffer.LOG_BUFFER_GROUP_COMMIT_MAX_BYTES, 1024);
+    cConf.setLong(Constants.LogBuffer.LOG_BUFFER_GROUP_COMMIT_LINGER_MS, 5);
+    cConf.setBoolean(Constants.LogBuffer.LOG_BUFFER_SYNC_ENABLED, true);
+    testConcurrentWrites(cConf, absolutePath);
+  }
+
+  private void testConcurrentWrites(CConfiguration cConf, String absolutePath) throws Exception {
+    int threadCount = 20;
 
     LoggerContext loggerContext = LogPipelineTestUtil
       .createLoggerContext("WARN", ImmutableMap.of("test.logger", "INFO"), MockAppender.class.getName());
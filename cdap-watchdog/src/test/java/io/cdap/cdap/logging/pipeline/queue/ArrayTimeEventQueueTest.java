@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2019 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.cdap.logging.pipeline.queue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit-test for {@link ArrayTimeEventQueue}.
+ */
+public class ArrayTimeEventQueueTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ArrayTimeEventQueueTest.class);
+
+  @Test
+  public void testOffsets() {
+    ArrayTimeEventQueue<String, Integer> eventQueue = new ArrayTimeEventQueue<>(ImmutableSet.of(1, 2));
+
+    // Insert 6 events, with timestamps going back and forth
+    eventQueue.add("m7", 7L, 10, 1, 0);
+    eventQueue.add("m5", 5L, 10, 2, 1);
+    eventQueue.add("m10", 10L, 10, 1, 2);
+    eventQueue.add("m11", 11L, 10, 2, 3);
+    eventQueue.add("m2", 2L, 10, 1, 4);
+    eventQueue.add("m8", 8L, 10, 2, 5);
+
+    Assert.assertEquals(60, eventQueue.getEventSize());
+    Assert.assertEquals("m2", eventQueue.first());
+
+    TimeEventQueue.EventIterator<String, Integer> iterator = eventQueue.iterator();
+
+    Assert.assertEquals("m2", iterator.next());
+    Assert.assertEquals(1, iterator.getPartition());
+    Assert.assertEquals(4, iterator.getOffset().intValue());
+    iterator.remove();
+    Assert.assertEquals(50, eventQueue.getEventSize());
+    Assert.assertEquals(0, eventQueue.getSmallestOffset(1).intValue());
+    Assert.assertEquals(1, eventQueue.getSmallestOffset(2).intValue());
+
+    Assert.assertEquals("m5", iterator.next());
+    iterator.remove();
+    Assert.assertEquals("m7", iterator.next());
+    iterator.remove();
+    Assert.assertEquals(2, eventQueue.getSmallestOffset(1).intValue());
+    Assert.assertEquals(3, eventQueue.getSmallestOffset(2).intValue());
+
+    // Skip m8 without removing it
+    Assert.assertEquals("m8", iterator.next());
+    Assert.assertEquals("m10", iterator.next());
+    iterator.remove();
+    Assert.assertTrue(eventQueue.isEmpty(1));
+    Assert.assertEquals(2, eventQueue.size());
+    Assert.assertEquals("m8", eventQueue.first());
+
+    // A new iterator should start from the skipped event again
+    Assert.assertEquals(ImmutableList.of("m8", "m11"), Lists.newArrayList(eventQueue));
+    Assert.assertEquals(3, eventQueue.getSmallestOffset(2).intValue());
+  }
+
+  @Test
+  public void testDuplicates() {
+    ArrayTimeEventQueue<String, Integer> eventQueue = new ArrayTimeEventQueue<>(Collections.singleton(1));
+    eventQueue.add("m1", 1L, 10, 1, 1);
+    eventQueue.add("m2", 2L, 10, 1, 2);
+
+    // Adding the same event again is a no-op
+    eventQueue.add("m1", 1L, 10, 1, 1);
+    Assert.assertEquals(2, eventQueue.size());
+    Assert.assertEquals(20, eventQueue.getEventSize());
+
+    // Adding an event with a smaller offset than the existing ones
+    eventQueue.add("m0", 3L, 10, 1, 0);
+    Assert.assertEquals(0, eventQueue.getSmallestOffset(1).intValue());
+    Assert.assertEquals(ImmutableList.of("m1", "m2", "m0"), Lists.newArrayList(eventQueue));
+
+    try {
+      eventQueue.add("m3", 3L, 10, 1, 2);
+      Assert.fail("Expected failure when adding different event with the same offset");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testSameAsTimeEventQueue() {
+    // log the seed, so that a failure can be reproduced
+    long seed = System.nanoTime();
+    LOG.info("Random seed for testSameAsTimeEventQueue: {}", seed);
+    Random random = new Random(seed);
+    List<Integer> partitions = ImmutableList.of(0, 1, 2);
+    TimeEventQueue<String, Long> expectedQueue = new TimeEventQueue<>(partitions);
+    ArrayTimeEventQueue<String, Long> eventQueue = new ArrayTimeEventQueue<>(partitions);
+    long[] nextOffsets = new long[partitions.size()];
+
+    for (int i = 0; i < 10000; i++) {
+      if (random.nextInt(3) > 0) {
+        int partition = random.nextInt(partitions.size());
+        long offset = nextOffsets[partition]++;
+        long timestamp = random.nextInt(100);
+        String event = partition + ":" + offset;
+        expectedQueue.add(event, timestamp, 10, partition, offset);
+        eventQueue.add(event, timestamp, 10, partition, offset);
+      } else {
+        // Remove some events from the head, skipping some of them
+        TimeEventQueue.EventIterator<String, Long> expectedIterator = expectedQueue.iterator();
+        TimeEventQueue.EventIterator<String, Long> iterator = eventQueue.iterator();
+        for (int j = random.nextInt(10); j > 0 && expectedIterator.hasNext(); j--) {
+          Assert.assertTrue(iterator.hasNext());
+          Assert.assertEquals(expectedIterator.next(), iterator.next());
+          Assert.assertEquals(expectedIterator.getOffset(), iterator.getOffset());
+          if (random.nextBoolean()) {
+            expectedIterator.remove();
+            iterator.remove();
+          }
+        }
+      }
+
+      Assert.assertEquals(expectedQueue.size(), eventQueue.size());
+      Assert.assertEquals(expectedQueue.getEventSize(), eventQueue.getEventSize());
+      for (int partition : partitions) {
+        Assert.assertEquals(expectedQueue.isEmpty(partition), eventQueue.isEmpty(partition));
+        if (!expectedQueue.isEmpty(partition)) {
+          Assert.assertEquals(expectedQueue.getSmallestOffset(partition), eventQueue.getSmallestOffset(partition));
+        }
+      }
+    }
+    Assert.assertEquals(Lists.newArrayList(expectedQueue), Lists.newArrayList(eventQueue));
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testInvalidPartition() {
+    ArrayTimeEventQueue<String, Integer> eventQueue = new ArrayTimeEventQueue<>(Collections.singleton(1));
+    eventQueue.add("test", 1L, 10, 2, 0);
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testIllegalRemove() {
+    ArrayTimeEventQueue<String, Integer> eventQueue = new ArrayTimeEventQueue<>(Collections.singleton(1));
+    eventQueue.add("test", 1L, 10, 1, 0);
+    Iterator<String> iterator = eventQueue.iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.remove();
+  }
+
+  @Ignore
+  @Test
+  public void testSpeed() {
+    List<Integer> partitions = ImmutableList.of(0, 1, 2, 3);
+    int events = 2000000;
+
+    for (int run = 0; run < 5; run++) {
+      TimeEventQueue<String, Long> treeQueue = new TimeEventQueue<>(partitions);
+      long startTime = System.nanoTime();
+      long[] offsets = new long[partitions.size()];
+      Random random = new Random(0);
+      for (int i = 0; i < events; i++) {
+        int partition = random.nextInt(partitions.size());
+        treeQueue.add("event", i / 10 + random.nextInt(100), 10, partition, offsets[partition]++);
+        if (i % 1000 == 999) {
+          Iterator<String> iterator = treeQueue.iterator();
+          for (int j = 0; j < 500 && iterator.hasNext(); j++) {
+            iterator.next();
+            iterator.remove();
+          }
+        }
+      }
+      long endTime = System.nanoTime();
+      LOG.info("TimeEventQueue time spent: {} ms", TimeUnit.NANOSECONDS.toMillis(endTime - startTime));
+
+      ArrayTimeEventQueue<String, Long> arrayQueue = new ArrayTimeEventQueue<>(partitions);
+      startTime = System.nanoTime();
+      offsets = new long[partitions.size()];
+      random = new Random(0);
+      for (int i = 0; i < events; i++) {
+        int partition = random.nextInt(partitions.size());
+        arrayQueue.add("event", i / 10 + random.nextInt(100), 10, partition, offsets[partition]++);
+        if (i % 1000 == 999) {
+          Iterator<String> iterator = arrayQueue.iterator();
+          for (int j = 0; j < 500 && iterator.hasNext(); j++) {
+            iterator.next();
+            iterator.remove();
+          }
+        }
+      }
+      endTime = System.nanoTime();
+      LOG.info("ArrayTimeEventQueue time spent: {} ms", TimeUnit.NANOSECONDS.toMillis(endTime - startTime));
+    }
+  }
+}